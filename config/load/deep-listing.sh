@@ -0,0 +1,35 @@
+#!/usr/bin/env sh
+# Times fetching successive pages of the caller's documents, by page number and by cursor, and prints how
+# long each depth took in both modes. Page numbers skip every document before the page, and count them all;
+# cursors seek past the last listed document, so their timings should stay flat as the depth grows.
+# Seed the caller with many more documents than pages x size before running it.
+#
+# Usage: TOKEN=<access token> ./deep-listing.sh [pages] [size]
+set -eu
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+PAGES="${1:-200}"
+SIZE="${2:-50}"
+
+: "${TOKEN:?TOKEN must hold a bearer token}"
+command -v jq >/dev/null || { echo "jq is required" >&2; exit 1; }
+
+fetch() {
+    curl -s -o "$2" -w '%{time_total}' -H "Authorization: Bearer $TOKEN" "$1"
+}
+
+body=$(mktemp)
+trap 'rm -f "$body"' EXIT
+
+cursor=""
+page=0
+echo "page page_mode_s cursor_mode_s"
+while [ "$page" -lt "$PAGES" ]; do
+    by_page=$(fetch "$BASE_URL/api/Documents?page=$page&size=$SIZE&sort=createdAt,desc" /dev/null)
+    by_cursor=$(fetch "$BASE_URL/api/Documents?size=$SIZE&cursor=$cursor" "$body")
+    echo "$page $by_page $by_cursor"
+
+    cursor=$(jq -r '.NextCursor // empty' "$body")
+    [ -n "$cursor" ] || break
+    page=$((page + 1))
+done
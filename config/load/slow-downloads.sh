@@ -0,0 +1,24 @@
+#!/usr/bin/env sh
+# Holds many rate-limited downloads of one document open at once and reports how many completed.
+# Run it once with SPRING_THREADS_VIRTUAL_ENABLED=false and once with true (on a Java 21 image),
+# against the same document, to compare platform and virtual thread modes.
+#
+# Usage: TOKEN=<access token> DOC_ID=<document id> ./slow-downloads.sh [clients] [rate]
+set -eu
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+CLIENTS="${1:-2000}"
+RATE="${2:-64k}"
+
+: "${TOKEN:?TOKEN must hold a bearer token}"
+: "${DOC_ID:?DOC_ID must name a document of the token's user}"
+
+started=$(date +%s)
+results=$(seq "$CLIENTS" | xargs -P "$CLIENTS" -I{} \
+    curl -s -o /dev/null -w '%{http_code}\n' --limit-rate "$RATE" --max-time 600 \
+        -H "Authorization: Bearer $TOKEN" \
+        "$BASE_URL/api/Documents/$DOC_ID/content" || true)
+elapsed=$(( $(date +%s) - started ))
+
+ok=$(printf '%s\n' "$results" | grep -c '^200$' || true)
+echo "clients=$CLIENTS rate=$RATE completed=$ok failed=$((CLIENTS - ok)) elapsed=${elapsed}s"
@@ -0,0 +1,47 @@
+package com.niolikon.taskboard.dropstack.config;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the persisted entities once the application context is up, leaving those
+ * already in place untouched. Boot keeps Spring Data's automatic index creation off, and without them every
+ * list, lookup by owner or audit trail read turns into a collection scan as the data grows. An existing
+ * index with the same name but a different definition fails the startup instead of being silently kept.
+ */
+@Component
+@ConditionalOnProperty(name = "documents.indexes.create-on-startup", havingValue = "true", matchIfMissing = true)
+public class MongoIndexes {
+    static final List<Class<?>> INDEXED_ENTITIES = List.of(
+            DocumentEntity.class,
+            DocumentAuditEntity.class,
+            DocumentUploadSessionEntity.class,
+            DocumentPresignedUploadEntity.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexes(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(indexOps::ensureIndex);
+        }
+    }
+}
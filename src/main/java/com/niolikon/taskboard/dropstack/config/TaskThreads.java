@@ -0,0 +1,35 @@
+package com.niolikon.taskboard.dropstack.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads of the pools services own, following {@code spring.threads.virtual.enabled} like Boot
+ * does for Tomcat and the applicationTaskExecutor: virtual threads on Java 21 and later when enabled,
+ * platform threads otherwise. Pool sizes still bound how many tasks run at once, but a task blocked on
+ * MinIO or MongoDB no longer holds an OS thread.
+ */
+@Component
+public class TaskThreads {
+
+    private final boolean virtual;
+
+    public TaskThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public ThreadFactory newThreadFactory(String threadNamePrefix) {
+        return virtual
+                ? new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(threadNamePrefix);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+}
@@ -0,0 +1,53 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.storage.compression.ContentCodec;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reads the content codings a client accepts from its {@code Accept-Encoding} header.
+ */
+final class AcceptEncodings {
+    private static final String ANY_ENCODING = "*";
+
+    private AcceptEncodings() {
+    }
+
+    static Set<String> parse(String acceptEncoding) {
+        Set<String> accepted = new HashSet<>();
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return accepted;
+        }
+
+        for (String entry : acceptEncoding.split(",")) {
+            String[] params = entry.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.isEmpty() || isRefused(params)) {
+                continue;
+            }
+            if (ANY_ENCODING.equals(coding)) {
+                Arrays.stream(ContentCodec.values()).map(ContentCodec::getContentEncoding).forEach(accepted::add);
+            } else {
+                accepted.add(coding);
+            }
+        }
+        return accepted;
+    }
+
+    private static boolean isRefused(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=") || param.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim()) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Evaluates {@code If-None-Match} and {@code If-Modified-Since} against the validators kept on a document,
+ * so a revalidation is answered without reading its content.
+ */
+final class ConditionalRequests {
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ConditionalRequests() {
+    }
+
+    static boolean isConditional(String ifNoneMatch, String ifModifiedSince) {
+        return (ifNoneMatch != null && !ifNoneMatch.isBlank())
+                || (ifModifiedSince != null && !ifModifiedSince.isBlank());
+    }
+
+    /**
+     * If-None-Match wins over If-Modified-Since and is compared weakly, as both representations of a
+     * content (stored encoded or decoded) share the same opaque tag.
+     */
+    static boolean isNotModified(String ifNoneMatch, String ifModifiedSince, String etag, Instant lastModified) {
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            if (etag == null) {
+                return false;
+            }
+            String current = opaqueTag(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (ANY_ETAG.equals(tag) || opaqueTag(tag).equals(current)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ifModifiedSince != null && !ifModifiedSince.isBlank() && lastModified != null) {
+            try {
+                Instant since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    static String strongETag(String etag) {
+        return "\"" + opaqueTag(etag) + "\"";
+    }
+
+    /**
+     * Tag of a representation that is equivalent to, but not byte-identical with, the stored content.
+     */
+    static String weakETag(String etag) {
+        return WEAK_PREFIX + strongETag(etag);
+    }
+
+    /**
+     * Content served still encoded is only equivalent to the stored bytes, hence the weak tag.
+     */
+    static void withValidators(ResponseEntity.HeadersBuilder<?> builder, String etag, Instant lastModified, boolean encoded) {
+        if (etag != null) {
+            builder.header(HttpHeaders.ETAG, encoded ? weakETag(etag) : strongETag(etag));
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+    }
+
+    private static String opaqueTag(String etag) {
+        String tag = etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+        return tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")
+                ? tag.substring(1, tag.length() - 1)
+                : tag;
+    }
+}
@@ -4,17 +4,50 @@ public class DocumentApiPaths {
     private DocumentApiPaths() {}
 
     public static final String PATH_VARIABLE_DOCUMENT_ID = "id";
+    public static final String PATH_VARIABLE_UPLOAD_SESSION_ID = "sessionId";
+    public static final String PATH_VARIABLE_CHUNK_NUMBER = "chunkNumber";
+    public static final String PATH_VARIABLE_PRESIGNED_UPLOAD_ID = "uploadId";
     public static final String PART_NAME_FILE = "file";
     public static final String PART_NAME_METADATA = "metadata";
+    public static final String PART_NAME_FILES = "files";
+    public static final String PARAM_NAME_CURSOR = "cursor";
+    public static final String PARAM_NAME_FIELDS = "fields";
+    public static final String MEDIA_TYPE_MERGE_PATCH_JSON = "application/merge-patch+json";
 
     public static final String MAPPING_PATH_DOCUMENT_BASE = "/api/Documents";
+    public static final String MAPPING_PATH_DOCUMENT_ASYNC_BASE = MAPPING_PATH_DOCUMENT_BASE + "/async";
+    public static final String MAPPING_PATH_DOCUMENT_UPLOAD_SESSION_BASE = MAPPING_PATH_DOCUMENT_BASE + "/uploads";
+    public static final String MAPPING_PATH_DOCUMENT_STREAM = "/stream";
+    public static final String MAPPING_PATH_DOCUMENT_BATCH = "/batch";
+    public static final String MAPPING_PATH_DOCUMENT_ARCHIVE = "/archive";
     public static final String MAPPING_PATH_DOCUMENT_BY_ID = "/{" + PATH_VARIABLE_DOCUMENT_ID + "}";
     public static final String MAPPING_PATH_DOCUMENT_CONTENT_BY_ID = "/{" + PATH_VARIABLE_DOCUMENT_ID + "}/content";
     public static final String MAPPING_PATH_DOCUMENT_CHECKIN_BY_ID = "/{" + PATH_VARIABLE_DOCUMENT_ID + "}/checkin";
+    public static final String MAPPING_PATH_DOCUMENT_PREVIEW_BY_ID = "/{" + PATH_VARIABLE_DOCUMENT_ID + "}/preview";
+    public static final String MAPPING_PATH_DOCUMENT_CONTENT_URL_BY_ID = "/{" + PATH_VARIABLE_DOCUMENT_ID + "}/content-url";
+    public static final String MAPPING_PATH_DOCUMENT_PRESIGNED_UPLOADS = "/presigned-uploads";
+    public static final String MAPPING_PATH_DOCUMENT_PRESIGNED_UPLOAD_COMPLETE = MAPPING_PATH_DOCUMENT_PRESIGNED_UPLOADS + "/{" + PATH_VARIABLE_PRESIGNED_UPLOAD_ID + "}/complete";
+    public static final String MAPPING_PATH_UPLOAD_SESSION_BY_ID = "/{" + PATH_VARIABLE_UPLOAD_SESSION_ID + "}";
+    public static final String MAPPING_PATH_UPLOAD_SESSION_CHUNK = "/{" + PATH_VARIABLE_UPLOAD_SESSION_ID + "}/chunks/{" + PATH_VARIABLE_CHUNK_NUMBER + "}";
+    public static final String MAPPING_PATH_UPLOAD_SESSION_COMPLETE = "/{" + PATH_VARIABLE_UPLOAD_SESSION_ID + "}/complete";
 
     public static final String API_PATH_DOCUMENT_BASE = MAPPING_PATH_DOCUMENT_BASE;
+    public static final String API_PATH_DOCUMENT_STREAM = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_STREAM;
+    public static final String API_PATH_DOCUMENT_BATCH = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_BATCH;
+    public static final String API_PATH_DOCUMENT_ARCHIVE = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_ARCHIVE;
     public static final String API_PATH_DOCUMENT_BY_ID = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_BY_ID;
     public static final String API_PATH_DOCUMENT_CONTENT_BY_ID = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_CONTENT_BY_ID;
+    public static final String API_PATH_DOCUMENT_PREVIEW_BY_ID = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_PREVIEW_BY_ID;
+    public static final String API_PATH_DOCUMENT_ASYNC_BASE = MAPPING_PATH_DOCUMENT_ASYNC_BASE;
+    public static final String API_PATH_DOCUMENT_ASYNC_BY_ID = MAPPING_PATH_DOCUMENT_ASYNC_BASE + MAPPING_PATH_DOCUMENT_BY_ID;
+    public static final String API_PATH_DOCUMENT_ASYNC_CONTENT_BY_ID = MAPPING_PATH_DOCUMENT_ASYNC_BASE + MAPPING_PATH_DOCUMENT_CONTENT_BY_ID;
+    public static final String API_PATH_DOCUMENT_CONTENT_URL_BY_ID = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_CONTENT_URL_BY_ID;
+    public static final String API_PATH_DOCUMENT_PRESIGNED_UPLOADS = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_PRESIGNED_UPLOADS;
+    public static final String API_PATH_DOCUMENT_PRESIGNED_UPLOAD_COMPLETE = MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_PRESIGNED_UPLOAD_COMPLETE;
+    public static final String API_PATH_DOCUMENT_UPLOAD_SESSION_BASE = MAPPING_PATH_DOCUMENT_UPLOAD_SESSION_BASE;
+    public static final String API_PATH_UPLOAD_SESSION_BY_ID = MAPPING_PATH_DOCUMENT_UPLOAD_SESSION_BASE + MAPPING_PATH_UPLOAD_SESSION_BY_ID;
+    public static final String API_PATH_UPLOAD_SESSION_CHUNK = MAPPING_PATH_DOCUMENT_UPLOAD_SESSION_BASE + MAPPING_PATH_UPLOAD_SESSION_CHUNK;
+    public static final String API_PATH_UPLOAD_SESSION_COMPLETE = MAPPING_PATH_DOCUMENT_UPLOAD_SESSION_BASE + MAPPING_PATH_UPLOAD_SESSION_COMPLETE;
 
     public static final String SECURITY_PATTERN_DOCUMENT_EXACT = MAPPING_PATH_DOCUMENT_BASE;
     public static final String SECURITY_PATTER_DOCUMENT_ALL = MAPPING_PATH_DOCUMENT_BASE + "/**";
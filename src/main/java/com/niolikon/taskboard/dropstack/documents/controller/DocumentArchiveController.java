@@ -0,0 +1,54 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentArchiveReadDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentArchiveService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+
+@RestController
+@RequestMapping(MAPPING_PATH_DOCUMENT_BASE)
+public class DocumentArchiveController {
+    static final String CONTENT_TYPE_ZIP = "application/zip";
+
+    private final IDocumentArchiveService archiveService;
+
+    public DocumentArchiveController(IDocumentArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    @GetMapping(MAPPING_PATH_DOCUMENT_ARCHIVE)
+    public ResponseEntity<StreamingResponseBody> archive(@AuthenticationPrincipal Jwt jwt,
+                                                         @RequestParam(value = "ids", required = false) List<String> ids,
+                                                         @RequestParam(value = "tag", required = false) String tag) {
+        String ownerUid = jwt.getSubject();
+
+        DocumentArchiveReadDto archive = archiveService.archive(ownerUid, ids, tag);
+
+        String cd = ContentDisposition.attachment()
+                .filename(archive.getFilename(), StandardCharsets.UTF_8)
+                .build()
+                .toString();
+
+        // No Content-Length: the archive is written as its entries are fetched
+        StreamingResponseBody body = out -> archive.getContent().writeTo(out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, cd)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .header(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_ZIP)
+                .body(body);
+    }
+}
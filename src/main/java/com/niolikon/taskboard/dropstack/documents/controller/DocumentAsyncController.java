@@ -0,0 +1,176 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.documents.dto.*;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentAsyncService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static org.springframework.http.ResponseEntity.noContent;
+
+/**
+ * Content operations backed by the non-blocking storage client: the servlet thread is released
+ * while MinIO works, and downloads are relayed chunk by chunk without a thread per transfer.
+ */
+@RestController
+@RequestMapping(MAPPING_PATH_DOCUMENT_ASYNC_BASE)
+public class DocumentAsyncController {
+
+    private final IDocumentAsyncService documentAsyncService;
+    private final Executor contentWriteExecutor;
+    private final String cacheControl;
+
+    public DocumentAsyncController(IDocumentAsyncService documentAsyncService,
+                                   @Qualifier("applicationTaskExecutor") Executor contentWriteExecutor,
+                                   @Value("${documents.http.cache-control:private, no-cache}") String cacheControl) {
+        this.documentAsyncService = documentAsyncService;
+        this.contentWriteExecutor = contentWriteExecutor;
+        this.cacheControl = cacheControl;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<DocumentReadDto>> create(@AuthenticationPrincipal Jwt jwt,
+                                                                     @RequestParam(PART_NAME_FILE) MultipartFile file,
+                                                                     @Valid @RequestPart(PART_NAME_METADATA) DocumentCreateMetadataDto metadata,
+                                                                     ServletUriComponentsBuilder uriComponentsBuilder) {
+        if (file == null || file.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        String ownerUid = jwt.getSubject();
+
+        DocumentCreateContentDto content = DocumentCreateContentDto.builder()
+                .source(file)
+                .size(file.getSize())
+                .originalFilename(file.getOriginalFilename())
+                .build();
+
+        return documentAsyncService.create(ownerUid, metadata, content)
+                .thenApply(created -> {
+                    URI location = uriComponentsBuilder
+                            .path(MAPPING_PATH_DOCUMENT_BY_ID)
+                            .buildAndExpand(created.getId())
+                            .toUri();
+
+                    return ResponseEntity
+                            .created(location)
+                            .body(created);
+                });
+    }
+
+    @GetMapping(MAPPING_PATH_DOCUMENT_CONTENT_BY_ID)
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> download(@AuthenticationPrincipal Jwt jwt,
+                                                                           @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id,
+                                                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                           @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                                           HttpServletResponse response) {
+        String ownerUid = jwt.getSubject();
+        withCacheControl(response);
+
+        return unlessNotModified(ownerUid, id, ifNoneMatch, ifModifiedSince, () ->
+                documentAsyncService.download(ownerUid, id, AcceptEncodings.parse(acceptEncoding))
+                        .thenApply(dl -> {
+                            ResponseBodyEmitter body = new PublisherResponseBodyEmitter(dl.getPublisher(), contentWriteExecutor);
+                            return contentHeaders(dl.getFilename(), dl.getContentType(), dl.getContentLength(), dl.getContentEncoding(),
+                                    dl.getEtag(), dl.getLastModified())
+                                    .body(body);
+                        }));
+    }
+
+    @RequestMapping(method = RequestMethod.HEAD, path = MAPPING_PATH_DOCUMENT_CONTENT_BY_ID)
+    public CompletableFuture<ResponseEntity<Void>> stat(@AuthenticationPrincipal Jwt jwt,
+                                                        @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                        @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                        HttpServletResponse response) {
+        String ownerUid = jwt.getSubject();
+        withCacheControl(response);
+
+        return unlessNotModified(ownerUid, id, ifNoneMatch, ifModifiedSince, () ->
+                documentAsyncService.stat(ownerUid, id, AcceptEncodings.parse(acceptEncoding))
+                        .thenApply(st -> contentHeaders(st.getFilename(), st.getContentType(), st.getContentLength(), st.getContentEncoding(),
+                                st.getEtag(), st.getLastModified())
+                                .build()));
+    }
+
+    @DeleteMapping(MAPPING_PATH_DOCUMENT_BY_ID)
+    public CompletableFuture<ResponseEntity<Void>> delete(@AuthenticationPrincipal Jwt jwt,
+                                                          @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id) {
+        String ownerUid = jwt.getSubject();
+        return documentAsyncService.delete(ownerUid, id)
+                .thenApply(ignored -> noContent().build());
+    }
+
+    /**
+     * Revalidation is answered from the document record, as {@link DocumentController#download} does:
+     * storage is only reached once the content changed.
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> unlessNotModified(String ownerUid, String id, String ifNoneMatch, String ifModifiedSince,
+                                                                       Supplier<CompletableFuture<ResponseEntity<T>>> serve) {
+        if (!ConditionalRequests.isConditional(ifNoneMatch, ifModifiedSince)) {
+            return serve.get();
+        }
+        return documentAsyncService.read(ownerUid, id)
+                .thenCompose(current -> {
+                    if (!ConditionalRequests.isNotModified(ifNoneMatch, ifModifiedSince, current.getEtag(), current.getUpdatedAt())) {
+                        return serve.get();
+                    }
+                    var notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    ConditionalRequests.withValidators(notModified, current.getEtag(), current.getUpdatedAt(), false);
+                    return CompletableFuture.completedFuture(notModified.<T>build());
+                });
+    }
+
+    /**
+     * Written while the request is still on its first dispatch: Spring Security fills in its no-cache defaults once that
+     * dispatch returns, unless a Cache-Control is already there, and entity headers would only be added next to them.
+     */
+    private void withCacheControl(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+    }
+
+    private static ResponseEntity.BodyBuilder contentHeaders(String filename, String contentType, Long contentLength,
+                                                             String contentEncoding, String etag, Instant lastModified) {
+        String cd = ContentDisposition.attachment()
+                .filename(filename, StandardCharsets.UTF_8)
+                .build()
+                .toString();
+
+        var builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, cd)
+                .header(HttpHeaders.CONTENT_TYPE, contentType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ConditionalRequests.withValidators(builder, etag, lastModified, contentEncoding != null);
+
+        if (contentEncoding != null) {
+            builder = builder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        if (contentLength != null && contentLength >= 0) {
+            builder = builder.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,56 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentBatchCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentBatchItemResultDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentBatchService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+
+@RestController
+@RequestMapping(MAPPING_PATH_DOCUMENT_BASE)
+public class DocumentBatchController {
+
+    private final IDocumentBatchService batchService;
+
+    public DocumentBatchController(IDocumentBatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    @PostMapping(value = MAPPING_PATH_DOCUMENT_BATCH, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<DocumentBatchItemResultDto>> createAll(@AuthenticationPrincipal Jwt jwt,
+                                                                      @RequestParam(PART_NAME_FILES) List<MultipartFile> files,
+                                                                      @Valid @RequestPart(PART_NAME_METADATA) DocumentBatchCreateMetadataDto metadata) {
+        if (files.stream().anyMatch(MultipartFile::isEmpty)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String ownerUid = jwt.getSubject();
+
+        List<DocumentCreateContentDto> contents = files.stream()
+                .map(file -> DocumentCreateContentDto.builder()
+                        .source(file)
+                        .size(file.getSize())
+                        .originalFilename(file.getOriginalFilename())
+                        .build())
+                .toList();
+
+        List<DocumentBatchItemResultDto> results = batchService.createAll(ownerUid, metadata.getItems(), contents);
+
+        // All created is a plain 201; a partial outcome is reported item by item
+        HttpStatus status = results.stream().allMatch(result -> result.getError() == null)
+                ? HttpStatus.CREATED
+                : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(results);
+    }
+}
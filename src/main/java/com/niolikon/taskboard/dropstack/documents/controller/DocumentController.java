@@ -2,12 +2,17 @@ package com.niolikon.taskboard.dropstack.documents.controller;
 
 import com.niolikon.taskboard.dropstack.documents.dto.*;
 import com.niolikon.taskboard.dropstack.documents.services.IDocumentService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
 import com.niolikon.taskboard.framework.data.dto.PageResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -20,8 +25,11 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 
 import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentPreviewService.PREVIEW_STATUS_PENDING;
 import static org.springframework.http.ResponseEntity.noContent;
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -30,9 +38,18 @@ import static org.springframework.http.ResponseEntity.ok;
 public class DocumentController {
 
     private final IDocumentService documentService;
+    private final DocumentUploadStreamReader uploadStreamReader;
+    private final StreamTransfer streamTransfer;
+    private final String cacheControl;
 
-    public DocumentController(IDocumentService documentService) {
+    public DocumentController(IDocumentService documentService,
+                              DocumentUploadStreamReader uploadStreamReader,
+                              StreamTransfer streamTransfer,
+                              @Value("${documents.http.cache-control:private, no-cache}") String cacheControl) {
         this.documentService = documentService;
+        this.uploadStreamReader = uploadStreamReader;
+        this.streamTransfer = streamTransfer;
+        this.cacheControl = cacheControl;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -64,6 +81,25 @@ public class DocumentController {
                 .body(created);
     }
 
+    @PostMapping(value = MAPPING_PATH_DOCUMENT_STREAM, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DocumentReadDto> createStreaming(@AuthenticationPrincipal Jwt jwt,
+                                                           HttpServletRequest request,
+                                                           ServletUriComponentsBuilder uriComponentsBuilder) throws Exception {
+        String ownerUid = jwt.getSubject();
+
+        DocumentReadDto created = uploadStreamReader.read(request,
+                (metadata, content) -> documentService.create(ownerUid, metadata, content));
+
+        URI location = uriComponentsBuilder
+                .path(MAPPING_PATH_DOCUMENT_BY_ID)
+                .buildAndExpand(created.getId())
+                .toUri();
+
+        return ResponseEntity
+                .created(location)
+                .body(created);
+    }
+
     @GetMapping
     public ResponseEntity<PageResponse<DocumentReadDto>> readAll(@AuthenticationPrincipal Jwt jwt,
                                                                  @PageableDefault(size = 20) Pageable pageable) {
@@ -72,45 +108,165 @@ public class DocumentController {
         return ok().body(documents);
     }
 
+    /**
+     * Cursor mode of the listing, chosen by the presence of {@code cursor}: empty for the first page, then the
+     * NextCursor of the previous one. Each page costs the same however deep it is, and no total is counted.
+     */
+    @GetMapping(params = PARAM_NAME_CURSOR)
+    public ResponseEntity<DocumentCursorPageReadDto> readAllByCursor(@AuthenticationPrincipal Jwt jwt,
+                                                                     @RequestParam(PARAM_NAME_CURSOR) String cursor,
+                                                                     @PageableDefault(size = 20) Pageable pageable) {
+        String ownerUid = jwt.getSubject();
+        DocumentCursorPageReadDto documents = documentService.readAllByCursor(ownerUid, cursor, pageable);
+        return ok().body(documents);
+    }
+
+    /**
+     * Summary mode of the listing, chosen by the presence of {@code fields}: a comma separated selection of
+     * summary properties (e.g. {@code fields=Title,Size}), or empty for a default title/type/size/update set.
+     * Pages by number; a cursor takes precedence and lists full documents.
+     */
+    @GetMapping(params = {PARAM_NAME_FIELDS, "!" + PARAM_NAME_CURSOR})
+    public ResponseEntity<PageResponse<DocumentSummaryReadDto>> readAllSummaries(@AuthenticationPrincipal Jwt jwt,
+                                                                                 @RequestParam(PARAM_NAME_FIELDS) List<String> fields,
+                                                                                 @PageableDefault(size = 20) Pageable pageable) {
+        String ownerUid = jwt.getSubject();
+        PageResponse<DocumentSummaryReadDto> documents = documentService.readAllSummaries(ownerUid, fields, pageable);
+        return ok().body(documents);
+    }
+
     @GetMapping(MAPPING_PATH_DOCUMENT_BY_ID)
     public ResponseEntity<DocumentReadDto> read(@AuthenticationPrincipal Jwt jwt,
                                                 @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id) {
         String ownerUid = jwt.getSubject();
         DocumentReadDto document = documentService.read(ownerUid, id);
-        return ok().body(document);
+
+        // Validators let MVC answer If-None-Match / If-Modified-Since with a 304 on its own. A rendered preview changes
+        // neither version nor update date: its status goes into the tag, and no date is sent while it is pending
+        var builder = ok().header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (document.getVersion() != null) {
+            String tag = document.getPreviewStatus() != null
+                    ? document.getVersion() + "-" + document.getPreviewStatus()
+                    : String.valueOf(document.getVersion());
+            builder = builder.eTag("W/\"" + tag + "\"");
+        }
+        if (document.getUpdatedAt() != null && !PREVIEW_STATUS_PENDING.equals(document.getPreviewStatus())) {
+            builder = builder.lastModified(document.getUpdatedAt());
+        }
+        return builder.body(document);
     }
 
     @GetMapping(MAPPING_PATH_DOCUMENT_CONTENT_BY_ID)
     public ResponseEntity<StreamingResponseBody> download(@AuthenticationPrincipal Jwt jwt,
-                                                          @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id) {
+                                                          @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                          @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                          @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                          @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
         String ownerUid = jwt.getSubject();
-        DocumentContentReadDto dl = documentService.download(ownerUid, id);
 
-        String cd = ContentDisposition.attachment()
-                .filename(dl.getFilename(), StandardCharsets.UTF_8)
-                .build()
-                .toString();
+        if (ConditionalRequests.isConditional(ifNoneMatch, ifModifiedSince)) {
+            // Revalidation is answered from the document record: storage is only read once the content changed
+            DocumentReadDto current = documentService.read(ownerUid, id);
+            if (ConditionalRequests.isNotModified(ifNoneMatch, ifModifiedSince, current.getEtag(), current.getUpdatedAt())) {
+                var notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                ConditionalRequests.withValidators(notModified, current.getEtag(), current.getUpdatedAt(), false);
+                return notModified.build();
+            }
+        }
+
+        List<HttpRange> ranges = parseRanges(range);
+        if (!ranges.isEmpty()) {
+            Optional<DocumentContentRangesReadDto> partial = documentService.downloadRanges(ownerUid, id, ranges, ifRange);
+            if (partial.isPresent()) {
+                return partialContent(partial.get());
+            }
+        }
+
+        DocumentContentReadDto dl = documentService.download(ownerUid, id, AcceptEncodings.parse(acceptEncoding));
 
         var builder = ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, cd)
-                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
-                .header(HttpHeaders.PRAGMA, "no-cache")
-                .header(HttpHeaders.EXPIRES, "0")
-                .header(HttpHeaders.CONTENT_TYPE, dl.getContentType());
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(dl.getFilename()))
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.CONTENT_TYPE, dl.getContentType())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ConditionalRequests.withValidators(builder, dl.getEtag(), dl.getLastModified(), dl.getContentEncoding() != null);
 
+        if (dl.getContentEncoding() != null) {
+            builder = builder.header(HttpHeaders.CONTENT_ENCODING, dl.getContentEncoding());
+        }
         if (dl.getContentLength() != null && dl.getContentLength() >= 0) {
             builder = builder.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(dl.getContentLength()));
         }
 
         StreamingResponseBody body = out -> {
             try (InputStream is = dl.getStream()) {
-                is.transferTo(out);
+                streamTransfer.copy(is, out);
             }
         };
 
         return builder.body(body);
     }
 
+    private ResponseEntity<StreamingResponseBody> partialContent(DocumentContentRangesReadDto partial) {
+        long totalLength = partial.getTotalLength();
+        if (partial.getRanges().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + totalLength)
+                    .build();
+        }
+
+        var builder = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(partial.getFilename()))
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        ConditionalRequests.withValidators(builder, partial.getEtag(), partial.getLastModified(), false);
+
+        if (partial.getRanges().size() == 1) {
+            DocumentContentRangeDto only = partial.getRanges().get(0);
+            StreamingResponseBody body = out -> {
+                try (InputStream is = only.getContent().getInputStream()) {
+                    streamTransfer.copy(is, out);
+                }
+            };
+            return builder
+                    .header(HttpHeaders.CONTENT_TYPE, partial.getContentType())
+                    .header(HttpHeaders.CONTENT_RANGE, MultipartByteRanges.contentRange(only.getFirstByte(), only.getLastByte(), totalLength))
+                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(only.getLastByte() - only.getFirstByte() + 1))
+                    .body(body);
+        }
+
+        String boundary = MultipartByteRanges.newBoundary();
+        return builder
+                .header(HttpHeaders.CONTENT_TYPE, MultipartByteRanges.MEDIA_TYPE + "; boundary=" + boundary)
+                .body(MultipartByteRanges.body(streamTransfer, boundary, partial.getContentType(), totalLength, partial.getRanges()));
+    }
+
+    /**
+     * A Range header that cannot be parsed is ignored, as if absent, and the whole content is served.
+     */
+    private static List<HttpRange> parseRanges(String range) {
+        if (range == null || range.isBlank()) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private static String contentDisposition(String filename) {
+        return ContentDisposition.attachment()
+                .filename(filename, StandardCharsets.UTF_8)
+                .build()
+                .toString();
+    }
+
     @PostMapping(MAPPING_PATH_DOCUMENT_CHECKIN_BY_ID)
     public ResponseEntity<DocumentReadDto> checkIn(@AuthenticationPrincipal Jwt jwt,
                                                    @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id,
@@ -130,6 +286,16 @@ public class DocumentController {
         return ok().body(document);
     }
 
+    @PatchMapping(value = MAPPING_PATH_DOCUMENT_BY_ID, consumes = MEDIA_TYPE_MERGE_PATCH_JSON)
+    public ResponseEntity<DocumentReadDto> patch(@AuthenticationPrincipal Jwt jwt,
+                                                 @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id,
+                                                 @Valid @RequestBody DocumentPatchDto dto) {
+        String ownerUid = jwt.getSubject();
+
+        DocumentReadDto document = documentService.patch(ownerUid, id, dto);
+        return ok().body(document);
+    }
+
     @DeleteMapping(MAPPING_PATH_DOCUMENT_BY_ID)
     public ResponseEntity<Void> delete(@AuthenticationPrincipal Jwt jwt,
                                        @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id) {
@@ -0,0 +1,60 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedRequestDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedUploadCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentPresignedService;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static org.springframework.http.ResponseEntity.ok;
+
+@RestController
+@RequestMapping(MAPPING_PATH_DOCUMENT_BASE)
+public class DocumentPresignedController {
+
+    private final IDocumentPresignedService presignedService;
+
+    public DocumentPresignedController(IDocumentPresignedService presignedService) {
+        this.presignedService = presignedService;
+    }
+
+    @PostMapping(value = MAPPING_PATH_DOCUMENT_PRESIGNED_UPLOADS, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DocumentPresignedRequestDto> presignUpload(@AuthenticationPrincipal Jwt jwt,
+                                                                     @Valid @RequestBody DocumentPresignedUploadCreateDto dto) {
+        String ownerUid = jwt.getSubject();
+        return ok().body(presignedService.presignUpload(ownerUid, dto));
+    }
+
+    @PostMapping(MAPPING_PATH_DOCUMENT_PRESIGNED_UPLOAD_COMPLETE)
+    public ResponseEntity<DocumentReadDto> completeUpload(@AuthenticationPrincipal Jwt jwt,
+                                                          @PathVariable(PATH_VARIABLE_PRESIGNED_UPLOAD_ID) String uploadId,
+                                                          ServletUriComponentsBuilder uriComponentsBuilder) {
+        String ownerUid = jwt.getSubject();
+        DocumentReadDto created = presignedService.completeUpload(ownerUid, uploadId);
+
+        URI location = uriComponentsBuilder
+                .path(MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_BY_ID)
+                .buildAndExpand(created.getId())
+                .toUri();
+
+        return ResponseEntity
+                .created(location)
+                .body(created);
+    }
+
+    @GetMapping(MAPPING_PATH_DOCUMENT_CONTENT_URL_BY_ID)
+    public ResponseEntity<DocumentPresignedRequestDto> presignDownload(@AuthenticationPrincipal Jwt jwt,
+                                                                       @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id) {
+        String ownerUid = jwt.getSubject();
+        return ok().body(presignedService.presignDownload(ownerUid, id));
+    }
+}
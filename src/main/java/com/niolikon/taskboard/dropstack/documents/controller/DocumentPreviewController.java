@@ -0,0 +1,78 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentPreviewService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+
+@RestController
+@RequestMapping(MAPPING_PATH_DOCUMENT_BASE)
+public class DocumentPreviewController {
+
+    private final IDocumentPreviewService previewService;
+    private final StreamTransfer streamTransfer;
+    private final String cacheControl;
+
+    public DocumentPreviewController(IDocumentPreviewService previewService,
+                                     StreamTransfer streamTransfer,
+                                     @Value("${documents.previews.cache-control:private, max-age=31536000, immutable}") String cacheControl) {
+        this.previewService = previewService;
+        this.streamTransfer = streamTransfer;
+        this.cacheControl = cacheControl;
+    }
+
+    /**
+     * Content never changes after create, so neither does a preview once rendered: clients may keep it for
+     * good. Until it is ready the answer is a 404, which carries no such caching.
+     */
+    @GetMapping(MAPPING_PATH_DOCUMENT_PREVIEW_BY_ID)
+    public ResponseEntity<StreamingResponseBody> preview(@AuthenticationPrincipal Jwt jwt,
+                                                         @PathVariable(PATH_VARIABLE_DOCUMENT_ID) String id,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String ownerUid = jwt.getSubject();
+
+        if (ConditionalRequests.isConditional(ifNoneMatch, null)) {
+            String etag = previewService.previewETag(ownerUid, id);
+            if (ConditionalRequests.isNotModified(ifNoneMatch, null, etag, null)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                        .header(HttpHeaders.ETAG, ConditionalRequests.strongETag(etag))
+                        .build();
+            }
+        }
+
+        DocumentContentReadDto preview = previewService.downloadPreview(ownerUid, id);
+
+        var builder = ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.CONTENT_TYPE, preview.getContentType());
+        if (preview.getEtag() != null) {
+            builder = builder.header(HttpHeaders.ETAG, ConditionalRequests.strongETag(preview.getEtag()));
+        }
+        if (preview.getContentLength() != null && preview.getContentLength() >= 0) {
+            builder = builder.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(preview.getContentLength()));
+        }
+
+        StreamingResponseBody body = out -> {
+            try (InputStream is = preview.getStream()) {
+                streamTransfer.copy(is, out);
+            }
+        };
+        return builder.body(body);
+    }
+}
@@ -0,0 +1,91 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionReadDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentUploadSessionService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.InputStream;
+import java.net.URI;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static org.springframework.http.ResponseEntity.noContent;
+import static org.springframework.http.ResponseEntity.ok;
+
+@RestController
+@RequestMapping(MAPPING_PATH_DOCUMENT_UPLOAD_SESSION_BASE)
+public class DocumentUploadSessionController {
+
+    private final IDocumentUploadSessionService uploadSessionService;
+
+    public DocumentUploadSessionController(IDocumentUploadSessionService uploadSessionService) {
+        this.uploadSessionService = uploadSessionService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DocumentUploadSessionReadDto> open(@AuthenticationPrincipal Jwt jwt,
+                                                             @Valid @RequestBody DocumentUploadSessionCreateDto dto,
+                                                             ServletUriComponentsBuilder uriComponentsBuilder) {
+        String ownerUid = jwt.getSubject();
+        DocumentUploadSessionReadDto session = uploadSessionService.open(ownerUid, dto);
+
+        URI location = uriComponentsBuilder
+                .path(MAPPING_PATH_DOCUMENT_UPLOAD_SESSION_BASE + MAPPING_PATH_UPLOAD_SESSION_BY_ID)
+                .buildAndExpand(session.getId())
+                .toUri();
+
+        return ResponseEntity
+                .created(location)
+                .body(session);
+    }
+
+    @GetMapping(MAPPING_PATH_UPLOAD_SESSION_BY_ID)
+    public ResponseEntity<DocumentUploadSessionReadDto> read(@AuthenticationPrincipal Jwt jwt,
+                                                             @PathVariable(PATH_VARIABLE_UPLOAD_SESSION_ID) String sessionId) {
+        String ownerUid = jwt.getSubject();
+        return ok().body(uploadSessionService.read(ownerUid, sessionId));
+    }
+
+    @PutMapping(value = MAPPING_PATH_UPLOAD_SESSION_CHUNK, consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<DocumentUploadSessionReadDto> uploadChunk(@AuthenticationPrincipal Jwt jwt,
+                                                                    @PathVariable(PATH_VARIABLE_UPLOAD_SESSION_ID) String sessionId,
+                                                                    @PathVariable(PATH_VARIABLE_CHUNK_NUMBER) int chunkNumber,
+                                                                    @RequestHeader(HttpHeaders.CONTENT_LENGTH) long contentLength,
+                                                                    InputStream body) {
+        String ownerUid = jwt.getSubject();
+        return ok().body(uploadSessionService.uploadChunk(ownerUid, sessionId, chunkNumber, body, contentLength));
+    }
+
+    @PostMapping(MAPPING_PATH_UPLOAD_SESSION_COMPLETE)
+    public ResponseEntity<DocumentReadDto> complete(@AuthenticationPrincipal Jwt jwt,
+                                                    @PathVariable(PATH_VARIABLE_UPLOAD_SESSION_ID) String sessionId,
+                                                    ServletUriComponentsBuilder uriComponentsBuilder) {
+        String ownerUid = jwt.getSubject();
+        DocumentReadDto created = uploadSessionService.complete(ownerUid, sessionId);
+
+        URI location = uriComponentsBuilder
+                .path(MAPPING_PATH_DOCUMENT_BASE + MAPPING_PATH_DOCUMENT_BY_ID)
+                .buildAndExpand(created.getId())
+                .toUri();
+
+        return ResponseEntity
+                .created(location)
+                .body(created);
+    }
+
+    @DeleteMapping(MAPPING_PATH_UPLOAD_SESSION_BY_ID)
+    public ResponseEntity<Void> abort(@AuthenticationPrincipal Jwt jwt,
+                                      @PathVariable(PATH_VARIABLE_UPLOAD_SESSION_ID) String sessionId) {
+        String ownerUid = jwt.getSubject();
+        uploadSessionService.abort(ownerUid, sessionId);
+        return noContent().build();
+    }
+}
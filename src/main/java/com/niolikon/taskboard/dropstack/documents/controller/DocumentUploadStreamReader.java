@@ -0,0 +1,126 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Validator;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BiFunction;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.PART_NAME_FILE;
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.PART_NAME_METADATA;
+
+/**
+ * Parses a multipart upload incrementally, without letting the servlet container spool the file part.
+ * The metadata part must precede the file part, whose stream is only readable while the handler runs.
+ */
+@Component
+public class DocumentUploadStreamReader {
+    static final String UPLOAD_NOT_MULTIPART = "Request is not multipart";
+    static final String UPLOAD_METADATA_MISSING = "Metadata part must precede the file part";
+    static final String UPLOAD_METADATA_NOT_VALID = "Metadata part not valid";
+    static final String UPLOAD_FILE_MISSING = "File part is missing";
+    static final String UPLOAD_TOO_LARGE = "Upload exceeds the maximum allowed size";
+    static final int METADATA_MAX_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final long maxFileSize;
+    private final long maxRequestSize;
+
+    public DocumentUploadStreamReader(ObjectMapper objectMapper,
+                                      Validator validator,
+                                      @Value("${spring.servlet.multipart.max-file-size:50MB}") DataSize maxFileSize,
+                                      @Value("${spring.servlet.multipart.max-request-size:100MB}") DataSize maxRequestSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxRequestSize = maxRequestSize.toBytes();
+    }
+
+    public <T> T read(HttpServletRequest request,
+                      BiFunction<DocumentCreateMetadataDto, DocumentCreateContentDto, T> handler) throws IOException {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_NOT_MULTIPART);
+        }
+
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        upload.setFileSizeMax(maxFileSize);
+        upload.setSizeMax(maxRequestSize);
+
+        try {
+            FileItemInputIterator items = upload.getItemIterator(request);
+            DocumentCreateMetadataDto metadata = null;
+
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+
+                if (PART_NAME_METADATA.equals(item.getFieldName())) {
+                    metadata = readMetadata(item);
+                } else if (PART_NAME_FILE.equals(item.getFieldName()) && !item.isFormField()) {
+                    if (metadata == null) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_METADATA_MISSING);
+                    }
+
+                    DocumentCreateContentDto content = DocumentCreateContentDto.builder()
+                            .source(item::getInputStream)
+                            .originalFilename(item.getName())
+                            .build();
+                    try {
+                        return handler.apply(metadata, content);
+                    } catch (RuntimeException e) {
+                        // Past the limit, the file part fails while the handler reads it, wrapped by whatever stored it
+                        FileUploadSizeException sizeExceeded = sizeExceededCauseOf(e);
+                        if (sizeExceeded == null) {
+                            throw e;
+                        }
+                        throw sizeExceeded;
+                    }
+                }
+            }
+        } catch (FileUploadSizeException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, UPLOAD_TOO_LARGE, e);
+        }
+
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_FILE_MISSING);
+    }
+
+    private static FileUploadSizeException sizeExceededCauseOf(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FileUploadSizeException sizeExceeded) {
+                return sizeExceeded;
+            }
+        }
+        return null;
+    }
+
+    private DocumentCreateMetadataDto readMetadata(FileItemInput item) throws IOException {
+        DocumentCreateMetadataDto metadata;
+        try (InputStream in = item.getInputStream()) {
+            metadata = objectMapper.readValue(in.readNBytes(METADATA_MAX_BYTES), DocumentCreateMetadataDto.class);
+        } catch (FileUploadSizeException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_METADATA_NOT_VALID, e);
+        }
+
+        if (!validator.validate(metadata).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_METADATA_NOT_VALID);
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,48 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentRangeDto;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes several byte ranges of one content as a {@code multipart/byteranges} body, opening each range only
+ * when its part is reached so a single storage read is in flight at a time.
+ */
+final class MultipartByteRanges {
+    static final String MEDIA_TYPE = "multipart/byteranges";
+    private static final String CRLF = "\r\n";
+
+    private MultipartByteRanges() {
+    }
+
+    static String newBoundary() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    static String contentRange(long firstByte, long lastByte, long totalLength) {
+        return "bytes %d-%d/%d".formatted(firstByte, lastByte, totalLength);
+    }
+
+    static StreamingResponseBody body(StreamTransfer streamTransfer, String boundary, String contentType, long totalLength,
+                                      List<DocumentContentRangeDto> ranges) {
+        return out -> {
+            for (DocumentContentRangeDto range : ranges) {
+                String partHeader = CRLF + "--" + boundary + CRLF
+                        + HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF
+                        + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range.getFirstByte(), range.getLastByte(), totalLength) + CRLF
+                        + CRLF;
+                out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                try (InputStream is = range.getContent().getInputStream()) {
+                    streamTransfer.copy(is, out);
+                }
+            }
+            out.write((CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII));
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relays a byte publisher onto the response one chunk at a time.
+ * The next chunk is requested only after the previous one was written, so a slow client
+ * back-pressures MinIO instead of filling the heap; writes run on {@code writeExecutor}
+ * so the storage client's event loop never blocks on the servlet output stream.
+ */
+class PublisherResponseBodyEmitter extends ResponseBodyEmitter {
+
+    private final Publisher<ByteBuffer> publisher;
+    private final Executor writeExecutor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicBoolean terminated = new AtomicBoolean();
+    private volatile Subscription subscription;
+
+    // Reactive Streams signals are serial, so chaining from them keeps writes ordered
+    private CompletableFuture<Void> writes = CompletableFuture.completedFuture(null);
+
+    PublisherResponseBodyEmitter(Publisher<ByteBuffer> publisher, Executor writeExecutor) {
+        this.publisher = publisher;
+        this.writeExecutor = writeExecutor;
+        onCompletion(this::cancelUpstream);
+        onError(e -> cancelUpstream());
+        onTimeout(this::cancelUpstream);
+    }
+
+    @Override
+    protected void extendResponse(ServerHttpResponse outputMessage) {
+        super.extendResponse(outputMessage);
+        // Subscribing only once the response is being set up avoids buffering chunks as early sends
+        if (subscribed.compareAndSet(false, true)) {
+            publisher.subscribe(new ChunkSubscriber());
+        }
+    }
+
+    private void cancelUpstream() {
+        terminated.set(true);
+        Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private void enqueue(ChunkWrite write) {
+        writes = writes.thenRunAsync(() -> {
+            if (terminated.get()) {
+                return;
+            }
+            try {
+                write.run();
+            } catch (IOException | RuntimeException e) {
+                cancelUpstream();
+                completeWithError(e);
+            }
+        }, writeExecutor);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWrite {
+        void run() throws IOException;
+    }
+
+    private class ChunkSubscriber implements Subscriber<ByteBuffer> {
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer chunk) {
+            enqueue(() -> {
+                byte[] bytes = new byte[chunk.remaining()];
+                chunk.get(bytes);
+                send(bytes, MediaType.APPLICATION_OCTET_STREAM);
+                subscription.request(1);
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            enqueue(() -> {
+                terminated.set(true);
+                completeWithError(t);
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            enqueue(() -> {
+                terminated.set(true);
+                complete();
+            });
+        }
+    }
+}
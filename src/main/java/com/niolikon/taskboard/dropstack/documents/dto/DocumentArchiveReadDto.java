@@ -0,0 +1,23 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentArchiveReadDto {
+    String filename;
+    ArchiveContent content; // documents are fetched only while the archive is written
+
+    @FunctionalInterface
+    public interface ArchiveContent {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
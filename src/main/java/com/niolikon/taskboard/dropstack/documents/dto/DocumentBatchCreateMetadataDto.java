@@ -0,0 +1,20 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentBatchCreateMetadataDto {
+
+    @JsonProperty("Items")
+    @NotEmpty
+    private List<@NotNull @Valid DocumentCreateMetadataDto> items; // one per file part, in the same order
+}
@@ -0,0 +1,22 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentBatchItemResultDto {
+
+    @JsonProperty("Index")
+    private int index;
+
+    @JsonProperty("Document")
+    private DocumentReadDto document; // null when the item failed
+
+    @JsonProperty("Error")
+    private String error; // null when the item was created
+}
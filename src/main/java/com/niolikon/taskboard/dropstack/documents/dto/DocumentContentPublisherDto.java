@@ -0,0 +1,24 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.reactivestreams.Publisher;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentContentPublisherDto {
+    Publisher<ByteBuffer> publisher;
+    String contentType;
+    Long contentLength;
+    String filename;
+    String contentEncoding; // set when the content is served as stored, still encoded
+    String etag;
+    Instant lastModified;
+}
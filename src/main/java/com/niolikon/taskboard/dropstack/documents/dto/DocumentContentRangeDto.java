@@ -0,0 +1,17 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.InputStreamSource;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentContentRangeDto {
+    long firstByte;
+    long lastByte; // inclusive
+    InputStreamSource content; // opened only when the range is written
+}
@@ -0,0 +1,22 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentContentRangesReadDto {
+    String contentType;
+    long totalLength;
+    String filename;
+    String etag;
+    Instant lastModified;
+    List<DocumentContentRangeDto> ranges; // empty when none of the requested ranges is satisfiable
+}
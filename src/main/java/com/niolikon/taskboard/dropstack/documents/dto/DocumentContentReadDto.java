@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.InputStream;
+import java.time.Instant;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,4 +17,7 @@ public class DocumentContentReadDto {
     String contentType;
     Long contentLength;
     String filename;
+    String contentEncoding; // set when the content is served as stored, still encoded
+    String etag;
+    Instant lastModified;
 }
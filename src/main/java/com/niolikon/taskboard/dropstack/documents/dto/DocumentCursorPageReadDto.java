@@ -0,0 +1,22 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentCursorPageReadDto {
+
+    @JsonProperty("Content")
+    private List<DocumentReadDto> content;
+
+    @JsonProperty("PageSize")
+    private int pageSize;
+
+    @JsonProperty("NextCursor")
+    private String nextCursor; // null on the last page
+}
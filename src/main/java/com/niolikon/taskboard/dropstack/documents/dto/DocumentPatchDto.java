@@ -0,0 +1,29 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JSON merge patch of the document metadata: a null field was left out and stays as it is, an empty one was sent
+ * as null and is removed. The title cannot be removed; tags removed become none.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentPatchDto {
+
+    @JsonProperty("Title")
+    private Optional<@NotBlank @Size(max = 200) String> title;
+
+    @JsonProperty("Tags")
+    private Optional<List<@NotBlank @Size(max = 64) String>> tags;
+
+    @JsonProperty("Version")
+    @NotNull
+    private Long version;
+}
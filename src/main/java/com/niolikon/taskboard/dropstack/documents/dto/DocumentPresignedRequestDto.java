@@ -0,0 +1,33 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentPresignedRequestDto {
+
+    @JsonProperty("Id")
+    private String id; // pending upload id, absent for downloads
+
+    @JsonProperty("Url")
+    private String url;
+
+    @JsonProperty("Method")
+    private String method;
+
+    @JsonProperty("Headers")
+    private Map<String, String> headers;
+
+    @JsonProperty("ExpiresAt")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant expiresAt;
+}
@@ -0,0 +1,24 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentPresignedUploadCreateDto {
+
+    @JsonProperty("Metadata")
+    @NotNull
+    @Valid
+    private DocumentCreateMetadataDto metadata;
+
+    @JsonProperty("Size")
+    @NotNull
+    @Positive
+    private Long size;
+}
@@ -25,6 +25,9 @@ public class DocumentReadDto {
     @JsonProperty("ETag")
     private String etag;
 
+    @JsonProperty("ChecksumCRC32C")
+    private String checksumCrc32c;
+
     @JsonProperty("Title")
     private String title;
 
@@ -47,4 +50,7 @@ public class DocumentReadDto {
 
     @JsonProperty("Version")
     private Long version;
+
+    @JsonProperty("PreviewStatus")
+    private String previewStatus;
 }
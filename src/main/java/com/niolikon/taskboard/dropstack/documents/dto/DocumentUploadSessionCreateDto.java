@@ -0,0 +1,28 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentUploadSessionCreateDto {
+
+    @JsonProperty("Metadata")
+    @NotNull
+    @Valid
+    private DocumentCreateMetadataDto metadata;
+
+    @JsonProperty("Size")
+    @NotNull
+    @Positive
+    private Long size;
+
+    @JsonProperty("ChunkSize")
+    @Positive
+    private Long chunkSize; // optional, server default when absent
+}
@@ -0,0 +1,34 @@
+package com.niolikon.taskboard.dropstack.documents.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DocumentUploadSessionReadDto {
+
+    @JsonProperty("Id")
+    private String id;
+
+    @JsonProperty("Size")
+    private Long size;
+
+    @JsonProperty("ChunkSize")
+    private Long chunkSize;
+
+    @JsonProperty("ChunkCount")
+    private Integer chunkCount;
+
+    @JsonProperty("ReceivedChunks")
+    private List<Integer> receivedChunks;
+
+    @JsonProperty("ExpiresAt")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant expiresAt;
+}
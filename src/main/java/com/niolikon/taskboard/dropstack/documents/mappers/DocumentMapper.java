@@ -25,4 +25,6 @@ public interface DocumentMapper {
     DocumentEntity toEntity(DocumentUpdateDto dto);
 
     DocumentReadDto toReadDto(DocumentEntity entity);
+
+    DocumentSummaryReadDto toSummaryDto(DocumentEntity entity);
 }
@@ -0,0 +1,17 @@
+package com.niolikon.taskboard.dropstack.documents.mappers;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedRequestDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import com.niolikon.taskboard.dropstack.storage.model.PresignedRequest;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface DocumentPresignedUploadMapper {
+
+    DocumentCreateMetadataDto toMetadataDto(DocumentPresignedUploadEntity entity);
+
+    @Mapping(target = "id", ignore = true)
+    DocumentPresignedRequestDto toRequestDto(PresignedRequest request);
+}
@@ -0,0 +1,29 @@
+package com.niolikon.taskboard.dropstack.documents.mappers;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+import java.util.Map;
+
+@Mapper(componentModel = "spring")
+public interface DocumentUploadSessionMapper {
+
+    @Mapping(target = "receivedChunks", source = "chunkETags")
+    DocumentUploadSessionReadDto toReadDto(DocumentUploadSessionEntity entity);
+
+    DocumentCreateMetadataDto toMetadataDto(DocumentUploadSessionEntity entity);
+
+    default List<Integer> toReceivedChunks(Map<String, String> chunkETags) {
+        if (chunkETags == null) {
+            return List.of();
+        }
+        return chunkETags.keySet().stream()
+                .map(Integer::valueOf)
+                .sorted()
+                .toList();
+    }
+}
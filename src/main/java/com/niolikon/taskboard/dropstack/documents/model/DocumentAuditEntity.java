@@ -2,6 +2,7 @@ package com.niolikon.taskboard.dropstack.documents.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -15,6 +16,7 @@ import java.util.Map;
 @ToString
 @EqualsAndHashCode
 @Document(collection = "document_audits")
+@CompoundIndex(name = "documentId_at", def = "{'documentId': 1, 'at': -1}")
 public class DocumentAuditEntity {
 
     @Id
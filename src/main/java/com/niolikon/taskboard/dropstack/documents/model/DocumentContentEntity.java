@@ -0,0 +1,45 @@
+package com.niolikon.taskboard.dropstack.documents.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Document(collection = "document_contents")
+public class DocumentContentEntity {
+
+    @Id
+    private String id; // SHA-256 of the content, hex encoded
+
+    @Field("bucket")
+    private String bucket;
+
+    @Field("objectKey")
+    private String objectKey; // S3 object shared by every referencing document
+
+    @Field("etag")
+    private String etag;
+
+    @Field("checksumCrc32c")
+    private String checksumCrc32c;
+
+    @Field("contentEncoding")
+    private String contentEncoding; // ContentCodec of the shared object, null when stored as-is
+
+    @Field("size")
+    private Long size;
+
+    @Field("refCount")
+    private long refCount;
+
+    @Field("createdAt")
+    private Instant createdAt;
+}
@@ -3,12 +3,17 @@ package com.niolikon.taskboard.dropstack.documents.model;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.Instant;
 
 @Document(collection = "documents")
+@CompoundIndex(name = "owner_createdAt", def = "{'ownerUid': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "owner_updatedAt", def = "{'ownerUid': 1, 'updatedAt': -1, '_id': -1}")
+@CompoundIndex(name = "owner_tags", def = "{'ownerUid': 1, 'tags': 1, '_id': 1}")
+@CompoundIndex(name = "owner_id", def = "{'ownerUid': 1, '_id': 1}")
 @Getter
 @Setter
 @Builder
@@ -33,6 +38,18 @@ public class DocumentEntity {
     @Field("etag")
     private String etag; // S3 file tag (file modification detection)
 
+    @Field("checksumCrc32c")
+    @EqualsAndHashCode.Exclude
+    private String checksumCrc32c; // base64 CRC32C of the stored bytes, computed while uploading
+
+    @Field("contentHash")
+    @EqualsAndHashCode.Exclude
+    private String contentHash; // DocumentContentEntity key, set only for deduplicated content
+
+    @Field("contentEncoding")
+    @EqualsAndHashCode.Exclude
+    private String contentEncoding; // ContentCodec of the stored bytes, null when stored as-is
+
     @Field("title")
     private String title;
 
@@ -67,4 +84,20 @@ public class DocumentEntity {
     @Field("checkedInAt")
     @EqualsAndHashCode.Exclude
     private Instant checkedInAt;
+
+    @Field("previewObjectKey")
+    @EqualsAndHashCode.Exclude
+    private String previewObjectKey; // S3 key of the downscaled rendition, sibling of objectKey
+
+    @Field("previewStatus")
+    @EqualsAndHashCode.Exclude
+    private String previewStatus; // pending, ready or failed; null when the type has no preview
+
+    @Field("previewEtag")
+    @EqualsAndHashCode.Exclude
+    private String previewEtag;
+
+    @Field("previewSize")
+    @EqualsAndHashCode.Exclude
+    private Long previewSize;
 }
@@ -0,0 +1,52 @@
+package com.niolikon.taskboard.dropstack.documents.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+@Document(collection = "document_presigned_uploads")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class DocumentPresignedUploadEntity {
+
+    @Id
+    private String id;
+
+    @Field("ownerUid")
+    private String ownerUid;
+
+    @Field("bucket")
+    private String bucket;
+
+    @Field("objectKey")
+    private String objectKey; // S3 key the client PUTs to
+
+    @Field("title")
+    private String title;
+
+    @Field("mimeType")
+    private String mimeType;
+
+    @Field("tags")
+    private List<String> tags;
+
+    @Field("size")
+    private Long size; // declared by the client and signed into the URL
+
+    @Field("createdAt")
+    private Instant createdAt;
+
+    @Field("expiresAt")
+    @Indexed(name = "expiresAt")
+    private Instant expiresAt;
+}
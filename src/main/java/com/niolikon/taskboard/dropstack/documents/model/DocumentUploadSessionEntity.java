@@ -0,0 +1,68 @@
+package com.niolikon.taskboard.dropstack.documents.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Document(collection = "document_upload_sessions")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class DocumentUploadSessionEntity {
+
+    @Id
+    private String id;
+
+    @Field("ownerUid")
+    private String ownerUid;
+
+    @Field("bucket")
+    private String bucket;
+
+    @Field("objectKey")
+    private String objectKey; // S3 key the completed document will live under
+
+    @Field("uploadId")
+    private String uploadId; // S3 multipart upload id
+
+    @Field("title")
+    private String title;
+
+    @Field("mimeType")
+    private String mimeType;
+
+    @Field("tags")
+    private List<String> tags;
+
+    @Field("size")
+    private Long size;
+
+    @Field("chunkSize")
+    private Long chunkSize;
+
+    @Field("chunkCount")
+    private Integer chunkCount;
+
+    @Field("chunkETags")
+    private Map<String, String> chunkETags; // chunk number -> S3 part ETag
+
+    @Field("chunkChecksums")
+    private Map<String, String> chunkChecksums; // chunk number -> base64 CRC32C of the chunk
+
+    @Field("createdAt")
+    private Instant createdAt;
+
+    @Field("expiresAt")
+    @Indexed(name = "expiresAt")
+    private Instant expiresAt;
+}
@@ -0,0 +1,16 @@
+package com.niolikon.taskboard.dropstack.documents.repositories;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DocumentPresignedUploadRepository extends MongoRepository<DocumentPresignedUploadEntity, String> {
+
+    List<DocumentPresignedUploadEntity> findByExpiresAtBefore(Instant instant, Pageable pageable);
+
+}
@@ -6,6 +6,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,5 +17,7 @@ public interface DocumentRepository extends MongoRepository<DocumentEntity, Stri
 
     Optional<DocumentEntity> findByIdAndOwnerUid(String id, String ownerUid);
 
+    List<DocumentEntity> findByIdInAndOwnerUid(Collection<String> ids, String ownerUid);
+
 }
 
@@ -0,0 +1,19 @@
+package com.niolikon.taskboard.dropstack.documents.repositories;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentUploadSessionRepository extends MongoRepository<DocumentUploadSessionEntity, String> {
+
+    Optional<DocumentUploadSessionEntity> findByIdAndOwnerUid(String id, String ownerUid);
+
+    List<DocumentUploadSessionEntity> findByExpiresAtBefore(Instant instant, Pageable pageable);
+
+}
@@ -0,0 +1,325 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentArchiveReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentService.DOCUMENT_NOT_FOUND;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Streams many documents as one ZIP archive. While an entry is written, the contents of the next
+ * {@code documents.archive.read-ahead} documents are already being fetched, at most
+ * {@code max-buffered-entry-size} bytes each; larger documents are streamed straight from storage in turn.
+ * Types listed as already compressed are stored as-is instead of being deflated again. Archives of all the
+ * owner's documents, or of all those with a tag, hold at most {@code max-owner-items} entries.
+ */
+@Service
+public class DocumentArchiveService implements IDocumentArchiveService {
+    static final String ARCHIVE_TOO_LARGE = "Too many documents in archive";
+    static final String ARCHIVE_FILENAME = "documents.zip";
+    static final int ARCHIVE_PAGE_SIZE = 100;
+
+    private final DocumentRepository documentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final IS3StorageService storage;
+    private final StreamTransfer streamTransfer;
+    private final int maxItems;
+    private final int maxOwnerItems;
+    private final int readAhead;
+    private final long maxBufferedEntrySize;
+    private final List<MimeType> storedTypes;
+    private final ExecutorService fetchExecutor;
+
+    public DocumentArchiveService(DocumentRepository documentRepository,
+                                  MongoTemplate mongoTemplate,
+                                  IS3StorageService storage,
+                                  StreamTransfer streamTransfer,
+                                  TaskThreads taskThreads,
+                                  @Value("${documents.archive.max-items:1000}") int maxItems,
+                                  @Value("${documents.archive.max-owner-items:10000}") int maxOwnerItems,
+                                  @Value("${documents.archive.read-ahead:4}") int readAhead,
+                                  @Value("${documents.archive.max-buffered-entry-size:8MB}") DataSize maxBufferedEntrySize,
+                                  @Value("${documents.archive.parallelism:8}") int parallelism,
+                                  @Value("${documents.archive.stored-types:image/*,video/*,audio/*,application/zip,application/gzip,application/x-7z-compressed,application/x-rar-compressed,application/x-bzip2,application/x-xz,application/zstd}") List<String> storedTypes) {
+        this.documentRepository = documentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.storage = storage;
+        this.streamTransfer = streamTransfer;
+        this.maxItems = maxItems;
+        this.maxOwnerItems = maxOwnerItems;
+        this.readAhead = Math.max(1, readAhead);
+        this.maxBufferedEntrySize = maxBufferedEntrySize.toBytes();
+        this.storedTypes = storedTypes.stream()
+                .map(MimeType::valueOf)
+                .toList();
+        // Owned here rather than exposed as a bean, which would make Boot back off its applicationTaskExecutor
+        this.fetchExecutor = Executors.newFixedThreadPool(parallelism, taskThreads.newThreadFactory("document-archive-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    @Override
+    public DocumentArchiveReadDto archive(String ownerUid, List<String> ids, String tag) {
+        Iterator<DocumentEntity> documents = (ids == null || ids.isEmpty())
+                ? ownerDocuments(ownerUid, tag)
+                : selectedDocuments(ownerUid, ids);
+        return new DocumentArchiveReadDto(ARCHIVE_FILENAME, out -> write(documents, out));
+    }
+
+    private Iterator<DocumentEntity> selectedDocuments(String ownerUid, List<String> ids) {
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ARCHIVE_TOO_LARGE);
+        }
+
+        Map<String, DocumentEntity> found = documentRepository.findByIdInAndOwnerUid(distinctIds, ownerUid).stream()
+                .collect(Collectors.toMap(DocumentEntity::getId, Function.identity()));
+        if (found.size() != distinctIds.size()) {
+            throw new EntityNotFoundRestException(DOCUMENT_NOT_FOUND);
+        }
+        return distinctIds.stream().map(found::get).iterator();
+    }
+
+    /**
+     * Pages through the owner's documents as the archive is written, so the selection is never held in full.
+     * Each page seeks past the last archived {@code _id} on the owner's index, rather than skipping the pages
+     * before it, and none is counted.
+     */
+    private Iterator<DocumentEntity> ownerDocuments(String ownerUid, String tag) {
+        // Counting stops one past the limit, however many documents the owner has
+        Query selectAboveLimit = new Query(selectOwnerDocuments(ownerUid, tag)).limit(maxOwnerItems + 1);
+        if (mongoTemplate.count(selectAboveLimit, DocumentEntity.class) > maxOwnerItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ARCHIVE_TOO_LARGE);
+        }
+
+        return new Iterator<>() {
+            private String lastId;
+            private boolean lastPage;
+            private int returned;
+            private Iterator<DocumentEntity> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                // Documents created while the archive is written do not take it past the limit
+                if (returned >= maxOwnerItems) {
+                    return false;
+                }
+                while (!current.hasNext() && !lastPage) {
+                    Criteria selectNextPage = selectOwnerDocuments(ownerUid, tag);
+                    if (lastId != null) {
+                        selectNextPage = selectNextPage.and("_id").gt(new ObjectId(lastId));
+                    }
+                    List<DocumentEntity> page = mongoTemplate.find(new Query(selectNextPage)
+                            .with(Sort.by("_id"))
+                            .limit(ARCHIVE_PAGE_SIZE), DocumentEntity.class);
+                    lastPage = page.size() < ARCHIVE_PAGE_SIZE;
+                    if (!page.isEmpty()) {
+                        lastId = page.get(page.size() - 1).getId();
+                    }
+                    current = page.iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public DocumentEntity next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                returned++;
+                return current.next();
+            }
+        };
+    }
+
+    private static Criteria selectOwnerDocuments(String ownerUid, String tag) {
+        Criteria selectOwnerDocuments = where("ownerUid").is(ownerUid);
+        return (tag == null || tag.isBlank())
+                ? selectOwnerDocuments
+                : selectOwnerDocuments.and("tags").is(tag);
+    }
+
+    private void write(Iterator<DocumentEntity> documents, OutputStream out) throws IOException {
+        Deque<PendingEntry> ahead = new ArrayDeque<>(readAhead);
+        Set<String> usedNames = new HashSet<>();
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            fillWindow(documents, ahead);
+            while (!ahead.isEmpty()) {
+                PendingEntry entry = ahead.poll();
+                fillWindow(documents, ahead);
+                writeEntry(zip, entry, entryName(entry.document, usedNames));
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            ahead.forEach(entry -> entry.cancel());
+        }
+    }
+
+    private void fillWindow(Iterator<DocumentEntity> documents, Deque<PendingEntry> ahead) {
+        while (ahead.size() < readAhead && documents.hasNext()) {
+            DocumentEntity document = documents.next();
+            Future<byte[]> buffered = document.getSize() != null && document.getSize() <= maxBufferedEntrySize
+                    ? fetchExecutor.submit(() -> readAll(document))
+                    : null;
+            ahead.add(new PendingEntry(document, buffered));
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, PendingEntry pending, String name) throws IOException {
+        DocumentEntity document = pending.document;
+        ZipEntry entry = new ZipEntry(name);
+        Instant modified = document.getUpdatedAt() != null ? document.getUpdatedAt() : document.getCreatedAt();
+        if (modified != null) {
+            entry.setTime(modified.toEpochMilli());
+        }
+        boolean alreadyCompressed = isAlreadyCompressed(document.getMimeType());
+
+        if (pending.buffered != null) {
+            byte[] content = pending.await();
+            if (alreadyCompressed) {
+                // Stored entries declare size and CRC up front, which a buffered entry already knows
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(content.length);
+                entry.setCompressedSize(content.length);
+                entry.setCrc(crc.getValue());
+            }
+            zip.putNextEntry(entry);
+            zip.write(content);
+            zip.closeEntry();
+            return;
+        }
+
+        // Streamed entries cannot be stored without knowing their CRC: deflate them without compressing instead
+        zip.setLevel(alreadyCompressed ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+        try (InputStream in = open(document)) {
+            zip.putNextEntry(entry);
+            streamTransfer.copy(in, zip);
+            zip.closeEntry();
+        } finally {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        }
+    }
+
+    private byte[] readAll(DocumentEntity document) throws IOException {
+        try (InputStream in = open(document)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private InputStream open(DocumentEntity document) {
+        InputStream stored = storage.download(document.getBucket(), document.getObjectKey(), document.getEtag()).getStream();
+        // Entries hold the document's own bytes, whatever encoding they are kept in
+        return document.getContentEncoding() == null
+                ? stored
+                : DocumentService.codecOf(document).decode(stored);
+    }
+
+    private boolean isAlreadyCompressed(String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        try {
+            MimeType type = MimeType.valueOf(mimeType);
+            return storedTypes.stream().anyMatch(stored -> stored.includes(type));
+        } catch (InvalidMimeTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Names entries after the document title, flattened so that no entry extracts outside the target
+     * folder, and suffixed when two documents would share a name.
+     */
+    static String entryName(DocumentEntity document, Set<String> usedNames) {
+        String title = (document.getTitle() != null && !document.getTitle().isBlank())
+                ? document.getTitle()
+                : document.getObjectKey();
+        String name = title.replaceAll("[/\\\\:]", "_").replaceAll("^\\.+", "_");
+
+        String candidate = name;
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int n = 2; !usedNames.add(candidate); n++) {
+            candidate = "%s (%d)%s".formatted(base, n, extension);
+        }
+        return candidate;
+    }
+
+    private static final class PendingEntry {
+        private final DocumentEntity document;
+        private final Future<byte[]> buffered; // null when streamed in turn
+
+        private PendingEntry(DocumentEntity document, Future<byte[]> buffered) {
+            this.document = document;
+            this.buffered = buffered;
+        }
+
+        private byte[] await() throws IOException {
+            try {
+                return buffered.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while fetching document " + document.getId(), e);
+            } catch (ExecutionException e) {
+                throw new IOException("Could not fetch document " + document.getId(), e.getCause());
+            }
+        }
+
+        private void cancel() {
+            if (buffered != null) {
+                buffered.cancel(true);
+            }
+        }
+    }
+}
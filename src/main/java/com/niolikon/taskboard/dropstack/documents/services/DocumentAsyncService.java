@@ -0,0 +1,211 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.*;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.checksum.ChecksumVerifyingPublisher;
+import com.niolikon.taskboard.dropstack.storage.compression.ContentCodec;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import com.niolikon.taskboard.dropstack.storage.services.IS3AsyncStorageService;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.dropstack.storage.transfer.InputStreamPublisher;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentService.*;
+
+/**
+ * Variant of {@link DocumentService} whose storage round trips do not hold the calling thread: content is written,
+ * read and deleted by the non-blocking storage client. Documents are built, persisted and released by
+ * {@link DocumentService}'s own steps, so that both variants compress, deduplicate, preview and clean up content
+ * the same way; those steps' short Mongo round trips run on {@code repositoryExecutor}.
+ */
+@Service
+public class DocumentAsyncService implements IDocumentAsyncService {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final IS3AsyncStorageService storage;
+    private final IS3StorageService localCopies;
+    private final Executor repositoryExecutor;
+    private final boolean verifyChecksumOnDownload;
+
+    public DocumentAsyncService(DocumentRepository documentRepository,
+                                DocumentService documentService,
+                                IS3AsyncStorageService storage,
+                                IS3StorageService localCopies,
+                                @Qualifier("applicationTaskExecutor") Executor repositoryExecutor,
+                                @Value("${documents.checksums.verify-on-download:false}") boolean verifyChecksumOnDownload) {
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.storage = storage;
+        this.localCopies = localCopies;
+        this.repositoryExecutor = repositoryExecutor;
+        this.verifyChecksumOnDownload = verifyChecksumOnDownload;
+    }
+
+    @Override
+    public CompletableFuture<DocumentReadDto> create(String ownerUid, DocumentCreateMetadataDto metadata, DocumentCreateContentDto content) {
+        if (!documentService.storesAsSent(metadata, content)) {
+            // The non-blocking client needs the length up front, which compressed content only has once written
+            return CompletableFuture.supplyAsync(() -> documentService.create(ownerUid, metadata, content), repositoryExecutor);
+        }
+
+        String bucket = documentService.getDefaultBucket();
+        String objectKey = UUID.randomUUID().toString();
+        MessageDigest digest = documentService.newContentDigest();
+        InputStream in;
+        try {
+            InputStream source = content.getSource().getInputStream();
+            in = digest != null ? new DigestInputStream(source, digest) : source;
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException(DOCUMENT_NOT_UPLOADED_TO_BUCKET, e));
+        }
+
+        return storage.upload(bucket, objectKey, in, content.getSize(), metadata.getMimeType())
+                .handle((stored, e) -> {
+                    try { in.close(); } catch (IOException ignore) {}
+                    if (e != null) {
+                        throw new CompletionException(new RuntimeException(DOCUMENT_NOT_UPLOADED_TO_BUCKET, unwrap(e)));
+                    }
+                    return stored;
+                })
+                .thenApplyAsync(stored -> {
+                    DocumentEntity entity = documentService.toStoredEntity(ownerUid, metadata, objectKey, stored, stored.getSize(), null, digest);
+                    if (!objectKey.equals(entity.getObjectKey())) {
+                        // Deduplicated onto bytes already stored: the copy just written is dropped without waiting
+                        storage.delete(bucket, objectKey);
+                    }
+                    try {
+                        return documentService.persist(entity);
+                    } catch (RuntimeException ex) {
+                        releaseContent(entity);
+                        throw ex;
+                    }
+                }, repositoryExecutor);
+    }
+
+    @Override
+    public CompletableFuture<DocumentReadDto> read(String ownerUid, String id) {
+        return CompletableFuture.supplyAsync(() -> documentService.read(ownerUid, id), repositoryExecutor);
+    }
+
+    @Override
+    public CompletableFuture<DocumentContentPublisherDto> download(String ownerUid, String id, Set<String> acceptedEncodings) {
+        DocumentEntity doc = documentRepository.findByIdAndOwnerUid(id, ownerUid)
+                .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
+
+        // Content type and length come from the Mongo record, sparing a HEAD round trip before the GET
+        String contentType = doc.getMimeType() != null ? doc.getMimeType() : DOCUMENT_CONTENT_DEFAULT_TYPE;
+        String filename = filenameOf(doc);
+
+        CompletableFuture<Publisher<ByteBuffer>> download = open(doc);
+        // Verified content goes out without Content-Length, as DocumentService#download explains
+        Long length = verifiesOnDownload(doc) ? null : doc.getSize();
+        if (doc.getContentEncoding() == null) {
+            return download.thenApply(publisher -> new DocumentContentPublisherDto(publisher, contentType, length, filename, null, doc.getEtag(), doc.getUpdatedAt()));
+        }
+
+        ContentCodec codec = codecOf(doc);
+        if (acceptedEncodings.contains(codec.getContentEncoding())) {
+            // The stored length is not in Mongo: served without Content-Length rather than with a HEAD first
+            return download.thenApply(publisher -> new DocumentContentPublisherDto(publisher, contentType, null, filename, codec.getContentEncoding(), doc.getEtag(), doc.getUpdatedAt()));
+        }
+        return download.thenApply(publisher -> new DocumentContentPublisherDto(codec.decode(publisher), contentType, length, filename, null, doc.getEtag(), doc.getUpdatedAt()));
+    }
+
+    /**
+     * Streams the stored bytes from a local copy when the storage keeps one, from the bucket otherwise,
+     * checked against the stored checksum as {@link DocumentService#download} does.
+     */
+    private CompletableFuture<Publisher<ByteBuffer>> open(DocumentEntity doc) {
+        Optional<ObjectContent> localCopy = doc.getEtag() != null
+                ? localCopies.openLocalCopy(doc.getBucket(), doc.getObjectKey(), doc.getEtag())
+                : Optional.empty();
+        CompletableFuture<Publisher<ByteBuffer>> stored = localCopy.isPresent()
+                ? CompletableFuture.completedFuture(new InputStreamPublisher(localCopy.get().getStream(), repositoryExecutor))
+                : storage.download(doc.getBucket(), doc.getObjectKey());
+
+        if (verifiesOnDownload(doc)) {
+            return stored.thenApply(publisher -> new ChecksumVerifyingPublisher(publisher, doc.getChecksumCrc32c()));
+        }
+        return stored;
+    }
+
+    private boolean verifiesOnDownload(DocumentEntity doc) {
+        return verifyChecksumOnDownload && doc.getChecksumCrc32c() != null;
+    }
+
+    @Override
+    public CompletableFuture<DocumentContentReadDto> stat(String ownerUid, String id, Set<String> acceptedEncodings) {
+        DocumentEntity doc = documentRepository.findByIdAndOwnerUid(id, ownerUid)
+                .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
+
+        return storage.stat(doc.getBucket(), doc.getObjectKey())
+                .thenApply(statOpt -> {
+                    ObjectStat stat = statOpt.orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
+                    String contentType = Optional.ofNullable(stat.getContentType())
+                            .orElse(doc.getMimeType() != null ? doc.getMimeType() : DOCUMENT_CONTENT_DEFAULT_TYPE);
+                    boolean verified = verifiesOnDownload(doc);
+                    if (doc.getContentEncoding() == null) {
+                        return new DocumentContentReadDto(null, contentType, verified ? null : stat.getSize(), filenameOf(doc), null, doc.getEtag(), doc.getUpdatedAt());
+                    }
+
+                    // Same headers a GET would produce: stored length when served encoded, original length otherwise
+                    ContentCodec codec = codecOf(doc);
+                    return acceptedEncodings.contains(codec.getContentEncoding())
+                            ? new DocumentContentReadDto(null, contentType, verified ? null : stat.getSize(), filenameOf(doc), codec.getContentEncoding(), doc.getEtag(), doc.getUpdatedAt())
+                            : new DocumentContentReadDto(null, contentType, verified ? null : doc.getSize(), filenameOf(doc), null, doc.getEtag(), doc.getUpdatedAt());
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String ownerUid, String id) {
+        DocumentEntity document = documentRepository.findByIdAndOwnerUid(id, ownerUid)
+                .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
+
+        return releaseContent(document)
+                .exceptionally(e -> {
+                    throw new CompletionException(new RuntimeException(DOCUMENT_NOT_DELETED_FROM_BUCKET, unwrap(e)));
+                })
+                .thenRunAsync(() -> documentRepository.delete(document), repositoryExecutor);
+    }
+
+    /**
+     * Async counterpart of {@link DocumentService#releaseContent}: the registry tells which objects are left unreferenced,
+     * and those are deleted together.
+     */
+    private CompletableFuture<Void> releaseContent(DocumentEntity document) {
+        return CompletableFuture.supplyAsync(() -> documentService.releasedObjectKeys(document), repositoryExecutor)
+                .thenCompose(objectKeys -> CompletableFuture.allOf(objectKeys.stream()
+                        .map(objectKey -> storage.delete(document.getBucket(), objectKey))
+                        .toArray(CompletableFuture[]::new)));
+    }
+
+    private static String filenameOf(DocumentEntity doc) {
+        return (doc.getTitle() != null && !doc.getTitle().isBlank())
+                ? doc.getTitle()
+                : doc.getObjectKey();
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+    }
+
+}
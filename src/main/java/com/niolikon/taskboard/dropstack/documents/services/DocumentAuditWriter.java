@@ -0,0 +1,279 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Writes audit records of document operations. Inline by default; with write-behind enabled, records are queued
+ * and a single flusher inserts them in unordered bulk writes of up to {@code batch-size}, once a batch is full or
+ * {@code flush-interval} went by since its first record, so that audits cost the request no MongoDB round trip
+ * of its own. Durability says whether callers still wait for the flush of their record, or return once it is
+ * queued and lose it if the process dies first; the full-queue policy says what happens when flushes fall behind.
+ */
+@Service
+public class DocumentAuditWriter {
+    static final String AUDIT_NOT_WRITTEN = "Could not write document audit";
+    static final String AUDIT_NOT_QUEUED = "Could not queue document audit";
+    static final String DURABILITY_FIRE_AND_FORGET = "fire-and-forget";
+    static final String DURABILITY_WAIT_FOR_FLUSH = "wait-for-flush";
+    static final String ON_FULL_WRITE_THROUGH = "write-through";
+    static final String ON_FULL_BLOCK = "block";
+    static final String ON_FULL_DROP = "drop";
+    static final String METRIC_QUEUE_DEPTH = "documents.audits.queue.depth";
+    static final String METRIC_FLUSH = "documents.audits.flush";
+    static final String METRIC_DROPPED = "documents.audits.dropped";
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private final DocumentAuditRepository documentAuditRepository;
+    private final MongoTemplate mongoTemplate;
+    private final boolean writeBehind;
+    private final boolean waitForFlush;
+    private final String onFull;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration waitTimeout;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<PendingAudit> queue;
+    private final Timer flushSucceeded;
+    private final Timer flushFailed;
+    private final Counter dropped;
+    private final ExecutorService flushExecutor;
+    private volatile boolean running = true;
+
+    public DocumentAuditWriter(DocumentAuditRepository documentAuditRepository,
+                               MongoTemplate mongoTemplate,
+                               MeterRegistry meterRegistry,
+                               TaskThreads taskThreads,
+                               @Value("${documents.audits.write-behind.enabled:false}") boolean writeBehind,
+                               @Value("${documents.audits.write-behind.durability:wait-for-flush}") String durability,
+                               @Value("${documents.audits.write-behind.on-full:write-through}") String onFull,
+                               @Value("${documents.audits.write-behind.queue-capacity:10000}") int queueCapacity,
+                               @Value("${documents.audits.write-behind.batch-size:500}") int batchSize,
+                               @Value("${documents.audits.write-behind.flush-interval:20ms}") Duration flushInterval,
+                               @Value("${documents.audits.write-behind.wait-timeout:PT5S}") Duration waitTimeout,
+                               @Value("${documents.audits.write-behind.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        if (!Set.of(DURABILITY_FIRE_AND_FORGET, DURABILITY_WAIT_FOR_FLUSH).contains(durability)) {
+            throw new IllegalArgumentException("Unsupported audit durability: " + durability);
+        }
+        if (!Set.of(ON_FULL_WRITE_THROUGH, ON_FULL_BLOCK, ON_FULL_DROP).contains(onFull)) {
+            throw new IllegalArgumentException("Unsupported audit full-queue policy: " + onFull);
+        }
+        this.documentAuditRepository = documentAuditRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.writeBehind = writeBehind;
+        this.waitForFlush = DURABILITY_WAIT_FOR_FLUSH.equals(durability);
+        this.onFull = onFull;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.waitTimeout = waitTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushSucceeded = Timer.builder(METRIC_FLUSH)
+                .description("Time bulk inserts of queued document audits took")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.flushFailed = Timer.builder(METRIC_FLUSH)
+                .description("Time bulk inserts of queued document audits took")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(METRIC_DROPPED)
+                .description("Document audits dropped because the write-behind queue was full")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_QUEUE_DEPTH, queue, BlockingQueue::size)
+                .description("Document audits queued for the next bulk insert")
+                .register(meterRegistry);
+
+        if (writeBehind) {
+            // Owned here rather than exposed as a bean, which would make Boot back off its applicationTaskExecutor
+            this.flushExecutor = Executors.newSingleThreadExecutor(taskThreads.newThreadFactory("document-audit-"));
+            this.flushExecutor.execute(this::flushLoop);
+        } else {
+            this.flushExecutor = null;
+        }
+    }
+
+    /**
+     * Flushes what is still queued before the application stops.
+     */
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (flushExecutor == null) {
+            return;
+        }
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                flushExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flushExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the audit inline, or queues it and, when durability asks for it, waits up to {@code wait-timeout}
+     * for its flush; a full queue makes it wait as long for room under the {@code block} policy.
+     */
+    public void write(DocumentAuditEntity audit) {
+        if (!writeBehind || !running) {
+            documentAuditRepository.insert(audit);
+            return;
+        }
+
+        PendingAudit pending = new PendingAudit(audit);
+        if (!queue.offer(pending) && !enqueueWhenFull(pending)) {
+            return;
+        }
+        if (!running && queue.remove(pending)) {
+            // Shutdown began while queuing and the flusher may already be gone: nobody else would take it
+            documentAuditRepository.insert(audit);
+            return;
+        }
+        if (waitForFlush) {
+            awaitFlush(pending);
+        }
+    }
+
+    /**
+     * @return whether the audit is now queued; it is written through or dropped otherwise
+     */
+    private boolean enqueueWhenFull(PendingAudit pending) {
+        switch (onFull) {
+            case ON_FULL_BLOCK -> {
+                try {
+                    if (queue.offer(pending, waitTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new RuntimeException(AUDIT_NOT_QUEUED);
+            }
+            case ON_FULL_DROP -> {
+                dropped.increment();
+                return false;
+            }
+            default -> {
+                // Flushes fell behind: this caller pays the round trip instead of losing the audit
+                documentAuditRepository.insert(pending.audit);
+                return false;
+            }
+        }
+    }
+
+    private void awaitFlush(PendingAudit pending) {
+        try {
+            pending.flushed.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(AUDIT_NOT_WRITTEN, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(AUDIT_NOT_WRITTEN, e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException(AUDIT_NOT_WRITTEN, e);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingAudit> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        while (!interrupted && (running || !queue.isEmpty())) {
+            try {
+                PendingAudit first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Gathers more until the batch is full or the first record waited long enough
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingAudit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Forced shutdown: what was taken and what is still queued go out in one last flush
+                running = false;
+                interrupted = true;
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<PendingAudit> batch) {
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentAuditEntity.class)
+                    .insert(batch.stream().map(pending -> pending.audit).toList())
+                    .execute();
+            flushSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.forEach(pending -> pending.flushed.complete(null));
+        } catch (BulkOperationException e) {
+            flushFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            // Unordered: every record but the failed ones was inserted
+            Set<Integer> failedIndexes = e.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+            for (int i = 0; i < batch.size(); i++) {
+                if (failedIndexes.contains(i)) {
+                    batch.get(i).flushed.completeExceptionally(e);
+                } else {
+                    batch.get(i).flushed.complete(null);
+                }
+            }
+        } catch (RuntimeException e) {
+            flushFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.forEach(pending -> pending.flushed.completeExceptionally(e));
+        }
+    }
+
+    private static final class PendingAudit {
+        private final DocumentAuditEntity audit;
+        private final CompletableFuture<Void> flushed = new CompletableFuture<>();
+
+        PendingAudit(DocumentAuditEntity audit) {
+            this.audit = audit;
+        }
+    }
+}
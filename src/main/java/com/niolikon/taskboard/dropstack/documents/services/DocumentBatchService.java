@@ -0,0 +1,153 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentBatchItemResultDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentService.DOCUMENT_NOT_UPLOADED_TO_BUCKET;
+
+/**
+ * Creates many documents out of one request: contents are written to storage concurrently, with
+ * at most {@code documents.batch.parallelism} writes in flight, and the documents of all stored
+ * contents are persisted with a single unordered bulk insert.
+ */
+@Service
+public class DocumentBatchService implements IDocumentBatchService {
+    static final String BATCH_ITEMS_NOT_MATCHING = "Each file needs exactly one metadata item";
+    static final String BATCH_TOO_LARGE = "Too many files in batch";
+    static final String DOCUMENT_NOT_SAVED = "Could not save document";
+
+    private final DocumentService documentService;
+    private final DocumentPreviewService previewService;
+    private final DocumentMapper documentMapper;
+    private final MongoTemplate mongoTemplate;
+    private final int maxItems;
+    private final ExecutorService storeExecutor;
+
+    public DocumentBatchService(DocumentService documentService,
+                                DocumentPreviewService previewService,
+                                DocumentMapper documentMapper,
+                                MongoTemplate mongoTemplate,
+                                TaskThreads taskThreads,
+                                @Value("${documents.batch.max-items:200}") int maxItems,
+                                @Value("${documents.batch.parallelism:8}") int parallelism) {
+        this.documentService = documentService;
+        this.previewService = previewService;
+        this.documentMapper = documentMapper;
+        this.mongoTemplate = mongoTemplate;
+        this.maxItems = maxItems;
+        // Owned here rather than exposed as a bean, which would make Boot back off its applicationTaskExecutor
+        this.storeExecutor = Executors.newFixedThreadPool(parallelism, taskThreads.newThreadFactory("document-batch-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        storeExecutor.shutdown();
+    }
+
+    @Override
+    public List<DocumentBatchItemResultDto> createAll(String ownerUid, List<DocumentCreateMetadataDto> metadata,
+                                                      List<DocumentCreateContentDto> contents) {
+        if (contents.isEmpty() || contents.size() != metadata.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, BATCH_ITEMS_NOT_MATCHING);
+        }
+        if (contents.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, BATCH_TOO_LARGE);
+        }
+
+        List<CompletableFuture<DocumentEntity>> stores = new ArrayList<>(contents.size());
+        for (int i = 0; i < contents.size(); i++) {
+            DocumentCreateMetadataDto itemMetadata = metadata.get(i);
+            DocumentCreateContentDto itemContent = contents.get(i);
+            stores.add(CompletableFuture.supplyAsync(
+                    () -> documentService.store(ownerUid, itemMetadata, itemContent), storeExecutor));
+        }
+
+        DocumentBatchItemResultDto[] results = new DocumentBatchItemResultDto[contents.size()];
+        List<DocumentEntity> stored = new ArrayList<>(contents.size());
+        List<Integer> storedIndexes = new ArrayList<>(contents.size());
+        for (int i = 0; i < stores.size(); i++) {
+            try {
+                DocumentEntity entity = stores.get(i).join();
+                // Bulk inserts skip the version initialization a save performs for new documents
+                entity.setVersion(0L);
+                stored.add(entity);
+                storedIndexes.add(i);
+            } catch (CompletionException e) {
+                results[i] = failed(i, DOCUMENT_NOT_UPLOADED_TO_BUCKET);
+            }
+        }
+
+        Set<Integer> notInserted = insertAll(stored);
+        for (int j = 0; j < stored.size(); j++) {
+            int index = storedIndexes.get(j);
+            DocumentEntity entity = stored.get(j);
+            if (notInserted.contains(j)) {
+                try { documentService.releaseContent(entity); } catch (Exception ignore) {}
+                results[index] = failed(index, DOCUMENT_NOT_SAVED);
+            } else {
+                previewService.schedule(entity);
+                results[index] = DocumentBatchItemResultDto.builder()
+                        .index(index)
+                        .document(documentMapper.toReadDto(entity))
+                        .build();
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Inserts all documents in one round trip. Unordered, so a rejected document does not stop the others.
+     *
+     * @return positions of the documents that were not inserted, all of them when the write itself failed
+     */
+    private Set<Integer> insertAll(List<DocumentEntity> entities) {
+        if (entities.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentEntity.class)
+                    .insert(entities)
+                    .execute();
+            return Set.of();
+        } catch (BulkOperationException e) {
+            return e.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+        } catch (RuntimeException e) {
+            // The write itself failed, so none of them can be counted as inserted
+            return IntStream.range(0, entities.size())
+                    .boxed()
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private static DocumentBatchItemResultDto failed(int index, String error) {
+        return DocumentBatchItemResultDto.builder()
+                .index(index)
+                .error(error)
+                .build();
+    }
+}
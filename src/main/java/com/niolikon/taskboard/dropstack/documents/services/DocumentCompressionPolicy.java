@@ -0,0 +1,52 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.storage.compression.ContentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decides which documents are stored compressed. Only types listed as compressible qualify,
+ * so archives, images, video and other already-compressed formats are stored as-is.
+ */
+@Component
+public class DocumentCompressionPolicy {
+
+    private final boolean enabled;
+    private final ContentCodec codec;
+    private final List<MimeType> compressibleTypes;
+
+    public DocumentCompressionPolicy(@Value("${documents.compression.enabled:false}") boolean enabled,
+                                     @Value("${documents.compression.codec:deflate}") String codec,
+                                     @Value("${documents.compression.compressible-types:text/*,application/json,application/*+json,application/xml,application/*+xml,application/javascript,application/x-ndjson,application/csv}") List<String> compressibleTypes) {
+        this.enabled = enabled;
+        this.codec = ContentCodec.fromContentEncoding(codec)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported compression codec: " + codec));
+        this.compressibleTypes = compressibleTypes.stream()
+                .map(MimeType::valueOf)
+                .toList();
+    }
+
+    /**
+     * @return the codec to store content of the given type with, or empty to store it as-is
+     */
+    public Optional<ContentCodec> codecFor(String mimeType) {
+        if (!enabled || mimeType == null) {
+            return Optional.empty();
+        }
+
+        MimeType type;
+        try {
+            type = MimeType.valueOf(mimeType);
+        } catch (InvalidMimeTypeException e) {
+            return Optional.empty();
+        }
+        return compressibleTypes.stream().anyMatch(compressible -> compressible.includes(type))
+                ? Optional.of(codec)
+                : Optional.empty();
+    }
+}
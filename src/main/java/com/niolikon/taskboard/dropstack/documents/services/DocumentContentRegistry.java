@@ -0,0 +1,79 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.mongodb.client.result.DeleteResult;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentContentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Reference-counted records of content-addressed objects.
+ * Every change is a single atomic document update, so concurrent uploads of the same bytes
+ * converge on one object and an object is released exactly once, by its last reference.
+ */
+@Service
+public class DocumentContentRegistry {
+
+    private final MongoTemplate mongoTemplate;
+
+    public DocumentContentRegistry(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adds a reference to the content with the given hash. When no record exists yet, the object just
+     * stored for {@code document} becomes the canonical one; otherwise the existing record is returned
+     * and the caller's object is redundant.
+     */
+    public DocumentContentEntity acquire(String contentHash, DocumentEntity document) {
+        Query selectContentByHash = new Query(where("_id").is(contentHash));
+
+        Update addReference = new Update()
+                .setOnInsert("bucket", document.getBucket())
+                .setOnInsert("objectKey", document.getObjectKey())
+                .setOnInsert("size", document.getSize())
+                .setOnInsert("etag", document.getEtag())
+                .setOnInsert("checksumCrc32c", document.getChecksumCrc32c())
+                .setOnInsert("contentEncoding", document.getContentEncoding())
+                .setOnInsert("createdAt", Instant.now())
+                .inc("refCount", 1);
+
+        return mongoTemplate.findAndModify(selectContentByHash, addReference,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), DocumentContentEntity.class);
+    }
+
+    /**
+     * Drops a reference to the content with the given hash, stored under the given object.
+     * Matching on the object key too keeps a retried release from touching a newer record
+     * that reuses the hash for another object.
+     *
+     * @return {@code true} when no reference is left and the caller must delete the object
+     */
+    public boolean release(String contentHash, String objectKey) {
+        Query selectContentByHashAndObject = new Query(where("_id").is(contentHash).and("objectKey").is(objectKey));
+
+        DocumentContentEntity remaining = mongoTemplate.findAndModify(selectContentByHashAndObject,
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true), DocumentContentEntity.class);
+        if (remaining == null) {
+            // Already released by an earlier attempt whose object delete failed
+            return true;
+        }
+        if (remaining.getRefCount() > 0) {
+            return false;
+        }
+
+        // A concurrent acquire may have revived the record in between: only an unreferenced record is removed
+        Query selectUnreferencedContent = new Query(
+                where("_id").is(contentHash).and("objectKey").is(objectKey).and("refCount").lte(0));
+        DeleteResult removed = mongoTemplate.remove(selectUnreferencedContent, DocumentContentEntity.class);
+        return removed.getDeletedCount() > 0;
+    }
+}
@@ -0,0 +1,76 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position after the last document of a listing page: the sort key it was listed by, in which direction,
+ * and that document's key value and id. Handed to clients as an opaque token, so that its shape is free to
+ * change; the next page seeks past it instead of skipping every document before it.
+ */
+final class DocumentListCursor {
+    static final String INVALID_CURSOR = "Invalid cursor";
+    static final String INVALID_SORT = "Listing can only be sorted by createdAt or updatedAt";
+    static final String SORT_KEY_CREATED_AT = "createdAt";
+    static final String SORT_KEY_UPDATED_AT = "updatedAt";
+    static final Set<String> SORT_KEYS = Set.of(SORT_KEY_CREATED_AT, SORT_KEY_UPDATED_AT);
+    private static final String FORMAT_VERSION = "1";
+    private static final String SEPARATOR = "|";
+
+    private final String sortKey;
+    private final Sort.Direction direction;
+    private final Instant value;
+    private final String id;
+
+    DocumentListCursor(String sortKey, Sort.Direction direction, Instant value, String id) {
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    String getSortKey() {
+        return sortKey;
+    }
+
+    Sort.Direction getDirection() {
+        return direction;
+    }
+
+    Instant getValue() {
+        return value;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, FORMAT_VERSION, sortKey, direction.name(),
+                String.valueOf(value.toEpochMilli()), id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static DocumentListCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 5 || !FORMAT_VERSION.equals(parts[0])
+                    || !SORT_KEYS.contains(parts[1]) || !ObjectId.isValid(parts[4])) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_CURSOR);
+            }
+            return new DocumentListCursor(parts[1], Sort.Direction.valueOf(parts[2]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[3])), parts[4]);
+        } catch (IllegalArgumentException e) {
+            // Malformed base64, direction or number alike
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_CURSOR, e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedRequestDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedUploadCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentPresignedUploadMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentPresignedUploadRepository;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import com.niolikon.taskboard.dropstack.storage.model.PresignedRequest;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.framework.exceptions.rest.client.ConflictRestException;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentService.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves content transfer off the application: clients PUT and GET bytes straight against MinIO
+ * with short-lived signed URLs, and the service only keeps the metadata in step.
+ */
+@Service
+public class DocumentPresignedService implements IDocumentPresignedService {
+    static final String PRESIGNED_UPLOAD_NOT_FOUND = "Could not find presigned upload";
+    static final String PRESIGNED_UPLOAD_NOT_RECEIVED = "Presigned upload content not received";
+    static final String PRESIGNED_UPLOAD_SIZE_NOT_VALID = "Upload size not allowed";
+    private static final int EXPIRED_UPLOADS_BATCH = 100;
+
+    private final DocumentPresignedUploadRepository presignedUploadRepository;
+    private final DocumentRepository documentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final DocumentPresignedUploadMapper presignedUploadMapper;
+    private final DocumentMapper documentMapper;
+    private final IS3StorageService storage;
+    private final DocumentPreviewService previewService;
+    private final String defaultBucket;
+    private final Duration urlValidity;
+    private final Duration completionGrace;
+    private final long maxSize;
+
+    public DocumentPresignedService(DocumentPresignedUploadRepository presignedUploadRepository,
+                                    DocumentRepository documentRepository,
+                                    MongoTemplate mongoTemplate,
+                                    DocumentPresignedUploadMapper presignedUploadMapper,
+                                    DocumentMapper documentMapper,
+                                    IS3StorageService storage,
+                                    DocumentPreviewService previewService,
+                                    @Value("${minio.bucket:taskboard-dropstack-docs}") String defaultBucket,
+                                    @Value("${documents.presigned.url-validity:PT15M}") Duration urlValidity,
+                                    @Value("${documents.presigned.completion-grace:PT1H}") Duration completionGrace,
+                                    @Value("${documents.presigned.max-size:5GB}") DataSize maxSize) {
+        this.presignedUploadRepository = presignedUploadRepository;
+        this.documentRepository = documentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.presignedUploadMapper = presignedUploadMapper;
+        this.documentMapper = documentMapper;
+        this.storage = storage;
+        this.previewService = previewService;
+        this.defaultBucket = defaultBucket;
+        this.urlValidity = urlValidity;
+        this.completionGrace = completionGrace;
+        this.maxSize = maxSize.toBytes();
+    }
+
+    @Override
+    public DocumentPresignedRequestDto presignUpload(String ownerUid, DocumentPresignedUploadCreateDto dto) {
+        if (dto.getSize() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, PRESIGNED_UPLOAD_SIZE_NOT_VALID);
+        }
+
+        String bucket = defaultBucket;
+        String objectKey = UUID.randomUUID().toString();
+        String contentType = dto.getMetadata().getMimeType();
+
+        PresignedRequest presigned = storage.presignUpload(bucket, objectKey, contentType, dto.getSize(), urlValidity);
+
+        DocumentPresignedUploadEntity pending = DocumentPresignedUploadEntity.builder()
+                .id(new ObjectId().toHexString())
+                .ownerUid(ownerUid)
+                .bucket(bucket)
+                .objectKey(objectKey)
+                .title(dto.getMetadata().getTitle())
+                .mimeType(contentType)
+                .tags(dto.getMetadata().getTags())
+                .size(dto.getSize())
+                .createdAt(Instant.now())
+                .expiresAt(presigned.getExpiresAt().plus(completionGrace))
+                .build();
+        DocumentPresignedUploadEntity saved = presignedUploadRepository.save(pending);
+
+        DocumentPresignedRequestDto result = presignedUploadMapper.toRequestDto(presigned);
+        result.setId(saved.getId());
+        return result;
+    }
+
+    /**
+     * Claims the pending upload by removing it, so that of concurrent or retried completions only one creates
+     * the document, and none races the cleanup of an expired upload. A completion that fails puts it back.
+     */
+    @Override
+    public DocumentReadDto completeUpload(String ownerUid, String uploadId) {
+        Query selectLivePendingUpload = new Query(where("_id").is(uploadId)
+                .and("ownerUid").is(ownerUid)
+                .and("expiresAt").gt(Instant.now()));
+        DocumentPresignedUploadEntity pending = mongoTemplate.findAndRemove(selectLivePendingUpload, DocumentPresignedUploadEntity.class);
+        if (pending == null) {
+            throw new EntityNotFoundRestException(PRESIGNED_UPLOAD_NOT_FOUND);
+        }
+
+        DocumentEntity saved;
+        try {
+            saved = createDocument(ownerUid, pending);
+        } catch (RuntimeException ex) {
+            // The client may still upload the content, or retry, until the upload expires
+            presignedUploadRepository.save(pending);
+            throw ex;
+        }
+        previewService.schedule(saved);
+        return documentMapper.toReadDto(saved);
+    }
+
+    private DocumentEntity createDocument(String ownerUid, DocumentPresignedUploadEntity pending) {
+        String bucket = pending.getBucket();
+        String objectKey = pending.getObjectKey();
+
+        // The client's word is not enough: the object must be in the bucket with the declared size
+        ObjectStat stat = storage.stat(bucket, objectKey)
+                .filter(found -> found.getSize() == pending.getSize())
+                .orElseThrow(() -> new ConflictRestException(PRESIGNED_UPLOAD_NOT_RECEIVED));
+
+        Instant createdAndReadyInstant = Instant.now();
+
+        DocumentEntity entity = documentMapper.toEntity(presignedUploadMapper.toMetadataDto(pending));
+        entity.setId(new ObjectId().toHexString());
+        entity.setBucket(bucket);
+        entity.setObjectKey(objectKey);
+        entity.setSize(stat.getSize());
+        entity.setEtag(stat.getEtag());
+        entity.setCreatedAt(createdAndReadyInstant);
+        entity.setUpdatedAt(createdAndReadyInstant);
+        entity.setOwnerUid(ownerUid);
+        previewService.prepare(entity);
+
+        return documentRepository.save(entity);
+    }
+
+    @Override
+    public DocumentPresignedRequestDto presignDownload(String ownerUid, String id) {
+        DocumentEntity doc = documentRepository.findByIdAndOwnerUid(id, ownerUid)
+                .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
+
+        String filename = (doc.getTitle() != null && !doc.getTitle().isBlank())
+                ? doc.getTitle()
+                : doc.getObjectKey();
+
+        PresignedRequest presigned = storage.presignDownload(doc.getBucket(), doc.getObjectKey(), filename,
+                doc.getContentEncoding(), urlValidity);
+        return presignedUploadMapper.toRequestDto(presigned);
+    }
+
+    /**
+     * Drops pending uploads that were never completed, along with whatever the client stored for them.
+     * An upload whose object cannot be deleted is kept and retried on the next run. Completions only claim
+     * uploads that have not expired, so none turns the object dropped here into a document.
+     */
+    @Scheduled(fixedDelayString = "${documents.presigned.cleanup-interval:PT15M}")
+    public void deleteExpiredUploads() {
+        Instant now = Instant.now();
+        boolean allDeleted;
+        List<DocumentPresignedUploadEntity> expired;
+        do {
+            allDeleted = true;
+            expired = presignedUploadRepository.findByExpiresAtBefore(now, PageRequest.of(0, EXPIRED_UPLOADS_BATCH));
+            for (DocumentPresignedUploadEntity pending : expired) {
+                try {
+                    storage.delete(pending.getBucket(), pending.getObjectKey());
+                    presignedUploadRepository.delete(pending);
+                } catch (Exception ignore) {
+                    allDeleted = false;
+                }
+            }
+        } while (allDeleted && expired.size() == EXPIRED_UPLOADS_BATCH);
+    }
+}
@@ -0,0 +1,17 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Renders a downscaled JPEG preview of a document content type.
+ */
+public interface DocumentPreviewRenderer {
+
+    boolean supports(String mimeType);
+
+    /**
+     * @return the JPEG encoded preview, no larger than {@code maxDimension} pixels on either side
+     */
+    byte[] render(InputStream content, int maxDimension) throws IOException;
+}
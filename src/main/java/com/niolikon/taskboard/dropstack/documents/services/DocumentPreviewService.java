@@ -0,0 +1,164 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.mongodb.client.result.UpdateResult;
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentService.DOCUMENT_NOT_FOUND;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keeps a downscaled JPEG rendition next to the content of each document a renderer supports, so that
+ * browsing transfers a few kilobytes per document instead of its original. Renditions are made in the
+ * background once the document is saved and stored as a sibling object of the content; as content never
+ * changes after create, neither does its preview.
+ */
+@Service
+public class DocumentPreviewService implements IDocumentPreviewService {
+    static final String PREVIEW_NOT_FOUND = "Could not find document preview";
+    public static final String PREVIEW_STATUS_PENDING = "pending";
+    static final String PREVIEW_STATUS_READY = "ready";
+    static final String PREVIEW_STATUS_FAILED = "failed";
+    static final String PREVIEW_CONTENT_TYPE = "image/jpeg";
+    static final String PREVIEW_KEY_SUFFIX = ".preview.jpg";
+
+    private final DocumentRepository documentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final IS3StorageService storage;
+    private final List<DocumentPreviewRenderer> renderers;
+    private final boolean enabled;
+    private final int maxDimension;
+    private final long maxSourceSize;
+    private final ExecutorService renderExecutor;
+
+    public DocumentPreviewService(DocumentRepository documentRepository,
+                                  MongoTemplate mongoTemplate,
+                                  IS3StorageService storage,
+                                  List<DocumentPreviewRenderer> renderers,
+                                  TaskThreads taskThreads,
+                                  @Value("${documents.previews.enabled:false}") boolean enabled,
+                                  @Value("${documents.previews.max-dimension:320}") int maxDimension,
+                                  @Value("${documents.previews.max-source-size:32MB}") DataSize maxSourceSize,
+                                  @Value("${documents.previews.threads:2}") int threads) {
+        this.documentRepository = documentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.storage = storage;
+        this.renderers = renderers;
+        this.enabled = enabled;
+        this.maxDimension = maxDimension;
+        this.maxSourceSize = maxSourceSize.toBytes();
+        // Owned here rather than exposed as a bean, which would make Boot back off its applicationTaskExecutor
+        this.renderExecutor = Executors.newFixedThreadPool(threads, taskThreads.newThreadFactory("document-preview-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * Marks a document about to be saved as awaiting its preview, when a renderer supports its type.
+     */
+    void prepare(DocumentEntity document) {
+        if (!enabled || document.getSize() == null || document.getSize() > maxSourceSize
+                || rendererFor(document.getMimeType()).isEmpty()) {
+            return;
+        }
+        document.setPreviewObjectKey(document.getObjectKey() + PREVIEW_KEY_SUFFIX);
+        document.setPreviewStatus(PREVIEW_STATUS_PENDING);
+    }
+
+    /**
+     * Renders the preview of a saved document in the background: creating a document does not wait for it.
+     */
+    void schedule(DocumentEntity document) {
+        if (PREVIEW_STATUS_PENDING.equals(document.getPreviewStatus())) {
+            renderExecutor.execute(() -> render(document));
+        }
+    }
+
+    void render(DocumentEntity document) {
+        Update update;
+        try {
+            DocumentPreviewRenderer renderer = rendererFor(document.getMimeType())
+                    .orElseThrow(() -> new IllegalStateException("No preview renderer for " + document.getMimeType()));
+            byte[] preview;
+            try (InputStream in = open(document)) {
+                preview = renderer.render(in, maxDimension);
+            }
+            ObjectStat stat = storage.upload(document.getBucket(), document.getPreviewObjectKey(),
+                    new ByteArrayInputStream(preview), preview.length, PREVIEW_CONTENT_TYPE);
+            update = new Update()
+                    .set("previewStatus", PREVIEW_STATUS_READY)
+                    .set("previewEtag", stat.getEtag())
+                    .set("previewSize", (long) preview.length);
+        } catch (IOException | RuntimeException e) {
+            update = new Update().set("previewStatus", PREVIEW_STATUS_FAILED);
+        }
+
+        // Preview fields only: clients send the version back on their writes, and nothing they asked for changed
+        UpdateResult result = mongoTemplate.updateFirst(Query.query(where("_id").is(document.getId())), update, DocumentEntity.class);
+        if (result.getMatchedCount() == 0 && document.getContentHash() == null) {
+            // Deleted while rendering; deduplicated content may still share the rendition with other documents
+            storage.delete(document.getBucket(), document.getPreviewObjectKey());
+        }
+    }
+
+    @Override
+    public String previewETag(String ownerUid, String id) {
+        return readyPreviewOf(ownerUid, id).getPreviewEtag();
+    }
+
+    @Override
+    public DocumentContentReadDto downloadPreview(String ownerUid, String id) {
+        DocumentEntity doc = readyPreviewOf(ownerUid, id);
+
+        ObjectContent content = storage.download(doc.getBucket(), doc.getPreviewObjectKey(), doc.getPreviewEtag());
+        String filename = doc.getObjectKey() + PREVIEW_KEY_SUFFIX;
+        return new DocumentContentReadDto(content.getStream(), PREVIEW_CONTENT_TYPE, content.getStat().getSize(),
+                filename, null, doc.getPreviewEtag(), doc.getCreatedAt());
+    }
+
+    private DocumentEntity readyPreviewOf(String ownerUid, String id) {
+        DocumentEntity doc = documentRepository.findByIdAndOwnerUid(id, ownerUid)
+                .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
+        if (!PREVIEW_STATUS_READY.equals(doc.getPreviewStatus()) || doc.getPreviewObjectKey() == null) {
+            throw new EntityNotFoundRestException(PREVIEW_NOT_FOUND);
+        }
+        return doc;
+    }
+
+    private Optional<DocumentPreviewRenderer> rendererFor(String mimeType) {
+        return renderers.stream()
+                .filter(renderer -> renderer.supports(mimeType))
+                .findFirst();
+    }
+
+    private InputStream open(DocumentEntity document) {
+        InputStream stored = storage.download(document.getBucket(), document.getObjectKey(), document.getEtag()).getStream();
+        return document.getContentEncoding() == null
+                ? stored
+                : DocumentService.codecOf(document).decode(stored);
+    }
+}
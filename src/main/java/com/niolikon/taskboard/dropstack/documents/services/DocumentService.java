@@ -1,12 +1,14 @@
 package com.niolikon.taskboard.dropstack.documents.services;
 
-import com.mongodb.client.result.UpdateResult;
 import com.niolikon.taskboard.dropstack.documents.dto.*;
 import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
 import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentContentEntity;
 import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
-import com.niolikon.taskboard.dropstack.documents.repositories.DocumentAuditRepository;
 import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.checksum.ChecksumVerifyingInputStream;
+import com.niolikon.taskboard.dropstack.storage.compression.ContentCodec;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
 import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
 import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
 import com.niolikon.taskboard.framework.data.dto.PageResponse;
@@ -14,18 +16,36 @@ import com.niolikon.taskboard.framework.exceptions.rest.client.ConflictRestExcep
 import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.springframework.data.mongodb.core.query.Criteria.where;
@@ -34,66 +54,169 @@ import static org.springframework.data.mongodb.core.query.Criteria.where;
 public class DocumentService implements IDocumentService {
     static final String DOCUMENT_NOT_FOUND = "Could not find document";
     static final String DOCUMENT_NOT_UPDATED = "Could not update document";
+    static final String DOCUMENT_TITLE_NOT_REMOVABLE = "Document title cannot be removed";
     static final String DOCUMENT_NOT_UPLOADED_TO_BUCKET = "Could not upload document to bucket";
     static final String DOCUMENT_NOT_DELETED_FROM_BUCKET = "Could not delete document from bucket";
     static final String DOCUMENT_CONTENT_DEFAULT_TYPE = "application/octet-stream";
 
     private final DocumentRepository documentRepository;
-    private final DocumentAuditRepository documentAuditRepository;
+    private final DocumentAuditWriter auditWriter;
     private final DocumentMapper documentMapper;
     private final IS3StorageService storage;
     private final String defaultBucket;
 
     private final MongoTemplate mongoTemplate;
+    private final DocumentContentRegistry contentRegistry;
+    private final boolean deduplicationEnabled;
+    private final DocumentCompressionPolicy compressionPolicy;
+    private final boolean verifyChecksumOnDownload;
+    private final DocumentPreviewService previewService;
 
     public DocumentService(DocumentRepository documentRepository,
-                           DocumentAuditRepository documentAuditRepository,
+                           DocumentAuditWriter auditWriter,
                            DocumentMapper documentMapper,
                            IS3StorageService storage,
                            @Value("${minio.bucket:taskboard-dropstack-docs}") String defaultBucket,
-                           MongoTemplate mongoTemplate) {
+                           MongoTemplate mongoTemplate,
+                           DocumentContentRegistry contentRegistry,
+                           @Value("${documents.dedup.enabled:false}") boolean deduplicationEnabled,
+                           DocumentCompressionPolicy compressionPolicy,
+                           @Value("${documents.checksums.verify-on-download:false}") boolean verifyChecksumOnDownload,
+                           DocumentPreviewService previewService) {
         this.documentRepository = documentRepository;
-        this.documentAuditRepository = documentAuditRepository;
+        this.auditWriter = auditWriter;
         this.documentMapper = documentMapper;
         this.storage = storage;
         this.defaultBucket = defaultBucket;
         this.mongoTemplate = mongoTemplate;
+        this.contentRegistry = contentRegistry;
+        this.deduplicationEnabled = deduplicationEnabled;
+        this.compressionPolicy = compressionPolicy;
+        this.verifyChecksumOnDownload = verifyChecksumOnDownload;
+        this.previewService = previewService;
     }
 
     @Override
     public DocumentReadDto create(String ownerUid, DocumentCreateMetadataDto metadata, DocumentCreateContentDto content) {
+        DocumentEntity entity = store(ownerUid, metadata, content);
+
+        try {
+            return persist(entity);
+        } catch (RuntimeException ex) {
+            try { releaseContent(entity); } catch (Exception ignore) {}
+            throw ex;
+        }
+    }
+
+    /**
+     * Writes the content to storage and builds the document pointing at it, without persisting the document.
+     * A caller that fails to persist it must {@link #releaseContent(DocumentEntity) release} the content;
+     * one that persists it must {@link DocumentPreviewService#schedule(DocumentEntity) schedule} its preview.
+     */
+    DocumentEntity store(String ownerUid, DocumentCreateMetadataDto metadata, DocumentCreateContentDto content) {
         String bucket = defaultBucket;
         String objectKey = UUID.randomUUID().toString();
         Long contentSize = content.getSize();
         String contentType = metadata.getMimeType();
-
-        try (InputStream in = content.getSource().getInputStream()) {
-            storage.upload(bucket, objectKey, in, contentSize, contentType);
+        MessageDigest digest = newContentDigest();
+        Optional<ContentCodec> codec = compressionPolicy.codecFor(contentType);
+
+        ObjectStat stored;
+        long rawSize;
+        try (InputStream source = content.getSource().getInputStream();
+             InputStream in = digest != null ? new DigestInputStream(source, digest) : source) {
+            if (codec.isPresent()) {
+                // The compressed length is only known once written, so it always goes the unknown-size way
+                CountingInputStream raw = new CountingInputStream(in);
+                try (InputStream encoded = codec.get().encode(raw)) {
+                    stored = storage.upload(bucket, objectKey, encoded, contentType);
+                }
+                rawSize = raw.getCount();
+            } else if (contentSize != null) {
+                stored = storage.upload(bucket, objectKey, in, contentSize, contentType);
+                rawSize = stored.getSize();
+            } else {
+                stored = storage.upload(bucket, objectKey, in, contentType);
+                rawSize = stored.getSize();
+            }
         } catch (Exception e) {
             throw new RuntimeException(DOCUMENT_NOT_UPLOADED_TO_BUCKET, e);
         }
 
-        Optional<ObjectStat> statOpt = storage.stat(bucket, objectKey);
+        DocumentEntity entity = toStoredEntity(ownerUid, metadata, objectKey, stored, rawSize, codec.orElse(null), digest);
+        if (!objectKey.equals(entity.getObjectKey())) {
+            // Deduplicated onto bytes already stored: drop the copy just written
+            try { storage.delete(bucket, objectKey); } catch (Exception ignore) {}
+        }
+        return entity;
+    }
+
+    /**
+     * Tells whether content is written as sent, with a length known up front: the only content the
+     * non-blocking storage client uploads. Content to compress is only sized once written.
+     */
+    boolean storesAsSent(DocumentCreateMetadataDto metadata, DocumentCreateContentDto content) {
+        return content.getSize() != null && compressionPolicy.codecFor(metadata.getMimeType()).isEmpty();
+    }
+
+    String getDefaultBucket() {
+        return defaultBucket;
+    }
+
+    /**
+     * @return the digest to compute over content being written, or null when deduplication is off
+     */
+    MessageDigest newContentDigest() {
+        return deduplicationEnabled ? contentDigest() : null;
+    }
+
+    /**
+     * Builds the document pointing at content just written to {@code objectKey} of the default bucket, and prepares
+     * its preview. When the same bytes are already stored the document points at that object instead, and the
+     * caller drops the copy it wrote.
+     */
+    DocumentEntity toStoredEntity(String ownerUid, DocumentCreateMetadataDto metadata, String objectKey, ObjectStat stored,
+                                  long rawSize, ContentCodec codec, MessageDigest digest) {
         Instant createdAndReadyInstant = Instant.now();
 
         DocumentEntity entity = documentMapper.toEntity(metadata);
         entity.setId(new ObjectId().toHexString());
-        entity.setBucket(bucket);
+        entity.setBucket(defaultBucket);
         entity.setObjectKey(objectKey);
-        entity.setSize(content.getSize());
+        entity.setSize(rawSize);
+        entity.setEtag(stored.getEtag());
+        entity.setChecksumCrc32c(stored.getChecksumCrc32c());
+        entity.setContentEncoding(codec != null ? codec.getContentEncoding() : null);
         entity.setCreatedAt(createdAndReadyInstant);
         entity.setUpdatedAt(createdAndReadyInstant);
         entity.setOwnerUid(ownerUid);
 
-        statOpt.ifPresent(stat -> entity.setEtag(stat.getEtag()));
-
-        try {
-            DocumentEntity saved = documentRepository.save(entity);
-            return documentMapper.toReadDto(saved);
-        } catch (RuntimeException ex) {
-            try { storage.delete(bucket, objectKey); } catch (Exception ignore) {}
-            throw ex;
+        if (digest != null) {
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            DocumentContentEntity shared = contentRegistry.acquire(contentHash, entity);
+            if (!defaultBucket.equals(shared.getBucket()) || !objectKey.equals(shared.getObjectKey())) {
+                // Same bytes are already stored: point at that object
+                entity.setBucket(shared.getBucket());
+                entity.setObjectKey(shared.getObjectKey());
+                entity.setEtag(shared.getEtag());
+                entity.setChecksumCrc32c(shared.getChecksumCrc32c());
+                entity.setContentEncoding(shared.getContentEncoding());
+            }
+            entity.setContentHash(contentHash);
         }
+
+        previewService.prepare(entity);
+        return entity;
+    }
+
+    /**
+     * Saves a document built by {@link #store} and schedules its preview. A caller catching a failure here
+     * still owns the stored content and must release it.
+     */
+    DocumentReadDto persist(DocumentEntity entity) {
+        DocumentEntity saved = documentRepository.save(entity);
+        previewService.schedule(saved);
+        return documentMapper.toReadDto(saved);
     }
 
     @Override
@@ -102,6 +225,61 @@ public class DocumentService implements IDocumentService {
         return new PageResponse<>(documents.map(documentMapper::toReadDto));
     }
 
+    @Override
+    public DocumentCursorPageReadDto readAllByCursor(String ownerUid, String cursor, Pageable pageable) {
+        DocumentListCursor after = (cursor == null || cursor.isBlank()) ? null : DocumentListCursor.decode(cursor);
+        Sort.Order order = after != null
+                ? new Sort.Order(after.getDirection(), after.getSortKey())
+                : pageable.getSort().stream().findFirst().orElse(Sort.Order.desc(DocumentListCursor.SORT_KEY_CREATED_AT));
+        if (!DocumentListCursor.SORT_KEYS.contains(order.getProperty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, DocumentListCursor.INVALID_SORT);
+        }
+        String sortKey = order.getProperty();
+        boolean ascending = order.isAscending();
+
+        Criteria selectOwnerDocuments = where("ownerUid").is(ownerUid);
+        if (after != null) {
+            // Seeks past the last listed document along (sort key, _id), the order of the owner's index
+            ObjectId afterId = new ObjectId(after.getId());
+            selectOwnerDocuments = selectOwnerDocuments.orOperator(
+                    ascending ? where(sortKey).gt(after.getValue()) : where(sortKey).lt(after.getValue()),
+                    ascending
+                            ? where(sortKey).is(after.getValue()).and("_id").gt(afterId)
+                            : where(sortKey).is(after.getValue()).and("_id").lt(afterId));
+        }
+
+        // One more than asked tells whether another page follows, without a count
+        int pageSize = pageable.getPageSize();
+        Query selectPage = new Query(selectOwnerDocuments)
+                .with(Sort.by(order.getDirection(), sortKey, "_id"))
+                .limit(pageSize + 1);
+        List<DocumentEntity> found = mongoTemplate.find(selectPage, DocumentEntity.class);
+
+        List<DocumentEntity> page = found.size() > pageSize ? found.subList(0, pageSize) : found;
+        String nextCursor = null;
+        if (found.size() > pageSize) {
+            DocumentEntity last = page.get(page.size() - 1);
+            Instant lastValue = DocumentListCursor.SORT_KEY_UPDATED_AT.equals(sortKey) ? last.getUpdatedAt() : last.getCreatedAt();
+            nextCursor = new DocumentListCursor(sortKey, order.getDirection(), lastValue, last.getId()).encode();
+        }
+        return new DocumentCursorPageReadDto(page.stream().map(documentMapper::toReadDto).toList(), pageSize, nextCursor);
+    }
+
+    @Override
+    public PageResponse<DocumentSummaryReadDto> readAllSummaries(String ownerUid, List<String> fields, Pageable pageable) {
+        Query selectOwnerDocuments = new Query(where("ownerUid").is(ownerUid));
+        Query selectPage = Query.of(selectOwnerDocuments).with(pageable);
+        selectPage.fields().include(DocumentSummaryFields.resolve(fields).toArray(String[]::new));
+
+        List<DocumentSummaryReadDto> summaries = mongoTemplate.find(selectPage, DocumentEntity.class).stream()
+                .map(documentMapper::toSummaryDto)
+                .toList();
+        // Counts only when the page itself cannot tell the total
+        Page<DocumentSummaryReadDto> page = PageableExecutionUtils.getPage(summaries, pageable,
+                () -> mongoTemplate.count(selectOwnerDocuments, DocumentEntity.class));
+        return new PageResponse<>(page);
+    }
+
     @Override
     public DocumentReadDto read(String ownerUid, String id) {
         DocumentEntity document = documentRepository.findByIdAndOwnerUid(id, ownerUid)
@@ -110,38 +288,126 @@ public class DocumentService implements IDocumentService {
     }
 
     @Override
-    public DocumentContentReadDto download(String ownerUid, String id) {
+    public DocumentContentReadDto download(String ownerUid, String id, Set<String> acceptedEncodings) {
         DocumentEntity doc = documentRepository.findByIdAndOwnerUid(id, ownerUid)
                 .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
 
-        Optional<ObjectStat> statOpt = storage.stat(doc.getBucket(), doc.getObjectKey());
+        // Content type and length come with the GET response itself, no stat round trip before it
+        ObjectContent content = storage.download(doc.getBucket(), doc.getObjectKey(), doc.getEtag());
+        ObjectStat stat = content.getStat();
 
-        String contentType = statOpt.map(ObjectStat::getContentType)
+        String contentType = Optional.ofNullable(stat.getContentType())
                 .orElse(doc.getMimeType() != null ? doc.getMimeType() : DOCUMENT_CONTENT_DEFAULT_TYPE);
-        Long contentLength = statOpt.map(ObjectStat::getSize).orElse(null);
         String filename = (doc.getTitle() != null && !doc.getTitle().isBlank())
                 ? doc.getTitle()
                 : doc.getObjectKey();
-        InputStream in = storage.download(doc.getBucket(), doc.getObjectKey());
 
-        return new DocumentContentReadDto(in, contentType, contentLength, filename);
+        InputStream stored = content.getStream();
+        boolean verified = verifiesOnDownload(doc);
+        if (verified) {
+            // Checked while the bytes stream through: a corrupted object fails the read at its end
+            stored = new ChecksumVerifyingInputStream(stored, doc.getChecksumCrc32c());
+        }
+        Long storedLength = verified ? null : stat.getSize();
+        Long decodedLength = verified ? null : doc.getSize();
+
+        if (doc.getContentEncoding() == null) {
+            return new DocumentContentReadDto(stored, contentType, storedLength, filename, null, doc.getEtag(), doc.getUpdatedAt());
+        }
+
+        ContentCodec codec = codecOf(doc);
+        if (acceptedEncodings.contains(codec.getContentEncoding())) {
+            // Served as stored: the client decodes it, sparing both the inflate here and the transfer volume
+            return new DocumentContentReadDto(stored, contentType, storedLength, filename, codec.getContentEncoding(), doc.getEtag(), doc.getUpdatedAt());
+        }
+        return new DocumentContentReadDto(codec.decode(stored), contentType, decodedLength, filename, null, doc.getEtag(), doc.getUpdatedAt());
+    }
+
+    /**
+     * A verified download goes out without Content-Length: a mismatch, only known once the last byte was read,
+     * then aborts a chunked transfer the client sees as incomplete, where a sized body would already look whole.
+     */
+    boolean verifiesOnDownload(DocumentEntity doc) {
+        return verifyChecksumOnDownload && doc.getChecksumCrc32c() != null;
     }
 
     @Override
-    public DocumentReadDto checkIn(String ownerUid, String id, DocumentCheckinDto dto) {
+    public Optional<DocumentContentRangesReadDto> downloadRanges(String ownerUid, String id, List<HttpRange> ranges, String ifRange) {
         DocumentEntity doc = documentRepository.findByIdAndOwnerUid(id, ownerUid)
                 .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
 
-        if (!doc.getVersion().equals(dto.getVersion())) {
-            throw new ConflictRestException(DOCUMENT_NOT_UPDATED);
+        // Stored bytes of compressed content do not line up with the bytes clients address
+        long length = doc.getSize() != null ? doc.getSize() : 0L;
+        if (doc.getContentEncoding() != null || length == 0 || !ifRangeMatches(ifRange, doc)) {
+            return Optional.empty();
         }
 
+        List<DocumentContentRangeDto> satisfiable = new ArrayList<>(ranges.size());
+        long requested = 0;
+        for (HttpRange range : ranges) {
+            long firstByte;
+            long lastByte;
+            try {
+                firstByte = range.getRangeStart(length);
+                lastByte = range.getRangeEnd(length);
+            } catch (IllegalArgumentException notSatisfiable) {
+                continue;
+            }
+            if (firstByte >= length || lastByte < firstByte) {
+                continue;
+            }
+            requested += lastByte - firstByte + 1;
+            satisfiable.add(new DocumentContentRangeDto(firstByte, lastByte,
+                    () -> storage.download(doc.getBucket(), doc.getObjectKey(), firstByte, lastByte).getStream()));
+        }
+        if (satisfiable.size() > 1 && requested > length) {
+            return Optional.empty();
+        }
+
+        String contentType = doc.getMimeType() != null ? doc.getMimeType() : DOCUMENT_CONTENT_DEFAULT_TYPE;
+        String filename = (doc.getTitle() != null && !doc.getTitle().isBlank())
+                ? doc.getTitle()
+                : doc.getObjectKey();
+        return Optional.of(new DocumentContentRangesReadDto(contentType, length, filename,
+                doc.getEtag(), doc.getUpdatedAt(), satisfiable));
+    }
+
+    /**
+     * Validated by the strong ETag of the stored content, or by the Last-Modified date sent with it.
+     */
+    static boolean ifRangeMatches(String ifRange, DocumentEntity doc) {
+        if (ifRange == null || ifRange.isBlank()) {
+            return true;
+        }
+        String validator = ifRange.trim();
+        if (validator.startsWith("W/")) {
+            // Weak validators never qualify for a range
+            return false;
+        }
+        if (validator.startsWith("\"")) {
+            return doc.getEtag() != null && unquote(validator).equals(unquote(doc.getEtag()));
+        }
+        try {
+            Instant since = ZonedDateTime.parse(validator, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return doc.getUpdatedAt() != null && since.equals(doc.getUpdatedAt().truncatedTo(ChronoUnit.SECONDS));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static String unquote(String etag) {
+        return etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")
+                ? etag.substring(1, etag.length() - 1)
+                : etag;
+    }
+
+    @Override
+    public DocumentReadDto checkIn(String ownerUid, String id, DocumentCheckinDto dto) {
         Instant now = Instant.now();
-        String oldCategory = doc.getCategoryCode();
 
-        // Partial update
-        Query selectDocumentByIdAndVersion = new Query(
-                where("_id").is(id).and("version").is(dto.getVersion()));
+        // Ownership and version in the predicate: one round trip checks both and applies the check-in
+        Query selectOwnedDocumentByIdAndVersion = new Query(
+                where("_id").is(id).and("ownerUid").is(ownerUid).and("version").is(dto.getVersion()));
 
         Update setCategoryWithPartialUpdate = new Update()
                 .set("categoryCode", dto.getCategoryCode())
@@ -150,13 +416,23 @@ public class DocumentService implements IDocumentService {
                 .set("updatedAt", now)
                 .inc("version", 1);
 
-        UpdateResult result = mongoTemplate.updateFirst(selectDocumentByIdAndVersion, setCategoryWithPartialUpdate, DocumentEntity.class);
-        if (result.getModifiedCount() == 0) {
-            throw new ConflictRestException(DOCUMENT_NOT_UPDATED);
+        // Returns the document as it was, whose category the audit needs; the update tells what it became
+        DocumentEntity previous = mongoTemplate.findAndModify(selectOwnedDocumentByIdAndVersion, setCategoryWithPartialUpdate, DocumentEntity.class);
+        if (previous == null) {
+            throw notUpdated(ownerUid, id);
         }
 
-        DocumentEntity updated = documentRepository.findByIdAndOwnerUid(id, ownerUid)
-                .orElseThrow(() -> new EntityNotFoundRestException(DOCUMENT_NOT_FOUND));
+        String oldCategory = previous.getCategoryCode();
+        DocumentEntity updated = previous;
+        updated.setCategoryCode(dto.getCategoryCode());
+        updated.setCheckedInAt(now);
+        updated.setUpdatedAt(now);
+        updated.setVersion(previous.getVersion() + 1);
+
+        // Category is null until the first check-in, which Map.of would reject
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("oldCategoryCode", oldCategory);
+        payload.put("newCategoryCode", updated.getCategoryCode());
 
         DocumentAuditEntity audit = new DocumentAuditEntity();
         audit.setId(new ObjectId().toHexString());
@@ -164,44 +440,116 @@ public class DocumentService implements IDocumentService {
         audit.setType("CHECKIN");
         audit.setAt(now);
         audit.setBy(ownerUid);
-        audit.setPayload(Map.of("oldCategoryCode", oldCategory, "newCategoryCode", updated.getCategoryCode()));
-        documentAuditRepository.save(audit);
+        audit.setPayload(payload);
+        auditWriter.write(audit);
 
         return documentMapper.toReadDto(updated);
     }
 
     @Override
     public DocumentReadDto update(String ownerUid, String id, DocumentUpdateDto dto) {
-        DocumentEntity existing = documentRepository.findByIdAndOwnerUid(id, ownerUid)
-                .orElseThrow(() -> new EntityNotFoundRestException(DocumentService.DOCUMENT_NOT_FOUND));
-        Instant updateInstant = Instant.now();
+        Update setMetadata = new Update()
+                .set("title", dto.getTitle())
+                .set("tags", dto.getTags());
+        return updateMetadata(ownerUid, id, dto.getVersion(), setMetadata);
+    }
 
-        // Optimistic locking
-        existing.setVersion(dto.getVersion());
+    @Override
+    public DocumentReadDto patch(String ownerUid, String id, DocumentPatchDto dto) {
+        Update setChangedMetadata = new Update();
+        if (dto.getTitle() != null) {
+            setChangedMetadata.set("title", dto.getTitle()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, DOCUMENT_TITLE_NOT_REMOVABLE)));
+        }
+        if (dto.getTags() != null) {
+            setChangedMetadata.set("tags", dto.getTags().orElse(List.of()));
+        }
+        return updateMetadata(ownerUid, id, dto.getVersion(), setChangedMetadata);
+    }
 
-        existing.setTitle(dto.getTitle());
-        existing.setTags(dto.getTags());
-        existing.setUpdatedAt(updateInstant);
+    /**
+     * Applies {@code setMetadata} with a single write conditional on id, owner and version, so that only the
+     * changed fields are rewritten, and maps the document as the write left it.
+     */
+    private DocumentReadDto updateMetadata(String ownerUid, String id, Long version, Update setMetadata) {
+        Query selectOwnedDocumentByIdAndVersion = new Query(
+                where("_id").is(id).and("ownerUid").is(ownerUid).and("version").is(version));
+        setMetadata.set("updatedAt", Instant.now()).inc("version", 1);
+
+        DocumentEntity updated = mongoTemplate.findAndModify(selectOwnedDocumentByIdAndVersion, setMetadata,
+                FindAndModifyOptions.options().returnNew(true), DocumentEntity.class);
+        if (updated == null) {
+            throw notUpdated(ownerUid, id);
+        }
+        return documentMapper.toReadDto(updated);
+    }
 
-        try {
-            DocumentEntity saved = documentRepository.save(existing);
-            return documentMapper.toReadDto(saved);
-        } catch (OptimisticLockingFailureException e) {
-            throw new ConflictRestException(DOCUMENT_NOT_UPDATED);
+    /**
+     * Tells why a write conditional on id, owner and version matched nothing: a stale version of an owned document,
+     * or no such document for the owner. Costs a lookup, paid only by failed writes.
+     */
+    private RuntimeException notUpdated(String ownerUid, String id) {
+        Query selectOwnedDocumentById = new Query(where("_id").is(id).and("ownerUid").is(ownerUid));
+        if (mongoTemplate.exists(selectOwnedDocumentById, DocumentEntity.class)) {
+            return new ConflictRestException(DOCUMENT_NOT_UPDATED);
         }
+        return new EntityNotFoundRestException(DOCUMENT_NOT_FOUND);
     }
 
     @Override
     public void delete(String ownerUid, String id) {
         DocumentEntity document = documentRepository.findByIdAndOwnerUid(id, ownerUid)
                 .orElseThrow(() -> new EntityNotFoundRestException(DocumentService.DOCUMENT_NOT_FOUND));
+        remove(document);
+    }
 
+    /**
+     * Releases the content of a found document, then deletes the document itself.
+     */
+    void remove(DocumentEntity document) {
         try {
-            storage.delete(document.getBucket(), document.getObjectKey());
+            releaseContent(document);
         } catch (Exception e) {
             throw new RuntimeException(DOCUMENT_NOT_DELETED_FROM_BUCKET, e);
         }
 
         documentRepository.delete(document);
     }
+
+    /**
+     * Deletes the object behind a document and its preview, unless deduplicated content is still referenced elsewhere.
+     */
+    void releaseContent(DocumentEntity document) {
+        for (String objectKey : releasedObjectKeys(document)) {
+            storage.delete(document.getBucket(), objectKey);
+        }
+    }
+
+    /**
+     * Gives up a document's reference to its content.
+     *
+     * @return the keys of the objects no document refers to anymore, which the caller deletes from the document's bucket
+     */
+    List<String> releasedObjectKeys(DocumentEntity document) {
+        if (document.getContentHash() != null
+                && !contentRegistry.release(document.getContentHash(), document.getObjectKey())) {
+            return List.of();
+        }
+        return document.getPreviewObjectKey() != null
+                ? List.of(document.getObjectKey(), document.getPreviewObjectKey())
+                : List.of(document.getObjectKey());
+    }
+
+    static ContentCodec codecOf(DocumentEntity document) {
+        return ContentCodec.fromContentEncoding(document.getContentEncoding())
+                .orElseThrow(() -> new IllegalStateException("Unsupported content encoding: " + document.getContentEncoding()));
+    }
+
+    static MessageDigest contentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
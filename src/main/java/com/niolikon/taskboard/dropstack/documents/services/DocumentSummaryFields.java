@@ -0,0 +1,50 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fields a listing may select, by their name in {@code DocumentSummaryReadDto}, and the document fields they
+ * project. The id is always returned.
+ */
+final class DocumentSummaryFields {
+    static final String INVALID_FIELDS = "Fields can only select Title, MimeType, Size, Tags, CreatedAt, UpdatedAt, Version or PreviewStatus";
+
+    private static final Map<String, String> DOCUMENT_FIELD_BY_NAME = Map.of(
+            "Title", "title",
+            "MimeType", "mimeType",
+            "Size", "size",
+            "Tags", "tags",
+            "CreatedAt", "createdAt",
+            "UpdatedAt", "updatedAt",
+            "Version", "version",
+            "PreviewStatus", "previewStatus");
+    static final List<String> DEFAULT_DOCUMENT_FIELDS = List.of("title", "mimeType", "size", "updatedAt");
+
+    private DocumentSummaryFields() {}
+
+    /**
+     * @param names selected names, matched ignoring case; none selects title, mime type, size and update time
+     */
+    static List<String> resolve(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return DEFAULT_DOCUMENT_FIELDS;
+        }
+        Set<String> documentFields = new LinkedHashSet<>();
+        for (String name : names) {
+            String documentField = DOCUMENT_FIELD_BY_NAME.entrySet().stream()
+                    .filter(entry -> entry.getKey().equalsIgnoreCase(name.trim()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_FIELDS));
+            documentFields.add(documentField);
+        }
+        return List.copyOf(documentFields);
+    }
+}
@@ -0,0 +1,311 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionReadDto;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentUploadSessionMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentUploadSessionRepository;
+import com.niolikon.taskboard.dropstack.storage.checksum.Crc32cChecksums;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.framework.exceptions.rest.client.ConflictRestException;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CheckedInputStream;
+
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentService.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Resumable uploads: each session is an S3 multipart upload whose parts are the chunks sent by the client.
+ * Chunks may arrive in any order and be re-sent; the session only tracks which ones were stored.
+ */
+@Service
+public class DocumentUploadSessionService implements IDocumentUploadSessionService {
+    static final String UPLOAD_SESSION_NOT_FOUND = "Could not find upload session";
+    static final String UPLOAD_SESSION_INCOMPLETE = "Upload session has missing chunks";
+    static final String UPLOAD_SESSION_SIZE_NOT_VALID = "Upload size or chunk size not allowed";
+    static final String UPLOAD_CHUNK_NOT_VALID = "Chunk number or chunk size not valid";
+    static final long MIN_CHUNK_SIZE = 5L * 1024 * 1024;
+    static final int MAX_CHUNK_COUNT = 10_000;
+    private static final int EXPIRED_SESSIONS_BATCH = 100;
+
+    private final DocumentUploadSessionRepository sessionRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentUploadSessionMapper sessionMapper;
+    private final DocumentMapper documentMapper;
+    private final IS3StorageService storage;
+    private final DocumentPreviewService previewService;
+    private final MongoTemplate mongoTemplate;
+    private final String defaultBucket;
+    private final long defaultChunkSize;
+    private final long maxChunkSize;
+    private final long maxSize;
+    private final Duration timeToLive;
+
+    public DocumentUploadSessionService(DocumentUploadSessionRepository sessionRepository,
+                                        DocumentRepository documentRepository,
+                                        DocumentUploadSessionMapper sessionMapper,
+                                        DocumentMapper documentMapper,
+                                        IS3StorageService storage,
+                                        DocumentPreviewService previewService,
+                                        MongoTemplate mongoTemplate,
+                                        @Value("${minio.bucket:taskboard-dropstack-docs}") String defaultBucket,
+                                        @Value("${documents.upload-sessions.chunk-size:8MB}") DataSize defaultChunkSize,
+                                        @Value("${documents.upload-sessions.max-chunk-size:64MB}") DataSize maxChunkSize,
+                                        @Value("${documents.upload-sessions.max-size:5GB}") DataSize maxSize,
+                                        @Value("${documents.upload-sessions.time-to-live:PT24H}") Duration timeToLive) {
+        this.sessionRepository = sessionRepository;
+        this.documentRepository = documentRepository;
+        this.sessionMapper = sessionMapper;
+        this.documentMapper = documentMapper;
+        this.storage = storage;
+        this.previewService = previewService;
+        this.mongoTemplate = mongoTemplate;
+        this.defaultBucket = defaultBucket;
+        this.defaultChunkSize = defaultChunkSize.toBytes();
+        this.maxChunkSize = maxChunkSize.toBytes();
+        this.maxSize = maxSize.toBytes();
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public DocumentUploadSessionReadDto open(String ownerUid, DocumentUploadSessionCreateDto dto) {
+        long size = dto.getSize();
+        long chunkSize = dto.getChunkSize() != null ? dto.getChunkSize() : defaultChunkSize;
+        long chunkCount = (size + chunkSize - 1) / chunkSize;
+
+        // S3 requires every part but the last to be at least 5MB
+        boolean chunkSizeAllowed = chunkSize <= maxChunkSize && (chunkSize >= MIN_CHUNK_SIZE || chunkCount == 1);
+        if (size > maxSize || !chunkSizeAllowed || chunkCount > MAX_CHUNK_COUNT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_SESSION_SIZE_NOT_VALID);
+        }
+
+        String bucket = defaultBucket;
+        String objectKey = UUID.randomUUID().toString();
+        String uploadId;
+        try {
+            uploadId = storage.createMultipartUpload(bucket, objectKey, dto.getMetadata().getMimeType());
+        } catch (Exception e) {
+            throw new RuntimeException(DOCUMENT_NOT_UPLOADED_TO_BUCKET, e);
+        }
+
+        Instant now = Instant.now();
+        DocumentUploadSessionEntity session = DocumentUploadSessionEntity.builder()
+                .id(new ObjectId().toHexString())
+                .ownerUid(ownerUid)
+                .bucket(bucket)
+                .objectKey(objectKey)
+                .uploadId(uploadId)
+                .title(dto.getMetadata().getTitle())
+                .mimeType(dto.getMetadata().getMimeType())
+                .tags(dto.getMetadata().getTags())
+                .size(size)
+                .chunkSize(chunkSize)
+                .chunkCount((int) chunkCount)
+                .chunkETags(new HashMap<>())
+                .createdAt(now)
+                .expiresAt(now.plus(timeToLive))
+                .build();
+
+        try {
+            return sessionMapper.toReadDto(sessionRepository.save(session));
+        } catch (RuntimeException ex) {
+            try { storage.abortMultipartUpload(bucket, objectKey, uploadId); } catch (Exception ignore) {}
+            throw ex;
+        }
+    }
+
+    @Override
+    public DocumentUploadSessionReadDto read(String ownerUid, String sessionId) {
+        return sessionMapper.toReadDto(findLiveSession(ownerUid, sessionId));
+    }
+
+    @Override
+    public DocumentUploadSessionReadDto uploadChunk(String ownerUid, String sessionId, int chunkNumber, InputStream data, long size) {
+        DocumentUploadSessionEntity session = findLiveSession(ownerUid, sessionId);
+
+        if (chunkNumber < 1 || chunkNumber > session.getChunkCount() || size != expectedChunkSize(session, chunkNumber)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UPLOAD_CHUNK_NOT_VALID);
+        }
+
+        // Each chunk's CRC32C is taken as it streams through: completing combines them into the whole object's
+        CheckedInputStream checked = Crc32cChecksums.checking(data);
+        String eTag;
+        try {
+            eTag = storage.uploadPart(session.getBucket(), session.getObjectKey(), session.getUploadId(), chunkNumber, checked, size);
+        } catch (Exception e) {
+            throw new RuntimeException(DOCUMENT_NOT_UPLOADED_TO_BUCKET, e);
+        }
+
+        // Recording single map entries keeps concurrent chunk uploads from overwriting each other
+        Query selectSessionByIdAndOwner = new Query(where("_id").is(sessionId).and("ownerUid").is(ownerUid));
+        Update recordChunkAndExtendExpiry = new Update()
+                .set("chunkETags." + chunkNumber, eTag)
+                .set("chunkChecksums." + chunkNumber, Crc32cChecksums.encode(checked.getChecksum().getValue()))
+                .set("expiresAt", Instant.now().plus(timeToLive));
+
+        DocumentUploadSessionEntity updated = mongoTemplate.findAndModify(selectSessionByIdAndOwner, recordChunkAndExtendExpiry,
+                FindAndModifyOptions.options().returnNew(true), DocumentUploadSessionEntity.class);
+        if (updated == null) {
+            throw new EntityNotFoundRestException(UPLOAD_SESSION_NOT_FOUND);
+        }
+        return sessionMapper.toReadDto(updated);
+    }
+
+    /**
+     * The session is claimed by removing it, so a concurrent or retried completion finds nothing and cannot
+     * create a second document over the same object. A completion that fails puts the session back.
+     */
+    @Override
+    public DocumentReadDto complete(String ownerUid, String sessionId) {
+        Query selectLiveSession = new Query(where("_id").is(sessionId).and("ownerUid").is(ownerUid).and("expiresAt").gt(Instant.now()));
+        DocumentUploadSessionEntity session = mongoTemplate.findAndRemove(selectLiveSession, DocumentUploadSessionEntity.class);
+        if (session == null) {
+            throw new EntityNotFoundRestException(UPLOAD_SESSION_NOT_FOUND);
+        }
+
+        DocumentEntity saved;
+        try {
+            saved = createDocument(ownerUid, session);
+        } catch (RuntimeException ex) {
+            // The client may still send missing chunks, or retry, until the session expires
+            sessionRepository.save(session);
+            throw ex;
+        }
+        previewService.schedule(saved);
+        return documentMapper.toReadDto(saved);
+    }
+
+    private DocumentEntity createDocument(String ownerUid, DocumentUploadSessionEntity session) {
+        Map<String, String> chunkETags = Optional.ofNullable(session.getChunkETags()).orElse(Map.of());
+        if (chunkETags.size() != session.getChunkCount()) {
+            throw new ConflictRestException(UPLOAD_SESSION_INCOMPLETE);
+        }
+
+        Map<Integer, String> partETags = new HashMap<>();
+        chunkETags.forEach((chunkNumber, eTag) -> partETags.put(Integer.valueOf(chunkNumber), eTag));
+
+        String bucket = session.getBucket();
+        String objectKey = session.getObjectKey();
+        String eTag;
+        try {
+            eTag = storage.completeMultipartUpload(bucket, objectKey, session.getUploadId(), partETags);
+        } catch (Exception e) {
+            throw new RuntimeException(DOCUMENT_NOT_UPLOADED_TO_BUCKET, e);
+        }
+
+        Instant createdAndReadyInstant = Instant.now();
+
+        DocumentEntity entity = documentMapper.toEntity(sessionMapper.toMetadataDto(session));
+        entity.setId(new ObjectId().toHexString());
+        entity.setBucket(bucket);
+        entity.setObjectKey(objectKey);
+        entity.setSize(session.getSize());
+        entity.setEtag(eTag);
+        entity.setChecksumCrc32c(contentChecksum(session));
+        entity.setCreatedAt(createdAndReadyInstant);
+        entity.setUpdatedAt(createdAndReadyInstant);
+        entity.setOwnerUid(ownerUid);
+
+        previewService.prepare(entity);
+
+        try {
+            return documentRepository.save(entity);
+        } catch (RuntimeException ex) {
+            try { storage.delete(bucket, objectKey); } catch (Exception ignore) {}
+            throw ex;
+        }
+    }
+
+    /**
+     * CRC32C of the whole content, combined from the chunks' own in chunk order; null when a chunk has none.
+     */
+    private static String contentChecksum(DocumentUploadSessionEntity session) {
+        Map<String, String> chunkChecksums = Optional.ofNullable(session.getChunkChecksums()).orElse(Map.of());
+        long crc = 0;
+        for (int chunkNumber = 1; chunkNumber <= session.getChunkCount(); chunkNumber++) {
+            String chunkChecksum = chunkChecksums.get(String.valueOf(chunkNumber));
+            if (chunkChecksum == null) {
+                return null;
+            }
+            long chunkCrc = Crc32cChecksums.decode(chunkChecksum);
+            crc = chunkNumber == 1 ? chunkCrc : Crc32cChecksums.combine(crc, chunkCrc, expectedChunkSize(session, chunkNumber));
+        }
+        return Crc32cChecksums.encode(crc);
+    }
+
+    @Override
+    public void abort(String ownerUid, String sessionId) {
+        DocumentUploadSessionEntity session = sessionRepository.findByIdAndOwnerUid(sessionId, ownerUid)
+                .orElseThrow(() -> new EntityNotFoundRestException(UPLOAD_SESSION_NOT_FOUND));
+
+        try {
+            storage.abortMultipartUpload(session.getBucket(), session.getObjectKey(), session.getUploadId());
+        } catch (Exception e) {
+            throw new RuntimeException(DOCUMENT_NOT_DELETED_FROM_BUCKET, e);
+        }
+
+        sessionRepository.delete(session);
+    }
+
+    /**
+     * Aborts the multipart uploads of expired sessions, so their parts stop taking space in the bucket.
+     * A session whose abort fails is kept and retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${documents.upload-sessions.cleanup-interval:PT15M}")
+    public void abortExpiredSessions() {
+        Instant now = Instant.now();
+        boolean allAborted;
+        List<DocumentUploadSessionEntity> expired;
+        do {
+            allAborted = true;
+            expired = sessionRepository.findByExpiresAtBefore(now, PageRequest.of(0, EXPIRED_SESSIONS_BATCH));
+            for (DocumentUploadSessionEntity session : expired) {
+                try {
+                    storage.abortMultipartUpload(session.getBucket(), session.getObjectKey(), session.getUploadId());
+                    sessionRepository.delete(session);
+                } catch (Exception ignore) {
+                    allAborted = false;
+                }
+            }
+            // Stop on failures: the same sessions would come back first in the next batch
+        } while (allAborted && expired.size() == EXPIRED_SESSIONS_BATCH);
+    }
+
+    private DocumentUploadSessionEntity findLiveSession(String ownerUid, String sessionId) {
+        return sessionRepository.findByIdAndOwnerUid(sessionId, ownerUid)
+                .filter(session -> session.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new EntityNotFoundRestException(UPLOAD_SESSION_NOT_FOUND));
+    }
+
+    private static long expectedChunkSize(DocumentUploadSessionEntity session, int chunkNumber) {
+        if (chunkNumber < session.getChunkCount()) {
+            return session.getChunkSize();
+        }
+        return session.getSize() - session.getChunkSize() * (session.getChunkCount() - 1);
+    }
+}
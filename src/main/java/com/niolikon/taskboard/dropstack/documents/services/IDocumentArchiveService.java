@@ -0,0 +1,15 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentArchiveReadDto;
+
+import java.util.List;
+
+public interface IDocumentArchiveService {
+
+    /**
+     * Selects the documents to put in a ZIP archive: the given ids, all of which must belong to the owner,
+     * or else every document of the owner, optionally only those with {@code tag}.
+     * The selection fails before any content is read; the archive is only built while it is written.
+     */
+    DocumentArchiveReadDto archive(String ownerUid, List<String> ids, String tag);
+}
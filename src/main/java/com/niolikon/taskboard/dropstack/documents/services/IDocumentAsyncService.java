@@ -0,0 +1,19 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.*;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public interface IDocumentAsyncService {
+
+    CompletableFuture<DocumentReadDto> create(String ownerUid, DocumentCreateMetadataDto metadata, DocumentCreateContentDto content);
+
+    CompletableFuture<DocumentReadDto> read(String ownerUid, String id);
+
+    CompletableFuture<DocumentContentPublisherDto> download(String ownerUid, String id, Set<String> acceptedEncodings);
+
+    CompletableFuture<DocumentContentReadDto> stat(String ownerUid, String id, Set<String> acceptedEncodings);
+
+    CompletableFuture<Void> delete(String ownerUid, String id);
+}
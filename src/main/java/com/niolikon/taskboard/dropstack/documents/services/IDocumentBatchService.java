@@ -0,0 +1,17 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentBatchItemResultDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+
+import java.util.List;
+
+public interface IDocumentBatchService {
+
+    /**
+     * Creates one document per content, described by the metadata at the same position.
+     * Items fail independently: the result at each index tells whether that item was created.
+     */
+    List<DocumentBatchItemResultDto> createAll(String ownerUid, List<DocumentCreateMetadataDto> metadata,
+                                               List<DocumentCreateContentDto> contents);
+}
@@ -0,0 +1,14 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedRequestDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedUploadCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+
+public interface IDocumentPresignedService {
+
+    DocumentPresignedRequestDto presignUpload(String ownerUid, DocumentPresignedUploadCreateDto dto);
+
+    DocumentReadDto completeUpload(String ownerUid, String uploadId);
+
+    DocumentPresignedRequestDto presignDownload(String ownerUid, String id);
+}
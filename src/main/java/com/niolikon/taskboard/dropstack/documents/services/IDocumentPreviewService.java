@@ -0,0 +1,16 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+
+public interface IDocumentPreviewService {
+
+    /**
+     * @return the ETag of the document preview, read from the document record alone
+     */
+    String previewETag(String ownerUid, String id);
+
+    /**
+     * Opens the preview of a document; not found until its rendition is ready.
+     */
+    DocumentContentReadDto downloadPreview(String ownerUid, String id);
+}
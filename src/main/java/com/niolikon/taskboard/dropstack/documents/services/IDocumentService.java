@@ -3,6 +3,11 @@ package com.niolikon.taskboard.dropstack.documents.services;
 import com.niolikon.taskboard.dropstack.documents.dto.*;
 import com.niolikon.taskboard.framework.data.dto.PageResponse;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpRange;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface IDocumentService {
 
@@ -10,13 +15,41 @@ public interface IDocumentService {
 
     PageResponse<DocumentReadDto> readAll(String ownerUid, Pageable pageable);
 
+    /**
+     * Lists the owner's documents after the position {@code cursor} points at, or from the start when blank,
+     * sorted as the pageable asks on its first page (createdAt or updatedAt, newest first by default) and as
+     * the cursor says afterwards. No total is counted: the result only tells whether more documents follow.
+     */
+    DocumentCursorPageReadDto readAllByCursor(String ownerUid, String cursor, Pageable pageable);
+
+    /**
+     * Lists the owner's documents reading only the selected fields, see {@code DocumentSummaryFields},
+     * so unselected ones are neither decoded nor sent.
+     */
+    PageResponse<DocumentSummaryReadDto> readAllSummaries(String ownerUid, List<String> fields, Pageable pageable);
+
     DocumentReadDto read(String ownerUid, String id);
 
-    DocumentContentReadDto download(String ownerUid, String id);
+    /**
+     * @param acceptedEncodings content codings the client accepts; compressed content in one of them is served as stored
+     */
+    DocumentContentReadDto download(String ownerUid, String id, Set<String> acceptedEncodings);
+
+    /**
+     * Resolves the requested byte ranges against the content, each read from storage with its own ranged GET.
+     * Empty when the whole content must be served instead: {@code ifRange} no longer matches,
+     * the content is stored compressed, or overlapping ranges ask for more than the whole.
+     */
+    Optional<DocumentContentRangesReadDto> downloadRanges(String ownerUid, String id, List<HttpRange> ranges, String ifRange);
 
     DocumentReadDto checkIn(String ownerUid, String id, DocumentCheckinDto dto);
 
     DocumentReadDto update(String ownerUid, String id, DocumentUpdateDto dto);
 
+    /**
+     * Applies a JSON merge patch of the metadata, rewriting only the fields it carries.
+     */
+    DocumentReadDto patch(String ownerUid, String id, DocumentPatchDto dto);
+
     void delete(String ownerUid, String id);
 }
@@ -0,0 +1,20 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionReadDto;
+
+import java.io.InputStream;
+
+public interface IDocumentUploadSessionService {
+
+    DocumentUploadSessionReadDto open(String ownerUid, DocumentUploadSessionCreateDto dto);
+
+    DocumentUploadSessionReadDto read(String ownerUid, String sessionId);
+
+    DocumentUploadSessionReadDto uploadChunk(String ownerUid, String sessionId, int chunkNumber, InputStream data, long size);
+
+    DocumentReadDto complete(String ownerUid, String sessionId);
+
+    void abort(String ownerUid, String sessionId);
+}
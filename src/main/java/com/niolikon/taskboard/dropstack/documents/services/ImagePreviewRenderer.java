@@ -0,0 +1,118 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Previews the image formats the JDK decodes (JPEG, PNG, GIF, BMP, TIFF). Large images are subsampled
+ * while they are decoded, so the full resolution is never held in memory.
+ */
+@Component
+public class ImagePreviewRenderer implements DocumentPreviewRenderer {
+    private static final String PREVIEW_FORMAT = "jpeg";
+
+    private final Set<String> supportedTypes = Set.of(ImageIO.getReaderMIMETypes());
+    private final long maxPixels;
+    private final float quality;
+
+    public ImagePreviewRenderer(@Value("${documents.previews.max-pixels:50000000}") long maxPixels,
+                                @Value("${documents.previews.quality:0.8}") float quality) {
+        this.maxPixels = maxPixels;
+        this.quality = quality;
+    }
+
+    @Override
+    public boolean supports(String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        try {
+            MimeType type = MimeType.valueOf(mimeType);
+            return supportedTypes.contains(type.getType() + "/" + type.getSubtype());
+        } catch (InvalidMimeTypeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public byte[] render(InputStream content, int maxDimension) throws IOException {
+        try (ImageInputStream in = new MemoryCacheImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large to preview: %dx%d".formatted(width, height));
+                }
+
+                // Only every n-th pixel is decoded, leaving at least twice the preview size to scale down smoothly
+                int step = Math.max(1, Math.max(width, height) / (2 * maxDimension));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return encode(scale(reader.read(0, param), maxDimension));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxDimension) {
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        // JPEG has no alpha channel: transparent areas are flattened onto white
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(PREVIEW_FORMAT).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,115 @@
+package com.niolikon.taskboard.dropstack.storage.cache;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Copies the bytes of a download into a cache file as the caller reads them, so a miss costs no extra
+ * round trip. The file is only handed to the cache once the whole object went through; a read abandoned
+ * halfway, or a file that cannot be written, leaves nothing behind and never fails the download itself.
+ */
+class CacheFillingInputStream extends FilterInputStream {
+
+    interface Completion {
+        void filled(Path file);
+    }
+
+    private final Path file;
+    private final long expectedSize;
+    private final Completion completion;
+    private FileChannel fill;
+    private long written;
+
+    CacheFillingInputStream(InputStream in, Path file, FileChannel fill, long expectedSize, Completion completion) {
+        super(in);
+        this.file = file;
+        this.fill = fill;
+        this.expectedSize = expectedSize;
+        this.completion = completion;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int length = read(single, 0, 1);
+        return length < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+        int length = in.read(buf, off, len);
+        if (length > 0) {
+            copy(buf, off, length);
+        } else if (length < 0) {
+            complete();
+        }
+        return length;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes would leave a hole in the file
+        abandon();
+        return in.skip(n);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            abandon();
+        } finally {
+            in.close();
+        }
+    }
+
+    private void copy(byte[] buf, int off, int length) {
+        if (fill == null) {
+            return;
+        }
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(buf, off, length);
+            while (bytes.hasRemaining()) {
+                fill.write(bytes);
+            }
+            written += length;
+        } catch (IOException e) {
+            abandon();
+        }
+    }
+
+    private void complete() {
+        if (fill == null) {
+            return;
+        }
+        if (written != expectedSize) {
+            abandon();
+            return;
+        }
+        try {
+            fill.close();
+            fill = null;
+            completion.filled(file);
+        } catch (IOException e) {
+            abandon();
+        }
+    }
+
+    private void abandon() {
+        if (fill == null) {
+            return;
+        }
+        try { fill.close(); } catch (IOException ignore) {}
+        fill = null;
+        try { Files.deleteIfExists(file); } catch (IOException ignore) {}
+    }
+}
@@ -0,0 +1,70 @@
+package com.niolikon.taskboard.dropstack.storage.cache;
+
+import com.niolikon.taskboard.dropstack.storage.transfer.ChannelSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Reads a cached object straight from its file channel. {@link #transferTo(OutputStream)} hands the copy to
+ * {@link FileChannel#transferTo}, which the JDK turns into a kernel-side copy when the target is a file or socket
+ * channel and into a single direct-buffer copy otherwise, never through a heap array of ours.
+ */
+class FileChannelInputStream extends InputStream implements ChannelSource {
+    private final FileChannel channel;
+
+    FileChannelInputStream(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int length = read(single, 0, 1);
+        return length < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        return channel.read(ByteBuffer.wrap(buf, off, len));
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long position = channel.position();
+        long skipped = Math.max(0, Math.min(n, channel.size() - position));
+        channel.position(position + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE, channel.size() - channel.position());
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long start = channel.position();
+        long end = channel.size();
+        long position = start;
+        while (position < end) {
+            position += channel.transferTo(position, end - position, target);
+        }
+        channel.position(position);
+        return position - start;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
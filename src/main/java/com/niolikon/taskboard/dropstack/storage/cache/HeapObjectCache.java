@@ -0,0 +1,115 @@
+package com.niolikon.taskboard.dropstack.storage.cache;
+
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copies of small stored objects kept on the heap, within a byte budget: the least recently read copies
+ * are dropped first. Objects admitted here are small enough to be read whole as soon as they are fetched,
+ * so a copy is kept even when the caller stops reading early.
+ */
+public class HeapObjectCache implements ObjectCache {
+
+    private final long maxSize;
+    private final long maxObjectSize;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    public HeapObjectCache(long maxSize, long maxObjectSize) {
+        this.maxSize = maxSize;
+        this.maxObjectSize = Math.min(maxObjectSize, maxSize);
+    }
+
+    @Override
+    public synchronized Optional<ObjectContent> open(String bucket, String objectKey, String etag) {
+        String key = keyOf(bucket, objectKey);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!entry.stat.getEtag().equals(etag)) {
+            remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(new ObjectContent(new ByteArrayInputStream(entry.bytes), entry.stat));
+    }
+
+    @Override
+    public boolean admits(long size) {
+        return size >= 0 && size <= maxObjectSize;
+    }
+
+    @Override
+    public ObjectContent fill(String bucket, String objectKey, ObjectContent fetched) {
+        ObjectStat stat = fetched.getStat();
+        if (stat.getEtag() == null || !admits(stat.getSize())) {
+            return fetched;
+        }
+
+        byte[] bytes;
+        try (InputStream in = fetched.getStream()) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new StorageException("Download failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+        if (bytes.length == stat.getSize()) {
+            add(keyOf(bucket, objectKey), stat, bytes);
+        }
+        return new ObjectContent(new ByteArrayInputStream(bytes), stat);
+    }
+
+    @Override
+    public synchronized void invalidate(String bucket, String objectKey) {
+        remove(keyOf(bucket, objectKey));
+    }
+
+    @Override
+    public synchronized long size() {
+        return size;
+    }
+
+    private synchronized void add(String key, ObjectStat stat, byte[] bytes) {
+        Entry replaced = entries.put(key, new Entry(stat, bytes));
+        if (replaced != null) {
+            size -= replaced.bytes.length;
+        }
+        size += bytes.length;
+
+        // Access order: the eldest entries are the least recently read
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            size -= eldest.next().bytes.length;
+            eldest.remove();
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.bytes.length;
+        }
+    }
+
+    private static String keyOf(String bucket, String objectKey) {
+        return bucket + "/" + objectKey;
+    }
+
+    private static final class Entry {
+        private final ObjectStat stat;
+        private final byte[] bytes;
+
+        private Entry(ObjectStat stat, byte[] bytes) {
+            this.stat = stat;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.niolikon.taskboard.dropstack.storage.cache;
+
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copies of stored objects on local disk, within a byte budget: the least recently read copies are
+ * dropped first. A copy is bound to the ETag it was stored with and only served to a caller expecting
+ * that same ETag. The index lives in memory, so files left by an earlier run are removed on start.
+ * The index is guarded by a lock rather than a monitor: file operations run under it, and a virtual
+ * thread blocked inside {@code synchronized} would pin its carrier.
+ */
+public class LocalObjectCache implements ObjectCache {
+    static final String FILE_PREFIX = "object-";
+
+    private final Path directory;
+    private final long maxSize;
+    private final long maxObjectSize;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long size;
+
+    public LocalObjectCache(Path directory, long maxSize, long maxObjectSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxObjectSize = Math.min(maxObjectSize, maxSize);
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("Object cache directory not usable: %s".formatted(directory), e);
+        }
+    }
+
+    @Override
+    public Optional<ObjectContent> open(String bucket, String objectKey, String etag) {
+        String key = keyOf(bucket, objectKey);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (!entry.stat.getEtag().equals(etag)) {
+                remove(key);
+                return Optional.empty();
+            }
+            // Opened under the lock, so an eviction running next cannot delete the file first
+            FileChannel channel = FileChannel.open(entry.file, StandardOpenOption.READ);
+            return Optional.of(new ObjectContent(new FileChannelInputStream(channel), entry.stat));
+        } catch (IOException e) {
+            remove(key);
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean admits(long size) {
+        return size >= 0 && size <= maxObjectSize;
+    }
+
+    /**
+     * Wraps a download so that reading it to the end stores a local copy. Objects over the size limit,
+     * or without an ETag to bind the copy to, are returned untouched.
+     */
+    @Override
+    public ObjectContent fill(String bucket, String objectKey, ObjectContent fetched) {
+        ObjectStat stat = fetched.getStat();
+        if (stat.getEtag() == null || !admits(stat.getSize())) {
+            return fetched;
+        }
+
+        Path file = directory.resolve(FILE_PREFIX + UUID.randomUUID());
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            return fetched;
+        }
+        String key = keyOf(bucket, objectKey);
+        return new ObjectContent(
+                new CacheFillingInputStream(fetched.getStream(), file, channel, stat.getSize(), filled -> add(key, stat, filled)),
+                stat);
+    }
+
+    @Override
+    public void invalidate(String bucket, String objectKey) {
+        lock.lock();
+        try {
+            remove(keyOf(bucket, objectKey));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(String key, ObjectStat stat, Path file) {
+        lock.lock();
+        try {
+            Entry replaced = entries.put(key, new Entry(stat, file));
+            if (replaced != null) {
+                size -= replaced.stat.getSize();
+                delete(replaced.file);
+            }
+            size += stat.getSize();
+
+            // Access order: the eldest entries are the least recently read
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                size -= evicted.stat.getSize();
+                delete(evicted.file);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.stat.getSize();
+            delete(removed.file);
+        }
+    }
+
+    private static void delete(Path file) {
+        // Readers holding the file open keep reading it until they close
+        try { Files.deleteIfExists(file); } catch (IOException ignore) {}
+    }
+
+    private static String keyOf(String bucket, String objectKey) {
+        return bucket + "/" + objectKey;
+    }
+
+    private static final class Entry {
+        private final ObjectStat stat;
+        private final Path file;
+
+        private Entry(ObjectStat stat, Path file) {
+            this.stat = stat;
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.niolikon.taskboard.dropstack.storage.cache;
+
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+
+import java.util.Optional;
+
+/**
+ * A tier of local copies of stored objects, each bound to the ETag it was stored with.
+ */
+public interface ObjectCache {
+
+    /**
+     * @return the local copy of the object, when one stored with {@code etag} exists
+     */
+    Optional<ObjectContent> open(String bucket, String objectKey, String etag);
+
+    /**
+     * @return whether objects of {@code size} bytes are kept by this tier at all
+     */
+    boolean admits(long size);
+
+    /**
+     * Keeps a copy of a download, returning the content the caller reads in its place.
+     */
+    ObjectContent fill(String bucket, String objectKey, ObjectContent fetched);
+
+    /**
+     * Drops the local copy of the object, whatever its ETag.
+     */
+    void invalidate(String bucket, String objectKey);
+
+    /**
+     * @return bytes currently held
+     */
+    long size();
+}
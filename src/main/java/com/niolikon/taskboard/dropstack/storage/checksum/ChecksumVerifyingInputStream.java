@@ -0,0 +1,56 @@
+package com.niolikon.taskboard.dropstack.storage.checksum;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Checks content against its CRC32C while it is read. A mismatch surfaces as an {@link IOException}
+ * at end of stream, so a corrupted download fails instead of completing normally.
+ */
+public class ChecksumVerifyingInputStream extends CheckedInputStream {
+    private final String expectedChecksum;
+    private boolean verified;
+
+    public ChecksumVerifyingInputStream(InputStream in, String expectedChecksum) {
+        super(in, new CRC32C());
+        this.expectedChecksum = expectedChecksum;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b < 0) {
+            verify();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+        int length = super.read(buf, off, len);
+        if (length < 0) {
+            verify();
+        }
+        return length;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void verify() throws IOException {
+        if (verified) {
+            return;
+        }
+        verified = true;
+
+        String actualChecksum = Crc32cChecksums.encode(getChecksum().getValue());
+        if (!actualChecksum.equals(expectedChecksum)) {
+            throw new IOException("Content checksum mismatch: expected CRC32C %s, read %s"
+                    .formatted(expectedChecksum, actualChecksum));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.niolikon.taskboard.dropstack.storage.checksum;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Publisher counterpart of {@link ChecksumVerifyingInputStream}: a mismatch is signalled as an
+ * {@link IOException} in place of completion, so a corrupted download fails instead of completing normally.
+ */
+public class ChecksumVerifyingPublisher implements Publisher<ByteBuffer> {
+
+    private final Publisher<ByteBuffer> content;
+    private final String expectedChecksum;
+
+    public ChecksumVerifyingPublisher(Publisher<ByteBuffer> content, String expectedChecksum) {
+        this.content = content;
+        this.expectedChecksum = expectedChecksum;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> downstream) {
+        content.subscribe(new VerifyingSubscriber(downstream));
+    }
+
+    private class VerifyingSubscriber implements Subscriber<ByteBuffer> {
+        private final Subscriber<? super ByteBuffer> downstream;
+        private final CRC32C crc = new CRC32C();
+
+        VerifyingSubscriber(Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            downstream.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(ByteBuffer chunk) {
+            crc.update(chunk.duplicate());
+            downstream.onNext(chunk);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            String actualChecksum = Crc32cChecksums.encode(crc.getValue());
+            if (!actualChecksum.equals(expectedChecksum)) {
+                downstream.onError(new IOException("Content checksum mismatch: expected CRC32C %s, read %s"
+                        .formatted(expectedChecksum, actualChecksum)));
+                return;
+            }
+            downstream.onComplete();
+        }
+    }
+}
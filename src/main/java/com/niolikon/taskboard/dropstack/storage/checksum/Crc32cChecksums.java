@@ -0,0 +1,100 @@
+package com.niolikon.taskboard.dropstack.storage.checksum;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * CRC32C values in the form S3 uses for {@code x-amz-checksum-crc32c}: the 4-byte big-endian
+ * checksum, base64 encoded. CRC32C is hardware accelerated on current CPUs, cheap enough to
+ * compute on every byte that goes through.
+ */
+public final class Crc32cChecksums {
+    private static final long CRC32C_POLYNOMIAL = 0x82F63B78L;
+
+    private Crc32cChecksums() {
+    }
+
+    public static String of(byte[] buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer, offset, length);
+        return encode(crc.getValue());
+    }
+
+    public static String encode(long crc) {
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(Integer.BYTES).putInt((int) crc).array());
+    }
+
+    public static long decode(String checksum) {
+        return Integer.toUnsignedLong(ByteBuffer.wrap(Base64.getDecoder().decode(checksum)).getInt());
+    }
+
+    /**
+     * Checksum of two contents one after the other, from the checksum of each and the length of the second,
+     * so content written in parts is checked as a whole without reading it again. zlib's {@code crc32_combine}:
+     * appending {@code length2} zero bytes to the first checksum is applied as a GF(2) matrix squared per length bit.
+     */
+    public static long combine(long crc1, long crc2, long length2) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+
+        long[] even = new long[Integer.SIZE];
+        long[] odd = new long[Integer.SIZE];
+        // Operator for one zero bit: the reflected CRC32C polynomial, then a shift
+        odd[0] = CRC32C_POLYNOMIAL;
+        long row = 1;
+        for (int n = 1; n < Integer.SIZE; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // Operators for two, then four zero bits
+        square(even, odd);
+        square(odd, even);
+
+        // The first squaring below gives the operator for one zero byte
+        long combined = crc1;
+        long remaining = length2;
+        do {
+            square(even, odd);
+            if ((remaining & 1) != 0) {
+                combined = times(even, combined);
+            }
+            remaining >>= 1;
+            if (remaining == 0) {
+                break;
+            }
+            square(odd, even);
+            if ((remaining & 1) != 0) {
+                combined = times(odd, combined);
+            }
+            remaining >>= 1;
+        } while (remaining != 0);
+        return combined ^ crc2;
+    }
+
+    private static long times(long[] matrix, long vector) {
+        long sum = 0;
+        for (int n = 0; vector != 0; n++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[n];
+            }
+        }
+        return sum;
+    }
+
+    private static void square(long[] square, long[] matrix) {
+        for (int n = 0; n < Integer.SIZE; n++) {
+            square[n] = times(matrix, matrix[n]);
+        }
+    }
+
+    /**
+     * @return a stream computing the checksum of everything read through it, see {@link CheckedInputStream#getChecksum()}
+     */
+    public static CheckedInputStream checking(InputStream in) {
+        return new CheckedInputStream(in, new CRC32C());
+    }
+}
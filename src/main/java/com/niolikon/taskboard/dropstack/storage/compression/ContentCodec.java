@@ -0,0 +1,62 @@
+package com.niolikon.taskboard.dropstack.storage.compression;
+
+import org.reactivestreams.Publisher;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codecs for content stored compressed. Each name is also a valid HTTP {@code Content-Encoding},
+ * so the stored bytes can be handed to clients that accept it without decoding.
+ */
+public enum ContentCodec {
+
+    /**
+     * zlib-wrapped deflate, as expected by HTTP {@code Content-Encoding: deflate}.
+     */
+    DEFLATE("deflate") {
+        @Override
+        public InputStream encode(InputStream raw) {
+            return new DeflaterInputStream(raw);
+        }
+
+        @Override
+        public InputStream decode(InputStream encoded) {
+            return new InflaterInputStream(encoded);
+        }
+
+        @Override
+        public Publisher<ByteBuffer> decode(Publisher<ByteBuffer> encoded) {
+            return new InflatingPublisher(encoded);
+        }
+    };
+
+    private final String contentEncoding;
+
+    ContentCodec(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * Compresses while the returned stream is read, so the raw content is never held in full.
+     */
+    public abstract InputStream encode(InputStream raw);
+
+    public abstract InputStream decode(InputStream encoded);
+
+    public abstract Publisher<ByteBuffer> decode(Publisher<ByteBuffer> encoded);
+
+    public static Optional<ContentCodec> fromContentEncoding(String contentEncoding) {
+        return Arrays.stream(values())
+                .filter(codec -> codec.contentEncoding.equalsIgnoreCase(contentEncoding))
+                .findFirst();
+    }
+}
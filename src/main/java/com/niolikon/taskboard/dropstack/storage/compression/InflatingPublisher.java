@@ -0,0 +1,134 @@
+package com.niolikon.taskboard.dropstack.storage.compression;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates a deflate stream chunk by chunk. Every compressed chunk maps to exactly one inflated chunk
+ * (possibly empty), so the subscriber's demand is passed upstream unchanged.
+ */
+class InflatingPublisher implements Publisher<ByteBuffer> {
+    private static final int INFLATE_WINDOW = 8192;
+
+    private final Publisher<ByteBuffer> compressed;
+
+    InflatingPublisher(Publisher<ByteBuffer> compressed) {
+        this.compressed = compressed;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> downstream) {
+        compressed.subscribe(new InflatingSubscriber(downstream));
+    }
+
+    /**
+     * The inflater is guarded by this subscriber's lock, as a cancel may come from another thread than the chunks;
+     * the downstream is always signalled outside of it.
+     */
+    private static class InflatingSubscriber implements Subscriber<ByteBuffer> {
+        private final Subscriber<? super ByteBuffer> downstream;
+        private final Inflater inflater = new Inflater();
+        private final byte[] window = new byte[INFLATE_WINDOW];
+        private Subscription subscription;
+        private boolean done;
+
+        InflatingSubscriber(Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            downstream.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    s.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    s.cancel();
+                    // Nothing else will end it: no terminal signal follows a cancel
+                    release();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(ByteBuffer chunk) {
+            byte[] input = new byte[chunk.remaining()];
+            chunk.get(input);
+
+            ByteArrayOutputStream inflated = new ByteArrayOutputStream(input.length * 4);
+            DataFormatException failure = null;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                inflater.setInput(input);
+                try {
+                    while (!inflater.needsInput() && !inflater.finished()) {
+                        int length = inflater.inflate(window);
+                        if (length == 0 && inflater.needsDictionary()) {
+                            throw new DataFormatException("Preset dictionaries are not supported");
+                        }
+                        inflated.write(window, 0, length);
+                    }
+                } catch (DataFormatException e) {
+                    failure = e;
+                    release();
+                }
+            }
+            if (failure != null) {
+                subscription.cancel();
+                downstream.onError(failure);
+                return;
+            }
+            downstream.onNext(ByteBuffer.wrap(inflated.toByteArray()));
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (release()) {
+                downstream.onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            boolean finished;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                finished = inflater.finished();
+                release();
+            }
+            if (!finished) {
+                // Upstream ended before the deflate stream did: the content is truncated, not complete
+                downstream.onError(new EOFException("Unexpected end of deflate stream"));
+                return;
+            }
+            downstream.onComplete();
+        }
+
+        /**
+         * @return whether this call ended the inflater, i.e. nothing had terminated the stream yet
+         */
+        private synchronized boolean release() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            inflater.end();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.niolikon.taskboard.dropstack.storage.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * Counts the HTTP requests actually sent to the object store, per S3 operation.
+ * SDK retries are counted too, since each one is a full round trip.
+ */
+class S3RequestMetricsInterceptor implements ExecutionInterceptor {
+    static final String METRIC_NAME = "storage.s3.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final String client;
+
+    S3RequestMetricsInterceptor(MeterRegistry meterRegistry, String client) {
+        this.meterRegistry = meterRegistry;
+        this.client = client;
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        Counter.builder(METRIC_NAME)
+                .description("Round trips to the object store")
+                .tag("client", client)
+                .tag("operation", executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME))
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,13 +1,19 @@
 package com.niolikon.taskboard.dropstack.storage.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
 
@@ -26,8 +32,14 @@ public class StorageConfig {
     @Value("${minio.region}")
     String region;
 
+    @Value("${minio.public-endpoint:${minio.endpoint}}")
+    String publicEndpoint;
+
+    @Value("${minio.async.max-concurrency:256}")
+    int asyncMaxConcurrency;
+
     @Bean
-    public S3Client minioClient() {
+    public S3Client minioClient(MeterRegistry meterRegistry) {
         return S3Client.builder()
                 .credentialsProvider(
                         StaticCredentialsProvider.create(
@@ -37,6 +49,45 @@ public class StorageConfig {
                 .endpointOverride(URI.create(endpoint))
                 .region(Region.of(region))
                 .forcePathStyle(true)
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(new S3RequestMetricsInterceptor(meterRegistry, "sync"))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public S3AsyncClient minioAsyncClient(MeterRegistry meterRegistry) {
+        return S3AsyncClient.builder()
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(accessKey, secretKey)
+                        )
+                )
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(asyncMaxConcurrency))
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.of(region))
+                .forcePathStyle(true)
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(new S3RequestMetricsInterceptor(meterRegistry, "async"))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public S3Presigner minioPresigner() {
+        // Presigned URLs are followed by clients, so they must point at the endpoint clients can reach
+        return S3Presigner.builder()
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(accessKey, secretKey)
+                        )
+                )
+                .endpointOverride(URI.create(publicEndpoint))
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
                 .build();
     }
 }
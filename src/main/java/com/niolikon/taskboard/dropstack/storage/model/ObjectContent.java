@@ -0,0 +1,16 @@
+package com.niolikon.taskboard.dropstack.storage.model;
+
+import lombok.*;
+
+import java.io.InputStream;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ObjectContent {
+    InputStream stream;
+    ObjectStat stat;
+}
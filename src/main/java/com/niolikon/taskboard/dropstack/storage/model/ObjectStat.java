@@ -12,4 +12,5 @@ public class ObjectStat {
     long size;
     String etag;
     String contentType;
+    String checksumCrc32c; // base64 CRC32C of the stored bytes, null when unknown
 }
@@ -0,0 +1,19 @@
+package com.niolikon.taskboard.dropstack.storage.model;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class PresignedRequest {
+    String url;
+    String method;
+    Map<String, String> headers; // headers the client must send as signed
+    Instant expiresAt;
+}
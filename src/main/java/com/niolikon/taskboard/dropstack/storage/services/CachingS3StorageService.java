@@ -0,0 +1,220 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.storage.cache.HeapObjectCache;
+import com.niolikon.taskboard.dropstack.storage.cache.LocalObjectCache;
+import com.niolikon.taskboard.dropstack.storage.cache.ObjectCache;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import com.niolikon.taskboard.dropstack.storage.model.PresignedRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of {@link S3StorageService}, in up to two tiers: small objects on the heap
+ * and larger ones on local disk. Downloads that name the ETag they expect are served from a local copy
+ * when one exists, and fill the first tier admitting their size when not; every other operation goes
+ * to the bucket, and any write or delete of an object drops its copies.
+ */
+@Service
+@Primary
+@ConditionalOnExpression("'${minio.cache.enabled:false}' == 'true' or '${minio.cache.heap.enabled:false}' == 'true'")
+public class CachingS3StorageService implements IS3StorageService {
+    static final String METRIC_REQUESTS = "storage.cache.requests";
+    static final String METRIC_SIZE = "storage.cache.size";
+    static final String TIER_HEAP = "heap";
+    static final String TIER_DISK = "disk";
+
+    private final S3StorageService storage;
+    private final List<CacheTier> tiers = new ArrayList<>(2);
+
+    public CachingS3StorageService(S3StorageService storage,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${minio.cache.heap.enabled:false}") boolean heapEnabled,
+                                   @Value("${minio.cache.heap.max-size:32MB}") DataSize heapMaxSize,
+                                   @Value("${minio.cache.heap.max-object-size:64KB}") DataSize heapMaxObjectSize,
+                                   @Value("${minio.cache.enabled:false}") boolean diskEnabled,
+                                   @Value("${minio.cache.directory:${java.io.tmpdir}/dropstack-object-cache}") String directory,
+                                   @Value("${minio.cache.max-size:1GB}") DataSize maxSize,
+                                   @Value("${minio.cache.max-object-size:32MB}") DataSize maxObjectSize) {
+        this.storage = storage;
+        // Smallest objects first: a fetched object fills the first tier admitting it
+        if (heapEnabled) {
+            tiers.add(new CacheTier(TIER_HEAP, new HeapObjectCache(heapMaxSize.toBytes(), heapMaxObjectSize.toBytes()), meterRegistry));
+        }
+        if (diskEnabled) {
+            tiers.add(new CacheTier(TIER_DISK, new LocalObjectCache(Path.of(directory), maxSize.toBytes(), maxObjectSize.toBytes()), meterRegistry));
+        }
+    }
+
+    @Override
+    public ObjectContent download(String bucket, String objectKey, String etag) {
+        if (etag == null) {
+            return storage.download(bucket, objectKey);
+        }
+
+        Optional<ObjectContent> cached = openLocalCopy(bucket, objectKey, etag);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        ObjectContent fetched = storage.download(bucket, objectKey);
+        if (!etag.equals(fetched.getStat().getEtag())) {
+            // The object no longer matches what the caller expects: nothing worth keeping
+            return fetched;
+        }
+        for (CacheTier tier : tiers) {
+            if (tier.cache.admits(fetched.getStat().getSize())) {
+                return tier.cache.fill(bucket, objectKey, fetched);
+            }
+        }
+        return fetched;
+    }
+
+    @Override
+    public Optional<ObjectContent> openLocalCopy(String bucket, String objectKey, String etag) {
+        for (CacheTier tier : tiers) {
+            Optional<ObjectContent> cached = tier.cache.open(bucket, objectKey, etag);
+            if (cached.isPresent()) {
+                tier.hits.increment();
+                return cached;
+            }
+            tier.misses.increment();
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public ObjectContent download(String bucket, String objectKey) {
+        return storage.download(bucket, objectKey);
+    }
+
+    @Override
+    public ObjectContent download(String bucket, String objectKey, long firstByte, long lastByte) {
+        return storage.download(bucket, objectKey, firstByte, lastByte);
+    }
+
+    @Override
+    public ObjectStat upload(String bucket, String objectKey, InputStream data, long size, String contentType) {
+        try {
+            return storage.upload(bucket, objectKey, data, size, contentType);
+        } finally {
+            invalidate(bucket, objectKey);
+        }
+    }
+
+    @Override
+    public ObjectStat upload(String bucket, String objectKey, InputStream data, String contentType) {
+        try {
+            return storage.upload(bucket, objectKey, data, contentType);
+        } finally {
+            invalidate(bucket, objectKey);
+        }
+    }
+
+    @Override
+    public ObjectStat uploadMultipart(String bucket, String objectKey, InputStream data, String contentType) {
+        try {
+            return storage.uploadMultipart(bucket, objectKey, data, contentType);
+        } finally {
+            invalidate(bucket, objectKey);
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String bucket, String objectKey, String contentType) {
+        return storage.createMultipartUpload(bucket, objectKey, contentType);
+    }
+
+    @Override
+    public String uploadPart(String bucket, String objectKey, String uploadId, int partNumber, InputStream data, long size) {
+        return storage.uploadPart(bucket, objectKey, uploadId, partNumber, data, size);
+    }
+
+    @Override
+    public String completeMultipartUpload(String bucket, String objectKey, String uploadId, Map<Integer, String> partETags) {
+        try {
+            return storage.completeMultipartUpload(bucket, objectKey, uploadId, partETags);
+        } finally {
+            invalidate(bucket, objectKey);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String objectKey, String uploadId) {
+        storage.abortMultipartUpload(bucket, objectKey, uploadId);
+    }
+
+    @Override
+    public void delete(String bucket, String objectKey) {
+        try {
+            storage.delete(bucket, objectKey);
+        } finally {
+            invalidate(bucket, objectKey);
+        }
+    }
+
+    @Override
+    public Optional<ObjectStat> stat(String bucket, String objectKey) {
+        return storage.stat(bucket, objectKey);
+    }
+
+    @Override
+    public PresignedRequest presignDownload(String bucket, String objectKey, String filename, String contentEncoding, Duration validity) {
+        return storage.presignDownload(bucket, objectKey, filename, contentEncoding, validity);
+    }
+
+    @Override
+    public PresignedRequest presignUpload(String bucket, String objectKey, String contentType, long size, Duration validity) {
+        return storage.presignUpload(bucket, objectKey, contentType, size, validity);
+    }
+
+    @Override
+    public void setTags(String bucket, String objectKey, Map<String, String> tags) {
+        storage.setTags(bucket, objectKey, tags);
+    }
+
+    private void invalidate(String bucket, String objectKey) {
+        for (CacheTier tier : tiers) {
+            tier.cache.invalidate(bucket, objectKey);
+        }
+    }
+
+    private static final class CacheTier {
+        private final ObjectCache cache;
+        private final Counter hits;
+        private final Counter misses;
+
+        private CacheTier(String name, ObjectCache cache, MeterRegistry meterRegistry) {
+            this.cache = cache;
+            this.hits = Counter.builder(METRIC_REQUESTS)
+                    .description("Downloads looked up in a local object cache tier")
+                    .tag("tier", name)
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder(METRIC_REQUESTS)
+                    .description("Downloads looked up in a local object cache tier")
+                    .tag("tier", name)
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_SIZE, cache, ObjectCache::size)
+                    .description("Bytes held by a local object cache tier")
+                    .tag("tier", name)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+}
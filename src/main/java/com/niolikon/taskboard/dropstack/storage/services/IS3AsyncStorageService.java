@@ -0,0 +1,24 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import org.reactivestreams.Publisher;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link IS3StorageService}: calls return immediately and complete
+ * (exceptionally with a {@code StorageException}) once MinIO answers.
+ */
+public interface IS3AsyncStorageService {
+
+    CompletableFuture<ObjectStat> upload(String bucket, String objectKey, InputStream data, long size, String contentType);
+
+    CompletableFuture<Publisher<ByteBuffer>> download(String bucket, String objectKey);
+
+    CompletableFuture<Void> delete(String bucket, String objectKey);
+
+    CompletableFuture<Optional<ObjectStat>> stat(String bucket, String objectKey);
+}
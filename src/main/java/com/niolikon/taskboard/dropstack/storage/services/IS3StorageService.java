@@ -1,20 +1,96 @@
 package com.niolikon.taskboard.dropstack.storage.services;
 
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
 import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import com.niolikon.taskboard.dropstack.storage.model.PresignedRequest;
 
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 
 public interface IS3StorageService {
 
-    void upload(String bucket, String objectKey, InputStream data, long size, String contentType);
+    /**
+     * @return the stored object as reported by the write itself, so no stat is needed afterwards
+     */
+    ObjectStat upload(String bucket, String objectKey, InputStream data, long size, String contentType);
 
-    InputStream download(String bucket, String objectKey);
+    /**
+     * Uploads a stream whose length is not known in advance, buffering at most one part in memory.
+     */
+    ObjectStat upload(String bucket, String objectKey, InputStream data, String contentType);
+
+    /**
+     * Uploads a stream as an S3 multipart upload, several parts in flight at once, each retried on its own.
+     * Used automatically by {@code upload} above the configured multipart threshold.
+     */
+    ObjectStat uploadMultipart(String bucket, String objectKey, InputStream data, String contentType);
+
+    /**
+     * Opens a multipart upload whose parts are sent by the caller, possibly over several requests.
+     *
+     * @return the upload id to pass to the part, complete and abort operations
+     */
+    String createMultipartUpload(String bucket, String objectKey, String contentType);
+
+    /**
+     * @return the ETag of the stored part, needed to complete the upload
+     */
+    String uploadPart(String bucket, String objectKey, String uploadId, int partNumber, InputStream data, long size);
+
+    /**
+     * @return the ETag of the assembled object
+     */
+    String completeMultipartUpload(String bucket, String objectKey, String uploadId, Map<Integer, String> partETags);
+
+    /**
+     * Discards the parts received so far. An upload that no longer exists is not an error.
+     */
+    void abortMultipartUpload(String bucket, String objectKey, String uploadId);
+
+    /**
+     * Opens the object together with the metadata of the GET response, sparing a stat before the read.
+     */
+    ObjectContent download(String bucket, String objectKey);
+
+    /**
+     * Opens the object known to be stored with {@code etag}. Implementations keeping local copies may serve it
+     * from one, and the ETag guarantees a copy of other content is never returned; a null ETag is always fetched.
+     */
+    default ObjectContent download(String bucket, String objectKey, String etag) {
+        return download(bucket, objectKey);
+    }
+
+    /**
+     * Opens a local copy of the object known to be stored with {@code etag}, without going to the bucket.
+     * Empty when the implementation keeps no copies or holds none of that content.
+     */
+    default Optional<ObjectContent> openLocalCopy(String bucket, String objectKey, String etag) {
+        return Optional.empty();
+    }
+
+    /**
+     * Opens bytes {@code firstByte} to {@code lastByte}, both inclusive, with a ranged GET: only the range leaves the bucket.
+     * The returned size is the length of the range.
+     */
+    ObjectContent download(String bucket, String objectKey, long firstByte, long lastByte);
 
     void delete(String bucket, String objectKey);
 
     Optional<ObjectStat> stat(String bucket, String objectKey);
 
+    /**
+     * Signs a GET the client sends straight to the bucket; the response is served as an attachment named {@code filename},
+     * declaring {@code contentEncoding} when not null so the client decodes content stored compressed.
+     */
+    PresignedRequest presignDownload(String bucket, String objectKey, String filename, String contentEncoding, Duration validity);
+
+    /**
+     * Signs a PUT the client sends straight to the bucket. Content type and length are part of the signature,
+     * so the client cannot store more bytes than declared.
+     */
+    PresignedRequest presignUpload(String bucket, String objectKey, String contentType, long size, Duration validity);
+
     void setTags(String bucket, String objectKey, Map<String, String> tags);
 }
@@ -0,0 +1,118 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import jakarta.annotation.PreDestroy;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class S3AsyncStorageService implements IS3AsyncStorageService {
+
+    private final S3AsyncClient s3;
+    private final ExecutorService sourceReadExecutor;
+
+    public S3AsyncStorageService(S3AsyncClient s3,
+                                 TaskThreads taskThreads,
+                                 @Value("${minio.async.source-read-threads:8}") int sourceReadThreads) {
+        this.s3 = s3;
+        // Upload sources are blocking InputStreams: they are drained here so the Netty event loop never blocks
+        this.sourceReadExecutor = Executors.newFixedThreadPool(sourceReadThreads, taskThreads.newThreadFactory("storage-async-read-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sourceReadExecutor.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<ObjectStat> upload(String bucket, String objectKey, InputStream data, long size, String contentType) {
+        PutObjectRequest putReq = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .contentType(contentType)
+                .contentLength(size)
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
+                .build();
+
+        // The SDK computes the CRC32C while streaming and MinIO verifies it and echoes it back
+        return s3.putObject(putReq, AsyncRequestBody.fromInputStream(data, size, sourceReadExecutor))
+                .thenApply(putRes -> new ObjectStat(size, putRes.eTag(), contentType, putRes.checksumCRC32C()))
+                .exceptionally(e -> {
+                    throw new StorageException("Upload failed for %s/%s".formatted(bucket, objectKey), unwrap(e));
+                });
+    }
+
+    @Override
+    public CompletableFuture<Publisher<ByteBuffer>> download(String bucket, String objectKey) {
+        GetObjectRequest getReq = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .build();
+
+        return s3.getObject(getReq, AsyncResponseTransformer.<GetObjectResponse>toPublisher())
+                .<Publisher<ByteBuffer>>thenApply(publisher -> publisher)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchKeyException) {
+                        throw new StorageException("Object not found: %s/%s".formatted(bucket, objectKey), cause);
+                    }
+                    throw new StorageException("Download failed for %s/%s".formatted(bucket, objectKey), cause);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String bucket, String objectKey) {
+        DeleteObjectRequest delReq = DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .build();
+
+        return s3.deleteObject(delReq)
+                .<Void>thenApply(delRes -> null)
+                .exceptionally(e -> {
+                    throw new StorageException("Delete failed for %s/%s".formatted(bucket, objectKey), unwrap(e));
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<ObjectStat>> stat(String bucket, String objectKey) {
+        HeadObjectRequest headReq = HeadObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .build();
+
+        return s3.headObject(headReq)
+                .thenApply(headRes -> Optional.of(new ObjectStat(
+                        headRes.contentLength(),
+                        headRes.eTag(),
+                        headRes.contentType(),
+                        headRes.checksumCRC32C()
+                )))
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchKeyException) {
+                        return Optional.empty();
+                    }
+                    throw new StorageException("Stat failed for %s/%s".formatted(bucket, objectKey), cause);
+                });
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,205 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.storage.checksum.Crc32cChecksums;
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Uploads a stream as an S3 multipart upload with several parts in flight at once.
+ * Memory is bounded by {@code parallelism} part buffers: the reader blocks until a part slot frees up.
+ */
+class S3MultipartUploader {
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final String PART_CONTENT_TYPE = "application/octet-stream";
+    static final long RETRY_BACKOFF_MILLIS = 200L;
+
+    private final S3Client s3;
+    private final ExecutorService executor;
+    private final int partSize;
+    private final int parallelism;
+    private final int partAttempts;
+
+    S3MultipartUploader(S3Client s3, ExecutorService executor, long partSize, int parallelism, int partAttempts) {
+        if (partSize < MIN_PART_SIZE || partSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Multipart part size must be between 5MB and 2GB");
+        }
+        this.s3 = s3;
+        this.executor = executor;
+        this.partSize = (int) partSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.partAttempts = Math.max(1, partAttempts);
+    }
+
+    int getPartSize() {
+        return partSize;
+    }
+
+    ObjectStat upload(String bucket, String objectKey, InputStream data, String contentType) {
+        String uploadId = createMultipartUpload(bucket, objectKey, contentType);
+        // Parts carry their own checksums; the whole-object CRC32C is taken by the reader in the same pass
+        CheckedInputStream checked = Crc32cChecksums.checking(data);
+
+        BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<CompletedPart>> pendingParts = new ArrayList<>();
+        int allocatedBuffers = 0;
+        long totalSize = 0;
+
+        try {
+            int partNumber = 1;
+            int length;
+            do {
+                byte[] buffer = freeBuffers.poll();
+                if (buffer == null && allocatedBuffers < parallelism) {
+                    buffer = new byte[partSize];
+                    allocatedBuffers++;
+                } else if (buffer == null) {
+                    buffer = freeBuffers.take();
+                }
+
+                if (failure.get() != null) {
+                    throw failure.get();
+                }
+
+                length = checked.readNBytes(buffer, 0, partSize);
+                if (length == 0 && partNumber > 1) {
+                    break;
+                }
+
+                totalSize += length;
+                int currentPartNumber = partNumber++;
+                byte[] currentBuffer = buffer;
+                int currentLength = length;
+                pendingParts.add(executor.submit(() -> {
+                    try {
+                        return uploadPart(bucket, objectKey, uploadId, currentPartNumber, currentBuffer, currentLength);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        freeBuffers.offer(currentBuffer);
+                    }
+                }));
+            } while (length == partSize);
+
+            List<CompletedPart> completedParts = new ArrayList<>(pendingParts.size());
+            for (Future<CompletedPart> pendingPart : pendingParts) {
+                completedParts.add(pendingPart.get());
+            }
+
+            CompleteMultipartUploadRequest completeReq = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build();
+            CompleteMultipartUploadResponse completeRes = s3.completeMultipartUpload(completeReq);
+            return new ObjectStat(totalSize, completeRes.eTag(), contentType, Crc32cChecksums.encode(checked.getChecksum().getValue()));
+        } catch (Throwable e) {
+            pendingParts.forEach(pendingPart -> pendingPart.cancel(true));
+            abortMultipartUpload(bucket, objectKey, uploadId);
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = (e instanceof ExecutionException && e.getCause() != null) ? e.getCause() : e;
+            if (cause instanceof StorageException storageException) {
+                throw storageException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new StorageException("Multipart upload failed for %s/%s".formatted(bucket, objectKey), cause);
+        }
+    }
+
+    private CompletedPart uploadPart(String bucket, String objectKey, String uploadId,
+                                     int partNumber, byte[] buffer, int length) {
+        String partChecksum = Crc32cChecksums.of(buffer, 0, length);
+        UploadPartRequest partReq = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) length)
+                .checksumCRC32C(partChecksum)
+                .build();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                UploadPartResponse partRes = s3.uploadPart(partReq, partBody(buffer, length));
+                return CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(partRes.eTag())
+                        .checksumCRC32C(partChecksum)
+                        .build();
+            } catch (SdkException e) {
+                if (attempt >= partAttempts) {
+                    throw new StorageException("Upload of part %d failed for %s/%s".formatted(partNumber, bucket, objectKey), e);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private String createMultipartUpload(String bucket, String objectKey, String contentType) {
+        try {
+            CreateMultipartUploadRequest createReq = CreateMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
+                    .build();
+            return s3.createMultipartUpload(createReq).uploadId();
+        } catch (S3Exception e) {
+            throw new StorageException("Multipart upload failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
+    private void abortMultipartUpload(String bucket, String objectKey, String uploadId) {
+        try {
+            AbortMultipartUploadRequest abortReq = AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build();
+            s3.abortMultipartUpload(abortReq);
+        } catch (SdkException ignore) {
+            // Best effort: the original upload failure is the one reported to the caller
+        }
+    }
+
+    static RequestBody partBody(byte[] buffer, int length) {
+        return partBody(buffer, length, PART_CONTENT_TYPE);
+    }
+
+    static RequestBody partBody(byte[] buffer, int length, String contentType) {
+        // The provider may be invoked again on SDK retries, so it must hand out a fresh stream each time
+        return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, length), length, contentType);
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while retrying part upload", e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads large objects over several connections. The first GET asks for the leading {@code threshold}
+ * bytes, so smaller objects still come back whole in a single round trip, and the Content-Range of its
+ * response tells how many bytes follow. Those are fetched as ranges pinned to the object's ETag and handed
+ * to the reader in order. Memory is bounded by {@code parallelism} buffered ranges plus the one being read:
+ * a range is only requested once the reader consumed an earlier one, so a slow client slows the fetch down.
+ */
+class S3ParallelDownloader {
+    private static final int PRECONDITION_FAILED = 412;
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+    private static final long RETRY_BACKOFF_MILLIS = 200L;
+
+    private final S3Client s3;
+    private final ExecutorService executor;
+    private final long threshold;
+    private final int partSize;
+    private final int parallelism;
+    private final int partAttempts;
+
+    S3ParallelDownloader(S3Client s3, ExecutorService executor, long threshold, long partSize, int parallelism, int partAttempts) {
+        if (partSize <= 0 || partSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Download part size must be between 1 byte and 2GB");
+        }
+        this.s3 = s3;
+        this.executor = executor;
+        this.threshold = Math.max(1, threshold);
+        this.partSize = (int) partSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.partAttempts = Math.max(1, partAttempts);
+    }
+
+    ObjectContent download(String bucket, String objectKey) {
+        ResponseInputStream<GetObjectResponse> leading;
+        try {
+            leading = s3.getObject(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .range("bytes=0-%d".formatted(threshold - 1))
+                    .build());
+        } catch (NoSuchKeyException e) {
+            throw new StorageException("Object not found: %s/%s".formatted(bucket, objectKey), e);
+        } catch (S3Exception e) {
+            if (e.statusCode() == RANGE_NOT_SATISFIABLE) {
+                // Only an empty object has no first byte
+                return downloadWhole(bucket, objectKey);
+            }
+            throw new StorageException("Download failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+
+        GetObjectResponse getRes = leading.response();
+        long totalSize = totalSizeOf(getRes);
+        ObjectStat stat = new ObjectStat(totalSize, getRes.eTag(), getRes.contentType(), null);
+        if (totalSize <= threshold) {
+            return new ObjectContent(leading, stat);
+        }
+        return new ObjectContent(new ReassemblingInputStream(bucket, objectKey, getRes.eTag(), leading, threshold, totalSize), stat);
+    }
+
+    private ObjectContent downloadWhole(String bucket, String objectKey) {
+        try {
+            ResponseInputStream<GetObjectResponse> in = s3.getObject(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .build());
+            GetObjectResponse getRes = in.response();
+            return new ObjectContent(in, new ObjectStat(getRes.contentLength(), getRes.eTag(), getRes.contentType(), getRes.checksumCRC32C()));
+        } catch (S3Exception e) {
+            throw new StorageException("Download failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
+    private static long totalSizeOf(GetObjectResponse getRes) {
+        // "bytes 0-99/1234"; absent when the store ignored the range and sent the whole object
+        String contentRange = getRes.contentRange();
+        if (contentRange == null || contentRange.indexOf('/') < 0) {
+            return getRes.contentLength();
+        }
+        return Long.parseLong(contentRange.substring(contentRange.indexOf('/') + 1).trim());
+    }
+
+    private byte[] downloadRange(String bucket, String objectKey, String etag, long firstByte, long lastByte) {
+        GetObjectRequest getReq = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .range("bytes=%d-%d".formatted(firstByte, lastByte))
+                // Ranges of an object replaced mid-download must not be stitched together
+                .ifMatch(etag)
+                .build();
+        int length = (int) (lastByte - firstByte + 1);
+
+        for (int attempt = 1; ; attempt++) {
+            try (ResponseInputStream<GetObjectResponse> in = s3.getObject(getReq)) {
+                byte[] range = in.readNBytes(length);
+                if (range.length != length) {
+                    throw new IOException("Range %d-%d ended after %d bytes".formatted(firstByte, lastByte, range.length));
+                }
+                return range;
+            } catch (SdkException | IOException e) {
+                boolean replaced = e instanceof S3Exception s3e && s3e.statusCode() == PRECONDITION_FAILED;
+                if (replaced || attempt >= partAttempts) {
+                    throw new StorageException("Download of range %d-%d failed for %s/%s"
+                            .formatted(firstByte, lastByte, bucket, objectKey), e);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while retrying ranged download", e);
+        }
+    }
+
+    /**
+     * Streams the leading bytes as they arrive, then the following ranges in order, keeping
+     * {@code parallelism} ranges requested ahead of the reader.
+     */
+    private class ReassemblingInputStream extends InputStream {
+        private final String bucket;
+        private final String objectKey;
+        private final String etag;
+        private final long totalSize;
+        private final Deque<Future<byte[]>> ahead = new ArrayDeque<>();
+        private long nextFirstByte;
+        private InputStream current;
+
+        ReassemblingInputStream(String bucket, String objectKey, String etag, InputStream leading, long leadingSize, long totalSize) {
+            this.bucket = bucket;
+            this.objectKey = objectKey;
+            this.etag = etag;
+            this.totalSize = totalSize;
+            this.nextFirstByte = leadingSize;
+            this.current = leading;
+            for (int i = 0; i < parallelism; i++) {
+                if (!requestNext()) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int length = read(single, 0, 1);
+            return length < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (current != null) {
+                int length = current.read(buf, off, len);
+                if (length >= 0) {
+                    return length;
+                }
+                current.close();
+                current = nextRange();
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ahead.forEach(range -> range.cancel(true));
+            ahead.clear();
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+
+        private boolean requestNext() {
+            if (nextFirstByte >= totalSize) {
+                return false;
+            }
+            long firstByte = nextFirstByte;
+            long lastByte = Math.min(firstByte + partSize, totalSize) - 1;
+            nextFirstByte = lastByte + 1;
+            ahead.add(executor.submit(() -> downloadRange(bucket, objectKey, etag, firstByte, lastByte)));
+            return true;
+        }
+
+        private InputStream nextRange() throws IOException {
+            Future<byte[]> next = ahead.poll();
+            if (next == null) {
+                return null;
+            }
+            requestNext();
+            try {
+                return new ByteArrayInputStream(next.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for range of %s/%s".formatted(bucket, objectKey), e);
+            } catch (ExecutionException e) {
+                throw new IOException("Ranged download failed for %s/%s".formatted(bucket, objectKey), e.getCause());
+            }
+        }
+    }
+}
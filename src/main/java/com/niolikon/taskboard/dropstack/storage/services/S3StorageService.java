@@ -1,47 +1,253 @@
 package com.niolikon.taskboard.dropstack.storage.services;
 
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.storage.checksum.Crc32cChecksums;
 import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
 import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
-import lombok.RequiredArgsConstructor;
+import com.niolikon.taskboard.dropstack.storage.model.PresignedRequest;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.CheckedInputStream;
 
 @Service
-@RequiredArgsConstructor
 public class S3StorageService implements IS3StorageService {
+    static final int FIRST_READ_SIZE = 64 * 1024;
 
     private final S3Client s3;
+    private final S3Presigner presigner;
+    private final StreamTransfer streamTransfer;
+    private final ExecutorService uploadExecutor;
+    private final S3MultipartUploader multipartUploader;
+    private final long multipartThreshold;
+    private final ExecutorService downloadExecutor;
+    private final S3ParallelDownloader parallelDownloader;
+
+    public S3StorageService(S3Client s3,
+                            S3Presigner presigner,
+                            StreamTransfer streamTransfer,
+                            TaskThreads taskThreads,
+                            @Value("${minio.upload.part-size:8MB}") DataSize partSize,
+                            @Value("${minio.upload.multipart-threshold:16MB}") DataSize multipartThreshold,
+                            @Value("${minio.upload.parallelism:4}") int parallelism,
+                            @Value("${minio.upload.part-attempts:3}") int partAttempts,
+                            @Value("${minio.upload.threads:16}") int uploadThreads,
+                            @Value("${minio.download.parallel-threshold:64MB}") DataSize parallelDownloadThreshold,
+                            @Value("${minio.download.part-size:8MB}") DataSize downloadPartSize,
+                            @Value("${minio.download.parallelism:1}") int downloadParallelism,
+                            @Value("${minio.download.threads:16}") int downloadThreads) {
+        this.s3 = s3;
+        this.presigner = presigner;
+        this.streamTransfer = streamTransfer;
+        // Owned here rather than exposed as a bean, which would make Boot back off its applicationTaskExecutor
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadThreads, taskThreads.newThreadFactory("storage-upload-"));
+        this.multipartUploader = new S3MultipartUploader(s3, uploadExecutor, partSize.toBytes(), parallelism, partAttempts);
+        this.multipartThreshold = multipartThreshold.toBytes();
+        if (downloadParallelism > 1) {
+            this.downloadExecutor = Executors.newFixedThreadPool(downloadThreads, taskThreads.newThreadFactory("storage-download-"));
+            this.parallelDownloader = new S3ParallelDownloader(s3, downloadExecutor, parallelDownloadThreshold.toBytes(),
+                    downloadPartSize.toBytes(), downloadParallelism, partAttempts);
+        } else {
+            this.downloadExecutor = null;
+            this.parallelDownloader = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        uploadExecutor.shutdown();
+        if (downloadExecutor != null) {
+            downloadExecutor.shutdownNow();
+        }
+    }
 
     @Override
-    public void upload(String bucket, String objectKey, InputStream data, long size, String contentType) {
-        try {
+    public ObjectStat upload(String bucket, String objectKey, InputStream data, long size, String contentType) {
+        if (size >= multipartThreshold) {
+            return uploadMultipart(bucket, objectKey, data, contentType);
+        }
+
+        // The SDK pulls the body in small reads: serve them from one large pooled read of the source
+        try (InputStream pooled = streamTransfer.buffered(data)) {
+            // The SDK sends its own CRC32C as a trailer for MinIO to verify; ours is taken in the same pass
+            CheckedInputStream checked = Crc32cChecksums.checking(pooled);
             PutObjectRequest putReq = PutObjectRequest.builder()
                     .bucket(bucket)
                     .key(objectKey)
                     .contentType(contentType)
                     .contentLength(size)
+                    .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
                     .build();
 
-            s3.putObject(putReq, RequestBody.fromInputStream(data, size));
-        } catch (S3Exception e) {
+            PutObjectResponse putRes = s3.putObject(putReq, RequestBody.fromInputStream(checked, size));
+            return new ObjectStat(size, putRes.eTag(), contentType, Crc32cChecksums.encode(checked.getChecksum().getValue()));
+        } catch (S3Exception | IOException e) {
             throw new StorageException("Upload failed for %s/%s".formatted(bucket, objectKey), e);
         }
     }
 
     @Override
-    public InputStream download(String bucket, String objectKey) {
+    public ObjectStat upload(String bucket, String objectKey, InputStream data, String contentType) {
+        // Most content of unknown size is small: the buffer starts small and grows up to a part only as needed
+        int partSize = multipartUploader.getPartSize();
+        byte[] firstPart = new byte[Math.min(FIRST_READ_SIZE, partSize)];
+        int length = 0;
+        try {
+            while (true) {
+                length += data.readNBytes(firstPart, length, firstPart.length - length);
+                if (length < firstPart.length || firstPart.length == partSize) {
+                    break;
+                }
+                firstPart = Arrays.copyOf(firstPart, (int) Math.min(2L * firstPart.length, partSize));
+            }
+        } catch (IOException e) {
+            throw new StorageException("Upload failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+
+        if (length < partSize) {
+            try {
+                String checksum = Crc32cChecksums.of(firstPart, 0, length);
+                PutObjectRequest putReq = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(objectKey)
+                        .contentType(contentType)
+                        .contentLength((long) length)
+                        .checksumCRC32C(checksum)
+                        .build();
+
+                PutObjectResponse putRes = s3.putObject(putReq, S3MultipartUploader.partBody(firstPart, length, contentType));
+                return new ObjectStat(length, putRes.eTag(), contentType, checksum);
+            } catch (S3Exception e) {
+                throw new StorageException("Upload failed for %s/%s".formatted(bucket, objectKey), e);
+            }
+        }
+
+        InputStream replayed = new SequenceInputStream(new ByteArrayInputStream(firstPart, 0, length), data);
+        return uploadMultipart(bucket, objectKey, replayed, contentType);
+    }
+
+    @Override
+    public ObjectStat uploadMultipart(String bucket, String objectKey, InputStream data, String contentType) {
+        return multipartUploader.upload(bucket, objectKey, data, contentType);
+    }
+
+    @Override
+    public String createMultipartUpload(String bucket, String objectKey, String contentType) {
+        try {
+            CreateMultipartUploadRequest createReq = CreateMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .build();
+            return s3.createMultipartUpload(createReq).uploadId();
+        } catch (S3Exception e) {
+            throw new StorageException("Multipart upload failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
+    @Override
+    public String uploadPart(String bucket, String objectKey, String uploadId, int partNumber, InputStream data, long size) {
+        try {
+            UploadPartRequest partReq = UploadPartRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength(size)
+                    .build();
+            return s3.uploadPart(partReq, RequestBody.fromInputStream(data, size)).eTag();
+        } catch (SdkException e) {
+            throw new StorageException("Upload of part %d failed for %s/%s".formatted(partNumber, bucket, objectKey), e);
+        }
+    }
+
+    @Override
+    public String completeMultipartUpload(String bucket, String objectKey, String uploadId, Map<Integer, String> partETags) {
+        try {
+            List<CompletedPart> completedParts = partETags.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .map(part -> CompletedPart.builder()
+                            .partNumber(part.getKey())
+                            .eTag(part.getValue())
+                            .build())
+                    .toList();
+
+            CompleteMultipartUploadRequest completeReq = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build();
+            return s3.completeMultipartUpload(completeReq).eTag();
+        } catch (S3Exception e) {
+            throw new StorageException("Multipart upload failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String objectKey, String uploadId) {
+        try {
+            AbortMultipartUploadRequest abortReq = AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build();
+            s3.abortMultipartUpload(abortReq);
+        } catch (NoSuchUploadException ignore) {
+            // Already completed or aborted
+        } catch (S3Exception e) {
+            throw new StorageException("Abort failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
+    @Override
+    public ObjectContent download(String bucket, String objectKey) {
+        if (parallelDownloader != null) {
+            return parallelDownloader.download(bucket, objectKey);
+        }
+
         try {
             GetObjectRequest getReq = GetObjectRequest.builder()
                     .bucket(bucket)
                     .key(objectKey)
                     .build();
-            return s3.getObject(getReq);
+            ResponseInputStream<GetObjectResponse> in = s3.getObject(getReq);
+
+            GetObjectResponse getRes = in.response();
+            return new ObjectContent(in, new ObjectStat(
+                    getRes.contentLength(),
+                    getRes.eTag(),
+                    getRes.contentType(),
+                    getRes.checksumCRC32C()
+            ));
         } catch (NoSuchKeyException e) {
             throw new StorageException("Object not found: %s/%s".formatted(bucket, objectKey), e);
         } catch (S3Exception e) {
@@ -49,6 +255,31 @@ public class S3StorageService implements IS3StorageService {
         }
     }
 
+    @Override
+    public ObjectContent download(String bucket, String objectKey, long firstByte, long lastByte) {
+        try {
+            GetObjectRequest getReq = GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .range("bytes=%d-%d".formatted(firstByte, lastByte))
+                    .build();
+            ResponseInputStream<GetObjectResponse> in = s3.getObject(getReq);
+
+            // A range carries no checksum of its own: the stored one covers the whole object
+            GetObjectResponse getRes = in.response();
+            return new ObjectContent(in, new ObjectStat(
+                    getRes.contentLength(),
+                    getRes.eTag(),
+                    getRes.contentType(),
+                    null
+            ));
+        } catch (NoSuchKeyException e) {
+            throw new StorageException("Object not found: %s/%s".formatted(bucket, objectKey), e);
+        } catch (S3Exception e) {
+            throw new StorageException("Ranged download failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
     @Override
     public void delete(String bucket, String objectKey) {
         try {
@@ -74,7 +305,8 @@ public class S3StorageService implements IS3StorageService {
             return Optional.of(new ObjectStat(
                     headRes.contentLength(),
                     headRes.eTag(),
-                    headRes.contentType()
+                    headRes.contentType(),
+                    headRes.checksumCRC32C()
             ));
         } catch (NoSuchKeyException e) {
             return Optional.empty();
@@ -83,6 +315,60 @@ public class S3StorageService implements IS3StorageService {
         }
     }
 
+    @Override
+    public PresignedRequest presignDownload(String bucket, String objectKey, String filename, String contentEncoding, Duration validity) {
+        try {
+            GetObjectRequest getReq = GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .responseContentDisposition(ContentDisposition.attachment()
+                            .filename(filename, StandardCharsets.UTF_8)
+                            .build()
+                            .toString())
+                    .responseContentEncoding(contentEncoding)
+                    .build();
+
+            PresignedGetObjectRequest presigned = presigner.presignGetObject(GetObjectPresignRequest.builder()
+                    .signatureDuration(validity)
+                    .getObjectRequest(getReq)
+                    .build());
+
+            return new PresignedRequest(presigned.url().toString(), presigned.httpRequest().method().name(),
+                    clientHeaders(presigned.signedHeaders()), presigned.expiration());
+        } catch (SdkException e) {
+            throw new StorageException("Presign download failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
+    @Override
+    public PresignedRequest presignUpload(String bucket, String objectKey, String contentType, long size, Duration validity) {
+        try {
+            PutObjectRequest putReq = PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .contentLength(size)
+                    .build();
+
+            PresignedPutObjectRequest presigned = presigner.presignPutObject(PutObjectPresignRequest.builder()
+                    .signatureDuration(validity)
+                    .putObjectRequest(putReq)
+                    .build());
+
+            return new PresignedRequest(presigned.url().toString(), presigned.httpRequest().method().name(),
+                    clientHeaders(presigned.signedHeaders()), presigned.expiration());
+        } catch (SdkException e) {
+            throw new StorageException("Presign upload failed for %s/%s".formatted(bucket, objectKey), e);
+        }
+    }
+
+    private static Map<String, String> clientHeaders(Map<String, List<String>> signedHeaders) {
+        // Host is derived from the URL by every HTTP client, the rest must be sent as signed
+        return signedHeaders.entrySet().stream()
+                .filter(header -> !"host".equalsIgnoreCase(header.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, header -> String.join(",", header.getValue())));
+    }
+
     @Override
     public void setTags(String bucket, String objectKey, Map<String, String> tags) {
         try {
@@ -0,0 +1,40 @@
+package com.niolikon.taskboard.dropstack.storage.transfer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps up to {@code maxPooled} copy buffers for reuse. Acquiring never waits: when none is free a new
+ * buffer is allocated, and buffers released beyond the limit are left to the garbage collector.
+ */
+public class BufferPool {
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> free;
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Transfer buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(Math.max(1, maxPooled));
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = free.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            free.offer(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int pooled() {
+        return free.size();
+    }
+}
@@ -0,0 +1,8 @@
+package com.niolikon.taskboard.dropstack.storage.transfer;
+
+/**
+ * Marks an input stream backed by a channel whose {@code transferTo} copies without a heap buffer of ours,
+ * so {@link StreamTransfer} hands the copy to it instead of reading through a pooled buffer.
+ */
+public interface ChannelSource {
+}
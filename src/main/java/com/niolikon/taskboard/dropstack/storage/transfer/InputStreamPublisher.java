@@ -0,0 +1,125 @@
+package com.niolikon.taskboard.dropstack.storage.transfer;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes a blocking stream chunk by chunk, reading only as many chunks as were requested.
+ * Reads run on {@code readExecutor}, never two at once, so it suits streams that read quickly, such as local copies.
+ * The stream is closed once it ends, fails or the subscription is cancelled; it can be subscribed to only once.
+ */
+public class InputStreamPublisher implements Publisher<ByteBuffer> {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final Executor readExecutor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public InputStreamPublisher(InputStream in, Executor readExecutor) {
+        this.in = in;
+        this.readExecutor = readExecutor;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("A stream can be published only once"));
+            return;
+        }
+        subscriber.onSubscribe(new StreamSubscription(subscriber));
+    }
+
+    private final class StreamSubscription implements Subscription {
+        private final Subscriber<? super ByteBuffer> subscriber;
+        // A drain is started whenever demand leaves zero and only returns once it is back to zero, so reads never overlap
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile boolean invalidRequest;
+
+        private StreamSubscription(Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = true;
+            }
+            signal(Math.max(n, 1));
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            signal(1);
+        }
+
+        private void signal(long n) {
+            long previous = demand.getAndAccumulate(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+            if (previous == 0) {
+                readExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            long emitted = 0;
+            while (true) {
+                long requested = demand.get();
+                while (emitted < requested) {
+                    // Finishing leaves the demand above zero, so no drain ever starts again
+                    if (cancelled) {
+                        close();
+                        return;
+                    }
+                    if (invalidRequest) {
+                        close();
+                        subscriber.onError(new IllegalArgumentException("Requested chunks must be positive"));
+                        return;
+                    }
+
+                    byte[] chunk = new byte[CHUNK_SIZE];
+                    int length;
+                    try {
+                        length = in.read(chunk);
+                    } catch (IOException | RuntimeException e) {
+                        close();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    if (length < 0) {
+                        close();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(ByteBuffer.wrap(chunk, 0, length));
+                    emitted++;
+                }
+                if (demand.addAndGet(-emitted) == 0) {
+                    return;
+                }
+                emitted = 0;
+            }
+        }
+
+        private void close() {
+            try { in.close(); } catch (IOException ignore) {}
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.niolikon.taskboard.dropstack.storage.transfer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies content between streams through large pooled buffers, instead of the 8KB array each
+ * {@link InputStream#transferTo} call allocates. Time spent waiting on the source and on the target is
+ * recorded apart, which tells a slow object store from a slow client.
+ */
+@Component
+public class StreamTransfer {
+    static final String METRIC_BYTES = "storage.transfer.bytes";
+    static final String METRIC_BLOCKED = "storage.transfer.blocked";
+    static final String METRIC_POOLED = "storage.transfer.buffers.pooled";
+
+    private final BufferPool bufferPool;
+    private final Counter bytes;
+    private final Timer readBlocked;
+    private final Timer writeBlocked;
+
+    public StreamTransfer(MeterRegistry meterRegistry,
+                          @Value("${minio.transfer.buffer-size:256KB}") DataSize bufferSize,
+                          @Value("${minio.transfer.max-pooled-buffers:64}") int maxPooledBuffers) {
+        this.bufferPool = new BufferPool((int) Math.min(Integer.MAX_VALUE, bufferSize.toBytes()), maxPooledBuffers);
+        this.bytes = Counter.builder(METRIC_BYTES)
+                .description("Content bytes copied between storage and clients")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.readBlocked = Timer.builder(METRIC_BLOCKED)
+                .description("Time content copies spent waiting on their source or target")
+                .tag("side", "read")
+                .register(meterRegistry);
+        this.writeBlocked = Timer.builder(METRIC_BLOCKED)
+                .description("Time content copies spent waiting on their source or target")
+                .tag("side", "write")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_POOLED, bufferPool, BufferPool::pooled)
+                .description("Transfer buffers free for reuse")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Copies {@code in} to {@code out} until the end of {@code in}; neither stream is closed.
+     */
+    public long copy(InputStream in, OutputStream out) throws IOException {
+        if (in instanceof ChannelSource) {
+            long copied = in.transferTo(out);
+            bytes.increment(copied);
+            return copied;
+        }
+
+        byte[] buffer = bufferPool.acquire();
+        try {
+            long copied = 0;
+            while (true) {
+                long readStart = System.nanoTime();
+                int length = in.read(buffer, 0, buffer.length);
+                readBlocked.record(System.nanoTime() - readStart, TimeUnit.NANOSECONDS);
+                if (length < 0) {
+                    return copied;
+                }
+                long writeStart = System.nanoTime();
+                out.write(buffer, 0, length);
+                writeBlocked.record(System.nanoTime() - writeStart, TimeUnit.NANOSECONDS);
+                bytes.increment(length);
+                copied += length;
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Reads {@code in} a pooled buffer at a time, for consumers that pull in small reads; the buffer
+     * goes back to the pool when the returned stream is closed.
+     */
+    public InputStream buffered(InputStream in) {
+        return new PooledBufferedInputStream(in);
+    }
+
+    private class PooledBufferedInputStream extends FilterInputStream {
+        private byte[] buffer;
+        private int position;
+        private int limit;
+
+        private PooledBufferedInputStream(InputStream in) {
+            super(in);
+            this.buffer = bufferPool.acquire();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= limit && !fill()) {
+                return -1;
+            }
+            int length = Math.min(len, limit - position);
+            System.arraycopy(buffer, position, buf, off, length);
+            position += length;
+            return length;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            int buffered = limit - position;
+            if (buffered > 0) {
+                int skipped = (int) Math.min(n, buffered);
+                position += skipped;
+                return skipped;
+            }
+            return in.skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (limit - position) + in.available();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                if (buffer != null) {
+                    bufferPool.release(buffer);
+                    buffer = null;
+                }
+            }
+        }
+
+        private boolean fill() throws IOException {
+            if (buffer == null) {
+                throw new IOException("Stream closed");
+            }
+            long readStart = System.nanoTime();
+            int length = in.readNBytes(buffer, 0, buffer.length);
+            readBlocked.record(System.nanoTime() - readStart, TimeUnit.NANOSECONDS);
+            position = 0;
+            limit = length;
+            bytes.increment(length);
+            return length > 0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.niolikon.taskboard.dropstack.config;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexesCoreUnitTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private IndexOperations documentIndexOps;
+    @Mock
+    private IndexOperations auditIndexOps;
+    @Mock
+    private IndexOperations uploadSessionIndexOps;
+    @Mock
+    private IndexOperations presignedUploadIndexOps;
+
+    private MongoIndexes mongoIndexes;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(DocumentEntity.class)).thenReturn(documentIndexOps);
+        when(mongoTemplate.indexOps(DocumentAuditEntity.class)).thenReturn(auditIndexOps);
+        when(mongoTemplate.indexOps(DocumentUploadSessionEntity.class)).thenReturn(uploadSessionIndexOps);
+        when(mongoTemplate.indexOps(DocumentPresignedUploadEntity.class)).thenReturn(presignedUploadIndexOps);
+        mongoIndexes = new MongoIndexes(mongoTemplate);
+    }
+
+    @Test
+    void givenDeclaredIndexes_whenEnsureIndexes_thenDocumentListsAndTagsAreIndexedByOwner() {
+        // Act
+        mongoIndexes.ensureIndexes();
+
+        // Assert
+        assertThat(ensuredKeys(documentIndexOps)).containsExactlyInAnyOrder(
+                new Document("ownerUid", 1).append("createdAt", -1).append("_id", -1),
+                new Document("ownerUid", 1).append("updatedAt", -1).append("_id", -1),
+                new Document("ownerUid", 1).append("tags", 1).append("_id", 1),
+                new Document("ownerUid", 1).append("_id", 1));
+    }
+
+    @Test
+    void givenDeclaredIndexes_whenEnsureIndexes_thenAuditTrailAndExpiriesAreIndexed() {
+        // Act
+        mongoIndexes.ensureIndexes();
+
+        // Assert
+        assertThat(ensuredKeys(auditIndexOps)).containsExactly(new Document("documentId", 1).append("at", -1));
+        assertThat(ensuredKeys(uploadSessionIndexOps)).containsExactly(new Document("expiresAt", 1));
+        assertThat(ensuredKeys(presignedUploadIndexOps)).containsExactly(new Document("expiresAt", 1));
+    }
+
+    private static List<Document> ensuredKeys(IndexOperations indexOps) {
+        ArgumentCaptor<IndexDefinition> indexCap = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, atLeastOnce()).ensureIndex(indexCap.capture());
+        return indexCap.getAllValues().stream()
+                .map(IndexDefinition::getIndexKeys)
+                .toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentArchiveReadDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentArchiveService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DocumentArchiveController.class)
+@Import({SecurityConfig.class, DocumentArchiveControllerRelaySliceTest.TestSecurityBeans.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentArchiveControllerRelaySliceTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean
+    private IDocumentArchiveService archiveService;
+
+    @TestConfiguration
+    static class TestSecurityBeans {
+        @Bean
+        public JwtAuthenticationConverter jwtAuthenticationConverter() {
+            return new JwtAuthenticationConverter();
+        }
+    }
+
+    private static DocumentArchiveReadDto archive_writingContent() {
+        return new DocumentArchiveReadDto(ARCHIVE_FILENAME, out -> out.write(CONTENT_BYTES));
+    }
+
+    Stream<Arguments> provideEndpointRequestServiceMockAndRelayVerify() {
+        MockHttpServletRequestBuilder archiveByIdsRequest = get(API_PATH_DOCUMENT_ARCHIVE)
+                .param("ids", VALID_DOC_ID, OTHER_DOC_ID)
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentArchiveService> archiveByIdsServiceMockSetup = svc -> when(
+                svc.archive(eq(VALID_USER_ID), anyList(), isNull())
+        ).thenReturn(archive_writingContent());
+        Consumer<IDocumentArchiveService> archiveByIdsServiceMockVerify = svc ->
+                verify(svc).archive(VALID_USER_ID, List.of(VALID_DOC_ID, OTHER_DOC_ID), null);
+
+        MockHttpServletRequestBuilder archiveByTagRequest = get(API_PATH_DOCUMENT_ARCHIVE)
+                .param("tag", DOC_TAG)
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentArchiveService> archiveByTagServiceMockSetup = svc -> when(
+                svc.archive(eq(VALID_USER_ID), isNull(), eq(DOC_TAG))
+        ).thenReturn(archive_writingContent());
+        Consumer<IDocumentArchiveService> archiveByTagServiceMockVerify = svc ->
+                verify(svc).archive(VALID_USER_ID, null, DOC_TAG);
+
+        return Stream.of(
+                Arguments.of(archiveByIdsRequest, archiveByIdsServiceMockSetup, archiveByIdsServiceMockVerify),
+                Arguments.of(archiveByTagRequest, archiveByTagServiceMockSetup, archiveByTagServiceMockVerify)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEndpointRequestServiceMockAndRelayVerify")
+    void givenValidRequest_whenExecutingEndpoint_thenRequestIsRelayedToService(
+            MockHttpServletRequestBuilder endpointRequest,
+            Consumer<IDocumentArchiveService> serviceMockSetup,
+            Consumer<IDocumentArchiveService> serviceMockVerify
+    ) throws Exception {
+        if (serviceMockSetup != null) serviceMockSetup.accept(archiveService);
+        mockMvc.perform(endpointRequest);
+        assertDoesNotThrow(() -> serviceMockVerify.accept(archiveService));
+    }
+
+    @Test
+    void givenArchive_whenGettingArchive_thenStreamsZipAttachment() throws Exception {
+        // Arrange
+        when(archiveService.archive(VALID_USER_ID, null, null)).thenReturn(archive_writingContent());
+
+        // Act
+        MvcResult started = mockMvc.perform(get(API_PATH_DOCUMENT_ARCHIVE).with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, DocumentArchiveController.CONTENT_TYPE_ZIP))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString(ARCHIVE_FILENAME)))
+                .andExpect(content().bytes(CONTENT_BYTES));
+    }
+}
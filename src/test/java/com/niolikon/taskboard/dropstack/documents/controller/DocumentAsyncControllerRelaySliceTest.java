@@ -0,0 +1,245 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentPublisherDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentAsyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.util.UriTemplate;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DocumentAsyncController.class)
+@Import({SecurityConfig.class, DocumentAsyncControllerRelaySliceTest.TestBeans.class})
+class DocumentAsyncControllerRelaySliceTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private IDocumentAsyncService documentAsyncService;
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        public JwtAuthenticationConverter jwtAuthenticationConverter() {
+            return new JwtAuthenticationConverter();
+        }
+
+        @Bean
+        public Executor applicationTaskExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @Test
+    void givenValidUpload_whenCreateAsync_thenRelaysToServiceAndReturnsCreated() throws Exception {
+        // Arrange
+        MockMultipartFile filePart = new MockMultipartFile(
+                PART_NAME_FILE, MULTIPART_FILE_ORIGINAL_NAME, MIME_PDF, CONTENT_BYTES
+        );
+        MockMultipartFile metadataPart = new MockMultipartFile(
+                PART_NAME_METADATA, "", MediaType.APPLICATION_JSON_VALUE,
+                objectMapper.writeValueAsBytes(metadata_valid_fromClient)
+        );
+        when(documentAsyncService.create(eq(VALID_USER_ID), any(DocumentCreateMetadataDto.class), any(DocumentCreateContentDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(docView_expected_fromCreate));
+
+        // Act
+        MvcResult started = mockMvc.perform(multipart(API_PATH_DOCUMENT_ASYNC_BASE)
+                        .file(filePart)
+                        .file(metadataPart)
+                        .with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(HttpHeaders.LOCATION));
+        verify(documentAsyncService).create(eq(VALID_USER_ID), any(DocumentCreateMetadataDto.class), any(DocumentCreateContentDto.class));
+    }
+
+    @Test
+    void givenChunkedPublisher_whenDownloadAsync_thenStreamsAllChunksInOrder() throws Exception {
+        // Arrange
+        byte[] firstChunk = Arrays.copyOfRange(CONTENT_BYTES, 0, 4);
+        byte[] secondChunk = Arrays.copyOfRange(CONTENT_BYTES, 4, CONTENT_BYTES.length);
+        DocumentContentPublisherDto dl = new DocumentContentPublisherDto(
+                chunkPublisher(firstChunk, secondChunk), MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, CONTENT_ETAG, DOC_UPDATED_AT);
+        when(documentAsyncService.download(VALID_USER_ID, VALID_DOC_ID, Set.of()))
+                .thenReturn(CompletableFuture.completedFuture(dl));
+
+        // Act
+        MvcResult started = mockMvc.perform(get(new UriTemplate(API_PATH_DOCUMENT_ASYNC_CONTENT_BY_ID).expand(VALID_DOC_ID))
+                        .with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MIME_PDF))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(CONTENT_SIZE)))
+                .andExpect(header().string(HttpHeaders.ETAG, IF_NONE_MATCH_CURRENT))
+                .andExpect(header().stringValues(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL))
+                .andExpect(header().doesNotExist(HttpHeaders.PRAGMA))
+                .andExpect(content().bytes(CONTENT_BYTES));
+    }
+
+    @Test
+    void givenCurrentETag_whenConditionalDownloadAsync_thenReturnsNotModifiedFromTheRecord_withoutReadingContent() throws Exception {
+        // Arrange
+        when(documentAsyncService.read(VALID_USER_ID, VALID_DOC_ID))
+                .thenReturn(CompletableFuture.completedFuture(docView_withValidators_fromRepository));
+
+        // Act
+        MvcResult started = mockMvc.perform(get(new UriTemplate(API_PATH_DOCUMENT_ASYNC_CONTENT_BY_ID).expand(VALID_DOC_ID))
+                        .header(HttpHeaders.IF_NONE_MATCH, IF_NONE_MATCH_CURRENT)
+                        .with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, IF_NONE_MATCH_CURRENT))
+                .andExpect(header().stringValues(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL));
+        verify(documentAsyncService, never()).download(any(), any(), any());
+    }
+
+    @Test
+    void givenStaleETag_whenConditionalDownloadAsync_thenStreamsTheContent() throws Exception {
+        // Arrange
+        when(documentAsyncService.read(VALID_USER_ID, VALID_DOC_ID))
+                .thenReturn(CompletableFuture.completedFuture(docView_withValidators_fromRepository));
+        DocumentContentPublisherDto dl = new DocumentContentPublisherDto(
+                chunkPublisher(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, CONTENT_ETAG, DOC_UPDATED_AT);
+        when(documentAsyncService.download(VALID_USER_ID, VALID_DOC_ID, Set.of()))
+                .thenReturn(CompletableFuture.completedFuture(dl));
+
+        // Act
+        MvcResult started = mockMvc.perform(get(new UriTemplate(API_PATH_DOCUMENT_ASYNC_CONTENT_BY_ID).expand(VALID_DOC_ID))
+                        .header(HttpHeaders.IF_NONE_MATCH, IF_NONE_MATCH_STALE)
+                        .with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, IF_NONE_MATCH_CURRENT))
+                .andExpect(content().bytes(CONTENT_BYTES));
+    }
+
+    @Test
+    void givenUnmodifiedDocument_whenConditionalStatAsync_thenReturnsNotModified_withoutStatingStorage() throws Exception {
+        // Arrange
+        when(documentAsyncService.read(VALID_USER_ID, VALID_DOC_ID))
+                .thenReturn(CompletableFuture.completedFuture(docView_withValidators_fromRepository));
+
+        // Act
+        MvcResult started = mockMvc.perform(head(new UriTemplate(API_PATH_DOCUMENT_ASYNC_CONTENT_BY_ID).expand(VALID_DOC_ID))
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, IF_MODIFIED_SINCE_DOC_UPDATED_AT)
+                        .with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotModified());
+        verify(documentAsyncService, never()).stat(any(), any(), any());
+    }
+
+    @Test
+    void givenExistingDocument_whenStatAsync_thenReturnsContentHeaders() throws Exception {
+        // Arrange
+        when(documentAsyncService.stat(VALID_USER_ID, VALID_DOC_ID, Set.of()))
+                .thenReturn(CompletableFuture.completedFuture(new DocumentContentReadDto(null, MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, null, null)));
+
+        // Act
+        MvcResult started = mockMvc.perform(head(new UriTemplate(API_PATH_DOCUMENT_ASYNC_CONTENT_BY_ID).expand(VALID_DOC_ID))
+                        .with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(CONTENT_SIZE)));
+    }
+
+    @Test
+    void givenExistingDocument_whenDeleteAsync_thenReturnsNoContent() throws Exception {
+        // Arrange
+        when(documentAsyncService.delete(VALID_USER_ID, VALID_DOC_ID))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        MvcResult started = mockMvc.perform(delete(new UriTemplate(API_PATH_DOCUMENT_ASYNC_BY_ID).expand(VALID_DOC_ID))
+                        .with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNoContent());
+        verify(documentAsyncService).delete(VALID_USER_ID, VALID_DOC_ID);
+    }
+
+    private static Publisher<ByteBuffer> chunkPublisher(byte[]... chunks) {
+        return subscriber -> {
+            Iterator<byte[]> remaining = List.of(chunks).iterator();
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    for (long i = 0; i < n && remaining.hasNext(); i++) {
+                        subscriber.onNext(ByteBuffer.wrap(remaining.next()));
+                    }
+                    if (!remaining.hasNext()) {
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    // Nothing to release
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentBatchCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentBatchItemResultDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentBatchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DocumentBatchController.class)
+@Import({SecurityConfig.class, DocumentBatchControllerRelaySliceTest.TestSecurityBeans.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentBatchControllerRelaySliceTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private IDocumentBatchService batchService;
+
+    @TestConfiguration
+    static class TestSecurityBeans {
+        @Bean
+        public JwtAuthenticationConverter jwtAuthenticationConverter() {
+            return new JwtAuthenticationConverter();
+        }
+    }
+
+    private MockHttpServletRequestBuilder batchRequest_withTwoFiles() throws JsonProcessingException {
+        MockMultipartFile firstFile = new MockMultipartFile(PART_NAME_FILES, MULTIPART_FILE_ORIGINAL_NAME, MIME_PDF, CONTENT_BYTES);
+        MockMultipartFile secondFile = new MockMultipartFile(PART_NAME_FILES, MULTIPART_FILE_ORIGINAL_NAME, MIME_PDF, CONTENT_BYTES);
+        MockMultipartFile metadata = new MockMultipartFile(
+                PART_NAME_METADATA, "", MediaType.APPLICATION_JSON_VALUE,
+                objectMapper.writeValueAsBytes(DocumentBatchCreateMetadataDto.builder()
+                        .items(List.of(metadata_valid_fromClient, metadata_valid_fromClient))
+                        .build())
+        );
+        return multipart(API_PATH_DOCUMENT_BATCH)
+                .file(firstFile).file(secondFile).file(metadata)
+                .with(jwtRequest_withValidRole);
+    }
+
+    Stream<Arguments> provideEndpointRequestServiceMockAndRelayVerify() throws JsonProcessingException {
+        Consumer<IDocumentBatchService> createAllServiceMockSetup = svc -> when(
+                svc.createAll(eq(VALID_USER_ID), anyList(), anyList())
+        ).thenReturn(List.of(
+                DocumentBatchItemResultDto.builder().index(0).document(docView_expected_fromCreate).build(),
+                DocumentBatchItemResultDto.builder().index(1).document(docView_expected_fromCreate).build()));
+        Consumer<IDocumentBatchService> createAllServiceMockVerify = svc ->
+                verify(svc).createAll(eq(VALID_USER_ID), eq(List.of(metadata_valid_fromClient, metadata_valid_fromClient)),
+                        argThat(contents -> contents.size() == 2));
+
+        return Stream.of(
+                Arguments.of(batchRequest_withTwoFiles(), createAllServiceMockSetup, createAllServiceMockVerify)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEndpointRequestServiceMockAndRelayVerify")
+    void givenValidRequest_whenExecutingEndpoint_thenRequestIsRelayedToService(
+            MockHttpServletRequestBuilder endpointRequest,
+            Consumer<IDocumentBatchService> serviceMockSetup,
+            Consumer<IDocumentBatchService> serviceMockVerify
+    ) throws Exception {
+        if (serviceMockSetup != null) serviceMockSetup.accept(batchService);
+        mockMvc.perform(endpointRequest);
+        assertDoesNotThrow(() -> serviceMockVerify.accept(batchService));
+    }
+
+    @Test
+    void givenSomeItemsFailing_whenPostingBatch_thenReturnsMultiStatus() throws Exception {
+        when(batchService.createAll(eq(VALID_USER_ID), anyList(), anyList())).thenReturn(List.of(
+                DocumentBatchItemResultDto.builder().index(0).document(docView_expected_fromCreate).build(),
+                DocumentBatchItemResultDto.builder().index(1).error("Could not upload document to bucket").build()));
+
+        mockMvc.perform(batchRequest_withTwoFiles())
+                .andExpect(status().isMultiStatus());
+    }
+}
@@ -2,11 +2,14 @@ package com.niolikon.taskboard.dropstack.documents.controller;
 
 import com.niolikon.taskboard.dropstack.documents.dto.*;
 import com.niolikon.taskboard.dropstack.documents.services.IDocumentService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
 import com.niolikon.taskboard.framework.data.dto.PageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpRange;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -18,7 +21,11 @@ import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBo
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,7 +45,8 @@ class DocumentControllerCoreUnitTest {
         when(stubJwt.getSubject()).thenReturn(JWT_SUBJECT_VALID_USER_ID);
 
         documentService = mock(IDocumentService.class);
-        documentController = new DocumentController(documentService);
+        documentController = new DocumentController(documentService, mock(DocumentUploadStreamReader.class),
+                new StreamTransfer(new SimpleMeterRegistry(), TRANSFER_BUFFER_SIZE, TRANSFER_MAX_POOLED_BUFFERS), CACHE_CONTROL);
     }
 
     @Test
@@ -102,6 +110,37 @@ class DocumentControllerCoreUnitTest {
         assertThat(response.getBody()).isEqualTo(pageResponse);
     }
 
+    @Test
+    void givenValidInput_whenReadAllSummaries_thenOkIsReturned() {
+        // Arrange
+        DocumentSummaryReadDto summary = DocumentSummaryReadDto.builder().id(VALID_DOC_ID).title(DOC_TITLE).size(CONTENT_SIZE).build();
+        PageResponse<DocumentSummaryReadDto> pageResponse = new PageResponse<>(
+                new PageImpl<>(List.of(summary), pageable_firstPageSize10_fromClient, 1));
+        when(documentService.readAllSummaries(eq(JWT_SUBJECT_VALID_USER_ID), eq(FIELDS_TITLE_AND_SIZE), eq(pageable_firstPageSize10_fromClient))).thenReturn(pageResponse);
+
+        // Act
+        ResponseEntity<PageResponse<DocumentSummaryReadDto>> response = documentController.readAllSummaries(stubJwt, FIELDS_TITLE_AND_SIZE, pageable_firstPageSize10_fromClient);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isEqualTo(pageResponse);
+    }
+
+    @Test
+    void givenValidInput_whenReadAllByCursor_thenOkIsReturned() {
+        // Arrange
+        DocumentCursorPageReadDto cursorPage = new DocumentCursorPageReadDto(
+                List.of(docView_instance1_fromRepository, docView_instance2_fromRepository), 2, NEXT_CURSOR);
+        when(documentService.readAllByCursor(eq(JWT_SUBJECT_VALID_USER_ID), eq(CURSOR_FIRST_PAGE), eq(pageable_firstPageSize10_fromClient))).thenReturn(cursorPage);
+
+        // Act
+        ResponseEntity<DocumentCursorPageReadDto> response = documentController.readAllByCursor(stubJwt, CURSOR_FIRST_PAGE, pageable_firstPageSize10_fromClient);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isEqualTo(cursorPage);
+    }
+
     @Test
     void givenValidInput_whenReadDocument_thenOkIsReturned() {
         // Arrange
@@ -119,11 +158,11 @@ class DocumentControllerCoreUnitTest {
     void givenValidInput_whenDownloadDocument_thenOkWithHeadersAndBodyIsReturned() throws Exception {
         // Arrange
         ByteArrayInputStream input = new ByteArrayInputStream(CONTENT_BYTES);
-        DocumentContentReadDto dlDto = new DocumentContentReadDto(input, MIME_PDF, CONTENT_SIZE, DOC_TITLE);
-        when(documentService.download(eq(JWT_SUBJECT_VALID_USER_ID), eq(VALID_DOC_ID))).thenReturn(dlDto);
+        DocumentContentReadDto dlDto = new DocumentContentReadDto(input, MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, null, null);
+        when(documentService.download(eq(JWT_SUBJECT_VALID_USER_ID), eq(VALID_DOC_ID), eq(Set.of()))).thenReturn(dlDto);
 
         // Act
-        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID);
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, null, null, null, null);
 
         // Assert – status + headers
         assertThat(response.getStatusCode()).isEqualTo(OK);
@@ -139,6 +178,169 @@ class DocumentControllerCoreUnitTest {
         assertThat(out.toByteArray()).isEqualTo(CONTENT_BYTES);
     }
 
+    @Test
+    void givenSingleRange_whenDownloadDocument_thenPartialContentWithContentRangeIsReturned() throws Exception {
+        // Arrange
+        DocumentContentRangesReadDto partial = new DocumentContentRangesReadDto(MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, null,
+                List.of(contentRange(2, 5)));
+        when(documentService.downloadRanges(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, HttpRange.parseRanges(RANGE_BYTES_2_TO_5), null))
+                .thenReturn(Optional.of(partial));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, RANGE_BYTES_2_TO_5, null, null, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst("Content-Range")).isEqualTo("bytes 2-5/" + CONTENT_SIZE);
+        assertThat(response.getHeaders().getFirst("Content-Length")).isEqualTo("4");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(CONTENT_BYTES, 2, 6));
+        verify(documentService, never()).download(anyString(), anyString(), anySet());
+    }
+
+    @Test
+    void givenSeveralRanges_whenDownloadDocument_thenMultipartByterangesIsReturned() throws Exception {
+        // Arrange
+        DocumentContentRangesReadDto partial = new DocumentContentRangesReadDto(MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, null,
+                List.of(contentRange(0, 1), contentRange(6, 8)));
+        when(documentService.downloadRanges(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, HttpRange.parseRanges(RANGE_BYTES_TWO_RANGES), null))
+                .thenReturn(Optional.of(partial));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, RANGE_BYTES_TWO_RANGES, null, null, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst("Content-Type")).startsWith("multipart/byteranges; boundary=");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        String body = out.toString(StandardCharsets.US_ASCII);
+        assertThat(body)
+                .contains("Content-Range: bytes 0-1/" + CONTENT_SIZE)
+                .contains("Content-Range: bytes 6-8/" + CONTENT_SIZE)
+                .contains(new String(Arrays.copyOfRange(CONTENT_BYTES, 6, 9), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void givenNoSatisfiableRange_whenDownloadDocument_thenRangeNotSatisfiableIsReturned() {
+        // Arrange
+        DocumentContentRangesReadDto partial = new DocumentContentRangesReadDto(MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, null, List.of());
+        when(documentService.downloadRanges(eq(JWT_SUBJECT_VALID_USER_ID), eq(VALID_DOC_ID), anyList(), isNull()))
+                .thenReturn(Optional.of(partial));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, "bytes=500-", null, null, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst("Content-Range")).isEqualTo("bytes */" + CONTENT_SIZE);
+    }
+
+    @Test
+    void givenStaleIfRange_whenDownloadDocument_thenWholeContentIsReturned() {
+        // Arrange
+        when(documentService.downloadRanges(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, HttpRange.parseRanges(RANGE_BYTES_2_TO_5), IF_RANGE_STALE_ETAG))
+                .thenReturn(Optional.empty());
+        DocumentContentReadDto dlDto = new DocumentContentReadDto(new ByteArrayInputStream(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, null, null);
+        when(documentService.download(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, Set.of())).thenReturn(dlDto);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, RANGE_BYTES_2_TO_5, IF_RANGE_STALE_ETAG, null, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getFirst("Content-Length")).isEqualTo(String.valueOf(CONTENT_SIZE));
+    }
+
+    @Test
+    void givenValidInput_whenReadDocument_thenValidatorsAndCacheControlAreReturned() {
+        // Arrange
+        when(documentService.read(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID)).thenReturn(docView_withValidators_fromRepository);
+
+        // Act
+        ResponseEntity<DocumentReadDto> response = documentController.read(stubJwt, VALID_DOC_ID);
+
+        // Assert
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"3\"");
+        assertThat(response.getHeaders().getLastModified()).isEqualTo(DOC_UPDATED_AT.toEpochMilli());
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo(CACHE_CONTROL);
+    }
+
+    @Test
+    void givenStoredValidators_whenDownloadDocument_thenStrongETagAndLastModifiedAreReturned() {
+        // Arrange
+        DocumentContentReadDto dlDto = new DocumentContentReadDto(new ByteArrayInputStream(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, CONTENT_ETAG, DOC_UPDATED_AT);
+        when(documentService.download(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, Set.of())).thenReturn(dlDto);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, null, null, null, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(IF_NONE_MATCH_CURRENT);
+        assertThat(response.getHeaders().getLastModified()).isEqualTo(DOC_UPDATED_AT.toEpochMilli());
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo(CACHE_CONTROL);
+    }
+
+    @Test
+    void givenEncodedContent_whenDownloadDocument_thenWeakETagIsReturned() {
+        // Arrange
+        DocumentContentReadDto dlDto = new DocumentContentReadDto(new ByteArrayInputStream(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE, "gzip", CONTENT_ETAG, DOC_UPDATED_AT);
+        when(documentService.download(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, Set.of("gzip"))).thenReturn(dlDto);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, "gzip", null, null, null, null);
+
+        // Assert
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/" + IF_NONE_MATCH_CURRENT);
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenDownloadDocument_thenNotModifiedIsReturned_andContentIsNotRead() {
+        // Arrange
+        when(documentService.read(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID)).thenReturn(docView_withValidators_fromRepository);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, null, null, IF_NONE_MATCH_CURRENT, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(IF_NONE_MATCH_CURRENT);
+        assertThat(response.getBody()).isNull();
+        verify(documentService, never()).download(anyString(), anyString(), anySet());
+    }
+
+    @Test
+    void givenStaleIfNoneMatch_whenDownloadDocument_thenWholeContentIsReturned() {
+        // Arrange
+        when(documentService.read(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID)).thenReturn(docView_withValidators_fromRepository);
+        DocumentContentReadDto dlDto = new DocumentContentReadDto(new ByteArrayInputStream(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, CONTENT_ETAG, DOC_UPDATED_AT);
+        when(documentService.download(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, Set.of())).thenReturn(dlDto);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, null, null, IF_NONE_MATCH_STALE, null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+    }
+
+    @Test
+    void givenIfModifiedSinceBeforeUpdate_whenDownloadDocument_thenWholeContentIsReturned() {
+        // Arrange
+        when(documentService.read(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID)).thenReturn(docView_withValidators_fromRepository);
+        DocumentContentReadDto dlDto = new DocumentContentReadDto(new ByteArrayInputStream(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, CONTENT_ETAG, DOC_UPDATED_AT);
+        when(documentService.download(JWT_SUBJECT_VALID_USER_ID, VALID_DOC_ID, Set.of())).thenReturn(dlDto);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = documentController.download(stubJwt, VALID_DOC_ID, null, null, null, null, IF_MODIFIED_SINCE_BEFORE_UPDATE);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+    }
+
     @Test
     void givenValidInput_whenUpdateDocument_thenOkIsReturned() {
         // Arrange
@@ -153,6 +355,21 @@ class DocumentControllerCoreUnitTest {
         assertThat(response.getBody()).isEqualTo(docView_updated_fromService);
     }
 
+    @Test
+    void givenValidInput_whenPatchDocument_thenOkIsReturned() {
+        // Arrange
+        DocumentPatchDto tagsRemoved = DocumentPatchDto.builder().tags(Optional.empty()).version(3L).build();
+        when(documentService.patch(eq(JWT_SUBJECT_VALID_USER_ID), eq(VALID_DOC_ID), eq(tagsRemoved)))
+                .thenReturn(docView_updated_fromService);
+
+        // Act
+        ResponseEntity<DocumentReadDto> response = documentController.patch(stubJwt, VALID_DOC_ID, tagsRemoved);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isEqualTo(docView_updated_fromService);
+    }
+
     @Test
     void givenValidInput_whenDeleteDocument_thenNoContentIsReturned() {
         // Act
@@ -10,6 +10,7 @@ import com.niolikon.taskboard.dropstack.documents.controller.scenarios.SingleDoc
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentUpdateDto;
 import com.niolikon.taskboard.dropstack.storage.config.StorageConfig;
+import com.niolikon.taskboard.dropstack.storage.services.IS3AsyncStorageService;
 import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
 import com.niolikon.taskboard.framework.data.dto.PageResponse;
 import com.niolikon.taskboard.framework.test.annotations.WithIsolatedMongoTestScenario;
@@ -63,6 +64,9 @@ class DocumentControllerIT {
     @MockitoBean
     private IS3StorageService storageMock;
 
+    @MockitoBean
+    private IS3AsyncStorageService asyncStorageMock;
+
     @Test
     @WithIsolatedMongoTestScenario(dataClass = SingleDocumentScenario.class)
     void givenSingleDocument_whenReadAll_thenListWithSingleDocumentReturned() throws Exception {
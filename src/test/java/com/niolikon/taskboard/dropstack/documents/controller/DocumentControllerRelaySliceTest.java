@@ -5,18 +5,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPatchDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentUpdateDto;
 import com.niolikon.taskboard.dropstack.documents.services.IDocumentService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentMatcher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -26,6 +32,8 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.util.UriTemplate;
 
 import java.io.ByteArrayInputStream;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -36,9 +44,10 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(DocumentController.class)
-@Import({SecurityConfig.class, DocumentControllerRelaySliceTest.TestSecurityBeans.class})
+@Import({SecurityConfig.class, DocumentUploadStreamReader.class, StreamTransfer.class, SimpleMeterRegistry.class, DocumentControllerRelaySliceTest.TestSecurityBeans.class})
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class DocumentControllerRelaySliceTest {
 
@@ -74,6 +83,13 @@ class DocumentControllerRelaySliceTest {
         Consumer<IDocumentService> createServiceMockVerify = svc ->
                 verify(svc).create(eq(VALID_USER_ID), any(DocumentCreateMetadataDto.class), any(DocumentCreateContentDto.class));
 
+        MockHttpServletRequestBuilder createStreamingRequest = post(API_PATH_DOCUMENT_STREAM)
+                .contentType(STREAMING_CONTENT_TYPE)
+                .content(streamingMultipartBody(
+                        PART_NAME_METADATA, objectMapper.writeValueAsBytes(metadata_valid_fromClient),
+                        PART_NAME_FILE, CONTENT_BYTES))
+                .with(jwtRequest_withValidRole);
+
         MockHttpServletRequestBuilder readAllRequest = get(API_PATH_DOCUMENT_BASE)
                 .with(jwtRequest_withValidRole);
         Consumer<IDocumentService> readAllServiceMockSetup = svc -> when(
@@ -82,6 +98,24 @@ class DocumentControllerRelaySliceTest {
         Consumer<IDocumentService> readAllServiceMockVerify = svc ->
                 verify(svc).readAll(eq(VALID_USER_ID), any());
 
+        MockHttpServletRequestBuilder readAllSummariesRequest = get(API_PATH_DOCUMENT_BASE)
+                .param(PARAM_NAME_FIELDS, String.join(",", FIELDS_TITLE_AND_SIZE))
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentService> readAllSummariesServiceMockSetup = svc -> when(
+                svc.readAllSummaries(eq(VALID_USER_ID), eq(FIELDS_TITLE_AND_SIZE), any())
+        ).thenReturn(pageResponseDocumentSummaryReadDto_empty_fromService);
+        Consumer<IDocumentService> readAllSummariesServiceMockVerify = svc ->
+                verify(svc).readAllSummaries(eq(VALID_USER_ID), eq(FIELDS_TITLE_AND_SIZE), any());
+
+        MockHttpServletRequestBuilder readAllByCursorRequest = get(API_PATH_DOCUMENT_BASE)
+                .param(PARAM_NAME_CURSOR, CURSOR_FIRST_PAGE)
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentService> readAllByCursorServiceMockSetup = svc -> when(
+                svc.readAllByCursor(eq(VALID_USER_ID), eq(CURSOR_FIRST_PAGE), any())
+        ).thenReturn(cursorPage_empty_fromService);
+        Consumer<IDocumentService> readAllByCursorServiceMockVerify = svc ->
+                verify(svc).readAllByCursor(eq(VALID_USER_ID), eq(CURSOR_FIRST_PAGE), any());
+
         MockHttpServletRequestBuilder readRequest = get(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
                 .with(jwtRequest_withValidRole);
         Consumer<IDocumentService> readServiceMockSetup = svc -> when(
@@ -93,10 +127,10 @@ class DocumentControllerRelaySliceTest {
         MockHttpServletRequestBuilder downloadRequest = get(new UriTemplate(API_PATH_DOCUMENT_CONTENT_BY_ID).expand(VALID_DOC_ID))
                 .with(jwtRequest_withValidRole);
         Consumer<IDocumentService> downloadServiceMockSetup = svc -> when(
-                svc.download(VALID_USER_ID, VALID_DOC_ID)
-        ).thenReturn(new DocumentContentReadDto(new ByteArrayInputStream(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE));
+                svc.download(VALID_USER_ID, VALID_DOC_ID, Set.of())
+        ).thenReturn(new DocumentContentReadDto(new ByteArrayInputStream(CONTENT_BYTES), MIME_PDF, CONTENT_SIZE, DOC_TITLE, null, null, null));
         Consumer<IDocumentService> downloadServiceMockVerify = svc ->
-                verify(svc).download(VALID_USER_ID, VALID_DOC_ID);
+                verify(svc).download(VALID_USER_ID, VALID_DOC_ID, Set.of());
 
         MockHttpServletRequestBuilder updateRequest = put(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
                 .with(jwtRequest_withValidRole)
@@ -108,6 +142,18 @@ class DocumentControllerRelaySliceTest {
         Consumer<IDocumentService> updateServiceMockVerify = svc ->
                 verify(svc).update(eq(VALID_USER_ID), eq(VALID_DOC_ID), any(DocumentUpdateDto.class));
 
+        MockHttpServletRequestBuilder patchRequest = patch(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
+                .with(jwtRequest_withValidRole)
+                .contentType(MEDIA_TYPE_MERGE_PATCH_JSON)
+                .content(PATCH_TAGS_REMOVED);
+        ArgumentMatcher<DocumentPatchDto> tagsRemovedOnly = dto ->
+                dto.getTitle() == null && Optional.empty().equals(dto.getTags()) && dto.getVersion() == 3L;
+        Consumer<IDocumentService> patchServiceMockSetup = svc -> when(
+                svc.patch(eq(VALID_USER_ID), eq(VALID_DOC_ID), argThat(tagsRemovedOnly))
+        ).thenReturn(docView_updated_fromService);
+        Consumer<IDocumentService> patchServiceMockVerify = svc ->
+                verify(svc).patch(eq(VALID_USER_ID), eq(VALID_DOC_ID), argThat(tagsRemovedOnly));
+
         MockHttpServletRequestBuilder deleteRequest = delete(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
                 .with(jwtRequest_withValidRole);
         Consumer<IDocumentService> deleteServiceMockVerify = svc ->
@@ -115,10 +161,14 @@ class DocumentControllerRelaySliceTest {
 
         return Stream.of(
                 Arguments.of(createRequest,    createServiceMockSetup,    createServiceMockVerify),
+                Arguments.of(createStreamingRequest, createServiceMockSetup, createServiceMockVerify),
                 Arguments.of(readAllRequest,   readAllServiceMockSetup,   readAllServiceMockVerify),
+                Arguments.of(readAllSummariesRequest, readAllSummariesServiceMockSetup, readAllSummariesServiceMockVerify),
+                Arguments.of(readAllByCursorRequest, readAllByCursorServiceMockSetup, readAllByCursorServiceMockVerify),
                 Arguments.of(readRequest,      readServiceMockSetup,      readServiceMockVerify),
                 Arguments.of(downloadRequest,  downloadServiceMockSetup,  downloadServiceMockVerify),
                 Arguments.of(updateRequest,    updateServiceMockSetup,    updateServiceMockVerify),
+                Arguments.of(patchRequest,     patchServiceMockSetup,     patchServiceMockVerify),
                 Arguments.of(deleteRequest,    null,                      deleteServiceMockVerify)
         );
     }
@@ -134,4 +184,40 @@ class DocumentControllerRelaySliceTest {
         mockMvc.perform(endpointRequest);
         assertDoesNotThrow(() -> serviceMockVerify.accept(documentService));
     }
+
+    @Test
+    void givenPreviewRenderedSinceLastRead_whenConditionalReadWithPreviousETag_thenReturnsDocumentWithNewETag() throws Exception {
+        // Arrange
+        when(documentService.read(VALID_USER_ID, VALID_DOC_ID)).thenReturn(docView_previewPending_fromRepository);
+        String pendingETag = mockMvc.perform(get(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
+                        .with(jwtRequest_withValidRole))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        when(documentService.read(VALID_USER_ID, VALID_DOC_ID)).thenReturn(docView_previewReady_fromRepository);
+
+        // Act & Assert
+        mockMvc.perform(get(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
+                        .header(HttpHeaders.IF_NONE_MATCH, pendingETag)
+                        .with(jwtRequest_withValidRole))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3-ready\""))
+                .andExpect(jsonPath("$.PreviewStatus").value("ready"));
+    }
+
+    @Test
+    void givenPreviewSettled_whenConditionalReadWithCurrentETag_thenReturnsNotModified() throws Exception {
+        // Arrange
+        when(documentService.read(VALID_USER_ID, VALID_DOC_ID)).thenReturn(docView_previewReady_fromRepository);
+
+        // Act & Assert
+        mockMvc.perform(get(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"3-ready\"")
+                        .with(jwtRequest_withValidRole))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, IF_MODIFIED_SINCE_DOC_UPDATED_AT)
+                        .with(jwtRequest_withValidRole))
+                .andExpect(status().isNotModified());
+    }
 }
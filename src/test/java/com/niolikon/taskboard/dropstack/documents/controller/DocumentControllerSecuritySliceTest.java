@@ -3,6 +3,8 @@ package com.niolikon.taskboard.dropstack.documents.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.niolikon.taskboard.dropstack.documents.services.IDocumentService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.niolikon.taskboard.dropstack.config.SecurityConfig;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -29,7 +31,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DocumentController.class)
-@Import({SecurityConfig.class, DocumentControllerSecuritySliceTest.TestSecurityBeans.class})
+@Import({SecurityConfig.class, DocumentUploadStreamReader.class, StreamTransfer.class, SimpleMeterRegistry.class, DocumentControllerSecuritySliceTest.TestSecurityBeans.class})
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class DocumentControllerSecuritySliceTest {
 
@@ -60,6 +62,13 @@ class DocumentControllerSecuritySliceTest {
                 .file(filePart)
                 .file(metadataPart);
 
+        // POST /api/Documents/stream (raw multipart)
+        MockHttpServletRequestBuilder createStreamingRequest = post(API_PATH_DOCUMENT_STREAM)
+                .contentType(STREAMING_CONTENT_TYPE)
+                .content(streamingMultipartBody(
+                        PART_NAME_METADATA, objectMapper.writeValueAsBytes(metadata_valid_fromClient),
+                        PART_NAME_FILE, CONTENT_BYTES));
+
         // GET /api/Documents
         MockHttpServletRequestBuilder readAllRequest = get(API_PATH_DOCUMENT_BASE);
 
@@ -83,6 +92,7 @@ class DocumentControllerSecuritySliceTest {
 
         return Stream.of(
                 Arguments.of(createRequest),
+                Arguments.of(createStreamingRequest),
                 Arguments.of(readAllRequest),
                 Arguments.of(readRequest),
                 Arguments.of(downloadRequest),
@@ -2,9 +2,13 @@ package com.niolikon.taskboard.dropstack.documents.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentUpdateDto;
 import com.niolikon.taskboard.dropstack.documents.services.IDocumentService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -17,20 +21,28 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.web.util.UriTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.stream.Stream;
 
 import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
 import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DocumentController.class)
-@Import({SecurityConfig.class, DocumentControllerValidationSliceTest.TestSecurityBeans.class})
+@Import({SecurityConfig.class, DocumentUploadStreamReader.class, StreamTransfer.class, SimpleMeterRegistry.class, DocumentControllerValidationSliceTest.TestSecurityBeans.class})
+@TestPropertySource(properties = "spring.servlet.multipart.max-file-size=" + STREAMING_MAX_FILE_SIZE)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class DocumentControllerValidationSliceTest {
 
@@ -83,11 +95,35 @@ class DocumentControllerValidationSliceTest {
                 .file(validFile).file(brokenMetadata)
                 .with(jwtRequest_withValidRole);
 
+        MockHttpServletRequestBuilder streamingRequestWithFileBeforeMetadata = post(API_PATH_DOCUMENT_STREAM)
+                .contentType(STREAMING_CONTENT_TYPE)
+                .content(streamingMultipartBody(
+                        PART_NAME_FILE, CONTENT_BYTES,
+                        PART_NAME_METADATA, objectMapper.writeValueAsBytes(metadata_valid_fromClient)))
+                .with(jwtRequest_withValidRole);
+
+        MockHttpServletRequestBuilder streamingRequestWithMissingFile = post(API_PATH_DOCUMENT_STREAM)
+                .contentType(STREAMING_CONTENT_TYPE)
+                .content(streamingMultipartBody(
+                        PART_NAME_METADATA, objectMapper.writeValueAsBytes(metadata_valid_fromClient),
+                        null, null))
+                .with(jwtRequest_withValidRole);
+
+        MockHttpServletRequestBuilder streamingRequestWithInvalidMetadataJson = post(API_PATH_DOCUMENT_STREAM)
+                .contentType(STREAMING_CONTENT_TYPE)
+                .content(streamingMultipartBody(
+                        PART_NAME_METADATA, "]not-json[".getBytes(),
+                        PART_NAME_FILE, CONTENT_BYTES))
+                .with(jwtRequest_withValidRole);
+
         return Stream.of(
                 Arguments.of(requestWithMissingFile),
                 Arguments.of(requestWithEmptyFile),
                 Arguments.of(requestWithMissingMetadata),
-                Arguments.of(requestWithInvalidMetadataJson)
+                Arguments.of(requestWithInvalidMetadataJson),
+                Arguments.of(streamingRequestWithFileBeforeMetadata),
+                Arguments.of(streamingRequestWithMissingFile),
+                Arguments.of(streamingRequestWithInvalidMetadataJson)
         );
     }
 
@@ -110,6 +146,15 @@ class DocumentControllerValidationSliceTest {
         );
     }
 
+    static Stream<Arguments> provideInvalidPatchBodies() {
+        return Stream.of(
+                Arguments.of(PATCH_TITLE_REMOVED),
+                Arguments.of(PATCH_TITLE_BLANK),
+                Arguments.of(PATCH_TAG_BLANK),
+                Arguments.of(PATCH_MISSING_VERSION)
+        );
+    }
+
     @ParameterizedTest
     @MethodSource("provideInvalidCreateRequests")
     void givenInvalidCreateMultipart_whenPosting_thenReturnsBadRequest(MockHttpServletRequestBuilder invalidCreateRequest) throws Exception {
@@ -124,4 +169,38 @@ class DocumentControllerValidationSliceTest {
                         .content(objectMapper.writeValueAsString(invalidBody)))
                 .andExpect(status().isBadRequest());
     }
+
+    @ParameterizedTest
+    @MethodSource("provideInvalidPatchBodies")
+    void givenInvalidMergePatch_whenPatching_thenReturnsBadRequest(String invalidPatch) throws Exception {
+        mockMvc.perform(patch(new UriTemplate(API_PATH_DOCUMENT_BY_ID).expand(VALID_DOC_ID))
+                        .with(jwtRequest_withValidRole)
+                        .contentType(MEDIA_TYPE_MERGE_PATCH_JSON)
+                        .content(invalidPatch))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void givenStreamedFileOverSizeLimit_whenStoringReadsIt_thenReturnsPayloadTooLarge() throws Exception {
+        // Arrange
+        when(documentService.create(anyString(), any(), any())).thenAnswer(inv -> {
+            DocumentCreateContentDto content = inv.getArgument(2);
+            try (InputStream in = content.getSource().getInputStream()) {
+                in.readAllBytes();
+            } catch (IOException e) {
+                // As storage reports it: the read failure ends up wrapped, several causes deep
+                throw new RuntimeException("Could not upload", new UncheckedIOException(e));
+            }
+            return null;
+        });
+
+        // Act & Assert
+        mockMvc.perform(post(API_PATH_DOCUMENT_STREAM)
+                        .contentType(STREAMING_CONTENT_TYPE)
+                        .content(streamingMultipartBody(
+                                PART_NAME_METADATA, objectMapper.writeValueAsBytes(metadata_valid_fromClient),
+                                PART_NAME_FILE, CONTENT_BYTES_OVER_STREAMING_LIMIT))
+                        .with(jwtRequest_withValidRole))
+                .andExpect(status().isPayloadTooLarge());
+    }
 }
@@ -0,0 +1,97 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedUploadCreateDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentPresignedService;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.util.UriTemplate;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@WebMvcTest(DocumentPresignedController.class)
+@Import({SecurityConfig.class, DocumentPresignedControllerRelaySliceTest.TestSecurityBeans.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentPresignedControllerRelaySliceTest {
+    private static final String UPLOAD_ID = "upload-1";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private IDocumentPresignedService presignedService;
+
+    @TestConfiguration
+    static class TestSecurityBeans {
+        @Bean
+        public JwtAuthenticationConverter jwtAuthenticationConverter() {
+            return new JwtAuthenticationConverter();
+        }
+    }
+
+    Stream<Arguments> provideEndpointRequestServiceMockAndRelayVerify() throws JsonProcessingException {
+        MockHttpServletRequestBuilder presignUploadRequest = post(API_PATH_DOCUMENT_PRESIGNED_UPLOADS)
+                .with(jwtRequest_withValidRole)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(DocumentPresignedUploadCreateDto.builder()
+                        .metadata(metadata_valid_fromClient)
+                        .size(CONTENT_SIZE)
+                        .build()));
+        Consumer<IDocumentPresignedService> presignUploadServiceMockVerify = svc ->
+                verify(svc).presignUpload(eq(VALID_USER_ID), any(DocumentPresignedUploadCreateDto.class));
+
+        MockHttpServletRequestBuilder completeUploadRequest = post(new UriTemplate(API_PATH_DOCUMENT_PRESIGNED_UPLOAD_COMPLETE).expand(UPLOAD_ID))
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentPresignedService> completeUploadServiceMockSetup = svc -> when(
+                svc.completeUpload(VALID_USER_ID, UPLOAD_ID)
+        ).thenReturn(docView_expected_fromCreate);
+        Consumer<IDocumentPresignedService> completeUploadServiceMockVerify = svc ->
+                verify(svc).completeUpload(VALID_USER_ID, UPLOAD_ID);
+
+        MockHttpServletRequestBuilder presignDownloadRequest = get(new UriTemplate(API_PATH_DOCUMENT_CONTENT_URL_BY_ID).expand(VALID_DOC_ID))
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentPresignedService> presignDownloadServiceMockVerify = svc ->
+                verify(svc).presignDownload(VALID_USER_ID, VALID_DOC_ID);
+
+        return Stream.of(
+                Arguments.of(presignUploadRequest,   null,                           presignUploadServiceMockVerify),
+                Arguments.of(completeUploadRequest,  completeUploadServiceMockSetup, completeUploadServiceMockVerify),
+                Arguments.of(presignDownloadRequest, null,                           presignDownloadServiceMockVerify)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEndpointRequestServiceMockAndRelayVerify")
+    void givenValidRequest_whenExecutingEndpoint_thenRequestIsRelayedToService(
+            MockHttpServletRequestBuilder endpointRequest,
+            Consumer<IDocumentPresignedService> serviceMockSetup,
+            Consumer<IDocumentPresignedService> serviceMockVerify
+    ) throws Exception {
+        if (serviceMockSetup != null) serviceMockSetup.accept(presignedService);
+        mockMvc.perform(endpointRequest);
+        assertDoesNotThrow(() -> serviceMockVerify.accept(presignedService));
+    }
+}
@@ -0,0 +1,122 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentPreviewService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DocumentPreviewController.class)
+@Import({SecurityConfig.class, StreamTransfer.class, SimpleMeterRegistry.class, DocumentPreviewControllerRelaySliceTest.TestSecurityBeans.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentPreviewControllerRelaySliceTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean
+    private IDocumentPreviewService previewService;
+
+    @TestConfiguration
+    static class TestSecurityBeans {
+        @Bean
+        public JwtAuthenticationConverter jwtAuthenticationConverter() {
+            return new JwtAuthenticationConverter();
+        }
+    }
+
+    private static DocumentContentReadDto preview_fromService() {
+        return DocumentContentReadDto.builder()
+                .stream(new ByteArrayInputStream(CONTENT_BYTES))
+                .contentType(MIME_JPEG)
+                .contentLength(CONTENT_SIZE)
+                .etag(PREVIEW_ETAG)
+                .build();
+    }
+
+    Stream<Arguments> provideEndpointRequestServiceMockAndRelayVerify() {
+        MockHttpServletRequestBuilder previewRequest = get(API_PATH_DOCUMENT_PREVIEW_BY_ID, VALID_DOC_ID)
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentPreviewService> previewServiceMockSetup = svc -> when(
+                svc.downloadPreview(VALID_USER_ID, VALID_DOC_ID)
+        ).thenReturn(preview_fromService());
+        Consumer<IDocumentPreviewService> previewServiceMockVerify = svc ->
+                verify(svc).downloadPreview(VALID_USER_ID, VALID_DOC_ID);
+
+        return Stream.of(
+                Arguments.of(previewRequest, previewServiceMockSetup, previewServiceMockVerify)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEndpointRequestServiceMockAndRelayVerify")
+    void givenValidRequest_whenExecutingEndpoint_thenRequestIsRelayedToService(
+            MockHttpServletRequestBuilder endpointRequest,
+            Consumer<IDocumentPreviewService> serviceMockSetup,
+            Consumer<IDocumentPreviewService> serviceMockVerify
+    ) throws Exception {
+        if (serviceMockSetup != null) serviceMockSetup.accept(previewService);
+        mockMvc.perform(endpointRequest);
+        assertDoesNotThrow(() -> serviceMockVerify.accept(previewService));
+    }
+
+    @Test
+    void givenReadyPreview_whenGettingPreview_thenStreamsJpegWithLongLivedCaching() throws Exception {
+        // Arrange
+        when(previewService.downloadPreview(VALID_USER_ID, VALID_DOC_ID)).thenReturn(preview_fromService());
+
+        // Act
+        MvcResult started = mockMvc.perform(get(API_PATH_DOCUMENT_PREVIEW_BY_ID, VALID_DOC_ID).with(jwtRequest_withValidRole))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MIME_JPEG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, PREVIEW_CACHE_CONTROL))
+                .andExpect(header().string(HttpHeaders.ETAG, IF_NONE_MATCH_PREVIEW))
+                .andExpect(content().bytes(CONTENT_BYTES));
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenGettingPreview_thenNotModifiedWithoutReadingStorage() throws Exception {
+        // Arrange
+        when(previewService.previewETag(VALID_USER_ID, VALID_DOC_ID)).thenReturn(PREVIEW_ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get(API_PATH_DOCUMENT_PREVIEW_BY_ID, VALID_DOC_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, IF_NONE_MATCH_PREVIEW)
+                        .with(jwtRequest_withValidRole))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, IF_NONE_MATCH_PREVIEW));
+        verify(previewService, never()).downloadPreview(VALID_USER_ID, VALID_DOC_ID);
+    }
+}
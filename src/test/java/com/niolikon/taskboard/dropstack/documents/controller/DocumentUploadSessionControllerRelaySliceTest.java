@@ -0,0 +1,122 @@
+package com.niolikon.taskboard.dropstack.documents.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niolikon.taskboard.dropstack.config.SecurityConfig;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionReadDto;
+import com.niolikon.taskboard.dropstack.documents.services.IDocumentUploadSessionService;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.util.UriTemplate;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.niolikon.taskboard.dropstack.documents.controller.DocumentApiPaths.*;
+import static com.niolikon.taskboard.dropstack.documents.controller.testdata.DocumentControllerTestData.*;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@WebMvcTest(DocumentUploadSessionController.class)
+@Import({SecurityConfig.class, DocumentUploadSessionControllerRelaySliceTest.TestSecurityBeans.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentUploadSessionControllerRelaySliceTest {
+    private static final String SESSION_ID = "session-1";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private IDocumentUploadSessionService uploadSessionService;
+
+    @TestConfiguration
+    static class TestSecurityBeans {
+        @Bean
+        public JwtAuthenticationConverter jwtAuthenticationConverter() {
+            return new JwtAuthenticationConverter();
+        }
+    }
+
+    Stream<Arguments> provideEndpointRequestServiceMockAndRelayVerify() throws JsonProcessingException {
+        DocumentUploadSessionReadDto sessionView = DocumentUploadSessionReadDto.builder()
+                .id(SESSION_ID)
+                .receivedChunks(List.of())
+                .build();
+
+        MockHttpServletRequestBuilder openRequest = post(API_PATH_DOCUMENT_UPLOAD_SESSION_BASE)
+                .with(jwtRequest_withValidRole)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(DocumentUploadSessionCreateDto.builder()
+                        .metadata(metadata_valid_fromClient)
+                        .size(CONTENT_SIZE)
+                        .build()));
+        Consumer<IDocumentUploadSessionService> openServiceMockSetup = svc -> when(
+                svc.open(eq(VALID_USER_ID), any(DocumentUploadSessionCreateDto.class))
+        ).thenReturn(sessionView);
+        Consumer<IDocumentUploadSessionService> openServiceMockVerify = svc ->
+                verify(svc).open(eq(VALID_USER_ID), any(DocumentUploadSessionCreateDto.class));
+
+        MockHttpServletRequestBuilder readRequest = get(new UriTemplate(API_PATH_UPLOAD_SESSION_BY_ID).expand(SESSION_ID))
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentUploadSessionService> readServiceMockVerify = svc ->
+                verify(svc).read(VALID_USER_ID, SESSION_ID);
+
+        MockHttpServletRequestBuilder uploadChunkRequest = put(new UriTemplate(API_PATH_UPLOAD_SESSION_CHUNK).expand(SESSION_ID, 2))
+                .with(jwtRequest_withValidRole)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(CONTENT_BYTES);
+        Consumer<IDocumentUploadSessionService> uploadChunkServiceMockVerify = svc ->
+                verify(svc).uploadChunk(eq(VALID_USER_ID), eq(SESSION_ID), eq(2), any(InputStream.class), eq(CONTENT_SIZE));
+
+        MockHttpServletRequestBuilder completeRequest = post(new UriTemplate(API_PATH_UPLOAD_SESSION_COMPLETE).expand(SESSION_ID))
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentUploadSessionService> completeServiceMockSetup = svc -> when(
+                svc.complete(VALID_USER_ID, SESSION_ID)
+        ).thenReturn(docView_expected_fromCreate);
+        Consumer<IDocumentUploadSessionService> completeServiceMockVerify = svc ->
+                verify(svc).complete(VALID_USER_ID, SESSION_ID);
+
+        MockHttpServletRequestBuilder abortRequest = delete(new UriTemplate(API_PATH_UPLOAD_SESSION_BY_ID).expand(SESSION_ID))
+                .with(jwtRequest_withValidRole);
+        Consumer<IDocumentUploadSessionService> abortServiceMockVerify = svc ->
+                verify(svc).abort(VALID_USER_ID, SESSION_ID);
+
+        return Stream.of(
+                Arguments.of(openRequest,        openServiceMockSetup,     openServiceMockVerify),
+                Arguments.of(readRequest,        null,                     readServiceMockVerify),
+                Arguments.of(uploadChunkRequest, null,                     uploadChunkServiceMockVerify),
+                Arguments.of(completeRequest,    completeServiceMockSetup, completeServiceMockVerify),
+                Arguments.of(abortRequest,       null,                     abortServiceMockVerify)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideEndpointRequestServiceMockAndRelayVerify")
+    void givenValidRequest_whenExecutingEndpoint_thenRequestIsRelayedToService(
+            MockHttpServletRequestBuilder endpointRequest,
+            Consumer<IDocumentUploadSessionService> serviceMockSetup,
+            Consumer<IDocumentUploadSessionService> serviceMockVerify
+    ) throws Exception {
+        if (serviceMockSetup != null) serviceMockSetup.accept(uploadSessionService);
+        mockMvc.perform(endpointRequest);
+        assertDoesNotThrow(() -> serviceMockVerify.accept(uploadSessionService));
+    }
+}
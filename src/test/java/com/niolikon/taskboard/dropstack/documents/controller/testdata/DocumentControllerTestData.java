@@ -1,7 +1,10 @@
 package com.niolikon.taskboard.dropstack.documents.controller.testdata;
 
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentRangeDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCursorPageReadDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentSummaryReadDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentUpdateDto;
 import com.niolikon.taskboard.framework.data.dto.PageResponse;
 import org.bson.types.ObjectId;
@@ -10,8 +13,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -33,8 +41,41 @@ public class DocumentControllerTestData {
     public static final String DOC_TITLE = "downloaded.pdf";
     public static final byte[] CONTENT_BYTES = "hello-doc".getBytes(StandardCharsets.UTF_8);
     public static final Long CONTENT_SIZE = (long) CONTENT_BYTES.length;
+    public static final String OTHER_DOC_ID = new ObjectId().toHexString();
+    public static final String DOC_TAG = "invoices";
+    public static final String ARCHIVE_FILENAME = "documents.zip";
+    public static final DataSize TRANSFER_BUFFER_SIZE = DataSize.ofBytes(4);
+    public static final int TRANSFER_MAX_POOLED_BUFFERS = 2;
+
+    public static final String RANGE_BYTES_2_TO_5 = "bytes=2-5";
+    public static final String RANGE_BYTES_TWO_RANGES = "bytes=0-1,6-8";
+    public static final String IF_RANGE_STALE_ETAG = "\"etag-stale\"";
+
+    public static final String CACHE_CONTROL = "private, no-cache";
+    public static final String CONTENT_ETAG = "etag-123";
+    public static final Instant DOC_UPDATED_AT = Instant.parse("2025-03-01T10:15:30Z");
+    public static final String IF_NONE_MATCH_CURRENT = "\"" + CONTENT_ETAG + "\"";
+    public static final String IF_NONE_MATCH_STALE = "\"etag-stale\"";
+    public static final String IF_MODIFIED_SINCE_BEFORE_UPDATE = "Fri, 28 Feb 2025 08:00:00 GMT";
+    public static final String MIME_JPEG = "image/jpeg";
+    public static final String PREVIEW_ETAG = "etag-preview";
+    public static final String IF_NONE_MATCH_PREVIEW = "\"" + PREVIEW_ETAG + "\"";
+    public static final String PREVIEW_CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    public static final String STREAMING_BOUNDARY = "dropstack-boundary";
+    public static final String STREAMING_CONTENT_TYPE = "multipart/form-data; boundary=" + STREAMING_BOUNDARY;
+    public static final String STREAMING_MAX_FILE_SIZE = "1KB";
+    public static final byte[] CONTENT_BYTES_OVER_STREAMING_LIMIT = new byte[4 * 1024];
 
     public static final Pageable pageable_firstPageSize10_fromClient = PageRequest.of(0, 10);
+    public static final String PATCH_TAGS_REMOVED = "{\"Tags\": null, \"Version\": 3}";
+    public static final String PATCH_TITLE_REMOVED = "{\"Title\": null, \"Version\": 3}";
+    public static final String PATCH_TITLE_BLANK = "{\"Title\": \" \", \"Version\": 3}";
+    public static final String PATCH_TAG_BLANK = "{\"Tags\": [\"\"], \"Version\": 3}";
+    public static final String PATCH_MISSING_VERSION = "{\"Title\": \"renamed.pdf\"}";
+    public static final List<String> FIELDS_TITLE_AND_SIZE = List.of("Title", "Size");
+    public static final String CURSOR_FIRST_PAGE = "";
+    public static final String NEXT_CURSOR = "MXxjcmVhdGVkQXR8REVTQ3wxNzM1ODEyOTMwMDAwfDY1YTAwMDAwMDAwMDAwMDAwMDAwMDAwMQ";
 
     // Input DTO
     public static final DocumentCreateMetadataDto metadata_valid_fromClient = DocumentCreateMetadataDto.builder()
@@ -54,6 +95,32 @@ public class DocumentControllerTestData {
             .title("One")
             .build();
 
+    public static final DocumentReadDto docView_withValidators_fromRepository = DocumentReadDto.builder()
+            .id(VALID_DOC_ID)
+            .title("One")
+            .etag(CONTENT_ETAG)
+            .updatedAt(DOC_UPDATED_AT)
+            .version(3L)
+            .build();
+
+    public static final DocumentReadDto docView_previewPending_fromRepository = DocumentReadDto.builder()
+            .id(VALID_DOC_ID)
+            .title("One")
+            .updatedAt(DOC_UPDATED_AT)
+            .version(3L)
+            .previewStatus("pending")
+            .build();
+
+    public static final DocumentReadDto docView_previewReady_fromRepository = DocumentReadDto.builder()
+            .id(VALID_DOC_ID)
+            .title("One")
+            .updatedAt(DOC_UPDATED_AT)
+            .version(3L)
+            .previewStatus("ready")
+            .build();
+
+    public static final String IF_MODIFIED_SINCE_DOC_UPDATED_AT = "Sat, 01 Mar 2025 10:15:30 GMT";
+
     public static final DocumentReadDto docView_instance2_fromRepository = DocumentReadDto.builder()
             .id(new ObjectId().toHexString())
             .title("Two")
@@ -80,6 +147,10 @@ public class DocumentControllerTestData {
 
     public static final PageResponse<DocumentReadDto> pageResponseDocumentReadDto_empty_fromRepository =
             new PageResponse<>(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+    public static final PageResponse<DocumentSummaryReadDto> pageResponseDocumentSummaryReadDto_empty_fromService =
+            new PageResponse<>(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+    public static final DocumentCursorPageReadDto cursorPage_empty_fromService =
+            new DocumentCursorPageReadDto(List.of(), 10, null);
 
     public static final RequestPostProcessor jwtRequest_withoutAuthorities = jwt()
             .jwt(jwt -> jwt.subject(VALID_USER_ID));
@@ -89,4 +160,30 @@ public class DocumentControllerTestData {
     public static final RequestPostProcessor jwtRequest_withValidRole = jwt()
             .jwt(j -> j.subject(JWT_SUBJECT_VALID_USER_ID))
             .authorities(new SimpleGrantedAuthority(JWT_AUTHORITIES_VALID_USER_ROLE));
+
+    public static DocumentContentRangeDto contentRange(int firstByte, int lastByte) {
+        return new DocumentContentRangeDto(firstByte, lastByte,
+                () -> new ByteArrayInputStream(Arrays.copyOfRange(CONTENT_BYTES, firstByte, lastByte + 1)));
+    }
+
+    public static byte[] streamingMultipartBody(String firstPartName, byte[] firstPart, String secondPartName, byte[] secondPart) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeStreamingPart(body, firstPartName, firstPart);
+        writeStreamingPart(body, secondPartName, secondPart);
+        body.writeBytes(("--" + STREAMING_BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+
+    private static void writeStreamingPart(ByteArrayOutputStream body, String partName, byte[] part) {
+        if (partName == null) {
+            return;
+        }
+        String headers = "--" + STREAMING_BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + partName + "\""
+                + ("file".equals(partName) ? "; filename=\"" + MULTIPART_FILE_ORIGINAL_NAME + "\"" : "") + "\r\n"
+                + "Content-Type: " + ("file".equals(partName) ? MIME_PDF : "application/json") + "\r\n\r\n";
+        body.writeBytes(headers.getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(part);
+        body.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
 }
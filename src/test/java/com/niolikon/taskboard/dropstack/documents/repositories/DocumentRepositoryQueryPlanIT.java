@@ -0,0 +1,204 @@
+package com.niolikon.taskboard.dropstack.documents.repositories;
+
+import com.niolikon.taskboard.dropstack.config.MongoIndexes;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import com.niolikon.taskboard.framework.test.containers.MongoTestContainersConfig;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.niolikon.taskboard.dropstack.documents.repositories.testdata.DocumentRepositoryQueryPlanTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Explains the query behind each repository method against the indexes {@link MongoIndexes} creates, and fails
+ * when one would scan its whole collection, or sort the owner's documents in memory, as it grows.
+ */
+@DataMongoTest
+@Import({MongoTestContainersConfig.class, MongoIndexes.class})
+class DocumentRepositoryQueryPlanIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private String documentId;
+
+    @BeforeEach
+    void setUp() {
+        List<DocumentEntity> documents = List.copyOf(mongoTemplate.insertAll(documents_ofOwners()));
+        documentId = documents.get(0).getId();
+        mongoTemplate.insertAll(audits_ofDocument(documentId));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.remove(new Query(), DocumentEntity.class);
+        mongoTemplate.remove(new Query(), DocumentAuditEntity.class);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenFindByOwnerUidSortedByCreatedAt_thenIndexServesFilterAndSort() {
+        // Arrange
+        Query findByOwnerUid = new Query(where("ownerUid").is(OWNER_UID))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, findByOwnerUid));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN, STAGE_BLOCKING_SORT);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenFindByOwnerUidSortedByUpdatedAt_thenIndexServesFilterAndSort() {
+        // Arrange
+        Query findByOwnerUid = new Query(where("ownerUid").is(OWNER_UID))
+                .with(Sort.by(Sort.Direction.DESC, "updatedAt"));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, findByOwnerUid));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN, STAGE_BLOCKING_SORT);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenSeekingPastCursorSortedByCreatedAt_thenIndexServesSeekAndSort() {
+        // Arrange
+        Instant after = CREATED_AT.plusSeconds(DOCUMENTS_PER_OWNER / 2);
+        Query seekPastCursor = new Query(where("ownerUid").is(OWNER_UID).orOperator(
+                where("createdAt").lt(after),
+                where("createdAt").is(after).and("_id").lt(new ObjectId())))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, seekPastCursor));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN, STAGE_BLOCKING_SORT);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenFindByOwnerUidUnsorted_thenIndexServesFilter() {
+        // Arrange
+        Query findByOwnerUid = new Query(where("ownerUid").is(OWNER_UID));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, findByOwnerUid));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenFindByOwnerUidAndTagsSortedById_thenIndexServesFilterAndSort() {
+        // Arrange
+        Query findByOwnerUidAndTags = new Query(where("ownerUid").is(OWNER_UID).and("tags").is(DOC_TAG))
+                .with(Sort.by("_id"));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, findByOwnerUidAndTags));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN, STAGE_BLOCKING_SORT);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenFindByOwnerUidSortedById_thenIndexServesFilterAndSort() {
+        // Arrange
+        Query findByOwnerUid = new Query(where("ownerUid").is(OWNER_UID))
+                .with(Sort.by("_id"));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, findByOwnerUid));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN, STAGE_BLOCKING_SORT);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenSeekingPastIdSortedById_thenIndexServesSeekAndSort() {
+        // Arrange
+        Query seekPastId = new Query(where("ownerUid").is(OWNER_UID).and("_id").gt(new ObjectId(documentId)))
+                .with(Sort.by("_id"));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, seekPastId));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN, STAGE_BLOCKING_SORT);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenFindByIdAndOwnerUid_thenIdIndexServesLookup() {
+        // Arrange
+        Query findByIdAndOwnerUid = new Query(where("_id").is(documentId).and("ownerUid").is(OWNER_UID));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, findByIdAndOwnerUid));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN);
+    }
+
+    @Test
+    void givenDocumentsOfOwners_whenFindByIdInAndOwnerUid_thenIdIndexServesLookup() {
+        // Arrange
+        Query findByIdInAndOwnerUid = new Query(where("_id").in(List.of(documentId)).and("ownerUid").is(OWNER_UID));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentEntity.class, findByIdInAndOwnerUid));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN);
+    }
+
+    @Test
+    void givenAuditTrail_whenFindByDocumentIdOrderByAtDesc_thenIndexServesFilterAndSort() {
+        // Arrange
+        Query findByDocumentIdOrderByAtDesc = new Query(where("documentId").is(documentId))
+                .with(Sort.by(Sort.Direction.DESC, "at"));
+
+        // Act
+        List<String> stages = winningPlanStages(explain(DocumentAuditEntity.class, findByDocumentIdOrderByAtDesc));
+
+        // Assert
+        assertThat(stages).doesNotContain(STAGE_COLLECTION_SCAN, STAGE_BLOCKING_SORT);
+    }
+
+    @Test
+    void givenExpiringUploads_whenFindByExpiresAtBefore_thenIndexServesFilter() {
+        // Arrange
+        Query findByExpiresAtBefore = new Query(where("expiresAt").lt(Instant.now()));
+
+        // Act
+        List<String> sessionStages = winningPlanStages(explain(DocumentUploadSessionEntity.class, findByExpiresAtBefore));
+        List<String> presignedStages = winningPlanStages(explain(DocumentPresignedUploadEntity.class, findByExpiresAtBefore));
+
+        // Assert
+        assertThat(sessionStages).doesNotContain(STAGE_COLLECTION_SCAN);
+        assertThat(presignedStages).doesNotContain(STAGE_COLLECTION_SCAN);
+    }
+
+    private Document explain(Class<?> entity, Query query) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(entity))
+                .find(query.getQueryObject())
+                .sort(query.getSortObject())
+                .explain();
+    }
+}
@@ -0,0 +1,69 @@
+package com.niolikon.taskboard.dropstack.documents.repositories.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import org.bson.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class DocumentRepositoryQueryPlanTestData {
+
+    public static final String OWNER_UID = "user-abc";
+    public static final String OTHER_OWNER_UID = "user-def";
+    public static final String DOC_TAG = "invoices";
+    public static final Instant CREATED_AT = Instant.parse("2025-01-02T10:15:30Z");
+    public static final int DOCUMENTS_PER_OWNER = 50;
+
+    public static final String STAGE_COLLECTION_SCAN = "COLLSCAN";
+    public static final String STAGE_BLOCKING_SORT = "SORT";
+
+    public static List<DocumentEntity> documents_ofOwners() {
+        List<DocumentEntity> documents = new ArrayList<>();
+        for (String owner : List.of(OWNER_UID, OTHER_OWNER_UID)) {
+            for (int i = 0; i < DOCUMENTS_PER_OWNER; i++) {
+                documents.add(DocumentEntity.builder()
+                        .ownerUid(owner)
+                        .bucket("bucket-test")
+                        .objectKey("obj-%s-%d".formatted(owner, i))
+                        .title("document-%d.pdf".formatted(i))
+                        .tags(i % 2 == 0 ? List.of(DOC_TAG) : List.of())
+                        .createdAt(CREATED_AT.plusSeconds(i))
+                        .updatedAt(CREATED_AT.plusSeconds(2L * i))
+                        .build());
+            }
+        }
+        return documents;
+    }
+
+    public static List<DocumentAuditEntity> audits_ofDocument(String documentId) {
+        List<DocumentAuditEntity> audits = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            audits.add(new DocumentAuditEntity(null, documentId, "UPDATE", Map.of(), CREATED_AT.plusSeconds(i), OWNER_UID));
+        }
+        return audits;
+    }
+
+    /**
+     * Collects the stage names of the winning plan, whatever the engine nesting them (classic or slot based).
+     */
+    public static List<String> winningPlanStages(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        List<String> stages = new ArrayList<>();
+        collectStages(queryPlanner.get("winningPlan"), stages);
+        return stages;
+    }
+
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document plan) {
+            if (plan.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            plan.values().forEach(child -> collectStages(child, stages));
+        } else if (node instanceof List<?> children) {
+            children.forEach(child -> collectStages(child, stages));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentArchiveReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentArchiveServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentArchiveServiceCoreUnitTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private IS3StorageService storage;
+
+    private DocumentArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        StreamTransfer streamTransfer = new StreamTransfer(new SimpleMeterRegistry(),
+                DataSize.ofBytes(TRANSFER_BUFFER_SIZE_BYTES), TRANSFER_MAX_POOLED_BUFFERS);
+        archiveService = new DocumentArchiveService(documentRepository, mongoTemplate, storage, streamTransfer,
+                new TaskThreads(new MockEnvironment()), MAX_ITEMS, MAX_OWNER_ITEMS, READ_AHEAD, MAX_BUFFERED_ENTRY_SIZE,
+                PARALLELISM, STORED_TYPES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiveService.shutdown();
+    }
+
+    @Test
+    void givenIds_whenArchive_thenEntriesFollowRequestOrder() throws IOException {
+        // Arrange
+        DocumentEntity first = doc_stored("doc-1", "first.txt", MIME_TEXT, FIRST_CONTENT);
+        DocumentEntity second = doc_stored("doc-2", "second.txt", MIME_TEXT, SECOND_CONTENT);
+        when(documentRepository.findByIdInAndOwnerUid(anyCollection(), eq(VALID_OWNER_UID))).thenReturn(List.of(first, second));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, "obj-doc-1", "etag-doc-1")).thenReturn(objectContent_fromStorage(first, FIRST_CONTENT));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, "obj-doc-2", "etag-doc-2")).thenReturn(objectContent_fromStorage(second, SECOND_CONTENT));
+
+        // Act
+        List<ArchivedEntry> entries = readArchive(write(archiveService.archive(VALID_OWNER_UID, List.of("doc-2", "doc-1"), null)));
+
+        // Assert
+        assertThat(entries).extracting(entry -> entry.name).containsExactly("second.txt", "first.txt");
+        assertThat(entries.get(0).content).isEqualTo(SECOND_CONTENT);
+        assertThat(entries.get(1).content).isEqualTo(FIRST_CONTENT);
+        assertThat(entries.get(0).modified).isEqualTo(DOC_UPDATED_AT);
+    }
+
+    @Test
+    void givenAlreadyCompressedType_whenArchive_thenEntryIsStored_andOthersDeflated() throws IOException {
+        // Arrange
+        DocumentEntity photo = doc_stored("doc-1", "photo.jpg", MIME_JPEG, FIRST_CONTENT);
+        DocumentEntity notes = doc_stored("doc-2", "notes.txt", MIME_TEXT, SECOND_CONTENT);
+        when(documentRepository.findByIdInAndOwnerUid(anyCollection(), eq(VALID_OWNER_UID))).thenReturn(List.of(photo, notes));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, "obj-doc-1", "etag-doc-1")).thenReturn(objectContent_fromStorage(photo, FIRST_CONTENT));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, "obj-doc-2", "etag-doc-2")).thenReturn(objectContent_fromStorage(notes, SECOND_CONTENT));
+
+        // Act
+        List<ArchivedEntry> entries = readArchive(write(archiveService.archive(VALID_OWNER_UID, List.of("doc-1", "doc-2"), null)));
+
+        // Assert
+        assertThat(entries).extracting(entry -> entry.method).containsExactly(ZipEntry.STORED, ZipEntry.DEFLATED);
+        assertThat(entries.get(0).content).isEqualTo(FIRST_CONTENT);
+    }
+
+    @Test
+    void givenDocumentOverBufferLimit_whenArchive_thenItIsStreamedInTurn() throws IOException {
+        // Arrange
+        DocumentEntity large = doc_stored("doc-1", "large.jpg", MIME_JPEG, LARGE_CONTENT);
+        DocumentEntity small = doc_stored("doc-2", "small.txt", MIME_TEXT, SECOND_CONTENT);
+        when(documentRepository.findByIdInAndOwnerUid(anyCollection(), eq(VALID_OWNER_UID))).thenReturn(List.of(large, small));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, "obj-doc-1", "etag-doc-1")).thenReturn(objectContent_fromStorage(large, LARGE_CONTENT));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, "obj-doc-2", "etag-doc-2")).thenReturn(objectContent_fromStorage(small, SECOND_CONTENT));
+
+        // Act
+        List<ArchivedEntry> entries = readArchive(write(archiveService.archive(VALID_OWNER_UID, List.of("doc-1", "doc-2"), null)));
+
+        // Assert
+        assertThat(entries).extracting(entry -> entry.name).containsExactly("large.jpg", "small.txt");
+        assertThat(entries.get(0).method).isEqualTo(ZipEntry.DEFLATED);
+        assertThat(entries.get(0).content).isEqualTo(LARGE_CONTENT);
+        assertThat(entries.get(1).content).isEqualTo(SECOND_CONTENT);
+    }
+
+    @Test
+    void givenDocumentsSharingTitle_whenArchive_thenNamesAreMadeUnique() throws IOException {
+        // Arrange
+        DocumentEntity first = doc_stored("doc-1", "report.txt", MIME_TEXT, FIRST_CONTENT);
+        DocumentEntity second = doc_stored("doc-2", "report.txt", MIME_TEXT, SECOND_CONTENT);
+        DocumentEntity nested = doc_stored("doc-3", "../etc/report", MIME_TEXT, SECOND_CONTENT);
+        when(documentRepository.findByIdInAndOwnerUid(anyCollection(), eq(VALID_OWNER_UID))).thenReturn(List.of(first, second, nested));
+        when(storage.download(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), anyString()))
+                .thenAnswer(inv -> objectContent_fromStorage(first, SECOND_CONTENT));
+
+        // Act
+        List<ArchivedEntry> entries = readArchive(write(archiveService.archive(VALID_OWNER_UID, List.of("doc-1", "doc-2", "doc-3"), null)));
+
+        // Assert
+        assertThat(entries).extracting(entry -> entry.name).containsExactly("report.txt", "report (2).txt", "__etc_report");
+    }
+
+    @Test
+    void givenIdNotOwned_whenArchive_thenThrowsNotFound_andReadsNoContent() {
+        // Arrange
+        DocumentEntity first = doc_stored("doc-1", "first.txt", MIME_TEXT, FIRST_CONTENT);
+        when(documentRepository.findByIdInAndOwnerUid(anyCollection(), eq(VALID_OWNER_UID))).thenReturn(List.of(first));
+
+        // Act & Assert
+        assertThatThrownBy(() -> archiveService.archive(VALID_OWNER_UID, List.of("doc-1", "doc-2"), null))
+                .isInstanceOf(EntityNotFoundRestException.class);
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void givenTooManyIds_whenArchive_thenThrowsBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> archiveService.archive(VALID_OWNER_UID, List.of("doc-1", "doc-2", "doc-3", "doc-4"), null))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(documentRepository, storage);
+    }
+
+    @Test
+    void givenTag_whenArchive_thenSeeksPageAfterPageThroughOwnerDocumentsWithTag_andCountsNothingPerPage() throws IOException {
+        // Arrange
+        List<DocumentEntity> docs = docs_storedInIdOrder(DocumentArchiveService.ARCHIVE_PAGE_SIZE + 1);
+        when(mongoTemplate.count(any(Query.class), eq(DocumentEntity.class))).thenReturn((long) docs.size());
+        when(mongoTemplate.find(any(Query.class), eq(DocumentEntity.class)))
+                .thenReturn(docs.subList(0, DocumentArchiveService.ARCHIVE_PAGE_SIZE))
+                .thenReturn(docs.subList(DocumentArchiveService.ARCHIVE_PAGE_SIZE, docs.size()));
+        when(storage.download(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), anyString()))
+                .thenAnswer(inv -> objectContent_fromStorage(docs.get(0), FIRST_CONTENT));
+
+        // Act
+        DocumentArchiveReadDto archive = archiveService.archive(VALID_OWNER_UID, null, DOC_TAG);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(DocumentEntity.class));
+        List<ArchivedEntry> entries = readArchive(write(archive));
+
+        // Assert
+        assertThat(entries).hasSize(docs.size());
+
+        ArgumentCaptor<Query> countCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).count(countCap.capture(), eq(DocumentEntity.class));
+        assertThat(countCap.getValue().getLimit()).isEqualTo(MAX_OWNER_ITEMS + 1);
+
+        ArgumentCaptor<Query> pageCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(pageCap.capture(), eq(DocumentEntity.class));
+        Query firstPage = pageCap.getAllValues().get(0);
+        Query secondPage = pageCap.getAllValues().get(1);
+        assertThat(firstPage.getQueryObject()).containsEntry("tags", DOC_TAG).doesNotContainKey("_id");
+        assertThat(secondPage.getQueryObject()).containsEntry("ownerUid", VALID_OWNER_UID)
+                .containsEntry("_id", new Document("$gt", new ObjectId(docs.get(DocumentArchiveService.ARCHIVE_PAGE_SIZE - 1).getId())));
+        assertThat(pageCap.getAllValues()).allSatisfy(page -> {
+            assertThat(page.getSkip()).isZero();
+            assertThat(page.getLimit()).isEqualTo(DocumentArchiveService.ARCHIVE_PAGE_SIZE);
+            assertThat(page.getSortObject()).isEqualTo(new Document("_id", 1));
+        });
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void givenOwnerWithMoreDocumentsThanLimit_whenArchiveAll_thenThrowsBadRequest_andReadsNothing() {
+        // Arrange
+        when(mongoTemplate.count(any(Query.class), eq(DocumentEntity.class))).thenReturn((long) MAX_OWNER_ITEMS + 1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> archiveService.archive(VALID_OWNER_UID, null, null))
+                .isInstanceOf(ResponseStatusException.class);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(DocumentEntity.class));
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void givenStorageFailure_whenWritingArchive_thenWriteFails() {
+        // Arrange
+        DocumentEntity first = doc_stored("doc-1", "first.txt", MIME_TEXT, FIRST_CONTENT);
+        when(documentRepository.findByIdInAndOwnerUid(anyCollection(), eq(VALID_OWNER_UID))).thenReturn(List.of(first));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, "obj-doc-1", "etag-doc-1"))
+                .thenThrow(new StorageException("Download failed", null));
+        DocumentArchiveReadDto archive = archiveService.archive(VALID_OWNER_UID, List.of("doc-1"), null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> write(archive)).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] write(DocumentArchiveReadDto archive) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archive.getContent().writeTo(out);
+        return out.toByteArray();
+    }
+}
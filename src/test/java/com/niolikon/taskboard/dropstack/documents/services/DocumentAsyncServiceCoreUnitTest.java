@@ -0,0 +1,238 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentPublisherDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.services.IS3AsyncStorageService;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentAsyncServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentAsyncServiceCoreUnitTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+    @Mock
+    private DocumentService documentService;
+    @Mock
+    private IS3AsyncStorageService storage;
+    @Mock
+    private IS3StorageService localCopies;
+
+    private DocumentAsyncService asyncService;
+
+    @BeforeEach
+    void setUp() {
+        asyncService = new DocumentAsyncService(documentRepository, documentService, storage, localCopies, Runnable::run, false);
+    }
+
+    @Test
+    void givenContentStoredAsSent_whenCreate_thenUploadsThroughAsyncClient_andPersistsThroughSharedSteps() {
+        // Arrange
+        when(documentService.storesAsSent(metadata_fromClient, content_fromClient)).thenReturn(true);
+        when(documentService.getDefaultBucket()).thenReturn(BUCKET);
+        when(storage.upload(eq(BUCKET), anyString(), any(InputStream.class), eq((long) CONTENT_BYTES.length), eq("application/pdf")))
+                .thenReturn(CompletableFuture.completedFuture(stat_uploaded));
+        when(documentService.toStoredEntity(eq(VALID_OWNER_UID), eq(metadata_fromClient), anyString(), eq(stat_uploaded),
+                eq((long) CONTENT_BYTES.length), isNull(), isNull()))
+                .thenAnswer(invocation -> doc_built(invocation.getArgument(2)));
+        when(documentService.persist(any(DocumentEntity.class))).thenReturn(docView_mapped);
+
+        // Act
+        DocumentReadDto result = asyncService.create(VALID_OWNER_UID, metadata_fromClient, content_fromClient).join();
+
+        // Assert
+        assertThat(result).isEqualTo(docView_mapped);
+        verify(documentService, never()).create(any(), any(), any());
+        verify(storage, never()).delete(any(), any());
+    }
+
+    @Test
+    void givenContentToCompress_whenCreate_thenStoresThroughSharedCreatePath() {
+        // Arrange
+        when(documentService.storesAsSent(metadata_fromClient, content_fromClient)).thenReturn(false);
+        when(documentService.create(VALID_OWNER_UID, metadata_fromClient, content_fromClient)).thenReturn(docView_mapped);
+
+        // Act
+        DocumentReadDto result = asyncService.create(VALID_OWNER_UID, metadata_fromClient, content_fromClient).join();
+
+        // Assert
+        assertThat(result).isEqualTo(docView_mapped);
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void givenUploadFails_whenCreate_thenFailsAsNotUploaded_andPersistsNothing() {
+        // Arrange
+        when(documentService.storesAsSent(metadata_fromClient, content_fromClient)).thenReturn(true);
+        when(documentService.getDefaultBucket()).thenReturn(BUCKET);
+        when(storage.upload(eq(BUCKET), anyString(), any(InputStream.class), anyLong(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new StorageException("Upload failed", new IOException("reset"))));
+
+        // Act & Assert
+        assertThatThrownBy(() -> asyncService.create(VALID_OWNER_UID, metadata_fromClient, content_fromClient).join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .hasMessage(DocumentService.DOCUMENT_NOT_UPLOADED_TO_BUCKET)
+                .hasCauseInstanceOf(StorageException.class);
+
+        verify(documentService, never()).persist(any());
+    }
+
+    @Test
+    void givenSaveFails_whenCreate_thenReleasesStoredContentThroughAsyncClient() {
+        // Arrange
+        when(documentService.storesAsSent(metadata_fromClient, content_fromClient)).thenReturn(true);
+        when(documentService.getDefaultBucket()).thenReturn(BUCKET);
+        when(storage.upload(eq(BUCKET), anyString(), any(InputStream.class), anyLong(), any()))
+                .thenReturn(CompletableFuture.completedFuture(stat_uploaded));
+        when(documentService.toStoredEntity(any(), any(), anyString(), any(), anyLong(), any(), any()))
+                .thenAnswer(invocation -> doc_built(invocation.getArgument(2)));
+        when(documentService.persist(any(DocumentEntity.class))).thenThrow(new IllegalStateException("mongo down"));
+        when(documentService.releasedObjectKeys(any(DocumentEntity.class)))
+                .thenAnswer(invocation -> List.of(invocation.<DocumentEntity>getArgument(0).getObjectKey()));
+        when(storage.delete(eq(BUCKET), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> asyncService.create(VALID_OWNER_UID, metadata_fromClient, content_fromClient).join())
+                .hasCauseInstanceOf(IllegalStateException.class);
+
+        verify(storage).delete(eq(BUCKET), anyString());
+    }
+
+    @Test
+    void givenExistingDocument_whenDelete_thenDeletesReleasedObjectsThroughAsyncClient_thenTheDocument() {
+        // Arrange
+        DocumentEntity stored = doc_stored();
+        when(documentRepository.findByIdAndOwnerUid(EXISTING_DOCUMENT_ID, VALID_OWNER_UID)).thenReturn(Optional.of(stored));
+        when(documentService.releasedObjectKeys(stored)).thenReturn(List.of(stored.getObjectKey(), PREVIEW_OBJECT_KEY));
+        when(storage.delete(eq(BUCKET), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        asyncService.delete(VALID_OWNER_UID, EXISTING_DOCUMENT_ID).join();
+
+        // Assert
+        verify(storage).delete(BUCKET, stored.getObjectKey());
+        verify(storage).delete(BUCKET, PREVIEW_OBJECT_KEY);
+        verify(documentRepository).delete(stored);
+    }
+
+    @Test
+    void givenStorageDeleteFails_whenDelete_thenFailsAsNotDeleted_andKeepsTheDocument() {
+        // Arrange
+        DocumentEntity stored = doc_stored();
+        when(documentRepository.findByIdAndOwnerUid(EXISTING_DOCUMENT_ID, VALID_OWNER_UID)).thenReturn(Optional.of(stored));
+        when(documentService.releasedObjectKeys(stored)).thenReturn(List.of(stored.getObjectKey()));
+        when(storage.delete(BUCKET, stored.getObjectKey()))
+                .thenReturn(CompletableFuture.failedFuture(new StorageException("Delete failed", new IOException("reset"))));
+
+        // Act & Assert
+        assertThatThrownBy(() -> asyncService.delete(VALID_OWNER_UID, EXISTING_DOCUMENT_ID).join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .hasMessage(DocumentService.DOCUMENT_NOT_DELETED_FROM_BUCKET);
+
+        verify(documentRepository, never()).delete(any(DocumentEntity.class));
+    }
+
+    @Test
+    void givenNonExistingDocument_whenDelete_thenThrowsEntityNotFound_andRemovesNothing() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(MISSING_DOCUMENT_ID, VALID_OWNER_UID)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> asyncService.delete(VALID_OWNER_UID, MISSING_DOCUMENT_ID))
+                .isInstanceOf(EntityNotFoundRestException.class);
+
+        verifyNoInteractions(documentService, storage);
+    }
+
+    @Test
+    void givenLocalCopyOfContent_whenDownload_thenStreamsTheCopy_withoutGoingToTheBucket() throws Exception {
+        // Arrange
+        DocumentEntity stored = doc_stored();
+        when(documentRepository.findByIdAndOwnerUid(EXISTING_DOCUMENT_ID, VALID_OWNER_UID)).thenReturn(Optional.of(stored));
+        when(localCopies.openLocalCopy(BUCKET, stored.getObjectKey(), OBJECT_ETAG)).thenReturn(Optional.of(localCopy_ofContent()));
+
+        // Act
+        DocumentContentPublisherDto result = asyncService.download(VALID_OWNER_UID, EXISTING_DOCUMENT_ID, Set.of()).join();
+
+        // Assert
+        assertThat(collect(result.getPublisher()).join()).isEqualTo(CONTENT_BYTES);
+        assertThat(result.getContentLength()).isEqualTo(stored.getSize());
+        verify(storage, never()).download(any(), any());
+    }
+
+    @Test
+    void givenCorruptedContent_andVerificationOn_whenDownload_thenPublisherFailsInsteadOfCompleting_andNoLengthIsAdvertised() {
+        // Arrange
+        asyncService = new DocumentAsyncService(documentRepository, documentService, storage, localCopies, Runnable::run, true);
+        DocumentEntity stored = doc_stored_withChecksum(CORRUPTED_CHECKSUM);
+        when(documentRepository.findByIdAndOwnerUid(EXISTING_DOCUMENT_ID, VALID_OWNER_UID)).thenReturn(Optional.of(stored));
+        when(localCopies.openLocalCopy(BUCKET, stored.getObjectKey(), OBJECT_ETAG)).thenReturn(Optional.of(localCopy_ofContent()));
+
+        // Act
+        DocumentContentPublisherDto result = asyncService.download(VALID_OWNER_UID, EXISTING_DOCUMENT_ID, Set.of()).join();
+
+        // Assert
+        assertThat(result.getContentLength()).isNull();
+        assertThatThrownBy(() -> collect(result.getPublisher()).join())
+                .hasCauseInstanceOf(IOException.class)
+                .hasMessageContaining("checksum mismatch");
+    }
+
+    private static CompletableFuture<byte[]> collect(Publisher<ByteBuffer> publisher) {
+        CompletableFuture<byte[]> collected = new CompletableFuture<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        publisher.subscribe(new Subscriber<>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer chunk) {
+                byte[] next = new byte[chunk.remaining()];
+                chunk.get(next);
+                bytes.writeBytes(next);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                collected.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {
+                collected.complete(bytes.toByteArray());
+            }
+        });
+        return collected;
+    }
+}
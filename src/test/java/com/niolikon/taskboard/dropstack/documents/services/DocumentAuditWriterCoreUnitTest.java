@@ -0,0 +1,229 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentAuditRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentAuditWriterTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentAuditWriterCoreUnitTest {
+
+    @Mock
+    private DocumentAuditRepository documentAuditRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentAuditWriter auditWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (auditWriter != null) {
+            auditWriter.shutdown();
+        }
+    }
+
+    @Test
+    void givenWriteBehindDisabled_whenWrite_thenInsertsInline() {
+        // Arrange
+        auditWriter = newAuditWriter(false, DURABILITY_WAIT_FOR_FLUSH, ON_FULL_WRITE_THROUGH, QUEUE_CAPACITY);
+        DocumentAuditEntity audit = audits_ofCheckIns(1).get(0);
+
+        // Act
+        auditWriter.write(audit);
+
+        // Assert
+        verify(documentAuditRepository).insert(audit);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void givenWaitForFlush_whenWrite_thenReturnsOnceBulkInsertedUnordered() {
+        // Arrange
+        stubBulkOperations();
+        auditWriter = newAuditWriter(true, DURABILITY_WAIT_FOR_FLUSH, ON_FULL_WRITE_THROUGH, QUEUE_CAPACITY);
+        DocumentAuditEntity audit = audits_ofCheckIns(1).get(0);
+
+        // Act
+        auditWriter.write(audit);
+
+        // Assert
+        verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentAuditEntity.class);
+        verify(bulkOperations).insert(List.of(audit));
+        verify(bulkOperations).execute();
+        assertThat(meterRegistry.get(DocumentAuditWriter.METRIC_FLUSH).tag("result", "success").timer().count()).isEqualTo(1);
+        verifyNoInteractions(documentAuditRepository);
+    }
+
+    @Test
+    void givenFireAndForget_whenWritingMoreThanBatchSize_thenFlushesEveryAuditInBoundedBatches() {
+        // Arrange
+        stubBulkOperations();
+        auditWriter = newAuditWriter(true, DURABILITY_FIRE_AND_FORGET, ON_FULL_WRITE_THROUGH, QUEUE_CAPACITY);
+        List<DocumentAuditEntity> audits = audits_ofCheckIns(5);
+
+        // Act
+        audits.forEach(auditWriter::write);
+        auditWriter.shutdown();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentAuditEntity>> batchCap = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, atLeastOnce()).insert(batchCap.capture());
+        assertThat(batchCap.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(BATCH_SIZE));
+        assertThat(batchCap.getAllValues().stream().flatMap(List::stream).toList()).containsExactlyElementsOf(audits);
+        verifyNoInteractions(documentAuditRepository);
+    }
+
+    @Test
+    void givenFailingFlush_whenWriteWaitingForFlush_thenThrows() {
+        // Arrange
+        stubBulkOperations();
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("mongo down"));
+        auditWriter = newAuditWriter(true, DURABILITY_WAIT_FOR_FLUSH, ON_FULL_WRITE_THROUGH, QUEUE_CAPACITY);
+        DocumentAuditEntity audit = audits_ofCheckIns(1).get(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> auditWriter.write(audit))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage(DocumentAuditWriter.AUDIT_NOT_WRITTEN)
+                .hasCauseInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(meterRegistry.get(DocumentAuditWriter.METRIC_FLUSH).tag("result", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenFullQueueAndDropPolicy_whenWrite_thenDropsAndCounts() throws Exception {
+        // Arrange
+        CountDownLatch release = stallFlushes();
+        auditWriter = newAuditWriter(true, DURABILITY_FIRE_AND_FORGET, ON_FULL_DROP, 1);
+        List<DocumentAuditEntity> audits = fillQueueBehindStalledFlush();
+
+        // Act
+        auditWriter.write(audits.get(2));
+
+        // Assert
+        assertThat(meterRegistry.get(DocumentAuditWriter.METRIC_DROPPED).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(DocumentAuditWriter.METRIC_QUEUE_DEPTH).gauge().value()).isEqualTo(1);
+        release.countDown();
+        auditWriter.shutdown();
+        verify(bulkOperations, times(2)).execute();
+        verifyNoInteractions(documentAuditRepository);
+    }
+
+    @Test
+    void givenFullQueueAndWriteThroughPolicy_whenWrite_thenInsertsInline() throws Exception {
+        // Arrange
+        CountDownLatch release = stallFlushes();
+        auditWriter = newAuditWriter(true, DURABILITY_FIRE_AND_FORGET, ON_FULL_WRITE_THROUGH, 1);
+        List<DocumentAuditEntity> audits = fillQueueBehindStalledFlush();
+
+        // Act
+        auditWriter.write(audits.get(2));
+
+        // Assert
+        verify(documentAuditRepository).insert(audits.get(2));
+        assertThat(meterRegistry.get(DocumentAuditWriter.METRIC_DROPPED).counter().count()).isZero();
+        release.countDown();
+    }
+
+    @Test
+    void givenFlushOutlastingShutdownTimeout_whenShutdown_thenFlushesWhatIsStillQueuedOnce_andStops() throws Exception {
+        // Arrange
+        stallFlushes();
+        auditWriter = newAuditWriter(true, DURABILITY_FIRE_AND_FORGET, ON_FULL_WRITE_THROUGH, QUEUE_CAPACITY,
+                FORCED_SHUTDOWN_TIMEOUT);
+        List<DocumentAuditEntity> audits = audits_ofCheckIns(4);
+        auditWriter.write(audits.get(0));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        audits.subList(1, 4).forEach(auditWriter::write);
+
+        // Act
+        auditWriter.shutdown();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentAuditEntity>> batchCap = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, timeout(5000).times(2)).execute();
+        verify(bulkOperations, times(2)).insert(batchCap.capture());
+        assertThat(batchCap.getAllValues().get(0)).containsExactly(audits.get(0));
+        assertThat(batchCap.getAllValues().get(1)).containsExactlyElementsOf(audits.subList(1, 4));
+        verifyNoInteractions(documentAuditRepository);
+    }
+
+    private DocumentAuditWriter newAuditWriter(boolean writeBehind, String durability, String onFull, int queueCapacity) {
+        return newAuditWriter(writeBehind, durability, onFull, queueCapacity, SHUTDOWN_TIMEOUT);
+    }
+
+    private DocumentAuditWriter newAuditWriter(boolean writeBehind, String durability, String onFull, int queueCapacity,
+                                               Duration shutdownTimeout) {
+        return new DocumentAuditWriter(documentAuditRepository, mongoTemplate, meterRegistry,
+                new TaskThreads(new MockEnvironment()), writeBehind, durability, onFull, queueCapacity, BATCH_SIZE,
+                FLUSH_INTERVAL, WAIT_TIMEOUT, shutdownTimeout);
+    }
+
+    private void stubBulkOperations() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentAuditEntity.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private final CountDownLatch flushing = new CountDownLatch(1);
+
+    /**
+     * Holds flushes until the returned latch is released, so that the queue fills up behind the first one.
+     * An interrupt ends the hold and stays set, as with a driver call that returns on a forced shutdown.
+     */
+    private CountDownLatch stallFlushes() {
+        CountDownLatch release = new CountDownLatch(1);
+        stubBulkOperations();
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            flushing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        return release;
+    }
+
+    /**
+     * Writes a first audit the flusher takes and stalls on, then a second one filling the queue of capacity 1.
+     */
+    private List<DocumentAuditEntity> fillQueueBehindStalledFlush() throws InterruptedException {
+        List<DocumentAuditEntity> audits = audits_ofCheckIns(3);
+        auditWriter.write(audits.get(0));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        auditWriter.write(audits.get(1));
+        return audits;
+    }
+}
@@ -0,0 +1,189 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentBatchItemResultDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentBatchService.DOCUMENT_NOT_SAVED;
+import static com.niolikon.taskboard.dropstack.documents.services.DocumentService.DOCUMENT_NOT_UPLOADED_TO_BUCKET;
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentBatchServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentBatchServiceCoreUnitTest {
+
+    @Mock
+    private DocumentService documentService;
+    @Mock
+    private DocumentPreviewService previewService;
+    @Mock
+    private DocumentMapper documentMapper;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private DocumentBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new DocumentBatchService(documentService, previewService, documentMapper, mongoTemplate,
+                new TaskThreads(new MockEnvironment()), MAX_ITEMS, PARALLELISM);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void givenMetadataCountNotMatchingFiles_whenCreateAll_thenThrowsBadRequest_andStoresNothing() {
+        // Act & Assert
+        assertThatThrownBy(() -> batchService.createAll(VALID_OWNER_UID, List.of(metadata_first_fromClient),
+                List.of(content_first_fromClient, content_second_fromClient)))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(documentService, mongoTemplate);
+    }
+
+    @Test
+    void givenTooManyFiles_whenCreateAll_thenThrowsBadRequest_andStoresNothing() {
+        // Arrange
+        List<DocumentCreateMetadataDto> metadata =
+                List.of(metadata_first_fromClient, metadata_first_fromClient, metadata_first_fromClient, metadata_first_fromClient);
+        List<DocumentCreateContentDto> contents =
+                List.of(content_first_fromClient, content_first_fromClient, content_first_fromClient, content_first_fromClient);
+
+        // Act & Assert
+        assertThatThrownBy(() -> batchService.createAll(VALID_OWNER_UID, metadata, contents))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(documentService, mongoTemplate);
+    }
+
+    @Test
+    void givenValidFiles_whenCreateAll_thenStoresEachInsertsAllInOneBulkWrite_andSchedulesTheirPreviews() {
+        // Arrange
+        DocumentEntity first = doc_stored("doc-1", "first.pdf");
+        DocumentEntity second = doc_stored("doc-2", "second.pdf");
+        when(documentService.store(VALID_OWNER_UID, metadata_first_fromClient, content_first_fromClient)).thenReturn(first);
+        when(documentService.store(VALID_OWNER_UID, metadata_second_fromClient, content_second_fromClient)).thenReturn(second);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentEntity.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(documentMapper.toReadDto(first)).thenReturn(docView_first_mapped);
+        when(documentMapper.toReadDto(second)).thenReturn(docView_second_mapped);
+
+        // Act
+        List<DocumentBatchItemResultDto> results = batchService.createAll(VALID_OWNER_UID,
+                List.of(metadata_first_fromClient, metadata_second_fromClient),
+                List.of(content_first_fromClient, content_second_fromClient));
+
+        // Assert
+        assertThat(results)
+                .extracting(DocumentBatchItemResultDto::getIndex, DocumentBatchItemResultDto::getDocument, DocumentBatchItemResultDto::getError)
+                .containsExactly(
+                        tuple(0, docView_first_mapped, null),
+                        tuple(1, docView_second_mapped, null));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentEntity>> insertedCap = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(insertedCap.capture());
+        verify(bulkOperations).execute();
+        assertThat(insertedCap.getValue()).containsExactly(first, second);
+        assertThat(insertedCap.getValue()).allMatch(entity -> entity.getVersion() == 0L);
+        verify(previewService).schedule(first);
+        verify(previewService).schedule(second);
+    }
+
+    @Test
+    void givenOneFileFailingToStore_whenCreateAll_thenReportsItsErrorAndInsertsTheOthers() {
+        // Arrange
+        DocumentEntity second = doc_stored("doc-2", "second.pdf");
+        when(documentService.store(VALID_OWNER_UID, metadata_first_fromClient, content_first_fromClient))
+                .thenThrow(new RuntimeException(DOCUMENT_NOT_UPLOADED_TO_BUCKET));
+        when(documentService.store(VALID_OWNER_UID, metadata_second_fromClient, content_second_fromClient)).thenReturn(second);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentEntity.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(List.of(second))).thenReturn(bulkOperations);
+        when(documentMapper.toReadDto(second)).thenReturn(docView_second_mapped);
+
+        // Act
+        List<DocumentBatchItemResultDto> results = batchService.createAll(VALID_OWNER_UID,
+                List.of(metadata_first_fromClient, metadata_second_fromClient),
+                List.of(content_first_fromClient, content_second_fromClient));
+
+        // Assert
+        assertThat(results.get(0).getError()).isEqualTo(DOCUMENT_NOT_UPLOADED_TO_BUCKET);
+        assertThat(results.get(1).getDocument()).isEqualTo(docView_second_mapped);
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void givenOneDocumentRejectedByBulkInsert_whenCreateAll_thenReleasesItsContentAndReportsItsError() {
+        // Arrange
+        DocumentEntity first = doc_stored("doc-1", "first.pdf");
+        DocumentEntity second = doc_stored("doc-2", "second.pdf");
+        when(documentService.store(VALID_OWNER_UID, metadata_first_fromClient, content_first_fromClient)).thenReturn(first);
+        when(documentService.store(VALID_OWNER_UID, metadata_second_fromClient, content_second_fromClient)).thenReturn(second);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentEntity.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(List.of(first, second))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(bulkInsertRejected(1));
+        when(documentMapper.toReadDto(first)).thenReturn(docView_first_mapped);
+
+        // Act
+        List<DocumentBatchItemResultDto> results = batchService.createAll(VALID_OWNER_UID,
+                List.of(metadata_first_fromClient, metadata_second_fromClient),
+                List.of(content_first_fromClient, content_second_fromClient));
+
+        // Assert
+        assertThat(results.get(0).getDocument()).isEqualTo(docView_first_mapped);
+        assertThat(results.get(1).getError()).isEqualTo(DOCUMENT_NOT_SAVED);
+        verify(documentService).releaseContent(second);
+        verify(documentService, never()).releaseContent(first);
+        verify(previewService).schedule(first);
+        verify(previewService, never()).schedule(second);
+    }
+
+    @Test
+    void givenBulkInsertFailingAsAWhole_whenCreateAll_thenReleasesEveryContentAndReportsEachError() {
+        // Arrange
+        DocumentEntity first = doc_stored("doc-1", "first.pdf");
+        DocumentEntity second = doc_stored("doc-2", "second.pdf");
+        when(documentService.store(VALID_OWNER_UID, metadata_first_fromClient, content_first_fromClient)).thenReturn(first);
+        when(documentService.store(VALID_OWNER_UID, metadata_second_fromClient, content_second_fromClient)).thenReturn(second);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DocumentEntity.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(List.of(first, second))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("mongo down"));
+
+        // Act
+        List<DocumentBatchItemResultDto> results = batchService.createAll(VALID_OWNER_UID,
+                List.of(metadata_first_fromClient, metadata_second_fromClient),
+                List.of(content_first_fromClient, content_second_fromClient));
+
+        // Assert
+        assertThat(results).extracting(DocumentBatchItemResultDto::getError).containsOnly(DOCUMENT_NOT_SAVED);
+        verify(documentService).releaseContent(first);
+        verify(documentService).releaseContent(second);
+        verifyNoInteractions(previewService, documentMapper);
+    }
+}
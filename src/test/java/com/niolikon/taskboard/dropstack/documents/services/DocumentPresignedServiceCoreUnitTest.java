@@ -0,0 +1,215 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedRequestDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentPresignedUploadMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentPresignedUploadRepository;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.framework.exceptions.rest.client.ConflictRestException;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentPresignedServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentPresignedServiceCoreUnitTest {
+
+    @Mock
+    private DocumentPresignedUploadRepository presignedUploadRepository;
+    @Mock
+    private DocumentRepository documentRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private DocumentMapper documentMapper;
+    @Mock
+    private IS3StorageService storage;
+    @Mock
+    private DocumentPreviewService previewService;
+
+    private DocumentPresignedService presignedService;
+
+    @BeforeEach
+    void setUp() {
+        presignedService = new DocumentPresignedService(presignedUploadRepository, documentRepository, mongoTemplate,
+                Mappers.getMapper(DocumentPresignedUploadMapper.class), documentMapper, storage, previewService,
+                DEFAULT_BUCKET_FOR_TESTS, URL_VALIDITY, COMPLETION_GRACE, MAX_SIZE);
+    }
+
+    @Test
+    void givenValidRequest_whenPresignUpload_thenSignsPutWithDeclaredSizeAndRecordsPendingUpload() {
+        // Arrange
+        when(storage.presignUpload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), eq(MIME_PDF), eq(CONTENT_SIZE), eq(URL_VALIDITY)))
+                .thenReturn(presignedPut_fromStorage);
+        when(presignedUploadRepository.save(any(DocumentPresignedUploadEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        DocumentPresignedRequestDto result = presignedService.presignUpload(VALID_OWNER_UID, presignedUploadCreate_valid_fromClient);
+
+        // Assert
+        assertThat(result.getUrl()).isEqualTo(presignedPut_fromStorage.getUrl());
+        assertThat(result.getMethod()).isEqualTo("PUT");
+        assertThat(result.getId()).isNotNull();
+
+        ArgumentCaptor<String> objectKeyCap = ArgumentCaptor.forClass(String.class);
+        verify(storage).presignUpload(eq(DEFAULT_BUCKET_FOR_TESTS), objectKeyCap.capture(), eq(MIME_PDF), eq(CONTENT_SIZE), eq(URL_VALIDITY));
+        ArgumentCaptor<DocumentPresignedUploadEntity> savedCap = ArgumentCaptor.forClass(DocumentPresignedUploadEntity.class);
+        verify(presignedUploadRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getObjectKey()).isEqualTo(objectKeyCap.getValue());
+        assertThat(savedCap.getValue().getOwnerUid()).isEqualTo(VALID_OWNER_UID);
+        assertThat(savedCap.getValue().getExpiresAt()).isAfter(presignedPut_fromStorage.getExpiresAt());
+    }
+
+    @Test
+    void givenSizeAboveLimit_whenPresignUpload_thenThrowsBadRequest_andSignsNothing() {
+        // Act & Assert
+        assertThatThrownBy(() -> presignedService.presignUpload(VALID_OWNER_UID, presignedUploadCreate_tooLarge_fromClient))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(storage, presignedUploadRepository);
+    }
+
+    @Test
+    void givenObjectNotUploaded_whenCompleteUpload_thenThrowsConflict_andPutsPendingUploadBack() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentPresignedUploadEntity.class)))
+                .thenReturn(pendingUpload_fromRepository);
+        when(storage.stat(DEFAULT_BUCKET_FOR_TESTS, OBJECT_KEY)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> presignedService.completeUpload(VALID_OWNER_UID, UPLOAD_ID))
+                .isInstanceOf(ConflictRestException.class);
+
+        verify(presignedUploadRepository).save(pendingUpload_fromRepository);
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void givenObjectOfOtherSize_whenCompleteUpload_thenThrowsConflict() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentPresignedUploadEntity.class)))
+                .thenReturn(pendingUpload_fromRepository);
+        when(storage.stat(DEFAULT_BUCKET_FOR_TESTS, OBJECT_KEY)).thenReturn(Optional.of(objectStat_truncated));
+
+        // Act & Assert
+        assertThatThrownBy(() -> presignedService.completeUpload(VALID_OWNER_UID, UPLOAD_ID))
+                .isInstanceOf(ConflictRestException.class);
+
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void givenObjectUploaded_whenCompleteUpload_thenRecordsDocumentFromStatDropsPendingUpload_andSchedulesPreview() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentPresignedUploadEntity.class)))
+                .thenReturn(pendingUpload_fromRepository);
+        when(storage.stat(DEFAULT_BUCKET_FOR_TESTS, OBJECT_KEY)).thenReturn(Optional.of(objectStat_declaredSize));
+        when(documentMapper.toEntity(any(DocumentCreateMetadataDto.class))).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(docView_expected_fromComplete);
+
+        // Act
+        DocumentReadDto result = presignedService.completeUpload(VALID_OWNER_UID, UPLOAD_ID);
+
+        // Assert
+        assertThat(result).isEqualTo(docView_expected_fromComplete);
+
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getObjectKey()).isEqualTo(OBJECT_KEY);
+        assertThat(savedCap.getValue().getEtag()).isEqualTo(ETAG_VALUE);
+        assertThat(savedCap.getValue().getOwnerUid()).isEqualTo(VALID_OWNER_UID);
+        verify(previewService).prepare(savedCap.getValue());
+        verify(previewService).schedule(savedCap.getValue());
+
+        ArgumentCaptor<Query> claimCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndRemove(claimCap.capture(), eq(DocumentPresignedUploadEntity.class));
+        assertThat(claimCap.getValue().getQueryObject())
+                .containsEntry("_id", UPLOAD_ID)
+                .containsEntry("ownerUid", VALID_OWNER_UID)
+                .containsKey("expiresAt");
+        assertThat(claimCap.getValue().getQueryObject().get("expiresAt", Document.class)).containsKey("$gt");
+        verifyNoInteractions(presignedUploadRepository);
+    }
+
+    @Test
+    void givenUploadCompletedTwice_whenCompleteUpload_thenOnlyFirstCreatesDocument_andSecondThrowsNotFound() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentPresignedUploadEntity.class)))
+                .thenReturn(pendingUpload_fromRepository)
+                .thenReturn(null);
+        when(storage.stat(DEFAULT_BUCKET_FOR_TESTS, OBJECT_KEY)).thenReturn(Optional.of(objectStat_declaredSize));
+        when(documentMapper.toEntity(any(DocumentCreateMetadataDto.class))).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(docView_expected_fromComplete);
+
+        // Act
+        DocumentReadDto first = presignedService.completeUpload(VALID_OWNER_UID, UPLOAD_ID);
+
+        // Assert
+        assertThat(first).isEqualTo(docView_expected_fromComplete);
+        assertThatThrownBy(() -> presignedService.completeUpload(VALID_OWNER_UID, UPLOAD_ID))
+                .isInstanceOf(EntityNotFoundRestException.class);
+        verify(documentRepository, times(1)).save(any(DocumentEntity.class));
+        verify(storage, times(1)).stat(anyString(), anyString());
+    }
+
+    @Test
+    void givenExpiredOrUnknownUpload_whenCompleteUpload_thenThrowsNotFound_andCreatesNothing() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentPresignedUploadEntity.class))).thenReturn(null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> presignedService.completeUpload(VALID_OWNER_UID, UPLOAD_ID))
+                .isInstanceOf(EntityNotFoundRestException.class);
+        verifyNoInteractions(storage, documentRepository, presignedUploadRepository);
+    }
+
+    @Test
+    void givenNonExistingDocument_whenPresignDownload_thenThrowsEntityNotFound_andSignsNothing() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_NON_EXISTENT_DOC_ID, VALID_OWNER_UID)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> presignedService.presignDownload(VALID_OWNER_UID, VALID_NON_EXISTENT_DOC_ID))
+                .isInstanceOf(EntityNotFoundRestException.class);
+
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void givenExistingDocument_whenPresignDownload_thenSignsGetNamedAfterTitle() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_existing_fromRepository));
+        when(storage.presignDownload("docs-bucket", "obj-123", DOC_TITLE, null, URL_VALIDITY)).thenReturn(presignedGet_fromStorage);
+
+        // Act
+        DocumentPresignedRequestDto result = presignedService.presignDownload(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID);
+
+        // Assert
+        assertThat(result.getUrl()).isEqualTo(presignedGet_fromStorage.getUrl());
+        assertThat(result.getId()).isNull();
+    }
+}
@@ -0,0 +1,217 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.mongodb.client.result.UpdateResult;
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentPreviewServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentPreviewServiceCoreUnitTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private IS3StorageService storage;
+
+    private DocumentPreviewService previewService;
+    private DocumentPreviewService disabledPreviewService;
+
+    @BeforeEach
+    void setUp() {
+        TaskThreads taskThreads = new TaskThreads(new MockEnvironment());
+        List<DocumentPreviewRenderer> renderers = List.of(new ImagePreviewRenderer(MAX_PIXELS, QUALITY));
+        previewService = new DocumentPreviewService(documentRepository, mongoTemplate, storage, renderers, taskThreads,
+                true, MAX_DIMENSION, MAX_SOURCE_SIZE, THREADS);
+        disabledPreviewService = new DocumentPreviewService(documentRepository, mongoTemplate, storage, renderers, taskThreads,
+                false, MAX_DIMENSION, MAX_SOURCE_SIZE, THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        previewService.shutdown();
+        disabledPreviewService.shutdown();
+    }
+
+    @Test
+    void givenImageDocument_whenPrepare_thenPreviewIsPendingUnderSiblingKey() {
+        // Arrange
+        DocumentEntity doc = doc_saved(MIME_PNG, IMAGE_CONTENT.length);
+
+        // Act
+        previewService.prepare(doc);
+
+        // Assert
+        assertThat(doc.getPreviewObjectKey()).isEqualTo(DOC_PREVIEW_OBJECT_KEY);
+        assertThat(doc.getPreviewStatus()).isEqualTo(DocumentPreviewService.PREVIEW_STATUS_PENDING);
+    }
+
+    @Test
+    void givenUnsupportedOrOversizedDocument_whenPrepare_thenNoPreviewIsPlanned() {
+        // Arrange
+        DocumentEntity pdf = doc_saved(MIME_PDF, IMAGE_CONTENT.length);
+        DocumentEntity oversized = doc_saved(MIME_PNG, MAX_SOURCE_SIZE.toBytes() + 1);
+        DocumentEntity withPreviewsDisabled = doc_saved(MIME_PNG, IMAGE_CONTENT.length);
+
+        // Act
+        previewService.prepare(pdf);
+        previewService.prepare(oversized);
+        disabledPreviewService.prepare(withPreviewsDisabled);
+
+        // Assert
+        assertThat(List.of(pdf, oversized, withPreviewsDisabled))
+                .extracting(DocumentEntity::getPreviewObjectKey, DocumentEntity::getPreviewStatus)
+                .containsOnly(tuple(null, null));
+    }
+
+    @Test
+    void givenPendingImage_whenRender_thenUploadsDownscaledJpegAndMarksPreviewReady_withoutBumpingVersion() throws IOException {
+        // Arrange
+        DocumentEntity doc = doc_withPreview(DocumentPreviewService.PREVIEW_STATUS_PENDING);
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(objectContent_fromStorage(IMAGE_CONTENT, ETAG_VALUE, MIME_PNG));
+        ArgumentCaptor<InputStream> previewCap = ArgumentCaptor.forClass(InputStream.class);
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), eq(DOC_PREVIEW_OBJECT_KEY), previewCap.capture(), anyLong(), eq(MIME_JPEG)))
+                .thenReturn(objectStat_ofPreview());
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DocumentEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        previewService.render(doc);
+
+        // Assert
+        BufferedImage preview = ImageIO.read(previewCap.getValue());
+        assertThat(preview.getWidth()).isEqualTo(MAX_DIMENSION);
+        assertThat(preview.getHeight()).isEqualTo(MAX_DIMENSION * IMAGE_HEIGHT / IMAGE_WIDTH);
+
+        Document update = capturedUpdate();
+        assertThat(update.get("$set", Document.class))
+                .containsEntry("previewStatus", DocumentPreviewService.PREVIEW_STATUS_READY)
+                .containsEntry("previewEtag", PREVIEW_ETAG_VALUE);
+        assertThat(update).doesNotContainKey("$inc");
+        assertThat(update.get("$set", Document.class)).doesNotContainKey("version");
+        verify(storage, never()).delete(anyString(), anyString());
+    }
+
+    @Test
+    void givenUndecodableContent_whenRender_thenMarksPreviewFailedWithoutUploading() {
+        // Arrange
+        DocumentEntity doc = doc_withPreview(DocumentPreviewService.PREVIEW_STATUS_PENDING);
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(objectContent_fromStorage(NOT_AN_IMAGE_CONTENT, ETAG_VALUE, MIME_PNG));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DocumentEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        previewService.render(doc);
+
+        // Assert
+        assertThat(capturedUpdate().get("$set", Document.class))
+                .containsEntry("previewStatus", DocumentPreviewService.PREVIEW_STATUS_FAILED);
+        verify(storage, never()).upload(anyString(), anyString(), any(InputStream.class), anyLong(), anyString());
+    }
+
+    @Test
+    void givenDocumentDeletedWhileRendering_whenRender_thenDropsUploadedPreview() {
+        // Arrange
+        DocumentEntity doc = doc_withPreview(DocumentPreviewService.PREVIEW_STATUS_PENDING);
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(objectContent_fromStorage(IMAGE_CONTENT, ETAG_VALUE, MIME_PNG));
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), eq(DOC_PREVIEW_OBJECT_KEY), any(InputStream.class), anyLong(), eq(MIME_JPEG)))
+                .thenReturn(objectStat_ofPreview());
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DocumentEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Act
+        previewService.render(doc);
+
+        // Assert
+        verify(storage).delete(DEFAULT_BUCKET_FOR_TESTS, DOC_PREVIEW_OBJECT_KEY);
+    }
+
+    @Test
+    void givenPendingDocument_whenSchedule_thenPreviewIsRenderedInBackground() {
+        // Arrange
+        DocumentEntity doc = doc_withPreview(DocumentPreviewService.PREVIEW_STATUS_PENDING);
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(objectContent_fromStorage(IMAGE_CONTENT, ETAG_VALUE, MIME_PNG));
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), eq(DOC_PREVIEW_OBJECT_KEY), any(InputStream.class), anyLong(), eq(MIME_JPEG)))
+                .thenReturn(objectStat_ofPreview());
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DocumentEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        previewService.schedule(doc);
+
+        // Assert
+        verify(mongoTemplate, timeout(5000)).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DocumentEntity.class));
+    }
+
+    @Test
+    void givenReadyPreview_whenDownloadPreview_thenOpensPreviewObject() throws IOException {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withPreview(DocumentPreviewService.PREVIEW_STATUS_READY)));
+        when(storage.download(DEFAULT_BUCKET_FOR_TESTS, DOC_PREVIEW_OBJECT_KEY, PREVIEW_ETAG_VALUE))
+                .thenReturn(objectContent_fromStorage(PREVIEW_CONTENT, PREVIEW_ETAG_VALUE, MIME_JPEG));
+
+        // Act
+        DocumentContentReadDto result = previewService.downloadPreview(VALID_OWNER_UID, VALID_DOC_ID);
+
+        // Assert
+        assertThat(result.getContentType()).isEqualTo(MIME_JPEG);
+        assertThat(result.getContentLength()).isEqualTo(PREVIEW_CONTENT.length);
+        assertThat(result.getEtag()).isEqualTo(PREVIEW_ETAG_VALUE);
+        try (InputStream in = result.getStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(PREVIEW_CONTENT);
+        }
+    }
+
+    @Test
+    void givenPendingPreview_whenDownloadPreview_thenThrowsEntityNotFound() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withPreview(DocumentPreviewService.PREVIEW_STATUS_PENDING)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> previewService.downloadPreview(VALID_OWNER_UID, VALID_DOC_ID))
+                .isInstanceOf(EntityNotFoundRestException.class);
+        verifyNoInteractions(storage);
+    }
+
+    private Document capturedUpdate() {
+        ArgumentCaptor<UpdateDefinition> updateCap = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCap.capture(), eq(DocumentEntity.class));
+        return updateCap.getValue().getUpdateObject();
+    }
+}
@@ -1,34 +1,53 @@
 package com.niolikon.taskboard.dropstack.documents.services;
 
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentRangeDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentRangesReadDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCursorPageReadDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentSummaryReadDto;
 import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentContentEntity;
 import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
-import com.niolikon.taskboard.dropstack.documents.repositories.DocumentAuditRepository;
 import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
 import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
 import com.niolikon.taskboard.framework.data.dto.PageResponse;
 import com.niolikon.taskboard.framework.exceptions.rest.client.ConflictRestException;
 import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentServiceTestData.*;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -38,27 +57,43 @@ class DocumentServiceCoreUnitTest {
     @Mock
     private DocumentRepository documentRepository;
     @Mock
-    private DocumentAuditRepository documentAuditRepository;
+    private DocumentAuditWriter auditWriter;
     @Mock
     private DocumentMapper documentMapper;
     @Mock
     private IS3StorageService storage;
     @Mock
     private MongoTemplate mongoTemplate;
+    @Mock
+    private DocumentContentRegistry contentRegistry;
+    @Mock
+    private DocumentPreviewService previewService;
 
     private DocumentService documentService;
+    private DocumentService deduplicatingDocumentService;
+    private DocumentService compressingDocumentService;
+    private DocumentService verifyingDocumentService;
 
     @BeforeEach
     void setUp() {
-        documentService = new DocumentService(documentRepository, documentAuditRepository, documentMapper,
-                                              storage, DEFAULT_BUCKET_FOR_TESTS, mongoTemplate);
+        DocumentCompressionPolicy noCompression = new DocumentCompressionPolicy(false, CODEC_DEFLATE, List.of());
+        DocumentCompressionPolicy textCompression = new DocumentCompressionPolicy(true, CODEC_DEFLATE, List.of("text/*", "application/json"));
+
+        documentService = new DocumentService(documentRepository, auditWriter, documentMapper,
+                                              storage, DEFAULT_BUCKET_FOR_TESTS, mongoTemplate, contentRegistry, false, noCompression, false, previewService);
+        deduplicatingDocumentService = new DocumentService(documentRepository, auditWriter, documentMapper,
+                                              storage, DEFAULT_BUCKET_FOR_TESTS, mongoTemplate, contentRegistry, true, noCompression, false, previewService);
+        compressingDocumentService = new DocumentService(documentRepository, auditWriter, documentMapper,
+                                              storage, DEFAULT_BUCKET_FOR_TESTS, mongoTemplate, contentRegistry, false, textCompression, false, previewService);
+        verifyingDocumentService = new DocumentService(documentRepository, auditWriter, documentMapper,
+                                              storage, DEFAULT_BUCKET_FOR_TESTS, mongoTemplate, contentRegistry, false, noCompression, true, previewService);
     }
 
     @Test
     void givenValidMetadataAndContent_whenCreate_thenPersistsEntityAndReturnsReadDto() {
         // Arrange
-        when(storage.stat(eq(DEFAULT_BUCKET_FOR_TESTS), anyString())).
-                thenReturn(Optional.of(objectStat_withEtag_andContentType));
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF)))
+                .thenReturn(objectStat_withEtag_andContentType);
         when(documentMapper.toEntity(metadata_valid_fromClient)).thenReturn(new DocumentEntity());
         when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> {
             DocumentEntity e = inv.getArgument(0);
@@ -81,18 +116,43 @@ class DocumentServiceCoreUnitTest {
         verify(documentRepository).save(savedCap.capture());
         assertThat(savedCap.getValue())
                 .extracting(DocumentEntity::getBucket, DocumentEntity::getObjectKey, DocumentEntity::getSize,
-                        DocumentEntity::getOwnerUid, DocumentEntity::getEtag)
+                        DocumentEntity::getOwnerUid, DocumentEntity::getEtag, DocumentEntity::getChecksumCrc32c)
                         .containsExactly(
                                 DEFAULT_BUCKET_FOR_TESTS, objectKeyCap.getValue(), CONTENT_SIZE, VALID_OWNER_UID,
-                                ETAG_VALUE
+                                ETAG_VALUE, CONTENT_CRC32C
                         );
 
-        verify(storage).stat(DEFAULT_BUCKET_FOR_TESTS, objectKeyCap.getValue());
+        InOrder previewOrder = inOrder(previewService, documentRepository);
+        previewOrder.verify(previewService).prepare(savedCap.getValue());
+        previewOrder.verify(documentRepository).save(savedCap.getValue());
+        previewOrder.verify(previewService).schedule(savedCap.getValue());
+
         verify(documentMapper).toEntity(metadata_valid_fromClient);
         verify(documentMapper).toReadDto(any(DocumentEntity.class));
         verifyNoMoreInteractions(documentRepository, documentMapper, storage);
     }
 
+    @Test
+    void givenContentOfUnknownSize_whenCreate_thenStreamsUploadAndTakesSizeFromStoredObject() {
+        // Arrange
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(MIME_PDF)))
+                .thenReturn(objectStat_withEtag_andContentType);
+        when(documentMapper.toEntity(metadata_valid_fromClient)).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(documentReadDto_expected_fromSavedEntity);
+
+        // Act
+        documentService.create(VALID_OWNER_UID, metadata_valid_fromClient, content_unknownSize_fromStreamingClient);
+
+        // Assert
+        verify(storage).upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(MIME_PDF));
+        verify(storage, never()).upload(anyString(), anyString(), any(InputStream.class), anyLong(), anyString());
+
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getSize()).isEqualTo(CONTENT_SIZE);
+    }
+
     @Test
     void givenUploadFails_whenCreate_thenThrowsRuntime_andDeletesFromBucketIfNeededIsNotCalled() {
         // Arrange
@@ -114,7 +174,8 @@ class DocumentServiceCoreUnitTest {
     void givenSaveFails_afterUpload_whenCreate_thenReThrows_andAttemptsCleanupDelete() {
         // Arrange
         when(documentMapper.toEntity(metadata_valid_fromClient)).thenReturn(new DocumentEntity());
-        when(storage.stat(eq(DEFAULT_BUCKET_FOR_TESTS), anyString())).thenReturn(Optional.empty());
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF)))
+                .thenReturn(objectStat_withEtag_andContentType);
         when(documentRepository.save(any(DocumentEntity.class))).thenThrow(new RuntimeException("db down"));
 
         // Act
@@ -126,13 +187,113 @@ class DocumentServiceCoreUnitTest {
         ArgumentCaptor<String> objectKeyCap = ArgumentCaptor.forClass(String.class);
 
         verify(storage).upload(eq(DEFAULT_BUCKET_FOR_TESTS), objectKeyCap.capture(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF));
-        verify(storage).stat(DEFAULT_BUCKET_FOR_TESTS, objectKeyCap.getValue());
         verify(storage).delete(DEFAULT_BUCKET_FOR_TESTS, objectKeyCap.getValue());
         verify(documentMapper).toEntity(metadata_valid_fromClient);
         verify(documentRepository).save(any(DocumentEntity.class));
         verifyNoMoreInteractions(documentRepository, documentMapper, storage);
     }
 
+    @Test
+    void givenDuplicateContent_whenCreateWithDeduplication_thenPointsAtSharedObjectAndDropsUploadedCopy() {
+        // Arrange
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF)))
+                .thenReturn(objectStat_withEtag_andContentType);
+        when(contentRegistry.acquire(anyString(), any(DocumentEntity.class)))
+                .thenReturn(sharedContent_fromRegistry);
+        when(documentMapper.toEntity(metadata_valid_fromClient)).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(documentReadDto_expected_fromSavedEntity);
+
+        // Act
+        deduplicatingDocumentService.create(VALID_OWNER_UID, metadata_valid_fromClient, content_valid_fromClient);
+
+        // Assert
+        ArgumentCaptor<String> objectKeyCap = ArgumentCaptor.forClass(String.class);
+        verify(storage).upload(eq(DEFAULT_BUCKET_FOR_TESTS), objectKeyCap.capture(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF));
+        verify(storage).delete(DEFAULT_BUCKET_FOR_TESTS, objectKeyCap.getValue());
+
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        DocumentEntity saved = savedCap.getValue();
+        assertThat(saved.getObjectKey()).isEqualTo(SHARED_OBJECT_KEY);
+        assertThat(saved.getEtag()).isEqualTo(SHARED_ETAG_VALUE);
+        assertThat(saved.getContentHash()).isNotNull();
+    }
+
+    @Test
+    void givenNewContent_whenCreateWithDeduplication_thenKeepsUploadedObject() {
+        // Arrange
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF)))
+                .thenReturn(objectStat_withEtag_andContentType);
+        when(contentRegistry.acquire(anyString(), any(DocumentEntity.class)))
+                .thenAnswer(inv -> {
+                    DocumentEntity stored = inv.getArgument(1);
+                    return new DocumentContentEntity(inv.getArgument(0), stored.getBucket(), stored.getObjectKey(),
+                            stored.getEtag(), stored.getChecksumCrc32c(), stored.getContentEncoding(), stored.getSize(), 1L, null);
+                });
+        when(documentMapper.toEntity(metadata_valid_fromClient)).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(documentReadDto_expected_fromSavedEntity);
+
+        // Act
+        deduplicatingDocumentService.create(VALID_OWNER_UID, metadata_valid_fromClient, content_valid_fromClient);
+
+        // Assert
+        ArgumentCaptor<String> objectKeyCap = ArgumentCaptor.forClass(String.class);
+        verify(storage).upload(eq(DEFAULT_BUCKET_FOR_TESTS), objectKeyCap.capture(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF));
+        verify(storage, never()).delete(anyString(), anyString());
+
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getObjectKey()).isEqualTo(objectKeyCap.getValue());
+    }
+
+    @Test
+    void givenCompressibleType_whenCreateWithCompression_thenStoresDeflatedContentAndRecordsCodec() {
+        // Arrange
+        ByteArrayOutputStream storedBytes = new ByteArrayOutputStream();
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(MIME_CSV)))
+                .thenAnswer(inv -> {
+                    inv.<InputStream>getArgument(2).transferTo(storedBytes);
+                    return new ObjectStat(storedBytes.size(), ETAG_VALUE, MIME_CSV, null);
+                });
+        when(documentMapper.toEntity(metadata_csv_fromClient)).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(documentReadDto_expected_fromSavedEntity);
+
+        // Act
+        compressingDocumentService.create(VALID_OWNER_UID, metadata_csv_fromClient, content_csv_fromClient);
+
+        // Assert
+        verify(storage, never()).upload(anyString(), anyString(), any(InputStream.class), anyLong(), anyString());
+        assertThat(storedBytes.size()).isLessThan(CSV_BYTES.length);
+        assertThat(inflate(storedBytes.toByteArray())).isEqualTo(CSV_BYTES);
+
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue())
+                .extracting(DocumentEntity::getContentEncoding, DocumentEntity::getSize)
+                .containsExactly(CODEC_DEFLATE, (long) CSV_BYTES.length);
+    }
+
+    @Test
+    void givenAlreadyCompressedType_whenCreateWithCompression_thenStoresContentAsIs() {
+        // Arrange
+        when(storage.upload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), any(InputStream.class), eq(CONTENT_SIZE), eq(MIME_PDF)))
+                .thenReturn(objectStat_withEtag_andContentType);
+        when(documentMapper.toEntity(metadata_valid_fromClient)).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(documentReadDto_expected_fromSavedEntity);
+
+        // Act
+        compressingDocumentService.create(VALID_OWNER_UID, metadata_valid_fromClient, content_valid_fromClient);
+
+        // Assert
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getContentEncoding()).isNull();
+    }
+
     @Test
     void givenMultipleDocumentsExist_whenReadAll_thenReturnsMappedPageResponse() {
         // Arrange
@@ -152,6 +313,202 @@ class DocumentServiceCoreUnitTest {
         verify(documentMapper, times(2)).toReadDto(any(DocumentEntity.class));
     }
 
+    @Test
+    void givenOwnedDocumentAtVersion_whenCheckIn_thenUpdatesInOneRoundTrip_andAuditsOldAndNewCategory() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(DocumentEntity.class)))
+                .thenReturn(doc_beforeCheckin_fromRepository());
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(docView_expected_fromFound);
+
+        // Act
+        DocumentReadDto result = documentService.checkIn(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, checkin_valid_fromClient);
+
+        // Assert
+        assertThat(result).isEqualTo(docView_expected_fromFound);
+
+        ArgumentCaptor<Query> queryCap = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCap = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(queryCap.capture(), updateCap.capture(), eq(DocumentEntity.class));
+        assertThat(queryCap.getValue().getQueryObject()).isEqualTo(new Document("_id", VALID_EXISTENT_DOC_ID)
+                .append("ownerUid", VALID_OWNER_UID).append("version", 1L));
+        assertThat(updateCap.getValue().getUpdateObject().get("$inc", Document.class)).isEqualTo(new Document("version", 1));
+
+        ArgumentCaptor<DocumentEntity> updatedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentMapper).toReadDto(updatedCap.capture());
+        assertThat(updatedCap.getValue().getCategoryCode()).isEqualTo(CATEGORY_CODE_ARCHIVED);
+        assertThat(updatedCap.getValue().getVersion()).isEqualTo(2L);
+        assertThat(updatedCap.getValue().getCheckedInAt()).isNotNull().isEqualTo(updatedCap.getValue().getUpdatedAt());
+
+        ArgumentCaptor<DocumentAuditEntity> auditCap = ArgumentCaptor.forClass(DocumentAuditEntity.class);
+        verify(auditWriter).write(auditCap.capture());
+        assertThat(auditCap.getValue().getType()).isEqualTo("CHECKIN");
+        assertThat(auditCap.getValue().getPayload())
+                .containsEntry("oldCategoryCode", null)
+                .containsEntry("newCategoryCode", CATEGORY_CODE_ARCHIVED);
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void givenStaleVersion_whenCheckIn_thenThrowsConflict_andAuditsNothing() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(DocumentEntity.class))).thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(DocumentEntity.class))).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> documentService.checkIn(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, checkin_valid_fromClient))
+                .isInstanceOf(ConflictRestException.class);
+        verifyNoInteractions(auditWriter);
+    }
+
+    @Test
+    void givenDocumentOfAnotherOwner_whenCheckIn_thenThrowsNotFound_andAuditsNothing() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(DocumentEntity.class))).thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(DocumentEntity.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> documentService.checkIn(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, checkin_valid_fromClient))
+                .isInstanceOf(EntityNotFoundRestException.class);
+        ArgumentCaptor<Query> existsCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).exists(existsCap.capture(), eq(DocumentEntity.class));
+        assertThat(existsCap.getValue().getQueryObject()).isEqualTo(new Document("_id", VALID_EXISTENT_DOC_ID)
+                .append("ownerUid", VALID_OWNER_UID));
+        verifyNoInteractions(auditWriter);
+    }
+
+    @Test
+    void givenFieldSelection_whenReadAllSummaries_thenProjectsOnlySelectedFields_andSkipsCountOnPartialPage() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DocumentEntity.class)))
+                .thenReturn(List.of(doc_instance1_fromRepository, doc_instance2_fromRepository));
+        when(documentMapper.toSummaryDto(doc_instance1_fromRepository)).thenReturn(summary_instance1_mapped);
+        when(documentMapper.toSummaryDto(doc_instance2_fromRepository)).thenReturn(summary_instance2_mapped);
+
+        // Act
+        PageResponse<DocumentSummaryReadDto> result = documentService.readAllSummaries(VALID_OWNER_UID, FIELDS_TITLE_AND_SIZE, pageable_firstPageSize10_fromClient);
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(summary_instance1_mapped, summary_instance2_mapped);
+        assertThat(result.getElementsTotal()).isEqualTo(2);
+
+        ArgumentCaptor<Query> queryCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCap.capture(), eq(DocumentEntity.class));
+        assertThat(queryCap.getValue().getQueryObject()).isEqualTo(new Document("ownerUid", VALID_OWNER_UID));
+        assertThat(queryCap.getValue().getFieldsObject()).isEqualTo(new Document("title", 1).append("size", 1));
+        assertThat(queryCap.getValue().getLimit()).isEqualTo(10);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(DocumentEntity.class));
+        verify(documentMapper, never()).toReadDto(any());
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void givenNoFieldSelectionAndFullPage_whenReadAllSummaries_thenProjectsDefaultFields_andCountsTotal() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DocumentEntity.class)))
+                .thenReturn(List.of(doc_instance1_fromRepository, doc_instance2_fromRepository));
+        when(mongoTemplate.count(any(Query.class), eq(DocumentEntity.class))).thenReturn(5L);
+
+        // Act
+        PageResponse<DocumentSummaryReadDto> result = documentService.readAllSummaries(VALID_OWNER_UID, List.of(), pageable_cursorSize2_fromClient);
+
+        // Assert
+        assertThat(result.getElementsTotal()).isEqualTo(5);
+        assertThat(result.getPageTotal()).isEqualTo(3);
+
+        ArgumentCaptor<Query> queryCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCap.capture(), eq(DocumentEntity.class));
+        assertThat(queryCap.getValue().getFieldsObject()).isEqualTo(new Document("title", 1)
+                .append("mimeType", 1).append("size", 1).append("updatedAt", 1));
+        verify(mongoTemplate).count(argThat(count -> count.getFieldsObject().isEmpty() && count.getLimit() == 0),
+                eq(DocumentEntity.class));
+    }
+
+    @Test
+    void givenUnknownField_whenReadAllSummaries_thenThrowsBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> documentService.readAllSummaries(VALID_OWNER_UID, FIELDS_UNKNOWN, pageable_firstPageSize10_fromClient))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void givenFirstCursorPage_whenReadAllByCursor_thenFetchesOneMoreThanPageSizeNewestFirst_andCountsNothing() {
+        // Arrange
+        List<DocumentEntity> listed = docs_listedNewestFirst(3);
+        when(mongoTemplate.find(any(Query.class), eq(DocumentEntity.class))).thenReturn(listed);
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(docView_instance1_mapped, docView_instance2_mapped);
+
+        // Act
+        DocumentCursorPageReadDto result = documentService.readAllByCursor(VALID_OWNER_UID, CURSOR_FIRST_PAGE, pageable_cursorSize2_fromClient);
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(docView_instance1_mapped, docView_instance2_mapped);
+        assertThat(result.getPageSize()).isEqualTo(2);
+        assertThat(result.getNextCursor()).isNotBlank();
+
+        ArgumentCaptor<Query> queryCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCap.capture(), eq(DocumentEntity.class));
+        assertThat(queryCap.getValue().getLimit()).isEqualTo(3);
+        assertThat(queryCap.getValue().getQueryObject()).isEqualTo(new Document("ownerUid", VALID_OWNER_UID));
+        assertThat(queryCap.getValue().getSortObject()).isEqualTo(new Document("createdAt", -1).append("_id", -1));
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void givenNextCursor_whenReadAllByCursor_thenSeeksPastLastListedDocument() {
+        // Arrange
+        List<DocumentEntity> listed = docs_listedNewestFirst(3);
+        when(mongoTemplate.find(any(Query.class), eq(DocumentEntity.class))).thenReturn(listed, List.of(listed.get(2)));
+        String nextCursor = documentService.readAllByCursor(VALID_OWNER_UID, CURSOR_FIRST_PAGE, pageable_cursorSize2_fromClient).getNextCursor();
+
+        // Act
+        DocumentCursorPageReadDto result = documentService.readAllByCursor(VALID_OWNER_UID, nextCursor, pageable_cursorSize2_fromClient);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+
+        ArgumentCaptor<Query> queryCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queryCap.capture(), eq(DocumentEntity.class));
+        DocumentEntity lastListed = listed.get(1);
+        Document seek = queryCap.getAllValues().get(1).getQueryObject();
+        assertThat(seek.get("ownerUid")).isEqualTo(VALID_OWNER_UID);
+        assertThat(seek.getList("$or", Document.class)).containsExactly(
+                new Document("createdAt", new Document("$lt", lastListed.getCreatedAt())),
+                new Document("createdAt", lastListed.getCreatedAt())
+                        .append("_id", new Document("$lt", new ObjectId(lastListed.getId()))));
+    }
+
+    @Test
+    void givenSortByUpdatedAtAscending_whenReadAllByCursor_thenListsInThatOrder() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DocumentEntity.class))).thenReturn(List.of());
+
+        // Act
+        DocumentCursorPageReadDto result = documentService.readAllByCursor(VALID_OWNER_UID, CURSOR_FIRST_PAGE,
+                pageable_cursorSize2_sortedByUpdatedAtAsc_fromClient);
+
+        // Assert
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        ArgumentCaptor<Query> queryCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(queryCap.capture(), eq(DocumentEntity.class));
+        assertThat(queryCap.getValue().getSortObject()).isEqualTo(new Document("updatedAt", 1).append("_id", 1));
+    }
+
+    @Test
+    void givenUnindexedSortOrTamperedCursor_whenReadAllByCursor_thenThrowsBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> documentService.readAllByCursor(VALID_OWNER_UID, CURSOR_FIRST_PAGE, pageable_cursorSize2_sortedByTitle_fromClient))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> documentService.readAllByCursor(VALID_OWNER_UID, CURSOR_TAMPERED, pageable_cursorSize2_fromClient))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(mongoTemplate);
+    }
+
     @Test
     void givenExistingDocument_whenRead_thenReturnsReadDto() {
         // Arrange
@@ -184,48 +541,200 @@ class DocumentServiceCoreUnitTest {
     }
 
     @Test
-    void givenExistingDocument_whenDownload_andStatPresent_thenReturnsContentDtoWithStatValues() {
+    void givenExistingDocument_whenDownload_thenReturnsContentDtoWithGetResponseValues() {
         // Arrange
         when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
                 .thenReturn(Optional.of(doc_withBucketAndKey_fromRepository));
-        when(storage.stat(DOC_BUCKET, DOC_OBJECT_KEY)).thenReturn(Optional.of(objectStat_withEtag_andContentType));
-        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY)).thenReturn(new ByteArrayInputStream(CONTENT_BYTES));
+        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(new ObjectContent(new ByteArrayInputStream(CONTENT_BYTES), objectStat_withEtag_andContentType));
 
         // Act
-        DocumentContentReadDto dto = documentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID);
+        DocumentContentReadDto dto = documentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, Set.of());
 
         // Assert
         assertThat(dto)
                 .extracting(DocumentContentReadDto::getContentType, DocumentContentReadDto::getContentLength, DocumentContentReadDto::getFilename)
                 .containsExactly(MIME_PDF, CONTENT_SIZE, DOC_TITLE_NON_BLANK);
 
-        verify(storage).download(DOC_BUCKET, DOC_OBJECT_KEY);
+        verify(storage).download(DOC_BUCKET, DOC_OBJECT_KEY, ETAG_VALUE);
+        verifyNoMoreInteractions(storage);
     }
 
     @Test
-    void givenExistingDocument_whenDownload_andStatAbsent_thenFallsBackToDocMimeOrDefault() {
+    void givenMatchingChecksum_whenDownloadWithVerification_thenStreamsContent_withoutAdvertisingItsLength() throws Exception {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withChecksum_fromRepository(CONTENT_CRC32C)));
+        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(new ObjectContent(new ByteArrayInputStream(CONTENT_BYTES), objectStat_withEtag_andContentType));
+
+        // Act
+        DocumentContentReadDto dto = verifyingDocumentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, Set.of());
+
+        // Assert
+        assertThat(dto.getStream().readAllBytes()).isEqualTo(CONTENT_BYTES);
+        assertThat(dto.getContentLength()).isNull();
+    }
+
+    @Test
+    void givenCorruptedContent_whenDownloadWithVerification_thenReadingFailsAtEndOfStream() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withChecksum_fromRepository(CORRUPTED_CRC32C)));
+        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(new ObjectContent(new ByteArrayInputStream(CONTENT_BYTES), objectStat_withEtag_andContentType));
+
+        // Act
+        DocumentContentReadDto dto = verifyingDocumentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, Set.of());
+
+        // Assert
+        assertThatThrownBy(() -> dto.getStream().readAllBytes())
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void givenSatisfiableRanges_whenDownloadRanges_thenEachRangeIsReadWithRangedGet() throws Exception {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withEtag_fromRepository));
+        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY, 0L, 9L))
+                .thenReturn(new ObjectContent(new ByteArrayInputStream(CONTENT_BYTES, 0, 10), objectStat_withEtag_andContentType));
+
+        // Act
+        Optional<DocumentContentRangesReadDto> result = documentService.downloadRanges(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID,
+                HttpRange.parseRanges("bytes=0-9,-2"), IF_RANGE_MATCHING_ETAG);
+
+        // Assert
+        assertThat(result).isPresent();
+        List<DocumentContentRangeDto> ranges = result.get().getRanges();
+        assertThat(ranges).extracting(DocumentContentRangeDto::getFirstByte, DocumentContentRangeDto::getLastByte)
+                .containsExactly(tuple(0L, 9L), tuple(CONTENT_SIZE - 2, CONTENT_SIZE - 1));
+        assertThat(result.get().getTotalLength()).isEqualTo(CONTENT_SIZE);
+
+        // Ranges are only read from storage when written out
+        verify(storage, never()).download(anyString(), anyString(), anyLong(), anyLong());
+        assertThat(ranges.get(0).getContent().getInputStream().readAllBytes()).hasSize(10);
+        verify(storage).download(DOC_BUCKET, DOC_OBJECT_KEY, 0L, 9L);
+    }
+
+    @Test
+    void givenMatchingLastModifiedIfRange_whenDownloadRanges_thenRangesApply() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withEtag_fromRepository));
+
+        // Act
+        Optional<DocumentContentRangesReadDto> result = documentService.downloadRanges(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID,
+                HttpRange.parseRanges("bytes=5-"), IF_RANGE_MATCHING_DATE);
+
+        // Assert
+        assertThat(result).isPresent();
+        assertThat(result.get().getRanges()).hasSize(1);
+    }
+
+    @Test
+    void givenStaleIfRange_whenDownloadRanges_thenWholeContentIsToBeServed() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withEtag_fromRepository));
+
+        // Act
+        Optional<DocumentContentRangesReadDto> result = documentService.downloadRanges(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID,
+                HttpRange.parseRanges("bytes=0-9"), IF_RANGE_STALE_ETAG);
+
+        // Assert
+        assertThat(result).isEmpty();
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void givenCompressedContent_whenDownloadRanges_thenWholeContentIsToBeServed() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_compressed_fromRepository));
+
+        // Act
+        Optional<DocumentContentRangesReadDto> result = documentService.downloadRanges(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID,
+                HttpRange.parseRanges("bytes=0-9"), null);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void givenRangeBeyondContent_whenDownloadRanges_thenNoRangeIsSatisfiable() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withEtag_fromRepository));
+
+        // Act
+        Optional<DocumentContentRangesReadDto> result = documentService.downloadRanges(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID,
+                HttpRange.parseRanges("bytes=" + CONTENT_SIZE + "-"), null);
+
+        // Assert
+        assertThat(result).isPresent();
+        assertThat(result.get().getRanges()).isEmpty();
+    }
+
+    @Test
+    void givenExistingDocument_whenDownload_andResponseWithoutContentType_thenFallsBackToDocMimeOrDefault() {
         // Arrange
         when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
                 .thenReturn(Optional.of(doc_withoutMimeAndTitle_fromRepository));
-        when(storage.stat(DOC_BUCKET, DOC_OBJECT_KEY)).thenReturn(Optional.empty());
-        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY)).thenReturn(new ByteArrayInputStream(CONTENT_BYTES));
+        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(new ObjectContent(new ByteArrayInputStream(CONTENT_BYTES), objectStat_withEtag_withoutContentType));
 
         // Act
-        DocumentContentReadDto dto = documentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID);
+        DocumentContentReadDto dto = documentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, Set.of());
 
         // Assert
         assertThat(dto)
                 .extracting(DocumentContentReadDto::getContentType, DocumentContentReadDto::getFilename)
                 .containsExactly(DOCUMENT_CONTENT_DEFAULT_TYPE, DOC_OBJECT_KEY);
-        assertThat(dto.getContentLength()).isNull();
+        assertThat(dto.getContentLength()).isEqualTo(CONTENT_SIZE);
     }
 
     @Test
-    void givenExistingDocument_whenUpdate_thenSavesAndReturnsMappedDto() {
+    void givenCompressedDocument_whenDownloadAcceptingItsCodec_thenServesStoredBytesEncoded() throws Exception {
         // Arrange
         when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
-                .thenReturn(Optional.of(doc_existing_fromRepository));
-        when(documentRepository.save(any(DocumentEntity.class))).thenReturn(doc_saved_afterUpdate);
+                .thenReturn(Optional.of(doc_compressed_fromRepository));
+        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(new ObjectContent(new ByteArrayInputStream(CSV_DEFLATED), objectStat_deflatedCsv));
+
+        // Act
+        DocumentContentReadDto dto = documentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, Set.of("gzip", CODEC_DEFLATE));
+
+        // Assert
+        assertThat(dto)
+                .extracting(DocumentContentReadDto::getContentEncoding, DocumentContentReadDto::getContentLength)
+                .containsExactly(CODEC_DEFLATE, (long) CSV_DEFLATED.length);
+        assertThat(dto.getStream().readAllBytes()).isEqualTo(CSV_DEFLATED);
+    }
+
+    @Test
+    void givenCompressedDocument_whenDownloadNotAcceptingItsCodec_thenServesInflatedContent() throws Exception {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_compressed_fromRepository));
+        when(storage.download(DOC_BUCKET, DOC_OBJECT_KEY, ETAG_VALUE))
+                .thenReturn(new ObjectContent(new ByteArrayInputStream(CSV_DEFLATED), objectStat_deflatedCsv));
+
+        // Act
+        DocumentContentReadDto dto = documentService.download(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, Set.of("gzip"));
+
+        // Assert
+        assertThat(dto)
+                .extracting(DocumentContentReadDto::getContentType, DocumentContentReadDto::getContentEncoding, DocumentContentReadDto::getContentLength)
+                .containsExactly(MIME_CSV, null, (long) CSV_BYTES.length);
+        assertThat(dto.getStream().readAllBytes()).isEqualTo(CSV_BYTES);
+    }
+
+    @Test
+    void givenExistingDocument_whenUpdate_thenSetsMetadataConditionallyAndReturnsPostImage() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DocumentEntity.class)))
+                .thenReturn(doc_saved_afterUpdate);
         when(documentMapper.toReadDto(doc_saved_afterUpdate)).thenReturn(docView_mapped_afterUpdate);
 
         // Act
@@ -234,48 +743,85 @@ class DocumentServiceCoreUnitTest {
         // Assert
         assertThat(result).isEqualTo(docView_mapped_afterUpdate);
 
-        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
-        verify(documentRepository).save(savedCap.capture());
-        DocumentEntity saved = savedCap.getValue();
-        assertThat(saved)
-                .extracting(DocumentEntity::getTitle, DocumentEntity::getTags, DocumentEntity::getVersion)
-                .containsExactly(docUpdate_valid_fromClient.getTitle(), docUpdate_valid_fromClient.getTags(), docUpdate_valid_fromClient.getVersion());
-        assertThat(saved.getUpdatedAt()).isNotNull();
-
-        verify(documentMapper).toReadDto(doc_saved_afterUpdate);
-        verifyNoMoreInteractions(documentRepository, documentMapper);
+        ArgumentCaptor<Query> queryCap = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCap = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> optionsCap = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(queryCap.capture(), updateCap.capture(), optionsCap.capture(), eq(DocumentEntity.class));
+        assertThat(queryCap.getValue().getQueryObject()).isEqualTo(new Document("_id", VALID_EXISTENT_DOC_ID)
+                .append("ownerUid", VALID_OWNER_UID).append("version", docUpdate_valid_fromClient.getVersion()));
+        Document set = updateCap.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.keySet()).containsExactlyInAnyOrder("title", "tags", "updatedAt");
+        assertThat(set).containsEntry("title", docUpdate_valid_fromClient.getTitle())
+                .containsEntry("tags", docUpdate_valid_fromClient.getTags());
+        assertThat(updateCap.getValue().getUpdateObject().get("$inc", Document.class)).isEqualTo(new Document("version", 1));
+        assertThat(optionsCap.getValue().isReturnNew()).isTrue();
+
+        verifyNoInteractions(documentRepository);
     }
 
     @Test
     void givenNonExistingDocument_whenUpdate_thenThrowsEntityNotFound() {
         // Arrange
-        when(documentRepository.findByIdAndOwnerUid(VALID_NON_EXISTENT_DOC_ID, VALID_OWNER_UID))
-                .thenReturn(Optional.empty());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DocumentEntity.class)))
+                .thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(DocumentEntity.class))).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> documentService.update(VALID_OWNER_UID, VALID_NON_EXISTENT_DOC_ID, docUpdate_valid_fromClient))
                 .isInstanceOf(EntityNotFoundRestException.class);
 
-        verify(documentRepository).findByIdAndOwnerUid(VALID_NON_EXISTENT_DOC_ID, VALID_OWNER_UID);
-        verifyNoMoreInteractions(documentRepository, documentMapper);
+        verifyNoInteractions(documentRepository, documentMapper);
     }
 
     @Test
-    void givenOptimisticLockingFailure_whenUpdate_thenThrowsConflictRestException() {
+    void givenStaleVersion_whenUpdate_thenThrowsConflictRestException() {
         // Arrange
-        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
-                .thenReturn(Optional.of(doc_existing_fromRepository));
-        when(documentRepository.save(any(DocumentEntity.class)))
-                .thenThrow(new OptimisticLockingFailureException("stale"));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DocumentEntity.class)))
+                .thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(DocumentEntity.class))).thenReturn(true);
 
         // Act & Assert
         assertThatThrownBy(() -> documentService.update(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, docUpdate_valid_fromClient))
                 .isInstanceOf(ConflictRestException.class)
                 .hasMessageContaining(DocumentService.DOCUMENT_NOT_UPDATED);
 
-        verify(documentRepository).findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID);
-        verify(documentRepository).save(any(DocumentEntity.class));
-        verifyNoMoreInteractions(documentRepository, documentMapper);
+        verifyNoInteractions(documentRepository, documentMapper);
+    }
+
+    @Test
+    void givenTitleOnlyPatch_whenPatch_thenSetsOnlyTitle() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DocumentEntity.class)))
+                .thenReturn(doc_saved_afterUpdate);
+        when(documentMapper.toReadDto(doc_saved_afterUpdate)).thenReturn(docView_mapped_afterUpdate);
+
+        // Act
+        DocumentReadDto result = documentService.patch(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, docPatch_titleOnly_fromClient);
+
+        // Assert
+        assertThat(result).isEqualTo(docView_mapped_afterUpdate);
+        ArgumentCaptor<Update> updateCap = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), updateCap.capture(), any(FindAndModifyOptions.class), eq(DocumentEntity.class));
+        Document set = updateCap.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.keySet()).containsExactlyInAnyOrder("title", "updatedAt");
+        assertThat(set).containsEntry("title", "Updated Title");
+    }
+
+    @Test
+    void givenTagsRemovedPatch_whenPatch_thenClearsTagsOnly() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DocumentEntity.class)))
+                .thenReturn(doc_saved_afterUpdate);
+
+        // Act
+        documentService.patch(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID, docPatch_tagsRemoved_fromClient);
+
+        // Assert
+        ArgumentCaptor<Update> updateCap = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), updateCap.capture(), any(FindAndModifyOptions.class), eq(DocumentEntity.class));
+        Document set = updateCap.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.keySet()).containsExactlyInAnyOrder("tags", "updatedAt");
+        assertThat(set).containsEntry("tags", List.of());
     }
 
     @Test
@@ -292,6 +838,51 @@ class DocumentServiceCoreUnitTest {
         verify(documentRepository).delete(doc_withBucketAndKey_fromRepository);
     }
 
+    @Test
+    void givenDocumentWithPreview_whenDelete_thenRemovesContentAndPreviewFromBucket() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withPreview_fromRepository));
+
+        // Act
+        documentService.delete(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID);
+
+        // Assert
+        verify(storage).delete(DOC_BUCKET, DOC_OBJECT_KEY);
+        verify(storage).delete(DOC_BUCKET, DOC_PREVIEW_OBJECT_KEY);
+        verify(documentRepository).delete(doc_withPreview_fromRepository);
+    }
+
+    @Test
+    void givenSharedContentStillReferenced_whenDelete_thenKeepsObjectAndRemovesDocument() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withSharedContent_fromRepository));
+        when(contentRegistry.release(CONTENT_HASH, SHARED_OBJECT_KEY)).thenReturn(false);
+
+        // Act
+        documentService.delete(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID);
+
+        // Assert
+        verify(storage, never()).delete(anyString(), anyString());
+        verify(documentRepository).delete(doc_withSharedContent_fromRepository);
+    }
+
+    @Test
+    void givenLastReferenceToSharedContent_whenDelete_thenRemovesFromBucketAndRepository() {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(VALID_EXISTENT_DOC_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(doc_withSharedContent_fromRepository));
+        when(contentRegistry.release(CONTENT_HASH, SHARED_OBJECT_KEY)).thenReturn(true);
+
+        // Act
+        documentService.delete(VALID_OWNER_UID, VALID_EXISTENT_DOC_ID);
+
+        // Assert
+        verify(storage).delete(DOC_BUCKET, SHARED_OBJECT_KEY);
+        verify(documentRepository).delete(doc_withSharedContent_fromRepository);
+    }
+
     @Test
     void givenNonExistingDocument_whenDelete_thenThrowsEntityNotFound() {
         // Arrange
@@ -0,0 +1,167 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentContentReadDto;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.storage.services.CachingS3StorageService;
+import com.niolikon.taskboard.dropstack.storage.services.S3StorageService;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentServicePinningTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the content hot paths on virtual threads, with storage answering slowly, and fails if any of them
+ * parks while holding a monitor: a pinned carrier is lost to every other virtual thread until it unparks.
+ */
+@ExtendWith(MockitoExtension.class)
+@EnabledForJreRange(min = JRE.JAVA_21)
+class DocumentServicePinningCoreUnitTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+    @Mock
+    private DocumentAuditWriter auditWriter;
+    @Mock
+    private DocumentMapper documentMapper;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private DocumentContentRegistry contentRegistry;
+    @Mock
+    private DocumentPreviewService previewService;
+    @Mock
+    private S3Client s3;
+    @Mock
+    private S3Presigner presigner;
+
+    @TempDir
+    Path tempDirectory;
+
+    private StreamTransfer streamTransfer;
+    private DocumentService documentService;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskThreads taskThreads = new TaskThreads(new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+        streamTransfer = new StreamTransfer(meterRegistry, TRANSFER_BUFFER_SIZE, TRANSFER_MAX_POOLED_BUFFERS);
+        S3StorageService s3Storage = new S3StorageService(s3, presigner, streamTransfer, taskThreads,
+                UPLOAD_PART_SIZE, MULTIPART_THRESHOLD, 4, 3, 4,
+                PARALLEL_DOWNLOAD_THRESHOLD, DOWNLOAD_PART_SIZE, 1, 4);
+        CachingS3StorageService storage = new CachingS3StorageService(s3Storage, meterRegistry,
+                true, HEAP_MAX_SIZE, HEAP_MAX_OBJECT_SIZE,
+                true, tempDirectory.resolve("cache").toString(), DISK_MAX_SIZE, DISK_MAX_OBJECT_SIZE);
+        DocumentCompressionPolicy noCompression = new DocumentCompressionPolicy(false, CODEC_DEFLATE, List.of());
+        documentService = new DocumentService(documentRepository, auditWriter, documentMapper,
+                storage, DEFAULT_BUCKET_FOR_TESTS, mongoTemplate, contentRegistry, false, noCompression, false, previewService);
+    }
+
+    @Test
+    void givenConcurrentDownloadsOnVirtualThreads_whenStorageIsSlow_thenNoCarrierIsPinned() throws Exception {
+        // Arrange
+        when(documentRepository.findByIdAndOwnerUid(DOC_ID, VALID_OWNER_UID)).thenAnswer(inv -> Optional.of(doc_stored()));
+        when(s3.getObject(any(GetObjectRequest.class))).thenAnswer(inv -> slowObject());
+
+        // Act
+        List<RecordedEvent> pinned = recordPinning(() -> {
+            DocumentContentReadDto dl = documentService.download(VALID_OWNER_UID, DOC_ID, Set.of());
+            try (InputStream in = dl.getStream()) {
+                streamTransfer.copy(in, OutputStream.nullOutputStream());
+            }
+        });
+
+        // Assert
+        assertThat(pinned).as("virtual threads pinned while parked").isEmpty();
+    }
+
+    @Test
+    void givenConcurrentUploadsOnVirtualThreads_whenStorageIsSlow_thenNoCarrierIsPinned() throws Exception {
+        // Arrange
+        when(documentMapper.toEntity(metadata_valid_fromClient)).thenAnswer(inv -> new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(docView_mapped);
+        when(s3.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            RequestBody body = inv.getArgument(1);
+            try (InputStream sent = body.contentStreamProvider().newStream()) {
+                byte[] chunk = new byte[1024];
+                while (sent.read(chunk) >= 0) {
+                    Thread.sleep(1);
+                }
+            }
+            return PutObjectResponse.builder().eTag(ETAG_VALUE).build();
+        });
+
+        // Act
+        List<RecordedEvent> pinned = recordPinning(() ->
+                documentService.create(VALID_OWNER_UID, metadata_valid_fromClient, content_fromClient()));
+
+        // Assert
+        assertThat(pinned).as("virtual threads pinned while parked").isEmpty();
+    }
+
+    private List<RecordedEvent> recordPinning(HotPath hotPath) throws Exception {
+        Path dump = tempDirectory.resolve("pinning.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("pinning-check-");
+            List<CompletableFuture<Void>> requests = new ArrayList<>(CONCURRENT_REQUESTS);
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                requests.add(executor.submitCompletable(() -> {
+                    hotPath.run();
+                    return null;
+                }));
+            }
+            CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+
+            recording.stop();
+            recording.dump(dump);
+        }
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                .toList();
+    }
+
+    @FunctionalInterface
+    private interface HotPath {
+        void run() throws Exception;
+    }
+}
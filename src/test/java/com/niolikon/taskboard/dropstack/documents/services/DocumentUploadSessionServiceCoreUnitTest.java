@@ -0,0 +1,278 @@
+package com.niolikon.taskboard.dropstack.documents.services;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionReadDto;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentMapper;
+import com.niolikon.taskboard.dropstack.documents.mappers.DocumentUploadSessionMapper;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentRepository;
+import com.niolikon.taskboard.dropstack.documents.repositories.DocumentUploadSessionRepository;
+import com.niolikon.taskboard.dropstack.storage.checksum.Crc32cChecksums;
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.services.IS3StorageService;
+import com.niolikon.taskboard.framework.exceptions.rest.client.ConflictRestException;
+import com.niolikon.taskboard.framework.exceptions.rest.client.EntityNotFoundRestException;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.niolikon.taskboard.dropstack.documents.services.testdata.DocumentUploadSessionServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentUploadSessionServiceCoreUnitTest {
+
+    @Mock
+    private DocumentUploadSessionRepository sessionRepository;
+    @Mock
+    private DocumentRepository documentRepository;
+    @Mock
+    private DocumentMapper documentMapper;
+    @Mock
+    private IS3StorageService storage;
+    @Mock
+    private DocumentPreviewService previewService;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private DocumentUploadSessionService uploadSessionService;
+
+    @BeforeEach
+    void setUp() {
+        uploadSessionService = new DocumentUploadSessionService(sessionRepository, documentRepository,
+                Mappers.getMapper(DocumentUploadSessionMapper.class), documentMapper, storage, previewService, mongoTemplate,
+                DEFAULT_BUCKET_FOR_TESTS, DEFAULT_CHUNK_SIZE, MAX_CHUNK_SIZE, MAX_SIZE, TIME_TO_LIVE);
+    }
+
+    @Test
+    void givenValidRequest_whenOpen_thenStartsMultipartUploadAndSplitsIntoChunks() {
+        // Arrange
+        when(storage.createMultipartUpload(eq(DEFAULT_BUCKET_FOR_TESTS), anyString(), eq(MIME_PDF))).thenReturn(UPLOAD_ID);
+        when(sessionRepository.save(any(DocumentUploadSessionEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        DocumentUploadSessionReadDto result = uploadSessionService.open(VALID_OWNER_UID, sessionCreate_valid_fromClient);
+
+        // Assert
+        assertThat(result.getChunkSize()).isEqualTo(DEFAULT_CHUNK_SIZE.toBytes());
+        assertThat(result.getChunkCount()).isEqualTo(3);
+        assertThat(result.getReceivedChunks()).isEmpty();
+
+        ArgumentCaptor<DocumentUploadSessionEntity> savedCap = ArgumentCaptor.forClass(DocumentUploadSessionEntity.class);
+        verify(sessionRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getUploadId()).isEqualTo(UPLOAD_ID);
+        assertThat(savedCap.getValue().getOwnerUid()).isEqualTo(VALID_OWNER_UID);
+    }
+
+    @Test
+    void givenChunkSizeBelowStorageMinimum_whenOpen_thenThrowsBadRequest_andStartsNoUpload() {
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.open(VALID_OWNER_UID, sessionCreate_tinyChunks_fromClient))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(storage, sessionRepository);
+    }
+
+    @Test
+    void givenChunkOfWrongSize_whenUploadChunk_thenThrowsBadRequest_andStoresNothing() {
+        // Arrange
+        when(sessionRepository.findByIdAndOwnerUid(SESSION_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(session_open_withFirstChunk()));
+        InputStream data = new ByteArrayInputStream(new byte[0]);
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk(VALID_OWNER_UID, SESSION_ID, 2, data, 1L))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(storage, mongoTemplate);
+    }
+
+    @Test
+    void givenValidChunk_whenUploadChunk_thenUploadsPartAndRecordsItsETagAndChecksum() {
+        // Arrange
+        when(sessionRepository.findByIdAndOwnerUid(SESSION_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(session_open_withFirstChunk()));
+        byte[] chunk = content_ofLastChunk();
+        when(storage.uploadPart(eq(DEFAULT_BUCKET_FOR_TESTS), eq(OBJECT_KEY), eq(UPLOAD_ID), eq(3), any(InputStream.class), eq(LAST_CHUNK_SIZE)))
+                .thenAnswer(inv -> {
+                    inv.<InputStream>getArgument(4).transferTo(OutputStream.nullOutputStream());
+                    return PART_ETAG;
+                });
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DocumentUploadSessionEntity.class)))
+                .thenReturn(session_open_withFirstChunk());
+
+        // Act
+        uploadSessionService.uploadChunk(VALID_OWNER_UID, SESSION_ID, 3, new ByteArrayInputStream(chunk), LAST_CHUNK_SIZE);
+
+        // Assert
+        ArgumentCaptor<Update> updateCap = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), updateCap.capture(), any(FindAndModifyOptions.class), eq(DocumentUploadSessionEntity.class));
+        Document set = updateCap.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.get("chunkETags.3")).isEqualTo(PART_ETAG);
+        assertThat(set.get("chunkChecksums.3")).isEqualTo(Crc32cChecksums.of(chunk, 0, chunk.length));
+    }
+
+    @Test
+    void givenExpiredSession_whenUploadChunk_thenThrowsEntityNotFound() {
+        // Arrange
+        when(sessionRepository.findByIdAndOwnerUid(SESSION_ID, VALID_OWNER_UID))
+                .thenReturn(Optional.of(session_expired()));
+        InputStream data = new ByteArrayInputStream(new byte[0]);
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.uploadChunk(VALID_OWNER_UID, SESSION_ID, 1, data, DEFAULT_CHUNK_SIZE.toBytes()))
+                .isInstanceOf(EntityNotFoundRestException.class);
+
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void givenMissingChunks_whenComplete_thenThrowsConflict_andPutsSessionBack() {
+        // Arrange
+        DocumentUploadSessionEntity session = session_open_withFirstChunk();
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentUploadSessionEntity.class))).thenReturn(session);
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.complete(VALID_OWNER_UID, SESSION_ID))
+                .isInstanceOf(ConflictRestException.class);
+
+        verify(sessionRepository).save(session);
+        verifyNoInteractions(storage, documentRepository);
+    }
+
+    @Test
+    void givenAllChunksReceived_whenComplete_thenClaimsSessionCompletesUploadPersistsDocument_andSchedulesPreview() {
+        // Arrange
+        DocumentUploadSessionEntity session = session_open_withAllChunks();
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentUploadSessionEntity.class))).thenReturn(session);
+        when(storage.completeMultipartUpload(DEFAULT_BUCKET_FOR_TESTS, OBJECT_KEY, UPLOAD_ID,
+                Map.of(1, PART_ETAG, 2, PART_ETAG, 3, PART_ETAG))).thenReturn(OBJECT_ETAG);
+        when(documentMapper.toEntity(any(DocumentCreateMetadataDto.class)))
+                .thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(docView_expected_fromComplete);
+
+        // Act
+        DocumentReadDto result = uploadSessionService.complete(VALID_OWNER_UID, SESSION_ID);
+
+        // Assert
+        assertThat(result).isEqualTo(docView_expected_fromComplete);
+        verify(storage, never()).stat(anyString(), anyString());
+
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getObjectKey()).isEqualTo(OBJECT_KEY);
+        assertThat(savedCap.getValue().getSize()).isEqualTo(UPLOAD_SIZE);
+        assertThat(savedCap.getValue().getEtag()).isEqualTo(OBJECT_ETAG);
+        assertThat(savedCap.getValue().getOwnerUid()).isEqualTo(VALID_OWNER_UID);
+        verify(previewService).prepare(savedCap.getValue());
+        verify(previewService).schedule(savedCap.getValue());
+
+        ArgumentCaptor<Query> claimCap = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndRemove(claimCap.capture(), eq(DocumentUploadSessionEntity.class));
+        assertThat(claimCap.getValue().getQueryObject())
+                .containsEntry("_id", SESSION_ID)
+                .containsEntry("ownerUid", VALID_OWNER_UID);
+        assertThat(claimCap.getValue().getQueryObject().get("expiresAt", Document.class)).containsKey("$gt");
+        verifyNoInteractions(sessionRepository);
+    }
+
+    @Test
+    void givenChunksChecksummed_whenComplete_thenDocumentCarriesWholeContentChecksum() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentUploadSessionEntity.class)))
+                .thenReturn(session_open_withAllChunksChecksummed());
+        when(storage.completeMultipartUpload(eq(DEFAULT_BUCKET_FOR_TESTS), eq(OBJECT_KEY), eq(UPLOAD_ID), anyMap())).thenReturn(OBJECT_ETAG);
+        when(documentMapper.toEntity(any(DocumentCreateMetadataDto.class))).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        uploadSessionService.complete(VALID_OWNER_UID, SESSION_ID);
+
+        // Assert
+        byte[] content = content_ofAllChunks();
+        ArgumentCaptor<DocumentEntity> savedCap = ArgumentCaptor.forClass(DocumentEntity.class);
+        verify(documentRepository).save(savedCap.capture());
+        assertThat(savedCap.getValue().getChecksumCrc32c()).isEqualTo(Crc32cChecksums.of(content, 0, content.length));
+    }
+
+    @Test
+    void givenSessionCompletedTwice_whenComplete_thenOnlyFirstCreatesDocument_andSecondThrowsNotFound() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentUploadSessionEntity.class)))
+                .thenReturn(session_open_withAllChunks())
+                .thenReturn(null);
+        when(storage.completeMultipartUpload(eq(DEFAULT_BUCKET_FOR_TESTS), eq(OBJECT_KEY), eq(UPLOAD_ID), anyMap())).thenReturn(OBJECT_ETAG);
+        when(documentMapper.toEntity(any(DocumentCreateMetadataDto.class))).thenReturn(new DocumentEntity());
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(documentMapper.toReadDto(any(DocumentEntity.class))).thenReturn(docView_expected_fromComplete);
+
+        // Act
+        DocumentReadDto first = uploadSessionService.complete(VALID_OWNER_UID, SESSION_ID);
+
+        // Assert
+        assertThat(first).isEqualTo(docView_expected_fromComplete);
+        assertThatThrownBy(() -> uploadSessionService.complete(VALID_OWNER_UID, SESSION_ID))
+                .isInstanceOf(EntityNotFoundRestException.class);
+        verify(storage, times(1)).completeMultipartUpload(any(), any(), any(), anyMap());
+        verify(documentRepository, times(1)).save(any(DocumentEntity.class));
+    }
+
+    @Test
+    void givenStorageFailsToComplete_whenComplete_thenPutsSessionBack_andPersistsNothing() {
+        // Arrange
+        DocumentUploadSessionEntity session = session_open_withAllChunks();
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(DocumentUploadSessionEntity.class))).thenReturn(session);
+        when(storage.completeMultipartUpload(eq(DEFAULT_BUCKET_FOR_TESTS), eq(OBJECT_KEY), eq(UPLOAD_ID), anyMap()))
+                .thenThrow(new StorageException("minio unavailable", null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploadSessionService.complete(VALID_OWNER_UID, SESSION_ID))
+                .hasMessage(DocumentService.DOCUMENT_NOT_UPLOADED_TO_BUCKET);
+
+        verify(sessionRepository).save(session);
+        verifyNoInteractions(documentRepository);
+    }
+
+    @Test
+    void givenExpiredSessions_whenAbortExpiredSessions_thenAbortsUploadsAndKeepsFailedOnes() {
+        // Arrange
+        DocumentUploadSessionEntity abortable = session_expired();
+        DocumentUploadSessionEntity failing = session_expired();
+        failing.setUploadId(FAILING_UPLOAD_ID);
+        when(sessionRepository.findByExpiresAtBefore(any(), any(Pageable.class))).thenReturn(List.of(abortable, failing));
+        doNothing().when(storage).abortMultipartUpload(DEFAULT_BUCKET_FOR_TESTS, OBJECT_KEY, UPLOAD_ID);
+        doThrow(new StorageException("minio unavailable", null))
+                .when(storage).abortMultipartUpload(DEFAULT_BUCKET_FOR_TESTS, OBJECT_KEY, FAILING_UPLOAD_ID);
+
+        // Act
+        uploadSessionService.abortExpiredSessions();
+
+        // Assert
+        verify(sessionRepository).delete(abortable);
+        verify(sessionRepository, never()).delete(failing);
+    }
+}
@@ -0,0 +1,94 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import org.bson.types.ObjectId;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class DocumentArchiveServiceTestData {
+
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String DEFAULT_BUCKET_FOR_TESTS = "bucket-test";
+    public static final String DOC_TAG = "invoices";
+    public static final String MIME_TEXT = "text/plain";
+    public static final String MIME_JPEG = "image/jpeg";
+    public static final int MAX_ITEMS = 3;
+    public static final int MAX_OWNER_ITEMS = 150;
+    public static final int READ_AHEAD = 2;
+    public static final int PARALLELISM = 2;
+    public static final DataSize MAX_BUFFERED_ENTRY_SIZE = DataSize.ofBytes(64);
+    public static final List<String> STORED_TYPES = List.of("image/*", "application/zip");
+    public static final int TRANSFER_BUFFER_SIZE_BYTES = 1024;
+    public static final int TRANSFER_MAX_POOLED_BUFFERS = 4;
+    public static final Instant DOC_UPDATED_AT = Instant.parse("2025-01-02T10:15:30Z");
+
+    public static final byte[] FIRST_CONTENT = "first document content".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] SECOND_CONTENT = "second document content".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] LARGE_CONTENT = "large document content ".repeat(10).getBytes(StandardCharsets.UTF_8);
+
+    public static DocumentEntity doc_stored(String id, String title, String mimeType, byte[] content) {
+        return DocumentEntity.builder()
+                .id(id)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(DEFAULT_BUCKET_FOR_TESTS)
+                .objectKey("obj-" + id)
+                .etag("etag-" + id)
+                .title(title)
+                .mimeType(mimeType)
+                .size((long) content.length)
+                .updatedAt(DOC_UPDATED_AT)
+                .build();
+    }
+
+    public static ObjectContent objectContent_fromStorage(DocumentEntity doc, byte[] content) {
+        return new ObjectContent(new ByteArrayInputStream(content),
+                new ObjectStat((long) content.length, doc.getEtag(), doc.getMimeType(), null));
+    }
+
+    /**
+     * Documents with ascending ObjectIds, as an owner-wide listing sorted by {@code _id} returns them.
+     */
+    public static List<DocumentEntity> docs_storedInIdOrder(int count) {
+        List<DocumentEntity> docs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = new ObjectId().toHexString();
+            docs.add(doc_stored(id, "doc-" + i + ".txt", MIME_TEXT, FIRST_CONTENT));
+        }
+        return docs;
+    }
+
+    public static List<ArchivedEntry> readArchive(byte[] archive) throws IOException {
+        List<ArchivedEntry> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.add(new ArchivedEntry(entry.getName(), entry.getMethod(), entry.getLastModifiedTime().toInstant(), zip.readAllBytes()));
+            }
+        }
+        return entries;
+    }
+
+    public static final class ArchivedEntry {
+        public final String name;
+        public final int method;
+        public final Instant modified;
+        public final byte[] content;
+
+        public ArchivedEntry(String name, int method, Instant modified, byte[] content) {
+            this.name = name;
+            this.method = method;
+            this.modified = modified;
+            this.content = content;
+        }
+    }
+}
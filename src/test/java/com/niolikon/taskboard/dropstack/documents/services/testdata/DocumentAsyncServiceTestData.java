@@ -0,0 +1,78 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+public class DocumentAsyncServiceTestData {
+
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String EXISTING_DOCUMENT_ID = "doc-1";
+    public static final String MISSING_DOCUMENT_ID = "doc-missing";
+    public static final byte[] CONTENT_BYTES = "hello async".getBytes(StandardCharsets.UTF_8);
+    public static final String BUCKET = "bucket-test";
+    public static final String OBJECT_ETAG = "etag-async";
+    public static final String PREVIEW_OBJECT_KEY = "preview-" + EXISTING_DOCUMENT_ID;
+    public static final String CORRUPTED_CHECKSUM = "AAAAAA==";
+
+    public static final ObjectStat stat_uploaded = new ObjectStat((long) CONTENT_BYTES.length, OBJECT_ETAG, "application/pdf", null);
+
+    public static final DocumentCreateMetadataDto metadata_fromClient = DocumentCreateMetadataDto.builder()
+            .title("async.pdf")
+            .mimeType("application/pdf")
+            .build();
+
+    public static final DocumentCreateContentDto content_fromClient = DocumentCreateContentDto.builder()
+            .source(new ByteArrayResource(CONTENT_BYTES))
+            .size((long) CONTENT_BYTES.length)
+            .build();
+
+    public static final DocumentReadDto docView_mapped = DocumentReadDto.builder()
+            .id(EXISTING_DOCUMENT_ID)
+            .title("async.pdf")
+            .build();
+
+    public static DocumentEntity doc_built(String objectKey) {
+        return DocumentEntity.builder()
+                .id(EXISTING_DOCUMENT_ID)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(BUCKET)
+                .objectKey(objectKey)
+                .title("async.pdf")
+                .mimeType("application/pdf")
+                .size((long) CONTENT_BYTES.length)
+                .etag(OBJECT_ETAG)
+                .build();
+    }
+
+    public static DocumentEntity doc_stored() {
+        return DocumentEntity.builder()
+                .id(EXISTING_DOCUMENT_ID)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(BUCKET)
+                .objectKey("obj-" + EXISTING_DOCUMENT_ID)
+                .title("async.pdf")
+                .mimeType("application/pdf")
+                .size((long) CONTENT_BYTES.length)
+                .etag(OBJECT_ETAG)
+                .previewObjectKey(PREVIEW_OBJECT_KEY)
+                .build();
+    }
+
+    public static DocumentEntity doc_stored_withChecksum(String checksumCrc32c) {
+        DocumentEntity doc = doc_stored();
+        doc.setChecksumCrc32c(checksumCrc32c);
+        return doc;
+    }
+
+    public static ObjectContent localCopy_ofContent() {
+        return new ObjectContent(new ByteArrayInputStream(CONTENT_BYTES), stat_uploaded);
+    }
+}
@@ -0,0 +1,36 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentAuditEntity;
+import org.bson.types.ObjectId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public class DocumentAuditWriterTestData {
+
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String VALID_DOC_ID = "doc-1";
+    public static final Instant AUDIT_AT = Instant.parse("2025-01-02T10:15:30Z");
+
+    public static final String DURABILITY_FIRE_AND_FORGET = "fire-and-forget";
+    public static final String DURABILITY_WAIT_FOR_FLUSH = "wait-for-flush";
+    public static final String ON_FULL_WRITE_THROUGH = "write-through";
+    public static final String ON_FULL_DROP = "drop";
+
+    public static final int QUEUE_CAPACITY = 100;
+    public static final int BATCH_SIZE = 2;
+    public static final Duration FLUSH_INTERVAL = Duration.ofMillis(20);
+    public static final Duration WAIT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration FORCED_SHUTDOWN_TIMEOUT = Duration.ofMillis(100);
+
+    public static List<DocumentAuditEntity> audits_ofCheckIns(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new DocumentAuditEntity(new ObjectId().toHexString(), VALID_DOC_ID, "CHECKIN",
+                        Map.of("newCategoryCode", "C" + i), AUDIT_AT.plusSeconds(i), VALID_OWNER_UID))
+                .toList();
+    }
+}
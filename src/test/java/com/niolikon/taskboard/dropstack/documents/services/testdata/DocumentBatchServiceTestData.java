@@ -0,0 +1,67 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import org.bson.BsonDocument;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.BulkOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+public class DocumentBatchServiceTestData {
+
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String DEFAULT_BUCKET_FOR_TESTS = "bucket-test";
+    public static final String MIME_PDF = "application/pdf";
+    public static final int MAX_ITEMS = 3;
+    public static final int PARALLELISM = 2;
+    public static final byte[] CONTENT_BYTES = "hello batch".getBytes(StandardCharsets.UTF_8);
+
+    public static final DocumentCreateMetadataDto metadata_first_fromClient = DocumentCreateMetadataDto.builder()
+            .title("first.pdf")
+            .mimeType(MIME_PDF)
+            .build();
+    public static final DocumentCreateMetadataDto metadata_second_fromClient = DocumentCreateMetadataDto.builder()
+            .title("second.pdf")
+            .mimeType(MIME_PDF)
+            .build();
+
+    public static final DocumentCreateContentDto content_first_fromClient = DocumentCreateContentDto.builder()
+            .source(new ByteArrayResource(CONTENT_BYTES))
+            .size((long) CONTENT_BYTES.length)
+            .build();
+    public static final DocumentCreateContentDto content_second_fromClient = DocumentCreateContentDto.builder()
+            .source(new ByteArrayResource(CONTENT_BYTES))
+            .size((long) CONTENT_BYTES.length)
+            .build();
+
+    public static final DocumentReadDto docView_first_mapped = DocumentReadDto.builder().id("doc-1").title("first.pdf").build();
+    public static final DocumentReadDto docView_second_mapped = DocumentReadDto.builder().id("doc-2").title("second.pdf").build();
+
+    public static DocumentEntity doc_stored(String id, String title) {
+        return DocumentEntity.builder()
+                .id(id)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(DEFAULT_BUCKET_FOR_TESTS)
+                .objectKey("obj-" + id)
+                .title(title)
+                .mimeType(MIME_PDF)
+                .size((long) CONTENT_BYTES.length)
+                .build();
+    }
+
+    public static BulkOperationException bulkInsertRejected(int index) {
+        BulkWriteError duplicateKey = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), index);
+        return new BulkOperationException("Bulk write operation error",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(duplicateKey), null,
+                        new ServerAddress(), Set.of()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPresignedUploadCreateDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentPresignedUploadEntity;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import com.niolikon.taskboard.dropstack.storage.model.PresignedRequest;
+import org.bson.types.ObjectId;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class DocumentPresignedServiceTestData {
+
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String UPLOAD_ID = new ObjectId().toHexString();
+    public static final String VALID_EXISTENT_DOC_ID = new ObjectId().toHexString();
+    public static final String VALID_NON_EXISTENT_DOC_ID = new ObjectId().toHexString();
+    public static final String DEFAULT_BUCKET_FOR_TESTS = "bucket-test";
+    public static final String OBJECT_KEY = "obj-presigned";
+    public static final String MIME_PDF = "application/pdf";
+    public static final String DOC_TITLE = "direct.pdf";
+    public static final String ETAG_VALUE = "etag-direct";
+    public static final long CONTENT_SIZE = 4096L;
+
+    public static final Duration URL_VALIDITY = Duration.ofMinutes(15);
+    public static final Duration COMPLETION_GRACE = Duration.ofHours(1);
+    public static final DataSize MAX_SIZE = DataSize.ofGigabytes(5);
+
+    public static final PresignedRequest presignedPut_fromStorage = new PresignedRequest(
+            "http://minio/bucket-test/obj-presigned?X-Amz-Signature=abc", "PUT",
+            Map.of("content-type", MIME_PDF), Instant.now().plus(URL_VALIDITY));
+
+    public static final PresignedRequest presignedGet_fromStorage = new PresignedRequest(
+            "http://minio/docs-bucket/obj-123?X-Amz-Signature=def", "GET", Map.of(), Instant.now().plus(URL_VALIDITY));
+
+    public static final DocumentCreateMetadataDto metadata_valid_fromClient = DocumentCreateMetadataDto.builder()
+            .title(DOC_TITLE)
+            .mimeType(MIME_PDF)
+            .tags(List.of("t1"))
+            .build();
+
+    public static final DocumentPresignedUploadCreateDto presignedUploadCreate_valid_fromClient = DocumentPresignedUploadCreateDto.builder()
+            .metadata(metadata_valid_fromClient)
+            .size(CONTENT_SIZE)
+            .build();
+
+    public static final DocumentPresignedUploadCreateDto presignedUploadCreate_tooLarge_fromClient = DocumentPresignedUploadCreateDto.builder()
+            .metadata(metadata_valid_fromClient)
+            .size(MAX_SIZE.toBytes() + 1)
+            .build();
+
+    public static final DocumentPresignedUploadEntity pendingUpload_fromRepository = DocumentPresignedUploadEntity.builder()
+            .id(UPLOAD_ID)
+            .ownerUid(VALID_OWNER_UID)
+            .bucket(DEFAULT_BUCKET_FOR_TESTS)
+            .objectKey(OBJECT_KEY)
+            .title(DOC_TITLE)
+            .mimeType(MIME_PDF)
+            .tags(List.of("t1"))
+            .size(CONTENT_SIZE)
+            .createdAt(Instant.now())
+            .expiresAt(Instant.now().plus(URL_VALIDITY).plus(COMPLETION_GRACE))
+            .build();
+
+    public static final ObjectStat objectStat_declaredSize = ObjectStat.builder()
+            .size(CONTENT_SIZE)
+            .etag(ETAG_VALUE)
+            .contentType(MIME_PDF)
+            .build();
+
+    public static final ObjectStat objectStat_truncated = ObjectStat.builder()
+            .size(CONTENT_SIZE / 2)
+            .etag(ETAG_VALUE)
+            .contentType(MIME_PDF)
+            .build();
+
+    public static final DocumentEntity doc_existing_fromRepository = DocumentEntity.builder()
+            .id(VALID_EXISTENT_DOC_ID)
+            .ownerUid(VALID_OWNER_UID)
+            .bucket("docs-bucket")
+            .objectKey("obj-123")
+            .title(DOC_TITLE)
+            .mimeType(MIME_PDF)
+            .size(CONTENT_SIZE)
+            .build();
+
+    public static final DocumentReadDto docView_expected_fromComplete = DocumentReadDto.builder()
+            .id(new ObjectId().toHexString())
+            .title(DOC_TITLE)
+            .mimeType(MIME_PDF)
+            .size(CONTENT_SIZE)
+            .build();
+}
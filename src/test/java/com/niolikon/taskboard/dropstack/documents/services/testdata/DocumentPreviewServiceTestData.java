@@ -0,0 +1,86 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+public class DocumentPreviewServiceTestData {
+
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String VALID_DOC_ID = "doc-1";
+    public static final String DEFAULT_BUCKET_FOR_TESTS = "bucket-test";
+    public static final String DOC_OBJECT_KEY = "obj-123";
+    public static final String DOC_PREVIEW_OBJECT_KEY = DOC_OBJECT_KEY + ".preview.jpg";
+    public static final String ETAG_VALUE = "etag-xyz";
+    public static final String PREVIEW_ETAG_VALUE = "etag-preview";
+    public static final String MIME_PNG = "image/png";
+    public static final String MIME_PDF = "application/pdf";
+    public static final String MIME_JPEG = "image/jpeg";
+
+    public static final int MAX_DIMENSION = 64;
+    public static final DataSize MAX_SOURCE_SIZE = DataSize.ofMegabytes(1);
+    public static final int THREADS = 1;
+    public static final long MAX_PIXELS = 10_000_000L;
+    public static final float QUALITY = 0.8f;
+
+    public static final int IMAGE_WIDTH = 400;
+    public static final int IMAGE_HEIGHT = 200;
+    public static final byte[] IMAGE_CONTENT = png_of(IMAGE_WIDTH, IMAGE_HEIGHT);
+    public static final byte[] NOT_AN_IMAGE_CONTENT = "not an image".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] PREVIEW_CONTENT = "preview bytes".getBytes(StandardCharsets.UTF_8);
+
+    public static DocumentEntity doc_saved(String mimeType, long size) {
+        return DocumentEntity.builder()
+                .id(VALID_DOC_ID)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(DEFAULT_BUCKET_FOR_TESTS)
+                .objectKey(DOC_OBJECT_KEY)
+                .etag(ETAG_VALUE)
+                .mimeType(mimeType)
+                .size(size)
+                .build();
+    }
+
+    public static DocumentEntity doc_withPreview(String previewStatus) {
+        DocumentEntity doc = doc_saved(MIME_PNG, IMAGE_CONTENT.length);
+        doc.setPreviewObjectKey(DOC_PREVIEW_OBJECT_KEY);
+        doc.setPreviewStatus(previewStatus);
+        doc.setPreviewEtag(PREVIEW_ETAG_VALUE);
+        return doc;
+    }
+
+    public static ObjectContent objectContent_fromStorage(byte[] content, String etag, String contentType) {
+        return new ObjectContent(new ByteArrayInputStream(content), new ObjectStat(content.length, etag, contentType, null));
+    }
+
+    public static ObjectStat objectStat_ofPreview() {
+        return new ObjectStat(PREVIEW_CONTENT.length, PREVIEW_ETAG_VALUE, MIME_JPEG, null);
+    }
+
+    private static byte[] png_of(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, width / 2, height);
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
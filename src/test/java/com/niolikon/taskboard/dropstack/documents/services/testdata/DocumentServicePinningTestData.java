@@ -0,0 +1,105 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+public class DocumentServicePinningTestData {
+
+    public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    public static final int CONCURRENT_REQUESTS = 200;
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String DEFAULT_BUCKET_FOR_TESTS = "bucket-test";
+    public static final String DOC_ID = "doc-1";
+    public static final String DOC_OBJECT_KEY = "obj-1";
+    public static final String ETAG_VALUE = "\"etag-1\"";
+    public static final String MIME_PDF = "application/pdf";
+    public static final String CODEC_DEFLATE = "deflate";
+
+    public static final DataSize TRANSFER_BUFFER_SIZE = DataSize.ofKilobytes(4);
+    public static final int TRANSFER_MAX_POOLED_BUFFERS = 16;
+    public static final DataSize HEAP_MAX_SIZE = DataSize.ofKilobytes(64);
+    public static final DataSize HEAP_MAX_OBJECT_SIZE = DataSize.ofBytes(1);
+    public static final DataSize DISK_MAX_SIZE = DataSize.ofMegabytes(1);
+    public static final DataSize DISK_MAX_OBJECT_SIZE = DataSize.ofKilobytes(64);
+    public static final DataSize UPLOAD_PART_SIZE = DataSize.ofMegabytes(8);
+    public static final DataSize MULTIPART_THRESHOLD = DataSize.ofMegabytes(16);
+    public static final DataSize PARALLEL_DOWNLOAD_THRESHOLD = DataSize.ofMegabytes(64);
+    public static final DataSize DOWNLOAD_PART_SIZE = DataSize.ofMegabytes(8);
+
+    public static final byte[] CONTENT_BYTES = content(32 * 1024);
+
+    public static final DocumentCreateMetadataDto metadata_valid_fromClient = DocumentCreateMetadataDto.builder()
+            .title("sample.pdf")
+            .mimeType(MIME_PDF)
+            .build();
+
+    public static final DocumentReadDto docView_mapped = DocumentReadDto.builder().id(DOC_ID).title("sample.pdf").build();
+
+    public static DocumentCreateContentDto content_fromClient() {
+        return DocumentCreateContentDto.builder()
+                .source(new ByteArrayResource(CONTENT_BYTES))
+                .size((long) CONTENT_BYTES.length)
+                .build();
+    }
+
+    public static DocumentEntity doc_stored() {
+        return DocumentEntity.builder()
+                .id(DOC_ID)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(DEFAULT_BUCKET_FOR_TESTS)
+                .objectKey(DOC_OBJECT_KEY)
+                .etag(ETAG_VALUE)
+                .title("sample.pdf")
+                .mimeType(MIME_PDF)
+                .size((long) CONTENT_BYTES.length)
+                .build();
+    }
+
+    /**
+     * Answers a GET the way a slow connection would: each read parks the reading thread for a moment.
+     */
+    public static ResponseInputStream<GetObjectResponse> slowObject() {
+        GetObjectResponse getRes = GetObjectResponse.builder()
+                .eTag(ETAG_VALUE)
+                .contentType(MIME_PDF)
+                .contentLength((long) CONTENT_BYTES.length)
+                .build();
+        return new ResponseInputStream<>(getRes, AbortableInputStream.create(new SlowInputStream(new ByteArrayInputStream(CONTENT_BYTES))));
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        Arrays.fill(content, (byte) 'x');
+        return content;
+    }
+
+    private static class SlowInputStream extends FilterInputStream {
+        private SlowInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            return super.read(buf, off, Math.min(len, 1024));
+        }
+    }
+}
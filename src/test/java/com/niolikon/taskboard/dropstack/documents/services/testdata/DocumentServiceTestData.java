@@ -1,19 +1,33 @@
 package com.niolikon.taskboard.dropstack.documents.services.testdata;
 
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCheckinDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateContentDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentPatchDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentSummaryReadDto;
 import com.niolikon.taskboard.dropstack.documents.dto.DocumentUpdateDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentContentEntity;
 import com.niolikon.taskboard.dropstack.documents.model.DocumentEntity;
+import com.niolikon.taskboard.dropstack.storage.checksum.Crc32cChecksums;
 import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
 import org.bson.types.ObjectId;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.InflaterInputStream;
 
 public class DocumentServiceTestData {
 
@@ -24,22 +38,40 @@ public class DocumentServiceTestData {
     public static final String DEFAULT_BUCKET_FOR_TESTS = "bucket-test";
     public static final String DOC_BUCKET = "docs-bucket";
     public static final String DOC_OBJECT_KEY = "obj-123";
+    public static final String DOC_PREVIEW_OBJECT_KEY = DOC_OBJECT_KEY + ".preview.jpg";
     public static final String DOC_TITLE_NON_BLANK = "my-file.pdf";
     public static final String MIME_PDF = "application/pdf";
+    public static final String MIME_PNG = "image/png";
     public static final String DOCUMENT_CONTENT_DEFAULT_TYPE = "application/octet-stream";
     public static final String ETAG_VALUE = "etag-xyz";
     public static final long CONTENT_SIZE = 42L;
     public static final byte[] CONTENT_BYTES = "hello world".getBytes(StandardCharsets.UTF_8);
+    public static final String CONTENT_CRC32C = Crc32cChecksums.of(CONTENT_BYTES, 0, CONTENT_BYTES.length);
+    public static final String CORRUPTED_CRC32C = Crc32cChecksums.encode(0L);
 
     public static final String VALID_DOC_ID = new ObjectId().toHexString();
 
     public static final Pageable pageable_firstPageSize10_fromClient = PageRequest.of(0, 10);
+    public static final Pageable pageable_cursorSize2_fromClient = PageRequest.of(0, 2);
+    public static final Pageable pageable_cursorSize2_sortedByUpdatedAtAsc_fromClient = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "updatedAt"));
+    public static final Pageable pageable_cursorSize2_sortedByTitle_fromClient = PageRequest.of(0, 2, Sort.by("title"));
+    public static final List<String> FIELDS_TITLE_AND_SIZE = List.of("Title", "size");
+    public static final List<String> FIELDS_UNKNOWN = List.of("Title", "ObjectKey");
+    public static final String CURSOR_FIRST_PAGE = "";
+    public static final String CURSOR_TAMPERED = "bm90LWEtY3Vyc29y";
+    public static final Instant LISTED_CREATED_AT = Instant.parse("2025-01-02T10:15:30Z");
 
     // ---------- ObjectStat (mock) ----------
     public static final ObjectStat objectStat_withEtag_andContentType = ObjectStat.builder()
             .etag(ETAG_VALUE)
             .contentType(MIME_PDF)
             .size(CONTENT_SIZE)
+            .checksumCrc32c(CONTENT_CRC32C)
+            .build();
+
+    public static final ObjectStat objectStat_withEtag_withoutContentType = ObjectStat.builder()
+            .etag(ETAG_VALUE)
+            .size(CONTENT_SIZE)
             .build();
 
     // ---------- DTOs input (mock per content & metadata) ----------
@@ -54,6 +86,59 @@ public class DocumentServiceTestData {
             .size(CONTENT_SIZE)
             .build();
 
+    public static final DocumentCreateContentDto content_unknownSize_fromStreamingClient = DocumentCreateContentDto.builder()
+            .source(() -> new ByteArrayInputStream(CONTENT_BYTES))
+            .originalFilename(DOC_TITLE_NON_BLANK)
+            .build();
+
+    // ---------- Compression ----------
+    public static final String MIME_CSV = "text/csv";
+    public static final String CODEC_DEFLATE = "deflate";
+    public static final byte[] CSV_BYTES = "id;title;tags\n1;report;finance\n".repeat(64).getBytes(StandardCharsets.UTF_8);
+    public static final byte[] CSV_DEFLATED = deflate(CSV_BYTES);
+
+    public static final DocumentCreateMetadataDto metadata_csv_fromClient = DocumentCreateMetadataDto.builder()
+            .mimeType(MIME_CSV)
+            .build();
+    public static final DocumentCreateContentDto content_csv_fromClient = DocumentCreateContentDto.builder()
+            .source(new ByteArrayResource(CSV_BYTES))
+            .size((long) CSV_BYTES.length)
+            .build();
+
+    public static final ObjectStat objectStat_deflatedCsv = ObjectStat.builder()
+            .etag(ETAG_VALUE)
+            .contentType(MIME_CSV)
+            .size(CSV_DEFLATED.length)
+            .build();
+
+    public static final DocumentEntity doc_compressed_fromRepository = DocumentEntity.builder()
+            .id(VALID_EXISTENT_DOC_ID)
+            .ownerUid(VALID_OWNER_UID)
+            .bucket(DOC_BUCKET)
+            .objectKey(DOC_OBJECT_KEY)
+            .title("export.csv")
+            .mimeType(MIME_CSV)
+            .contentEncoding(CODEC_DEFLATE)
+            .size((long) CSV_BYTES.length)
+            .etag(ETAG_VALUE)
+            .build();
+
+    public static byte[] deflate(byte[] raw) {
+        try (InputStream deflated = new DeflaterInputStream(new ByteArrayInputStream(raw))) {
+            return deflated.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] inflate(byte[] deflated) {
+        try (InputStream inflated = new InflaterInputStream(new ByteArrayInputStream(deflated))) {
+            return inflated.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     // ---------- Update DTO ----------
     public static final DocumentUpdateDto docUpdate_valid_fromClient = DocumentUpdateDto.builder()
             .title("Updated Title")
@@ -61,6 +146,22 @@ public class DocumentServiceTestData {
             .version(7L)
             .build();
 
+    public static final DocumentPatchDto docPatch_titleOnly_fromClient = DocumentPatchDto.builder()
+            .title(Optional.of("Updated Title"))
+            .version(7L)
+            .build();
+
+    public static final DocumentPatchDto docPatch_tagsRemoved_fromClient = DocumentPatchDto.builder()
+            .tags(Optional.empty())
+            .version(7L)
+            .build();
+
+    public static final String CATEGORY_CODE_ARCHIVED = "ARCHIVED";
+    public static final DocumentCheckinDto checkin_valid_fromClient = DocumentCheckinDto.builder()
+            .categoryCode(CATEGORY_CODE_ARCHIVED)
+            .version(1L)
+            .build();
+
     // ---------- Entities ----------
     public static final DocumentEntity doc_existing_fromRepository = DocumentEntity.builder()
             .id(VALID_EXISTENT_DOC_ID)
@@ -77,6 +178,69 @@ public class DocumentServiceTestData {
             .title(DOC_TITLE_NON_BLANK)
             .mimeType(MIME_PDF)
             .size(CONTENT_SIZE)
+            .etag(ETAG_VALUE)
+            .build();
+
+    public static final DocumentEntity doc_withPreview_fromRepository = DocumentEntity.builder()
+            .id(VALID_EXISTENT_DOC_ID)
+            .ownerUid(VALID_OWNER_UID)
+            .bucket(DOC_BUCKET)
+            .objectKey(DOC_OBJECT_KEY)
+            .title(DOC_TITLE_NON_BLANK)
+            .mimeType(MIME_PNG)
+            .size(CONTENT_SIZE)
+            .etag(ETAG_VALUE)
+            .previewObjectKey(DOC_PREVIEW_OBJECT_KEY)
+            .previewStatus("ready")
+            .build();
+
+    public static DocumentEntity doc_withChecksum_fromRepository(String checksumCrc32c) {
+        return DocumentEntity.builder()
+                .id(VALID_EXISTENT_DOC_ID)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(DOC_BUCKET)
+                .objectKey(DOC_OBJECT_KEY)
+                .title(DOC_TITLE_NON_BLANK)
+                .mimeType(MIME_PDF)
+                .size(CONTENT_SIZE)
+                .checksumCrc32c(checksumCrc32c)
+                .etag(ETAG_VALUE)
+                .build();
+    }
+
+    public static final Instant DOC_UPDATED_AT = Instant.parse("2025-03-01T10:15:30Z");
+    public static final String IF_RANGE_MATCHING_ETAG = "\"" + ETAG_VALUE + "\"";
+    public static final String IF_RANGE_STALE_ETAG = "\"etag-stale\"";
+    public static final String IF_RANGE_MATCHING_DATE = "Sat, 01 Mar 2025 10:15:30 GMT";
+
+    public static final DocumentEntity doc_withEtag_fromRepository = DocumentEntity.builder()
+            .id(VALID_EXISTENT_DOC_ID)
+            .ownerUid(VALID_OWNER_UID)
+            .bucket(DOC_BUCKET)
+            .objectKey(DOC_OBJECT_KEY)
+            .title(DOC_TITLE_NON_BLANK)
+            .mimeType(MIME_PDF)
+            .size(CONTENT_SIZE)
+            .etag(ETAG_VALUE)
+            .updatedAt(DOC_UPDATED_AT)
+            .build();
+
+    public static final String CONTENT_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    public static final String SHARED_OBJECT_KEY = "obj-shared";
+    public static final String SHARED_ETAG_VALUE = "etag-shared";
+
+    public static final DocumentContentEntity sharedContent_fromRegistry = new DocumentContentEntity(
+            CONTENT_HASH, DEFAULT_BUCKET_FOR_TESTS, SHARED_OBJECT_KEY, SHARED_ETAG_VALUE, null, null, CONTENT_SIZE, 2L, Instant.now());
+
+    public static final DocumentEntity doc_withSharedContent_fromRepository = DocumentEntity.builder()
+            .id(VALID_EXISTENT_DOC_ID)
+            .ownerUid(VALID_OWNER_UID)
+            .bucket(DOC_BUCKET)
+            .objectKey(SHARED_OBJECT_KEY)
+            .contentHash(CONTENT_HASH)
+            .title(DOC_TITLE_NON_BLANK)
+            .mimeType(MIME_PDF)
+            .size(CONTENT_SIZE)
             .build();
 
     // Doc senza mimeType e senza title -> per fallback nel download
@@ -85,6 +249,7 @@ public class DocumentServiceTestData {
             .ownerUid(VALID_OWNER_UID)
             .bucket(DOC_BUCKET)
             .objectKey(DOC_OBJECT_KEY)
+            .etag(ETAG_VALUE)
             .build();
 
     public static final DocumentEntity doc_saved_afterUpdate = DocumentEntity.builder()
@@ -112,6 +277,33 @@ public class DocumentServiceTestData {
             .objectKey("key-2")
             .build();
 
+    /**
+     * Document as check-in finds it, before its first check-in; a new instance each time since check-in updates it.
+     */
+    public static DocumentEntity doc_beforeCheckin_fromRepository() {
+        return DocumentEntity.builder()
+                .id(VALID_EXISTENT_DOC_ID)
+                .ownerUid(VALID_OWNER_UID)
+                .title("Existing")
+                .version(1L)
+                .build();
+    }
+
+    /**
+     * Documents as the owner listing sorted by createdAt, newest first, returns them.
+     */
+    public static List<DocumentEntity> docs_listedNewestFirst(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> DocumentEntity.builder()
+                        .id(new ObjectId().toHexString())
+                        .ownerUid(VALID_OWNER_UID)
+                        .title("Doc " + i)
+                        .createdAt(LISTED_CREATED_AT.minusSeconds(i))
+                        .updatedAt(LISTED_CREATED_AT.minusSeconds(i))
+                        .build())
+                .toList();
+    }
+
     // ---------- Read DTOs ----------
     public static final DocumentReadDto documentReadDto_expected_fromSavedEntity = DocumentReadDto.builder()
             .id(VALID_DOC_ID)
@@ -128,6 +320,16 @@ public class DocumentServiceTestData {
             .title(doc_instance2_fromRepository.getTitle())
             .build();
 
+    public static final DocumentSummaryReadDto summary_instance1_mapped = DocumentSummaryReadDto.builder()
+            .id(doc_instance1_fromRepository.getId())
+            .title(doc_instance1_fromRepository.getTitle())
+            .build();
+
+    public static final DocumentSummaryReadDto summary_instance2_mapped = DocumentSummaryReadDto.builder()
+            .id(doc_instance2_fromRepository.getId())
+            .title(doc_instance2_fromRepository.getTitle())
+            .build();
+
     public static final DocumentReadDto docView_expected_fromFound = DocumentReadDto.builder()
             .id(VALID_EXISTENT_DOC_ID)
             .title("Existing View")
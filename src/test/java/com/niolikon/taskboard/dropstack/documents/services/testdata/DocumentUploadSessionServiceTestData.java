@@ -0,0 +1,122 @@
+package com.niolikon.taskboard.dropstack.documents.services.testdata;
+
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentCreateMetadataDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentReadDto;
+import com.niolikon.taskboard.dropstack.documents.dto.DocumentUploadSessionCreateDto;
+import com.niolikon.taskboard.dropstack.documents.model.DocumentUploadSessionEntity;
+import com.niolikon.taskboard.dropstack.storage.checksum.Crc32cChecksums;
+import org.bson.types.ObjectId;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DocumentUploadSessionServiceTestData {
+
+    public static final String VALID_OWNER_UID = "user-abc";
+    public static final String SESSION_ID = new ObjectId().toHexString();
+    public static final String DEFAULT_BUCKET_FOR_TESTS = "bucket-test";
+    public static final String OBJECT_KEY = "obj-session";
+    public static final String UPLOAD_ID = "upload-123";
+    public static final String FAILING_UPLOAD_ID = "upload-failing";
+    public static final String PART_ETAG = "etag-part";
+    public static final String OBJECT_ETAG = "etag-object-3";
+    public static final String MIME_PDF = "application/pdf";
+    public static final String DOC_TITLE = "big-file.pdf";
+
+    public static final DataSize DEFAULT_CHUNK_SIZE = DataSize.ofMegabytes(5);
+    public static final DataSize MAX_CHUNK_SIZE = DataSize.ofMegabytes(64);
+    public static final DataSize MAX_SIZE = DataSize.ofGigabytes(1);
+    public static final Duration TIME_TO_LIVE = Duration.ofHours(24);
+
+    public static final long LAST_CHUNK_SIZE = 1024L;
+    public static final long UPLOAD_SIZE = 2 * DEFAULT_CHUNK_SIZE.toBytes() + LAST_CHUNK_SIZE;
+
+    public static final DocumentCreateMetadataDto metadata_valid_fromClient = DocumentCreateMetadataDto.builder()
+            .title(DOC_TITLE)
+            .mimeType(MIME_PDF)
+            .tags(List.of("t1"))
+            .build();
+
+    public static final DocumentUploadSessionCreateDto sessionCreate_valid_fromClient = DocumentUploadSessionCreateDto.builder()
+            .metadata(metadata_valid_fromClient)
+            .size(UPLOAD_SIZE)
+            .build();
+
+    public static final DocumentUploadSessionCreateDto sessionCreate_tinyChunks_fromClient = DocumentUploadSessionCreateDto.builder()
+            .metadata(metadata_valid_fromClient)
+            .size(UPLOAD_SIZE)
+            .chunkSize(1024L)
+            .build();
+
+    public static final DocumentReadDto docView_expected_fromComplete = DocumentReadDto.builder()
+            .id(new ObjectId().toHexString())
+            .title(DOC_TITLE)
+            .mimeType(MIME_PDF)
+            .size(UPLOAD_SIZE)
+            .build();
+
+    // Sessions are mutable entities: built per test so that changes do not leak between tests
+    public static DocumentUploadSessionEntity session_open_withFirstChunk() {
+        return session(Instant.now().plus(TIME_TO_LIVE), Map.of("1", PART_ETAG));
+    }
+
+    public static DocumentUploadSessionEntity session_open_withAllChunks() {
+        return session(Instant.now().plus(TIME_TO_LIVE), Map.of("1", PART_ETAG, "2", PART_ETAG, "3", PART_ETAG));
+    }
+
+    /**
+     * Every chunk received with the CRC32C of {@link #content_ofAllChunks()}'s slice, as recorded while it streamed through.
+     */
+    public static DocumentUploadSessionEntity session_open_withAllChunksChecksummed() {
+        DocumentUploadSessionEntity session = session_open_withAllChunks();
+        byte[] content = content_ofAllChunks();
+        int chunkSize = (int) DEFAULT_CHUNK_SIZE.toBytes();
+        Map<String, String> chunkChecksums = new HashMap<>();
+        for (int chunk = 0; chunk < 3; chunk++) {
+            int offset = chunk * chunkSize;
+            chunkChecksums.put(String.valueOf(chunk + 1), Crc32cChecksums.of(content, offset, Math.min(chunkSize, content.length - offset)));
+        }
+        session.setChunkChecksums(chunkChecksums);
+        return session;
+    }
+
+    public static byte[] content_ofAllChunks() {
+        byte[] content = new byte[(int) UPLOAD_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31 + (i >> 11));
+        }
+        return content;
+    }
+
+    public static byte[] content_ofLastChunk() {
+        return Arrays.copyOfRange(content_ofAllChunks(), (int) (UPLOAD_SIZE - LAST_CHUNK_SIZE), (int) UPLOAD_SIZE);
+    }
+
+    public static DocumentUploadSessionEntity session_expired() {
+        return session(Instant.now().minus(TIME_TO_LIVE), Map.of());
+    }
+
+    private static DocumentUploadSessionEntity session(Instant expiresAt, Map<String, String> chunkETags) {
+        return DocumentUploadSessionEntity.builder()
+                .id(SESSION_ID)
+                .ownerUid(VALID_OWNER_UID)
+                .bucket(DEFAULT_BUCKET_FOR_TESTS)
+                .objectKey(OBJECT_KEY)
+                .uploadId(UPLOAD_ID)
+                .title(DOC_TITLE)
+                .mimeType(MIME_PDF)
+                .tags(List.of("t1"))
+                .size(UPLOAD_SIZE)
+                .chunkSize(DEFAULT_CHUNK_SIZE.toBytes())
+                .chunkCount(3)
+                .chunkETags(new HashMap<>(chunkETags))
+                .createdAt(expiresAt.minus(TIME_TO_LIVE))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.niolikon.taskboard.dropstack.storage.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.util.Arrays;
+
+import static com.niolikon.taskboard.dropstack.storage.compression.testdata.InflatingPublisherTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InflatingPublisherCoreUnitTest {
+
+    @Test
+    void givenWholeDeflateStreamInChunks_whenSubscribed_thenInflatesTheContent_andCompletes() {
+        // Arrange
+        byte[] deflated = deflated(CONTENT_BYTES);
+        ManualPublisher upstream = new ManualPublisher();
+        RecordingSubscriber downstream = new RecordingSubscriber();
+        new InflatingPublisher(upstream).subscribe(downstream);
+
+        // Act
+        upstream.next(Arrays.copyOfRange(deflated, 0, deflated.length / 2));
+        upstream.next(Arrays.copyOfRange(deflated, deflated.length / 2, deflated.length));
+        upstream.complete();
+
+        // Assert
+        assertThat(downstream.getReceived()).isEqualTo(CONTENT_BYTES);
+        assertThat(downstream.isCompleted()).isTrue();
+        assertThat(downstream.getError()).isNull();
+    }
+
+    @Test
+    void givenUpstreamEndingMidStream_whenCompleted_thenFailsWithEOFException_insteadOfCompleting() {
+        // Arrange
+        byte[] deflated = deflated(CONTENT_BYTES);
+        ManualPublisher upstream = new ManualPublisher();
+        RecordingSubscriber downstream = new RecordingSubscriber();
+        new InflatingPublisher(upstream).subscribe(downstream);
+
+        // Act
+        upstream.next(Arrays.copyOfRange(deflated, 0, deflated.length - 4));
+        upstream.complete();
+
+        // Assert
+        assertThat(downstream.isCompleted()).isFalse();
+        assertThat(downstream.getError()).isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void givenCancelledSubscription_whenMoreChunksArrive_thenCancelsUpstream_andInflatesNothingMore() {
+        // Arrange
+        byte[] deflated = deflated(CONTENT_BYTES);
+        ManualPublisher upstream = new ManualPublisher();
+        RecordingSubscriber downstream = new RecordingSubscriber();
+        new InflatingPublisher(upstream).subscribe(downstream);
+
+        // Act
+        downstream.cancel();
+        upstream.next(deflated);
+        upstream.complete();
+
+        // Assert
+        assertThat(upstream.isCancelled()).isTrue();
+        assertThat(downstream.getReceived()).isEmpty();
+        assertThat(downstream.isCompleted()).isFalse();
+        assertThat(downstream.getError()).isNull();
+    }
+}
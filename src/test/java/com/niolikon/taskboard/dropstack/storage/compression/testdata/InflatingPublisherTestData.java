@@ -0,0 +1,110 @@
+package com.niolikon.taskboard.dropstack.storage.compression.testdata;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+public class InflatingPublisherTestData {
+
+    public static final byte[] CONTENT_BYTES = "content inflated chunk by chunk, content inflated chunk by chunk"
+            .getBytes(StandardCharsets.UTF_8);
+
+    public static byte[] deflated(byte[] content) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(content);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] window = new byte[64];
+        while (!deflater.finished()) {
+            out.write(window, 0, deflater.deflate(window));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /**
+     * Upstream driven by the test: signals are pushed by hand, whatever the demand.
+     */
+    public static class ManualPublisher implements Publisher<ByteBuffer> {
+        private Subscriber<? super ByteBuffer> subscriber;
+        private boolean cancelled;
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+        public void next(byte[] chunk) {
+            subscriber.onNext(ByteBuffer.wrap(chunk));
+        }
+
+        public void complete() {
+            subscriber.onComplete();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    public static class RecordingSubscriber implements Subscriber<ByteBuffer> {
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer chunk) {
+            byte[] next = new byte[chunk.remaining()];
+            chunk.get(next);
+            received.writeBytes(next);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        public void cancel() {
+            subscription.cancel();
+        }
+
+        public byte[] getReceived() {
+            return received.toByteArray();
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static com.niolikon.taskboard.dropstack.storage.services.testdata.CachingS3StorageServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingS3StorageServiceCoreUnitTest {
+
+    @Mock
+    private S3StorageService storage;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private MeterRegistry meterRegistry;
+    private CachingS3StorageService cachingStorage;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingStorage = new CachingS3StorageService(storage, meterRegistry,
+                false, HEAP_MAX_SIZE, HEAP_MAX_OBJECT_SIZE,
+                true, cacheDirectory.toString(), MAX_SIZE, MAX_OBJECT_SIZE);
+    }
+
+    @Test
+    void givenObjectNotCached_whenDownloadTwice_thenSecondReadIsServedFromDisk() throws IOException {
+        // Arrange
+        when(storage.download(BUCKET, OBJECT_KEY)).thenReturn(objectContent_fromStorage(ETAG));
+
+        // Act
+        byte[] first = readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+        ObjectContent second = cachingStorage.download(BUCKET, OBJECT_KEY, ETAG);
+
+        // Assert
+        assertThat(first).isEqualTo(CONTENT_BYTES);
+        assertThat(second.getStat().getEtag()).isEqualTo(ETAG);
+        assertThat(second.getStat().getContentType()).isEqualTo(MIME_PDF);
+        assertThat(transferAll(second)).isEqualTo(CONTENT_BYTES);
+        verify(storage, times(1)).download(BUCKET, OBJECT_KEY);
+        assertThat(meterRegistry.get(CachingS3StorageService.METRIC_REQUESTS)
+                .tag("tier", CachingS3StorageService.TIER_DISK).tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get(CachingS3StorageService.METRIC_SIZE)
+                .tag("tier", CachingS3StorageService.TIER_DISK).gauge().value()).isEqualTo((double) CONTENT_SIZE);
+    }
+
+    @Test
+    void givenCachedObject_whenDownloadExpectingOtherEtag_thenFetchesFromStorage() throws IOException {
+        // Arrange
+        when(storage.download(BUCKET, OBJECT_KEY))
+                .thenReturn(objectContent_fromStorage(ETAG), objectContent_fromStorage(OTHER_ETAG));
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Act
+        ObjectContent result = cachingStorage.download(BUCKET, OBJECT_KEY, OTHER_ETAG);
+
+        // Assert
+        assertThat(result.getStat().getEtag()).isEqualTo(OTHER_ETAG);
+        verify(storage, times(2)).download(BUCKET, OBJECT_KEY);
+    }
+
+    @Test
+    void givenCachedObject_whenDelete_thenNextDownloadFetchesFromStorage() throws IOException {
+        // Arrange
+        when(storage.download(BUCKET, OBJECT_KEY))
+                .thenReturn(objectContent_fromStorage(ETAG), objectContent_fromStorage(ETAG));
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Act
+        cachingStorage.delete(BUCKET, OBJECT_KEY);
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Assert
+        verify(storage).delete(BUCKET, OBJECT_KEY);
+        verify(storage, times(2)).download(BUCKET, OBJECT_KEY);
+    }
+
+    @Test
+    void givenDownloadClosedBeforeTheEnd_whenDownloadAgain_thenNothingWasCached() throws IOException {
+        // Arrange
+        when(storage.download(BUCKET, OBJECT_KEY))
+                .thenReturn(objectContent_fromStorage(ETAG), objectContent_fromStorage(ETAG));
+        try (InputStream partial = cachingStorage.download(BUCKET, OBJECT_KEY, ETAG).getStream()) {
+            partial.readNBytes(3);
+        }
+
+        // Act
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Assert
+        verify(storage, times(2)).download(BUCKET, OBJECT_KEY);
+    }
+
+    @Test
+    void givenBudgetExceeded_whenFilling_thenLeastRecentlyReadObjectIsEvicted() throws IOException {
+        // Arrange
+        when(storage.download(BUCKET, OBJECT_KEY))
+                .thenReturn(objectContent_fromStorage(ETAG), objectContent_fromStorage(ETAG));
+        when(storage.download(BUCKET, OTHER_OBJECT_KEY)).thenReturn(objectContent_fromStorage(ETAG));
+        when(storage.download(BUCKET, THIRD_OBJECT_KEY)).thenReturn(objectContent_fromStorage(ETAG));
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+        readAll(cachingStorage.download(BUCKET, OTHER_OBJECT_KEY, ETAG));
+        readAll(cachingStorage.download(BUCKET, OTHER_OBJECT_KEY, ETAG));
+
+        // Act
+        readAll(cachingStorage.download(BUCKET, THIRD_OBJECT_KEY, ETAG));
+        readAll(cachingStorage.download(BUCKET, OTHER_OBJECT_KEY, ETAG));
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Assert
+        verify(storage, times(1)).download(BUCKET, OTHER_OBJECT_KEY);
+        verify(storage, times(2)).download(BUCKET, OBJECT_KEY);
+    }
+
+    @Test
+    void givenNoExpectedEtag_whenDownload_thenBypassesCache() throws IOException {
+        // Arrange
+        when(storage.download(BUCKET, OBJECT_KEY))
+                .thenReturn(objectContent_fromStorage(ETAG), objectContent_fromStorage(ETAG));
+
+        // Act
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, null));
+        readAll(cachingStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Assert
+        verify(storage, times(2)).download(BUCKET, OBJECT_KEY);
+    }
+
+    @Test
+    void givenSmallObject_whenDownloadTwice_withHeapTier_thenSecondReadIsServedFromHeap() throws IOException {
+        // Arrange
+        CachingS3StorageService heapStorage = new CachingS3StorageService(storage, meterRegistry,
+                true, HEAP_MAX_SIZE, HEAP_MAX_OBJECT_SIZE,
+                false, cacheDirectory.toString(), MAX_SIZE, MAX_OBJECT_SIZE);
+        when(storage.download(BUCKET, OBJECT_KEY)).thenReturn(objectContent_fromStorage(ETAG));
+
+        // Act
+        byte[] first = readAll(heapStorage.download(BUCKET, OBJECT_KEY, ETAG));
+        byte[] second = readAll(heapStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Assert
+        assertThat(first).isEqualTo(CONTENT_BYTES);
+        assertThat(second).isEqualTo(CONTENT_BYTES);
+        verify(storage, times(1)).download(BUCKET, OBJECT_KEY);
+        assertThat(meterRegistry.get(CachingS3StorageService.METRIC_REQUESTS)
+                .tag("tier", CachingS3StorageService.TIER_HEAP).tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get(CachingS3StorageService.METRIC_REQUESTS)
+                .tag("tier", CachingS3StorageService.TIER_HEAP).tag("result", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void givenSmallObjectOnHeap_whenDelete_thenNextDownloadFetchesFromStorage() throws IOException {
+        // Arrange
+        CachingS3StorageService heapStorage = new CachingS3StorageService(storage, meterRegistry,
+                true, HEAP_MAX_SIZE, HEAP_MAX_OBJECT_SIZE,
+                false, cacheDirectory.toString(), MAX_SIZE, MAX_OBJECT_SIZE);
+        when(storage.download(BUCKET, OBJECT_KEY))
+                .thenReturn(objectContent_fromStorage(ETAG), objectContent_fromStorage(ETAG));
+        readAll(heapStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Act
+        heapStorage.delete(BUCKET, OBJECT_KEY);
+        readAll(heapStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Assert
+        verify(storage, times(2)).download(BUCKET, OBJECT_KEY);
+        assertThat(meterRegistry.get(CachingS3StorageService.METRIC_SIZE)
+                .tag("tier", CachingS3StorageService.TIER_HEAP).gauge().value()).isEqualTo((double) CONTENT_SIZE);
+    }
+
+    @Test
+    void givenObjectOverHeapLimit_whenDownload_thenDiskTierKeepsIt() throws IOException {
+        // Arrange
+        CachingS3StorageService tieredStorage = new CachingS3StorageService(storage, meterRegistry,
+                true, HEAP_MAX_SIZE, HEAP_MAX_OBJECT_SIZE_BELOW_CONTENT,
+                true, cacheDirectory.toString(), MAX_SIZE, MAX_OBJECT_SIZE);
+        when(storage.download(BUCKET, OBJECT_KEY)).thenReturn(objectContent_fromStorage(ETAG));
+
+        // Act
+        readAll(tieredStorage.download(BUCKET, OBJECT_KEY, ETAG));
+        readAll(tieredStorage.download(BUCKET, OBJECT_KEY, ETAG));
+
+        // Assert
+        verify(storage, times(1)).download(BUCKET, OBJECT_KEY);
+        assertThat(meterRegistry.get(CachingS3StorageService.METRIC_REQUESTS)
+                .tag("tier", CachingS3StorageService.TIER_DISK).tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get(CachingS3StorageService.METRIC_SIZE)
+                .tag("tier", CachingS3StorageService.TIER_HEAP).gauge().value()).isZero();
+    }
+
+    private static byte[] readAll(ObjectContent content) throws IOException {
+        try (InputStream in = content.getStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] transferAll(ObjectContent content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = content.getStream()) {
+            in.transferTo(out);
+        }
+        return out.toByteArray();
+    }
+}
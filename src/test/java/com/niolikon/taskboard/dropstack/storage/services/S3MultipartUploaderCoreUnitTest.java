@@ -0,0 +1,140 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.storage.exceptions.StorageException;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.niolikon.taskboard.dropstack.storage.services.testdata.S3MultipartUploaderTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3MultipartUploaderCoreUnitTest {
+
+    @Mock
+    private S3Client s3;
+
+    private ExecutorService executor;
+    private S3MultipartUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(EXECUTOR_THREADS);
+        uploader = new S3MultipartUploader(s3, executor, PART_SIZE, PARALLELISM, PART_ATTEMPTS);
+        when(s3.createMultipartUpload(any(CreateMultipartUploadRequest.class))).thenReturn(created_upload);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenPartFailingOnce_whenUpload_thenPartIsRetriedAfterBackoff_andUploadCompletes() {
+        // Arrange
+        List<Long> partTwoAttemptsAt = new ArrayList<>();
+        when(s3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            UploadPartRequest partReq = inv.getArgument(0);
+            if (partReq.partNumber() == 2) {
+                synchronized (partTwoAttemptsAt) {
+                    partTwoAttemptsAt.add(System.nanoTime());
+                    if (partTwoAttemptsAt.size() == 1) {
+                        throw SdkClientException.create("connection reset");
+                    }
+                }
+            }
+            return partUploaded(partReq);
+        });
+        when(s3.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenReturn(completed_upload);
+
+        // Act
+        ObjectStat stat = uploader.upload(BUCKET, OBJECT_KEY, content_ofParts(2), MIME_PDF);
+
+        // Assert
+        assertThat(stat.getSize()).isEqualTo(2 * PART_SIZE + 1);
+        assertThat(stat.getEtag()).isEqualTo(ETAG);
+        assertThat(partTwoAttemptsAt).hasSize(2);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(partTwoAttemptsAt.get(1) - partTwoAttemptsAt.get(0)))
+                .isGreaterThanOrEqualTo(S3MultipartUploader.RETRY_BACKOFF_MILLIS);
+        verify(s3, times(4)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeCap = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3).completeMultipartUpload(completeCap.capture());
+        assertThat(completeCap.getValue().multipartUpload().parts())
+                .extracting(CompletedPart::partNumber)
+                .containsExactly(1, 2, 3);
+        verify(s3, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void givenPartFailingOnEveryAttempt_whenUpload_thenAbortsTheUpload_andThrowsStorageException() {
+        // Arrange
+        when(s3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            UploadPartRequest partReq = inv.getArgument(0);
+            if (partReq.partNumber() == 1) {
+                throw SdkClientException.create("connection reset");
+            }
+            return partUploaded(partReq);
+        });
+
+        // Act & Assert
+        assertThatThrownBy(() -> uploader.upload(BUCKET, OBJECT_KEY, content_ofParts(1), MIME_PDF))
+                .isInstanceOf(StorageException.class)
+                .hasCauseInstanceOf(SdkClientException.class);
+
+        verify(s3, times(PART_ATTEMPTS)).uploadPart(argThat((UploadPartRequest partReq) -> partReq.partNumber() == 1),
+                any(RequestBody.class));
+        ArgumentCaptor<AbortMultipartUploadRequest> abortCap = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(s3).abortMultipartUpload(abortCap.capture());
+        assertThat(abortCap.getValue().uploadId()).isEqualTo(UPLOAD_ID);
+        verify(s3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void givenSlowParts_whenUpload_thenNoMorePartsThanParallelismAreInFlight() {
+        // Arrange
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(s3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(inv -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                return partUploaded(inv.getArgument(0));
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        when(s3.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenReturn(completed_upload);
+
+        // Act
+        ObjectStat stat = uploader.upload(BUCKET, OBJECT_KEY, content_ofParts(5), MIME_PDF);
+
+        // Assert
+        assertThat(stat.getSize()).isEqualTo(5 * PART_SIZE + 1);
+        verify(s3, times(6)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        assertThat(maxInFlight.get()).isEqualTo(PARALLELISM);
+    }
+}
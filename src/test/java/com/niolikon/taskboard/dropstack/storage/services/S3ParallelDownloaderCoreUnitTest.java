@@ -0,0 +1,140 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.niolikon.taskboard.dropstack.storage.services.testdata.S3ParallelDownloaderTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3ParallelDownloaderCoreUnitTest {
+
+    @Mock
+    private S3Client s3;
+
+    private ExecutorService executor;
+    private S3ParallelDownloader downloader;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(PARALLELISM);
+        downloader = new S3ParallelDownloader(s3, executor, THRESHOLD, PART_SIZE, PARALLELISM, PART_ATTEMPTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenObjectBelowThreshold_whenDownload_thenSingleRequestReturnsWholeObject() throws IOException {
+        // Arrange
+        when(s3.getObject(any(GetObjectRequest.class))).thenAnswer(inv -> rangeOf(SMALL_CONTENT, inv.getArgument(0)));
+
+        // Act
+        ObjectContent content = downloader.download(BUCKET, OBJECT_KEY);
+
+        // Assert
+        assertThat(content.getStat().getSize()).isEqualTo(SMALL_CONTENT.length);
+        assertThat(content.getStat().getEtag()).isEqualTo(ETAG);
+        assertThat(readAll(content)).isEqualTo(SMALL_CONTENT);
+        verify(s3, times(1)).getObject(any(GetObjectRequest.class));
+    }
+
+    @Test
+    void givenObjectAboveThreshold_whenDownload_thenRangesAreReassembledInOrder() throws IOException {
+        // Arrange
+        when(s3.getObject(any(GetObjectRequest.class))).thenAnswer(inv -> rangeOf(LARGE_CONTENT, inv.getArgument(0)));
+
+        // Act
+        ObjectContent content = downloader.download(BUCKET, OBJECT_KEY);
+
+        // Assert
+        assertThat(content.getStat().getSize()).isEqualTo(LARGE_CONTENT.length);
+        assertThat(readAll(content)).isEqualTo(LARGE_CONTENT);
+
+        ArgumentCaptor<GetObjectRequest> getCap = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3, times(7)).getObject(getCap.capture());
+        List<GetObjectRequest> ranged = getCap.getAllValues().subList(1, 7);
+        assertThat(ranged).extracting(GetObjectRequest::range).containsExactlyInAnyOrder(
+                "bytes=10-13", "bytes=14-17", "bytes=18-21", "bytes=22-25", "bytes=26-29", "bytes=30-30");
+        assertThat(ranged).extracting(GetObjectRequest::ifMatch).containsOnly(ETAG);
+    }
+
+    @Test
+    void givenUnreadDownload_whenWaiting_thenOnlyTheReadAheadWindowIsRequested() throws IOException {
+        // Arrange
+        when(s3.getObject(any(GetObjectRequest.class))).thenAnswer(inv -> rangeOf(LARGE_CONTENT, inv.getArgument(0)));
+
+        // Act
+        ObjectContent content = downloader.download(BUCKET, OBJECT_KEY);
+
+        // Assert
+        verify(s3, after(200).times(1 + PARALLELISM)).getObject(any(GetObjectRequest.class));
+        content.getStream().close();
+    }
+
+    @Test
+    void givenRangeFailingOnce_whenDownload_thenRangeIsRetried() throws IOException {
+        // Arrange
+        AtomicBoolean failed = new AtomicBoolean();
+        when(s3.getObject(any(GetObjectRequest.class))).thenAnswer(inv -> {
+            GetObjectRequest getReq = inv.getArgument(0);
+            if ("bytes=14-17".equals(getReq.range()) && failed.compareAndSet(false, true)) {
+                throw SdkClientException.create("connection reset");
+            }
+            return rangeOf(LARGE_CONTENT, getReq);
+        });
+
+        // Act
+        ObjectContent content = downloader.download(BUCKET, OBJECT_KEY);
+
+        // Assert
+        assertThat(readAll(content)).isEqualTo(LARGE_CONTENT);
+        verify(s3, times(8)).getObject(any(GetObjectRequest.class));
+    }
+
+    @Test
+    void givenObjectReplacedMidDownload_whenReading_thenReadFails() {
+        // Arrange
+        when(s3.getObject(any(GetObjectRequest.class))).thenAnswer(inv -> {
+            GetObjectRequest getReq = inv.getArgument(0);
+            if (getReq.ifMatch() != null) {
+                throw S3Exception.builder().statusCode(412).message("Precondition Failed").build();
+            }
+            return rangeOf(LARGE_CONTENT, getReq);
+        });
+
+        // Act
+        ObjectContent content = downloader.download(BUCKET, OBJECT_KEY);
+
+        // Assert
+        assertThatThrownBy(() -> readAll(content)).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] readAll(ObjectContent content) throws IOException {
+        try (InputStream in = content.getStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.niolikon.taskboard.dropstack.storage.services;
+
+import com.niolikon.taskboard.dropstack.config.TaskThreads;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import com.niolikon.taskboard.dropstack.storage.transfer.StreamTransfer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.niolikon.taskboard.dropstack.storage.services.testdata.S3StorageServiceTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3StorageServiceCoreUnitTest {
+
+    @Mock
+    private S3Client s3;
+    @Mock
+    private S3Presigner presigner;
+
+    private S3StorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        StreamTransfer streamTransfer = new StreamTransfer(new SimpleMeterRegistry(), TRANSFER_BUFFER_SIZE, TRANSFER_MAX_POOLED_BUFFERS);
+        storageService = new S3StorageService(s3, presigner, streamTransfer, new TaskThreads(new MockEnvironment()),
+                PART_SIZE, MULTIPART_THRESHOLD, PARALLELISM, PART_ATTEMPTS, THREADS,
+                MULTIPART_THRESHOLD, PART_SIZE, 1, THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+    }
+
+    @Test
+    void givenSmallContentOfUnknownSize_whenUpload_thenPutsItInOneRequest() throws IOException {
+        // Arrange
+        ArgumentCaptor<RequestBody> bodyCap = ArgumentCaptor.forClass(RequestBody.class);
+        ArgumentCaptor<PutObjectRequest> putCap = ArgumentCaptor.forClass(PutObjectRequest.class);
+        when(s3.putObject(putCap.capture(), bodyCap.capture())).thenReturn(PutObjectResponse.builder().eTag(ETAG).build());
+
+        // Act
+        ObjectStat stat = storageService.upload(BUCKET, OBJECT_KEY, new ByteArrayInputStream(SMALL_CONTENT), CONTENT_TYPE);
+
+        // Assert
+        assertThat(stat.getSize()).isEqualTo(SMALL_CONTENT.length);
+        assertThat(stat.getEtag()).isEqualTo(ETAG);
+        assertThat(putCap.getValue().contentLength()).isEqualTo(SMALL_CONTENT.length);
+        assertThat(contentOf(bodyCap.getValue())).isEqualTo(SMALL_CONTENT);
+        verify(s3, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void givenContentLargerThanFirstReadOfUnknownSize_whenUpload_thenGrowsBufferAndStillPutsItInOneRequest() throws IOException {
+        // Arrange
+        ArgumentCaptor<RequestBody> bodyCap = ArgumentCaptor.forClass(RequestBody.class);
+        when(s3.putObject(any(PutObjectRequest.class), bodyCap.capture())).thenReturn(PutObjectResponse.builder().eTag(ETAG).build());
+
+        // Act
+        ObjectStat stat = storageService.upload(BUCKET, OBJECT_KEY, new ByteArrayInputStream(GROWING_CONTENT), CONTENT_TYPE);
+
+        // Assert
+        assertThat(GROWING_CONTENT.length).isGreaterThan(S3StorageService.FIRST_READ_SIZE);
+        assertThat(stat.getSize()).isEqualTo(GROWING_CONTENT.length);
+        assertThat(contentOf(bodyCap.getValue())).isEqualTo(GROWING_CONTENT);
+        verify(s3, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void givenContentOfAtLeastOnePartOfUnknownSize_whenUpload_thenUploadsItInParts() {
+        // Arrange
+        when(s3.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+        when(s3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(inv -> UploadPartResponse.builder().eTag("etag-part-" + inv.<UploadPartRequest>getArgument(0).partNumber()).build());
+        when(s3.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().eTag(ETAG).build());
+
+        // Act
+        ObjectStat stat = storageService.upload(BUCKET, OBJECT_KEY, new ByteArrayInputStream(MULTIPART_CONTENT), CONTENT_TYPE);
+
+        // Assert
+        assertThat(stat.getSize()).isEqualTo(MULTIPART_CONTENT.length);
+        verify(s3, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    private static byte[] contentOf(RequestBody body) throws IOException {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
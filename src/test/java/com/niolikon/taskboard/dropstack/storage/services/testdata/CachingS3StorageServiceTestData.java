@@ -0,0 +1,33 @@
+package com.niolikon.taskboard.dropstack.storage.services.testdata;
+
+import com.niolikon.taskboard.dropstack.storage.model.ObjectContent;
+import com.niolikon.taskboard.dropstack.storage.model.ObjectStat;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+public class CachingS3StorageServiceTestData {
+    public static final String BUCKET = "bucket-test";
+    public static final String OBJECT_KEY = "obj-123";
+    public static final String OTHER_OBJECT_KEY = "obj-456";
+    public static final String THIRD_OBJECT_KEY = "obj-789";
+    public static final String ETAG = "\"etag-123\"";
+    public static final String OTHER_ETAG = "\"etag-456\"";
+    public static final String MIME_PDF = "application/pdf";
+
+    public static final byte[] CONTENT_BYTES = "hello-cached-doc".getBytes(StandardCharsets.UTF_8);
+    public static final long CONTENT_SIZE = CONTENT_BYTES.length;
+
+    // Room for two objects of CONTENT_SIZE, not three
+    public static final DataSize MAX_SIZE = DataSize.ofBytes(CONTENT_SIZE * 2 + 1);
+    public static final DataSize MAX_OBJECT_SIZE = DataSize.ofBytes(CONTENT_SIZE);
+
+    public static final DataSize HEAP_MAX_SIZE = DataSize.ofKilobytes(1);
+    public static final DataSize HEAP_MAX_OBJECT_SIZE = DataSize.ofBytes(CONTENT_SIZE);
+    public static final DataSize HEAP_MAX_OBJECT_SIZE_BELOW_CONTENT = DataSize.ofBytes(CONTENT_SIZE - 1);
+
+    public static ObjectContent objectContent_fromStorage(String etag) {
+        return new ObjectContent(new ByteArrayInputStream(CONTENT_BYTES), new ObjectStat(CONTENT_SIZE, etag, MIME_PDF, null));
+    }
+}
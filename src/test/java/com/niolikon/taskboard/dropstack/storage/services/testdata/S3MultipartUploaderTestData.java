@@ -0,0 +1,44 @@
+package com.niolikon.taskboard.dropstack.storage.services.testdata;
+
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+public class S3MultipartUploaderTestData {
+    public static final String BUCKET = "bucket-test";
+    public static final String OBJECT_KEY = "obj-123";
+    public static final String UPLOAD_ID = "upload-123";
+    public static final String ETAG = "\"etag-123\"";
+    public static final String MIME_PDF = "application/pdf";
+
+    public static final long PART_SIZE = 5L * 1024 * 1024;
+    public static final int PARALLELISM = 2;
+    public static final int PART_ATTEMPTS = 2;
+    // More threads than part slots, so that only the buffers can hold parts back
+    public static final int EXECUTOR_THREADS = 4;
+
+    public static final CreateMultipartUploadResponse created_upload = CreateMultipartUploadResponse.builder()
+            .uploadId(UPLOAD_ID)
+            .build();
+
+    public static final CompleteMultipartUploadResponse completed_upload = CompleteMultipartUploadResponse.builder()
+            .eTag(ETAG)
+            .build();
+
+    /**
+     * @return content spanning {@code fullParts} whole parts and one last part of a single byte
+     */
+    public static InputStream content_ofParts(int fullParts) {
+        return new ByteArrayInputStream(new byte[(int) (fullParts * PART_SIZE + 1)]);
+    }
+
+    public static UploadPartResponse partUploaded(UploadPartRequest partReq) {
+        return UploadPartResponse.builder()
+                .eTag("\"part-%d\"".formatted(partReq.partNumber()))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.niolikon.taskboard.dropstack.storage.services.testdata;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+public class S3ParallelDownloaderTestData {
+    public static final String BUCKET = "bucket-test";
+    public static final String OBJECT_KEY = "obj-123";
+    public static final String ETAG = "\"etag-123\"";
+    public static final String MIME_PDF = "application/pdf";
+
+    public static final long THRESHOLD = 10;
+    public static final long PART_SIZE = 4;
+    public static final int PARALLELISM = 2;
+    public static final int PART_ATTEMPTS = 2;
+
+    public static final byte[] SMALL_CONTENT = bytes(7);
+    public static final byte[] LARGE_CONTENT = bytes(31);
+
+    public static byte[] bytes(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    /**
+     * Serves the ranges of {@code content} the way the store does, Content-Range included.
+     */
+    public static ResponseInputStream<GetObjectResponse> rangeOf(byte[] content, GetObjectRequest getReq) {
+        String[] bounds = getReq.range().substring("bytes=".length()).split("-");
+        int firstByte = Integer.parseInt(bounds[0]);
+        int lastByte = Math.min(Integer.parseInt(bounds[1]), content.length - 1);
+        GetObjectResponse getRes = GetObjectResponse.builder()
+                .eTag(ETAG)
+                .contentType(MIME_PDF)
+                .contentLength((long) (lastByte - firstByte + 1))
+                .contentRange("bytes %d-%d/%d".formatted(firstByte, lastByte, content.length))
+                .build();
+        byte[] range = Arrays.copyOfRange(content, firstByte, lastByte + 1);
+        return new ResponseInputStream<>(getRes, AbortableInputStream.create(new ByteArrayInputStream(range)));
+    }
+}
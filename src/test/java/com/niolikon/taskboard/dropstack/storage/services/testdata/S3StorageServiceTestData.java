@@ -0,0 +1,33 @@
+package com.niolikon.taskboard.dropstack.storage.services.testdata;
+
+import org.springframework.util.unit.DataSize;
+
+import java.util.Random;
+
+public class S3StorageServiceTestData {
+
+    public static final String BUCKET = "bucket-test";
+    public static final String OBJECT_KEY = "obj-unknown-size";
+    public static final String UPLOAD_ID = "upload-1";
+    public static final String ETAG = "etag-object";
+    public static final String CONTENT_TYPE = "application/octet-stream";
+
+    public static final DataSize PART_SIZE = DataSize.ofMegabytes(5);
+    public static final DataSize MULTIPART_THRESHOLD = DataSize.ofMegabytes(16);
+    public static final DataSize TRANSFER_BUFFER_SIZE = DataSize.ofKilobytes(16);
+    public static final int TRANSFER_MAX_POOLED_BUFFERS = 4;
+    public static final int PARALLELISM = 2;
+    public static final int PART_ATTEMPTS = 1;
+    public static final int THREADS = 2;
+
+    public static final byte[] SMALL_CONTENT = contentOf(1024);
+    /** Larger than the first read, so the buffer grows, yet smaller than a part. */
+    public static final byte[] GROWING_CONTENT = contentOf((int) (PART_SIZE.toBytes() * 3 / 4));
+    public static final byte[] MULTIPART_CONTENT = contentOf((int) (PART_SIZE.toBytes() * 2 + 100));
+
+    private static byte[] contentOf(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
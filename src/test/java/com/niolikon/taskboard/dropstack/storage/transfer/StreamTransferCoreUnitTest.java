@@ -0,0 +1,87 @@
+package com.niolikon.taskboard.dropstack.storage.transfer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.niolikon.taskboard.dropstack.storage.transfer.testdata.StreamTransferTestData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamTransferCoreUnitTest {
+
+    private MeterRegistry meterRegistry;
+    private StreamTransfer streamTransfer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        streamTransfer = new StreamTransfer(meterRegistry, BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    }
+
+    @Test
+    void givenContentLargerThanBuffer_whenCopy_thenAllBytesAreCopiedAndCounted() throws IOException {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long copied = streamTransfer.copy(new ByteArrayInputStream(CONTENT_BYTES), out);
+
+        // Assert
+        assertThat(copied).isEqualTo(CONTENT_BYTES.length);
+        assertThat(out.toByteArray()).isEqualTo(CONTENT_BYTES);
+        assertThat(meterRegistry.get(StreamTransfer.METRIC_BYTES).counter().count()).isEqualTo(CONTENT_BYTES.length);
+        assertThat(meterRegistry.get(StreamTransfer.METRIC_BLOCKED).tag("side", "write").timer().count())
+                .isEqualTo((CONTENT_BYTES.length + 3) / 4);
+        assertThat(meterRegistry.get(StreamTransfer.METRIC_POOLED).gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void givenSeveralCopies_whenCopy_thenBufferIsReused() throws IOException {
+        // Act
+        streamTransfer.copy(new ByteArrayInputStream(CONTENT_BYTES), new ByteArrayOutputStream());
+        streamTransfer.copy(new ByteArrayInputStream(CONTENT_BYTES), new ByteArrayOutputStream());
+
+        // Assert
+        assertThat(meterRegistry.get(StreamTransfer.METRIC_POOLED).gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void givenChannelSource_whenCopy_thenChannelTransferIsUsed() throws IOException {
+        // Arrange
+        ChannelBackedStream in = new ChannelBackedStream(CONTENT_BYTES);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        streamTransfer.copy(in, out);
+
+        // Assert
+        assertThat(in.isTransferredByChannel()).isTrue();
+        assertThat(out.toByteArray()).isEqualTo(CONTENT_BYTES);
+        assertThat(meterRegistry.get(StreamTransfer.METRIC_BYTES).counter().count()).isEqualTo(CONTENT_BYTES.length);
+    }
+
+    @Test
+    void givenBufferedStream_whenReadInSmallReadsAndClosed_thenContentIsIntact_andBufferReturnsToPool() throws IOException {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InputStream buffered = streamTransfer.buffered(new ByteArrayInputStream(CONTENT_BYTES));
+
+        // Act
+        int b;
+        while ((b = buffered.read()) >= 0) {
+            out.write(b);
+        }
+        buffered.close();
+
+        // Assert
+        assertThat(out.toByteArray()).isEqualTo(CONTENT_BYTES);
+        assertThat(meterRegistry.get(StreamTransfer.METRIC_BYTES).counter().count()).isEqualTo(CONTENT_BYTES.length);
+        assertThat(meterRegistry.get(StreamTransfer.METRIC_POOLED).gauge().value()).isEqualTo(1.0);
+    }
+}
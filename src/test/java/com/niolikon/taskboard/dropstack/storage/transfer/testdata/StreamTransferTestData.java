@@ -0,0 +1,34 @@
+package com.niolikon.taskboard.dropstack.storage.transfer.testdata;
+
+import com.niolikon.taskboard.dropstack.storage.transfer.ChannelSource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class StreamTransferTestData {
+
+    public static final DataSize BUFFER_SIZE = DataSize.ofBytes(4);
+    public static final int MAX_POOLED_BUFFERS = 2;
+    public static final byte[] CONTENT_BYTES = "content copied in several reads".getBytes(StandardCharsets.UTF_8);
+
+    public static class ChannelBackedStream extends ByteArrayInputStream implements ChannelSource {
+        private boolean transferredByChannel;
+
+        public ChannelBackedStream(byte[] content) {
+            super(content);
+        }
+
+        @Override
+        public synchronized long transferTo(OutputStream out) throws IOException {
+            transferredByChannel = true;
+            return super.transferTo(out);
+        }
+
+        public boolean isTransferredByChannel() {
+            return transferredByChannel;
+        }
+    }
+}